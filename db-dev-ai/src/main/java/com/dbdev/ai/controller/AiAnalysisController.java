@@ -4,12 +4,17 @@ import com.dbdev.ai.model.AiAnalysisResult;
 import com.dbdev.ai.service.AiAnalysisService;
 import com.dbdev.core.model.TableMetadata;
 import com.dbdev.core.response.Result;
+import com.dbdev.core.service.DataSourceService;
+import com.dbdev.core.service.ForeignKeyGraph;
+import com.dbdev.core.service.MetadataService;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.web.bind.annotation.*;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -25,6 +30,12 @@ public class AiAnalysisController {
     @Autowired
     private AiAnalysisService aiAnalysisService;
 
+    @Autowired
+    private MetadataService metadataService;
+
+    @Autowired
+    private DataSourceService dataSourceService;
+
     /**
      * 检查AI功能是否可用
      */
@@ -87,16 +98,36 @@ public class AiAnalysisController {
      */
     @PostMapping("/analyze/table")
     public Result<AiAnalysisResult> analyzeTable(@RequestBody TableAnalysisRequest request) {
-        log.info("收到表结构分析请求: databaseType={}, 表数量={}",
-                request.getDatabaseType(), request.getTables().size());
+        List<TableMetadata> tables = request.getTables();
+        String databaseType = request.getDatabaseType();
+
+        // 未直接提交表结构时，按数据源与表名从元数据缓存读取
+        if ((tables == null || tables.isEmpty()) && request.getDataSourceName() != null
+                && request.getTableNames() != null && !request.getTableNames().isEmpty()) {
+            tables = new ArrayList<>();
+            try {
+                ForeignKeyGraph foreignKeyGraph = metadataService.getForeignKeyGraph(request.getDataSourceName());
+                for (String tableName : request.getTableNames()) {
+                    TableMetadata table = metadataService.getTableDetail(request.getDataSourceName(), tableName);
+                    table.setForeignKeys(foreignKeyGraph.getForeignKeys(tableName));
+                    tables.add(table);
+                }
+            } catch (SQLException e) {
+                return Result.error("读取表结构失败: " + e.getMessage());
+            }
+            if (databaseType == null) {
+                databaseType = dataSourceService.getDatabaseType(request.getDataSourceName());
+            }
+        }
 
-        if (request.getTables() == null || request.getTables().isEmpty()) {
+        if (tables == null || tables.isEmpty()) {
             return Result.error("表结构数据不能为空");
         }
+        log.info("收到表结构分析请求: databaseType={}, 表数量={}", databaseType, tables.size());
 
         AiAnalysisResult result = aiAnalysisService.analyzeTableStructure(
-                request.getTables(),
-                request.getDatabaseType() != null ? request.getDatabaseType() : "MySQL"
+                tables,
+                databaseType != null ? databaseType : "MySQL"
         );
 
         if (!result.isSuccess()) {
@@ -145,5 +176,11 @@ public class AiAnalysisController {
     public static class TableAnalysisRequest {
         private List<TableMetadata> tables;
         private String databaseType;
+
+        /**
+         * 未提交 tables 时，从该数据源读取 tableNames 对应的表结构
+         */
+        private String dataSourceName;
+        private List<String> tableNames;
     }
 }
@@ -246,6 +246,8 @@ public class DeepSeekAiAnalysisServiceImpl implements AiAnalysisService {
                 %s
                 ```
 
+                其中 statistics 为估算的行数、数据与索引大小（字节），请结合表的规模判断索引与性能问题。
+
                 请从以下方面进行分析：
                 1. 表结构设计是否合理
                 2. 字段类型选择是否恰当
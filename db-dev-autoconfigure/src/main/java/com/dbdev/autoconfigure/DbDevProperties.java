@@ -28,6 +28,16 @@ public class DbDevProperties {
      */
     private SqlConfig sql = new SqlConfig();
     
+    /**
+     * 元数据配置
+     */
+    private MetadataConfig metadata = new MetadataConfig();
+
+    /**
+     * 表结构导出配置
+     */
+    private ExportConfig export = new ExportConfig();
+
     /**
      * 安全配置
      */
@@ -36,7 +46,7 @@ public class DbDevProperties {
     @Data
     public static class SqlConfig {
         /**
-         * 只读模式
+         * 只读模式：仅允许 SELECT、SHOW、DESCRIBE、EXPLAIN，且禁止 SELECT ... INTO / FOR UPDATE
          */
         private boolean readOnly = true;
         
@@ -49,13 +59,364 @@ public class DbDevProperties {
          * 超时时间（秒）
          */
         private int timeout = 30;
-        
+
         /**
-         * 允许的 SQL 关键字
+         * 流式查询的 JDBC fetchSize（MySQL 固定使用逐行流式读取）
+         */
+        private int fetchSize = 500;
+
+        /**
+         * 流式查询最大返回行数，0 表示不限制
+         */
+        private int streamMaxRows = 100000;
+
+        /**
+         * 允许的 SQL 语句类型（按语句的首个关键字匹配）
          */
         private List<String> allowedKeywords = new ArrayList<>(List.of("SELECT", "SHOW", "DESCRIBE"));
+
+        /**
+         * SQL 校验结论缓存条数，0 表示不缓存
+         */
+        private int validationCacheSize = 1000;
+
+        /**
+         * 游标分页配置
+         */
+        private CursorConfig cursor = new CursorConfig();
+
+        /**
+         * 异步查询配置
+         */
+        private AsyncConfig async = new AsyncConfig();
+
+        /**
+         * 准入控制配置
+         */
+        private AdmissionConfig admission = new AdmissionConfig();
+
+        /**
+         * 相同查询合并配置
+         */
+        private DedupConfig dedup = new DedupConfig();
+
+        /**
+         * 查询结果缓存配置
+         */
+        private ResultCacheConfig resultCache = new ResultCacheConfig();
+
+        /**
+         * 大字段截断配置
+         */
+        private LobConfig lob = new LobConfig();
+    }
+
+    @Data
+    public static class CursorConfig {
+        /**
+         * 游标空闲超时时间（秒），超时的游标被关闭并归还连接
+         */
+        private int idleTimeout = 60;
+
+        /**
+         * 每个客户端（已登录时按用户名，否则按客户端地址）最多同时打开的游标数
+         */
+        private int maxPerUser = 3;
+
+        /**
+         * 每个数据源最多同时打开的游标数，每个游标独占一个连接，名额已满时拒绝打开新游标
+         */
+        private int maxPerDataSource = 8;
+
+        /**
+         * 空闲游标清理间隔（毫秒）
+         */
+        private long evictInterval = 30000;
+    }
+
+    @Data
+    public static class AsyncConfig {
+        /**
+         * 同时执行的异步查询数
+         */
+        private int poolSize = 4;
+
+        /**
+         * 等待执行的异步查询队列容量
+         */
+        private int queueCapacity = 16;
+
+        /**
+         * 是否使用虚拟线程（需要 JDK 21+，否则回退为平台线程池）
+         */
+        private boolean virtualThreads = false;
+
+        /**
+         * 已结束任务的结果保留时间（秒）
+         */
+        private int resultTtl = 600;
+
+        /**
+         * 长轮询等待任务结束的最长时间（毫秒），请求的 timeout 超过时按此值等待
+         */
+        private long maxWaitTimeout = 60000;
+
+        /**
+         * 过期任务清理间隔（毫秒）
+         */
+        private long evictInterval = 60000;
+    }
+
+    @Data
+    public static class AdmissionConfig {
+        /**
+         * 是否启用准入控制
+         */
+        private boolean enabled = true;
+
+        /**
+         * 每个数据源同时执行的控制台查询数，打开游标时只在执行查询和读取第一页期间计入
+         */
+        private int maxConcurrent = 4;
+
+        /**
+         * 每个数据源最多排队等待的查询数
+         */
+        private int maxWaiting = 8;
+
+        /**
+         * 排队等待超时时间（毫秒）
+         */
+        private long waitTimeout = 5000;
+
+        /**
+         * 连接池使用率阈值（百分比），超过后拒绝新的控制台查询，0 或 100 表示不检查
+         */
+        private double maxPoolUsage = 80;
+    }
+
+    @Data
+    public static class DedupConfig {
+        /**
+         * 是否合并同时进行的相同查询
+         */
+        private boolean enabled = true;
+    }
+
+    @Data
+    public static class ResultCacheConfig {
+        /**
+         * 结果缓存时间（毫秒），0 表示不缓存
+         */
+        private long ttl = 0;
+
+        /**
+         * 最多缓存的结果数
+         */
+        private int maxEntries = 100;
     }
     
+    @Data
+    public static class LobConfig {
+        /**
+         * 大字段（CLOB、BLOB、LONGVARCHAR 等 JDBC 类型）内联返回的最大字符数（二进制为字节数），超出部分通过句柄获取，0 表示不截断；
+         * 流式查询不截断
+         */
+        private int inlineLimit = 4096;
+
+        /**
+         * 单个大字段最多暂存的长度，超出时句柄只返回前 max-size 部分
+         */
+        private long maxSize = 64L * 1024 * 1024;
+
+        /**
+         * 所有暂存大字段的总长度上限，超出时淘汰最早暂存的内容，0 表示不限制
+         */
+        private long maxTotalSize = 512L * 1024 * 1024;
+
+        /**
+         * 大字段暂存保留时间（秒）
+         */
+        private int ttl = 600;
+
+        /**
+         * 过期暂存清理间隔（毫秒）
+         */
+        private long evictInterval = 60000;
+    }
+
+    @Data
+    public static class MetadataConfig {
+        /**
+         * 分页获取表列表时每页的最大条数
+         */
+        private int maxPageSize = 500;
+
+        /**
+         * 逐表抓取元数据配置（无法批量读取目录时使用）
+         */
+        private CrawlerConfig crawler = new CrawlerConfig();
+
+        /**
+         * 元数据缓存配置
+         */
+        private MetadataCacheConfig cache = new MetadataCacheConfig();
+
+        /**
+         * 结构指纹配置
+         */
+        private FingerprintConfig fingerprint = new FingerprintConfig();
+
+        /**
+         * 元数据快照配置
+         */
+        private SnapshotConfig snapshot = new SnapshotConfig();
+
+        /**
+         * 元数据搜索配置
+         */
+        private SearchConfig search = new SearchConfig();
+
+        /**
+         * 表统计信息配置
+         */
+        private StatisticsConfig statistics = new StatisticsConfig();
+    }
+
+    @Data
+    public static class CrawlerConfig {
+        /**
+         * 并行抓取使用的最大连接数
+         */
+        private int parallelism = 4;
+
+        /**
+         * 最多占用连接池容量的比例
+         */
+        private double maxPoolFraction = 0.25;
+    }
+
+    @Data
+    public static class MetadataCacheConfig {
+        /**
+         * 元数据缓存时间（秒），0 表示不缓存
+         */
+        private long ttl = 600;
+
+        /**
+         * 最多缓存的条目数（每张表的详情、表列表各占一条）
+         */
+        private int maxEntries = 10000;
+
+        /**
+         * 过期条目清理间隔（毫秒）
+         */
+        private long evictInterval = 60000;
+    }
+
+    @Data
+    public static class FingerprintConfig {
+        /**
+         * 是否计算结构指纹（用于变化检测与 ETag）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 结构变化检查间隔（毫秒）
+         */
+        private long checkInterval = 60000;
+    }
+
+    @Data
+    public static class SnapshotConfig {
+        /**
+         * 是否将元数据快照保存到磁盘，启动时读取快照预热缓存
+         */
+        private boolean enabled = true;
+
+        /**
+         * 快照目录，结构对比的基线保存在其 baselines 子目录
+         */
+        private String dir = System.getProperty("user.home") + "/.db-dev/snapshots";
+    }
+
+    @Data
+    public static class SearchConfig {
+        /**
+         * 单次搜索最多返回的结果数
+         */
+        private int maxResults = 100;
+    }
+
+    @Data
+    public static class StatisticsConfig {
+        /**
+         * 是否采集表统计信息（估算行数、数据与索引大小）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 刷新间隔（毫秒）
+         */
+        private long refreshInterval = 300000;
+    }
+
+    @Data
+    public static class ExportConfig {
+        /**
+         * 异步导出结果目录，文件按数据源、结构指纹与格式命名，结构未变化时直接复用
+         */
+        private String dir = System.getProperty("user.home") + "/.db-dev/exports";
+
+        /**
+         * 异步导出线程数
+         */
+        private int poolSize = 2;
+
+        /**
+         * 等待执行的任务队列容量
+         */
+        private int queueCapacity = 16;
+
+        /**
+         * 任务结束后保留时间（秒）
+         */
+        private int jobTtl = 600;
+
+        /**
+         * 最多保留的导出结果文件数，超出时删除最久未使用的文件
+         */
+        private int maxCachedFiles = 50;
+
+        /**
+         * 长轮询等待导出结束的最长时间（毫秒），请求的 timeout 超过时按此值等待
+         */
+        private long maxWaitTimeout = 60000;
+
+        /**
+         * 过期任务与文件清理间隔（毫秒）
+         */
+        private long evictInterval = 60000;
+
+        /**
+         * PDF 导出配置
+         */
+        private PdfConfig pdf = new PdfConfig();
+    }
+
+    @Data
+    public static class PdfConfig {
+        /**
+         * 并行渲染表章节的线程数
+         */
+        private int parallelism = 4;
+
+        /**
+         * 嵌入 PDF 的字体文件路径（TTF/TTC），导出中文时需指定含中文字形的字体，为空时使用 PDF 内置字体
+         */
+        private String font;
+    }
+
     @Data
     public static class SecurityConfig {
         /**
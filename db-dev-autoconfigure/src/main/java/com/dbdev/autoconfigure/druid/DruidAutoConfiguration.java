@@ -13,7 +13,8 @@ import javax.sql.DataSource;
 
 /**
  * Druid 数据源自动配置
- * 当检测到项目使用 Druid 时自动启用
+ * 核心模块依赖 Druid SQL 解析器，DruidDataSource 总在类路径上，是否为 Druid 数据源由
+ * {@link DruidDataSourceProvider#isDruidDataSource()} 判断
  */
 @Slf4j
 @AutoConfiguration
@@ -22,15 +23,15 @@ import javax.sql.DataSource;
 @ConditionalOnProperty(prefix = "db.dev", name = "enabled", havingValue = "true")
 public class DruidAutoConfiguration {
 
-    public DruidAutoConfiguration() {
-        log.info("========================================");
-        log.info("DB Dev: Druid DataSource Detected!");
-        log.info("Druid monitoring features enabled");
-        log.info("========================================");
-    }
-
     @Bean
     public DruidDataSourceProvider druidDataSourceProvider(DataSource dataSource) {
-        return new DruidDataSourceProvider(dataSource);
+        DruidDataSourceProvider provider = new DruidDataSourceProvider(dataSource);
+        if (provider.isDruidDataSource()) {
+            log.info("========================================");
+            log.info("DB Dev: Druid DataSource Detected!");
+            log.info("Druid monitoring features enabled");
+            log.info("========================================");
+        }
+        return provider;
     }
 }
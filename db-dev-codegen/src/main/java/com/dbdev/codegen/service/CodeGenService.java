@@ -66,7 +66,7 @@ public class CodeGenService {
             throw new IllegalArgumentException("数据源不存在: " + config.getDataSourceName());
         }
 
-        TableMetadata table = metadataService.getTableDetail(dataSource, config.getTableName());
+        TableMetadata table = metadataService.getTableDetail(config.getDataSourceName(), config.getTableName());
         if (table == null) {
             throw new IllegalArgumentException("表不存在: " + config.getTableName());
         }
@@ -9,7 +9,7 @@ import java.util.List;
  * 数据库元数据
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class DatabaseMetadata {
     
     /**
@@ -0,0 +1,39 @@
+package com.dbdev.core.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 外键元数据
+ */
+@Data
+@Builder
+public class ForeignKeyMetadata {
+
+    /**
+     * 外键名称
+     */
+    private String foreignKeyName;
+
+    /**
+     * 外键所在的表
+     */
+    private String tableName;
+
+    /**
+     * 外键字段，按约束中的顺序
+     */
+    private List<String> columnNames;
+
+    /**
+     * 被引用的表
+     */
+    private String referencedTableName;
+
+    /**
+     * 被引用的字段，与 columnNames 一一对应
+     */
+    private List<String> referencedColumnNames;
+}
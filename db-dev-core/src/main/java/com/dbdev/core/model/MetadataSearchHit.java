@@ -0,0 +1,37 @@
+package com.dbdev.core.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 元数据搜索结果
+ */
+@Data
+@Builder
+public class MetadataSearchHit {
+
+    /**
+     * 命中类型：table 或 column
+     */
+    private String type;
+
+    /**
+     * 表名
+     */
+    private String tableName;
+
+    /**
+     * 字段名，命中表时为 null
+     */
+    private String columnName;
+
+    /**
+     * 注释
+     */
+    private String remarks;
+
+    /**
+     * 相关度得分，越大越相关
+     */
+    private double score;
+}
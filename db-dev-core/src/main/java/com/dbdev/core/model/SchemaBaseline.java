@@ -0,0 +1,32 @@
+package com.dbdev.core.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 已保存的结构基线
+ */
+@Data
+@Builder
+public class SchemaBaseline {
+
+    /**
+     * 基线名称
+     */
+    private String name;
+
+    /**
+     * 保存时的数据源
+     */
+    private String dataSourceName;
+
+    /**
+     * 保存时的结构指纹
+     */
+    private String fingerprint;
+
+    /**
+     * 保存时间（毫秒时间戳）
+     */
+    private long savedAt;
+}
@@ -0,0 +1,225 @@
+package com.dbdev.core.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 两份表结构的差异：源端为期望的结构，目标端为待迁移的结构
+ * <p>
+ * 索引差异单独列出并排在最前，迁移 DDL 使目标端与源端一致
+ */
+@Data
+@Builder
+public class SchemaDiff {
+
+    /**
+     * 源端（数据源名称，或 baseline:名称）
+     */
+    private String source;
+
+    /**
+     * 目标端（数据源名称，或 baseline:名称）
+     */
+    private String target;
+
+    /**
+     * 迁移 DDL 的方言
+     */
+    private String dialect;
+
+    /**
+     * 源端表数量
+     */
+    private int sourceTables;
+
+    /**
+     * 目标端表数量
+     */
+    private int targetTables;
+
+    /**
+     * 两端都存在且结构哈希相同的表数量
+     */
+    private int unchangedTables;
+
+    /**
+     * 索引差异，按表名排序
+     */
+    private List<IndexDiff> indexChanges;
+
+    /**
+     * 仅源端存在的表（目标端缺少）
+     */
+    private List<String> missingTables;
+
+    /**
+     * 仅目标端存在的表
+     */
+    private List<String> extraTables;
+
+    /**
+     * 两端都存在、字段、注释或主键不同的表
+     */
+    private List<TableDiff> changedTables;
+
+    /**
+     * 使目标端与源端一致的迁移语句（已带结尾分隔符），按执行顺序：删除变化与多出的索引、建表、增改字段、
+     * 创建索引、删除多出的表与字段
+     */
+    private List<String> migration;
+
+    /**
+     * 无法自动生成迁移语句、需手工处理的差异，以及哈希碰撞等提示
+     */
+    private List<String> warnings;
+
+    /**
+     * 差异类型，相对目标端而言
+     */
+    public enum ChangeType {
+        /**
+         * 目标端缺少
+         */
+        MISSING,
+        /**
+         * 目标端多出
+         */
+        EXTRA,
+        /**
+         * 两端都存在但定义不同
+         */
+        CHANGED
+    }
+
+    /**
+     * 字段中参与比较的属性
+     */
+    public enum ColumnAttribute {
+        TYPE,
+        NULLABLE,
+        DEFAULT,
+        AUTO_INCREMENT,
+        REMARKS
+    }
+
+    /**
+     * 索引差异
+     */
+    @Data
+    @Builder
+    public static class IndexDiff {
+
+        /**
+         * 表名
+         */
+        private String tableName;
+
+        /**
+         * 索引名称
+         */
+        private String indexName;
+
+        /**
+         * 差异类型
+         */
+        private ChangeType type;
+
+        /**
+         * 源端的索引字段（EXTRA 时为 null）
+         */
+        private List<String> columns;
+
+        /**
+         * 源端是否唯一索引
+         */
+        private boolean unique;
+
+        /**
+         * 目标端的索引字段（MISSING 时为 null）
+         */
+        private List<String> targetColumns;
+
+        /**
+         * 目标端是否唯一索引
+         */
+        private boolean targetUnique;
+
+        /**
+         * 目标端缺少的非唯一索引被已有索引的最左前缀覆盖时，覆盖它的索引名称
+         */
+        private String coveredBy;
+    }
+
+    /**
+     * 表差异（索引差异见 {@link SchemaDiff#getIndexChanges()}）
+     */
+    @Data
+    @Builder
+    public static class TableDiff {
+
+        /**
+         * 表名
+         */
+        private String tableName;
+
+        /**
+         * 字段差异
+         */
+        private List<ColumnDiff> columns;
+
+        /**
+         * 表注释不同时为源端注释
+         */
+        private String remarks;
+
+        /**
+         * 表注释不同时为目标端注释
+         */
+        private String targetRemarks;
+
+        /**
+         * 主键不同时为源端主键
+         */
+        private List<String> primaryKeys;
+
+        /**
+         * 主键不同时为目标端主键
+         */
+        private List<String> targetPrimaryKeys;
+    }
+
+    /**
+     * 字段差异
+     */
+    @Data
+    @Builder
+    public static class ColumnDiff {
+
+        /**
+         * 字段名
+         */
+        private String columnName;
+
+        /**
+         * 差异类型
+         */
+        private ChangeType type;
+
+        /**
+         * CHANGED 时不同的属性
+         */
+        private List<ColumnAttribute> changes;
+
+        /**
+         * 源端字段（EXTRA 时为 null）
+         */
+        private ColumnMetadata column;
+
+        /**
+         * 目标端字段（MISSING 时为 null）
+         */
+        private ColumnMetadata targetColumn;
+    }
+}
@@ -2,6 +2,7 @@ package com.dbdev.core.model;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 import java.util.List;
 
@@ -9,7 +10,7 @@ import java.util.List;
  * 表元数据
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class TableMetadata {
     
     /**
@@ -41,4 +42,16 @@ public class TableMetadata {
      * 主键列表
      */
     private List<String> primaryKeys;
+    
+    /**
+     * 该表引用其他表的外键，仅在需要关系信息的场景（如 AI 分析）中填充，不参与 equals
+     */
+    @EqualsAndHashCode.Exclude
+    private List<ForeignKeyMetadata> foreignKeys;
+    
+    /**
+     * 统计信息（行数、数据与索引大小），不属于表结构，不参与 equals
+     */
+    @EqualsAndHashCode.Exclude
+    private TableStatistics statistics;
 }
@@ -0,0 +1,34 @@
+package com.dbdev.core.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 表列表分页结果
+ */
+@Data
+@Builder
+public class TablePage {
+
+    /**
+     * 当前页的表（不含字段与索引）
+     */
+    private List<TableMetadata> tables;
+
+    /**
+     * 符合条件的表总数
+     */
+    private long total;
+
+    /**
+     * 页码，从 1 开始
+     */
+    private int page;
+
+    /**
+     * 每页条数
+     */
+    private int pageSize;
+}
@@ -0,0 +1,44 @@
+package com.dbdev.core.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 表列表分页查询条件
+ */
+@Data
+@Builder
+public class TableQuery {
+
+    /**
+     * 表名过滤，不区分大小写；含 * 或 ? 时按通配符匹配，否则按前缀匹配
+     */
+    private String name;
+
+    /**
+     * 表类型过滤（如 TABLE、VIEW），为空时不过滤
+     */
+    private List<String> types;
+
+    /**
+     * 排序字段：name 或 type
+     */
+    private String sortBy;
+
+    /**
+     * 是否倒序
+     */
+    private boolean descending;
+
+    /**
+     * 页码，从 1 开始
+     */
+    private int page;
+
+    /**
+     * 每页条数
+     */
+    private int pageSize;
+}
@@ -0,0 +1,29 @@
+package com.dbdev.core.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 单表的外键关系
+ */
+@Data
+@Builder
+public class TableRelations {
+
+    /**
+     * 表名
+     */
+    private String tableName;
+
+    /**
+     * 该表引用其他表的外键
+     */
+    private List<ForeignKeyMetadata> foreignKeys;
+
+    /**
+     * 其他表引用该表的外键
+     */
+    private List<ForeignKeyMetadata> referencedBy;
+}
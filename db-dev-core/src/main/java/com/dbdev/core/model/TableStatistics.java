@@ -0,0 +1,47 @@
+package com.dbdev.core.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 表统计信息（取自数据库目录的估算值，数据库不提供的项为 null）
+ */
+@Data
+@Builder
+public class TableStatistics {
+
+    /**
+     * 估算行数
+     */
+    private Long rowCount;
+
+    /**
+     * 数据大小（字节）
+     */
+    private Long dataLength;
+
+    /**
+     * 索引大小（字节）
+     */
+    private Long indexLength;
+
+    /**
+     * 已分配但未使用的空间（字节），MySQL 的 DATA_FREE
+     */
+    private Long freeLength;
+
+    /**
+     * 未清理的死元组数，PostgreSQL 的 n_dead_tup
+     */
+    private Long deadRows;
+
+    /**
+     * 最近一次分析时间（毫秒时间戳）
+     */
+    private Long lastAnalyzed;
+
+    /**
+     * 采集时间（毫秒时间戳）
+     */
+    private long collectedAt;
+}
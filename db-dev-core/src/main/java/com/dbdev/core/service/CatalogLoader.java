@@ -0,0 +1,794 @@
+package com.dbdev.core.service;
+
+import com.dbdev.core.model.ColumnMetadata;
+import com.dbdev.core.model.ForeignKeyMetadata;
+import com.dbdev.core.model.IndexMetadata;
+import com.dbdev.core.model.TableMetadata;
+import com.dbdev.core.model.TablePage;
+import com.dbdev.core.model.TableQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * 数据库目录加载器
+ * <p>
+ * MySQL、PostgreSQL、H2 通过 information_schema（PostgreSQL 索引使用 pg_catalog）按库批量读取表、字段、索引与主键，
+ * 每类信息一条查询，在内存中按表分组，避免逐表调用 DatabaseMetaData 造成的 N+1 往返。
+ * 其他数据库或批量查询失败时回退为 DatabaseMetaData 逐表读取，由 {@link MetadataCrawler} 分摊到多个连接并行执行。
+ * 外键同样一条查询读取全部，回退时逐表调用 getImportedKeys。
+ */
+@Slf4j
+@Component
+public class CatalogLoader {
+
+    private static final String TABLE = "TABLE";
+
+    private final MetadataCrawler metadataCrawler;
+
+    /**
+     * 各方言的批量查询，结果列统一命名以便共用分组逻辑
+     */
+    private static final Map<String, CatalogQueries> DIALECTS = Map.of(
+            "mysql", CatalogQueries.mysql(),
+            "postgresql", CatalogQueries.postgresql(),
+            "h2", CatalogQueries.h2());
+
+    /**
+     * 常见类型名到 java.sql.Types 的映射，用于填充批量读取结果的 dataType
+     */
+    private static final Map<String, JDBCType> TYPE_ALIASES = Map.ofEntries(
+            Map.entry("INT", JDBCType.INTEGER),
+            Map.entry("INT2", JDBCType.SMALLINT),
+            Map.entry("INT4", JDBCType.INTEGER),
+            Map.entry("INT8", JDBCType.BIGINT),
+            Map.entry("SERIAL", JDBCType.INTEGER),
+            Map.entry("BIGSERIAL", JDBCType.BIGINT),
+            Map.entry("SMALLSERIAL", JDBCType.SMALLINT),
+            Map.entry("MEDIUMINT", JDBCType.INTEGER),
+            Map.entry("FLOAT4", JDBCType.REAL),
+            Map.entry("FLOAT8", JDBCType.DOUBLE),
+            Map.entry("DOUBLE PRECISION", JDBCType.DOUBLE),
+            Map.entry("DECFLOAT", JDBCType.DECIMAL),
+            Map.entry("BOOL", JDBCType.BOOLEAN),
+            Map.entry("CHARACTER", JDBCType.CHAR),
+            Map.entry("BPCHAR", JDBCType.CHAR),
+            Map.entry("CHARACTER VARYING", JDBCType.VARCHAR),
+            Map.entry("TINYTEXT", JDBCType.VARCHAR),
+            Map.entry("TEXT", JDBCType.LONGVARCHAR),
+            Map.entry("MEDIUMTEXT", JDBCType.LONGVARCHAR),
+            Map.entry("LONGTEXT", JDBCType.LONGVARCHAR),
+            Map.entry("CHARACTER LARGE OBJECT", JDBCType.CLOB),
+            Map.entry("BINARY VARYING", JDBCType.VARBINARY),
+            Map.entry("BINARY LARGE OBJECT", JDBCType.BLOB),
+            Map.entry("TINYBLOB", JDBCType.VARBINARY),
+            Map.entry("MEDIUMBLOB", JDBCType.LONGVARBINARY),
+            Map.entry("LONGBLOB", JDBCType.LONGVARBINARY),
+            Map.entry("BYTEA", JDBCType.BINARY),
+            Map.entry("DATETIME", JDBCType.TIMESTAMP),
+            Map.entry("TIMESTAMPTZ", JDBCType.TIMESTAMP_WITH_TIMEZONE),
+            Map.entry("TIMESTAMP WITH TIME ZONE", JDBCType.TIMESTAMP_WITH_TIMEZONE),
+            Map.entry("TIMETZ", JDBCType.TIME_WITH_TIMEZONE),
+            Map.entry("TIME WITH TIME ZONE", JDBCType.TIME_WITH_TIMEZONE),
+            Map.entry("YEAR", JDBCType.DATE));
+
+    public CatalogLoader(MetadataCrawler metadataCrawler) {
+        this.metadataCrawler = metadataCrawler;
+    }
+
+    /**
+     * 读取表列表（全部类型，不含字段与索引）
+     */
+    public List<TableMetadata> loadTables(Connection connection) throws SQLException {
+        CatalogQueries queries = dialectOf(connection);
+        if (queries != null) {
+            try {
+                return new ArrayList<>(readTables(connection, queries, false).values());
+            } catch (SQLException e) {
+                recover(connection, e);
+            }
+        }
+        return readTables(connection.getMetaData(), connection.getCatalog(), null);
+    }
+
+    /**
+     * 分页读取表列表
+     * <p>
+     * 批量查询可用时名称、类型过滤、排序与分页都在 information_schema 查询中完成；
+     * 回退时类型过滤交给 DatabaseMetaData.getTables，其余在内存中处理。
+     *
+     * @param query 查询条件，page、pageSize 须已规范为正数
+     */
+    public TablePage loadTablePage(Connection connection, TableQuery query) throws SQLException {
+        CatalogQueries queries = dialectOf(connection);
+        if (queries != null) {
+            try {
+                return readTablePage(connection, queries, query);
+            } catch (SQLException e) {
+                recover(connection, e);
+            }
+        }
+
+        List<String> types = query.getTypes();
+        List<TableMetadata> tables = readTables(connection.getMetaData(), connection.getCatalog(),
+                types == null || types.isEmpty() ? null : types.toArray(new String[0]));
+        if (query.getName() != null && !query.getName().isEmpty()) {
+            tables.removeIf(nameMatcher(query.getName()).negate());
+        }
+        Comparator<TableMetadata> order = Comparator.comparing(TableMetadata::getTableName,
+                String.CASE_INSENSITIVE_ORDER);
+        if ("type".equalsIgnoreCase(query.getSortBy())) {
+            order = Comparator.comparing((TableMetadata table) -> String.valueOf(table.getTableType()))
+                    .thenComparing(order);
+        }
+        tables.sort(query.isDescending() ? order.reversed() : order);
+
+        int from = (int) Math.min((long) (query.getPage() - 1) * query.getPageSize(), tables.size());
+        int to = Math.min(from + query.getPageSize(), tables.size());
+        return TablePage.builder()
+                .tables(new ArrayList<>(tables.subList(from, to)))
+                .total(tables.size())
+                .page(query.getPage())
+                .pageSize(query.getPageSize())
+                .build();
+    }
+
+    /**
+     * 读取全部 TABLE 类型的表及其字段、索引与主键
+     *
+     * @param dataSourceName 数据源名称，回退为逐表读取时用于获取额外连接
+     * @param connection 已打开的连接
+     * @param progress 进度回调
+     */
+    public List<TableMetadata> loadTablesWithDetails(String dataSourceName, Connection connection,
+                                                     MetadataCrawler.Progress progress) throws SQLException {
+        CatalogQueries queries = dialectOf(connection);
+        if (queries != null) {
+            try {
+                List<TableMetadata> tables = loadBulk(connection, queries);
+                for (int i = 0; i < tables.size(); i++) {
+                    progress.onTable(i + 1, tables.size(), tables.get(i).getTableName());
+                }
+                return tables;
+            } catch (SQLException e) {
+                recover(connection, e);
+            }
+        }
+
+        List<TableMetadata> tables = readTables(connection.getMetaData(), connection.getCatalog(),
+                new String[] { TABLE });
+        metadataCrawler.crawl(dataSourceName, connection, tables,
+                (workerConnection, table) -> fillTableDetail(workerConnection.getMetaData(),
+                        workerConnection.getCatalog(), table),
+                progress);
+        return tables;
+    }
+
+    /**
+     * 读取全部外键，顺序为表、外键名、字段序号
+     *
+     * @param dataSourceName 数据源名称，回退为逐表读取时用于获取额外连接
+     */
+    public List<ForeignKeyMetadata> loadForeignKeys(String dataSourceName, Connection connection)
+            throws SQLException {
+        CatalogQueries queries = dialectOf(connection);
+        if (queries != null) {
+            try {
+                return readForeignKeys(connection, queries);
+            } catch (SQLException e) {
+                recover(connection, e);
+            }
+        }
+
+        List<TableMetadata> tables = readTables(connection.getMetaData(), connection.getCatalog(),
+                new String[] { TABLE });
+        Map<String, List<ForeignKeyMetadata>> importedKeys = new ConcurrentHashMap<>();
+        metadataCrawler.crawl(dataSourceName, connection, tables,
+                (workerConnection, table) -> importedKeys.put(table.getTableName(),
+                        readImportedKeys(workerConnection.getMetaData(), workerConnection.getCatalog(),
+                                table.getTableName())),
+                MetadataCrawler.Progress.NONE);
+
+        List<ForeignKeyMetadata> foreignKeys = new ArrayList<>();
+        for (TableMetadata table : tables) {
+            foreignKeys.addAll(importedKeys.getOrDefault(table.getTableName(), List.of()));
+        }
+        return foreignKeys;
+    }
+
+    /**
+     * 通过 DatabaseMetaData 读取单表的字段、索引与主键
+     */
+    public TableMetadata loadTableDetail(Connection connection, String tableName) throws SQLException {
+        TableMetadata table = TableMetadata.builder()
+                .tableName(tableName)
+                .build();
+        fillTableDetail(connection.getMetaData(), connection.getCatalog(), table);
+        return table;
+    }
+
+    private CatalogQueries dialectOf(Connection connection) throws SQLException {
+        String databaseType = DataSourceService.resolveDatabaseType(
+                connection.getMetaData().getDatabaseProductName());
+        return DIALECTS.get(databaseType);
+    }
+
+    /**
+     * 批量查询失败后回退前，回滚非自动提交连接上已中止的事务（PostgreSQL 否则无法继续执行）
+     */
+    private void recover(Connection connection, SQLException cause) throws SQLException {
+        log.warn("Bulk catalog query failed, falling back to DatabaseMetaData: {}", cause.getMessage());
+        if (!connection.getAutoCommit()) {
+            connection.rollback();
+        }
+    }
+
+    // ==================== 批量读取 ====================
+
+    private List<TableMetadata> loadBulk(Connection connection, CatalogQueries queries) throws SQLException {
+        Map<String, TableMetadata> tables = readTables(connection, queries, true);
+        if (tables.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery(queries.columns)) {
+                while (rs.next()) {
+                    TableMetadata table = tables.get(tableKey(rs));
+                    if (table != null) {
+                        table.getColumns().add(readBulkColumn(rs));
+                    }
+                }
+            }
+
+            try (ResultSet rs = statement.executeQuery(queries.indexes)) {
+                while (rs.next()) {
+                    TableMetadata table = tables.get(tableKey(rs));
+                    String indexName = rs.getString("INDEX_NAME");
+                    if (table != null && indexName != null) {
+                        table.getIndexes().add(IndexMetadata.builder()
+                                .indexName(indexName)
+                                .columnName(rs.getString("COLUMN_NAME"))
+                                .unique(!rs.getBoolean("NON_UNIQUE"))
+                                .type(String.valueOf(rs.getShort("TYPE")))
+                                .build());
+                    }
+                }
+            }
+
+            try (ResultSet rs = statement.executeQuery(queries.primaryKeys)) {
+                while (rs.next()) {
+                    TableMetadata table = tables.get(tableKey(rs));
+                    if (table != null) {
+                        table.getPrimaryKeys().add(rs.getString("COLUMN_NAME"));
+                    }
+                }
+            }
+        }
+
+        for (TableMetadata table : tables.values()) {
+            markPrimaryKeys(table);
+        }
+        return new ArrayList<>(tables.values());
+    }
+
+    /**
+     * 读取表列表，键为 schema.table，保持查询顺序
+     *
+     * @param tablesOnly 仅保留 TABLE 类型，并为字段、索引、主键预置空列表
+     */
+    private Map<String, TableMetadata> readTables(Connection connection, CatalogQueries queries, boolean tablesOnly)
+            throws SQLException {
+        Map<String, TableMetadata> tables = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(queries.tables)) {
+            while (rs.next()) {
+                String tableType = rs.getString("TABLE_TYPE");
+                if (tablesOnly && !TABLE.equals(tableType)) {
+                    continue;
+                }
+                TableMetadata table = TableMetadata.builder()
+                        .tableName(rs.getString("TABLE_NAME"))
+                        .tableType(tableType)
+                        .remarks(rs.getString("REMARKS"))
+                        .build();
+                if (tablesOnly) {
+                    table.setColumns(new ArrayList<>());
+                    table.setIndexes(new ArrayList<>());
+                    table.setPrimaryKeys(new ArrayList<>());
+                }
+                tables.put(tableKey(rs), table);
+            }
+        }
+        return tables;
+    }
+
+    private TablePage readTablePage(Connection connection, CatalogQueries queries, TableQuery query)
+            throws SQLException {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        List<String> params = new ArrayList<>();
+        if (query.getName() != null && !query.getName().isEmpty()) {
+            where.append(" AND UPPER(TABLE_NAME) LIKE ? ESCAPE '!'");
+            params.add(likePattern(query.getName()).toUpperCase(Locale.ROOT));
+        }
+        if (query.getTypes() != null && !query.getTypes().isEmpty()) {
+            where.append(" AND TABLE_TYPE IN (")
+                    .append(String.join(", ", Collections.nCopies(query.getTypes().size(), "?")))
+                    .append(')');
+            for (String type : query.getTypes()) {
+                params.add(type.toUpperCase(Locale.ROOT));
+            }
+        }
+        String from = " FROM (" + queries.tableSelect + ") t" + where;
+        String direction = query.isDescending() ? " DESC" : "";
+        String orderBy = "type".equalsIgnoreCase(query.getSortBy())
+                ? " ORDER BY TABLE_TYPE" + direction + ", TABLE_NAME" + direction
+                : " ORDER BY TABLE_NAME" + direction + ", TABLE_SCHEMA" + direction;
+
+        long total;
+        try (PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*)" + from)) {
+            bind(statement, params);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                total = rs.getLong(1);
+            }
+        }
+
+        List<TableMetadata> tables = new ArrayList<>();
+        String sql = "SELECT TABLE_SCHEMA, TABLE_NAME, TABLE_TYPE, REMARKS" + from + orderBy + " LIMIT ? OFFSET ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, params);
+            statement.setInt(params.size() + 1, query.getPageSize());
+            statement.setLong(params.size() + 2, (long) (query.getPage() - 1) * query.getPageSize());
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    tables.add(TableMetadata.builder()
+                            .tableName(rs.getString("TABLE_NAME"))
+                            .tableType(rs.getString("TABLE_TYPE"))
+                            .remarks(rs.getString("REMARKS"))
+                            .build());
+                }
+            }
+        }
+
+        return TablePage.builder()
+                .tables(tables)
+                .total(total)
+                .page(query.getPage())
+                .pageSize(query.getPageSize())
+                .build();
+    }
+
+    private static void bind(PreparedStatement statement, List<String> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            statement.setString(i + 1, params.get(i));
+        }
+    }
+
+    /**
+     * 表名过滤转换为以 ! 转义的 LIKE 模式：含 * 或 ? 时按通配符转换，否则为前缀匹配
+     */
+    static String likePattern(String name) {
+        boolean wildcard = isWildcard(name);
+        StringBuilder pattern = new StringBuilder(name.length() + 2);
+        for (char c : name.toCharArray()) {
+            if (c == '!' || c == '%' || c == '_') {
+                pattern.append('!').append(c);
+            } else if (wildcard && c == '*') {
+                pattern.append('%');
+            } else if (wildcard && c == '?') {
+                pattern.append('_');
+            } else {
+                pattern.append(c);
+            }
+        }
+        if (!wildcard) {
+            pattern.append('%');
+        }
+        return pattern.toString();
+    }
+
+    /**
+     * 与 {@link #likePattern(String)} 语义一致的内存匹配，不区分大小写
+     */
+    private static Predicate<TableMetadata> nameMatcher(String name) {
+        if (!isWildcard(name)) {
+            return table -> table.getTableName().regionMatches(true, 0, name, 0, name.length());
+        }
+        StringBuilder regex = new StringBuilder();
+        for (char c : name.toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        Pattern pattern = Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        return table -> pattern.matcher(table.getTableName()).matches();
+    }
+
+    private static boolean isWildcard(String name) {
+        return name.indexOf('*') >= 0 || name.indexOf('?') >= 0;
+    }
+
+    /**
+     * 读取批量外键查询结果，相邻且属于同一外键的多行合并为一个多字段外键
+     */
+    private List<ForeignKeyMetadata> readForeignKeys(Connection connection, CatalogQueries queries)
+            throws SQLException {
+        List<ForeignKeyMetadata> foreignKeys = new ArrayList<>();
+        String currentKey = null;
+        ForeignKeyMetadata current = null;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(queries.foreignKeys)) {
+            while (rs.next()) {
+                String key = tableKey(rs) + '.' + rs.getString("FK_NAME");
+                if (current == null || !key.equals(currentKey)) {
+                    current = ForeignKeyMetadata.builder()
+                            .foreignKeyName(rs.getString("FK_NAME"))
+                            .tableName(rs.getString("TABLE_NAME"))
+                            .columnNames(new ArrayList<>())
+                            .referencedTableName(rs.getString("REFERENCED_TABLE_NAME"))
+                            .referencedColumnNames(new ArrayList<>())
+                            .build();
+                    currentKey = key;
+                    foreignKeys.add(current);
+                }
+                current.getColumnNames().add(rs.getString("COLUMN_NAME"));
+                current.getReferencedColumnNames().add(rs.getString("REFERENCED_COLUMN_NAME"));
+            }
+        }
+        return foreignKeys;
+    }
+
+    private ColumnMetadata readBulkColumn(ResultSet rs) throws SQLException {
+        String typeName = rs.getString("TYPE_NAME");
+        long columnSize = rs.getLong("COLUMN_SIZE");
+        return ColumnMetadata.builder()
+                .columnName(rs.getString("COLUMN_NAME"))
+                .dataType(String.valueOf(jdbcType(typeName)))
+                .typeName(typeName)
+                .columnSize((int) Math.min(columnSize, Integer.MAX_VALUE))
+                .decimalDigits(rs.getInt("DECIMAL_DIGITS"))
+                .nullable("YES".equalsIgnoreCase(rs.getString("IS_NULLABLE")))
+                .defaultValue(rs.getString("COLUMN_DEF"))
+                .remarks(rs.getString("REMARKS"))
+                .autoIncrement("YES".equalsIgnoreCase(rs.getString("IS_AUTOINCREMENT")))
+                .javaType(typeName != null ? MetadataService.getJavaType(typeName) : "Object")
+                .build();
+    }
+
+    private static String tableKey(ResultSet rs) throws SQLException {
+        return rs.getString("TABLE_SCHEMA") + '.' + rs.getString("TABLE_NAME");
+    }
+
+    /**
+     * 类型名对应的 java.sql.Types 值，无法识别时为 OTHER
+     */
+    static int jdbcType(String typeName) {
+        if (typeName == null) {
+            return Types.OTHER;
+        }
+        String name = typeName.toUpperCase(Locale.ROOT);
+        if (name.endsWith(" UNSIGNED")) {
+            name = name.substring(0, name.length() - " UNSIGNED".length());
+        }
+        JDBCType alias = TYPE_ALIASES.get(name);
+        if (alias != null) {
+            return alias.getVendorTypeNumber();
+        }
+        try {
+            return JDBCType.valueOf(name.replace(' ', '_')).getVendorTypeNumber();
+        } catch (IllegalArgumentException e) {
+            return Types.OTHER;
+        }
+    }
+
+    // ==================== DatabaseMetaData 回退 ====================
+
+    private List<TableMetadata> readTables(DatabaseMetaData metaData, String catalog, String[] types)
+            throws SQLException {
+        List<TableMetadata> tables = new ArrayList<>();
+
+        try (ResultSet rs = metaData.getTables(catalog, null, "%", types)) {
+            while (rs.next()) {
+                tables.add(TableMetadata.builder()
+                        .tableName(rs.getString("TABLE_NAME"))
+                        .tableType(rs.getString("TABLE_TYPE"))
+                        .remarks(rs.getString("REMARKS"))
+                        .build());
+            }
+        }
+
+        return tables;
+    }
+
+    /**
+     * 单表引用的外键，KEY_SEQ 为 1 的行开始一个新外键（部分驱动的 FK_NAME 可能为空）
+     */
+    private List<ForeignKeyMetadata> readImportedKeys(DatabaseMetaData metaData, String catalog, String tableName)
+            throws SQLException {
+        List<ForeignKeyMetadata> foreignKeys = new ArrayList<>();
+        ForeignKeyMetadata current = null;
+        try (ResultSet rs = metaData.getImportedKeys(catalog, null, tableName)) {
+            while (rs.next()) {
+                if (current == null || rs.getShort("KEY_SEQ") == 1) {
+                    current = ForeignKeyMetadata.builder()
+                            .foreignKeyName(rs.getString("FK_NAME"))
+                            .tableName(rs.getString("FKTABLE_NAME"))
+                            .columnNames(new ArrayList<>())
+                            .referencedTableName(rs.getString("PKTABLE_NAME"))
+                            .referencedColumnNames(new ArrayList<>())
+                            .build();
+                    foreignKeys.add(current);
+                }
+                current.getColumnNames().add(rs.getString("FKCOLUMN_NAME"));
+                current.getReferencedColumnNames().add(rs.getString("PKCOLUMN_NAME"));
+            }
+        }
+        return foreignKeys;
+    }
+
+    private void fillTableDetail(DatabaseMetaData metaData, String catalog, TableMetadata table)
+            throws SQLException {
+        String tableName = table.getTableName();
+        table.setColumns(readColumns(metaData, catalog, tableName));
+        table.setIndexes(readIndexes(metaData, catalog, tableName));
+        table.setPrimaryKeys(readPrimaryKeys(metaData, catalog, tableName));
+        markPrimaryKeys(table);
+    }
+
+    private List<ColumnMetadata> readColumns(DatabaseMetaData metaData, String catalog, String tableName)
+            throws SQLException {
+        List<ColumnMetadata> columns = new ArrayList<>();
+
+        try (ResultSet rs = metaData.getColumns(catalog, null, tableName, "%")) {
+            while (rs.next()) {
+                columns.add(ColumnMetadata.builder()
+                        .columnName(rs.getString("COLUMN_NAME"))
+                        .dataType(rs.getString("DATA_TYPE"))
+                        .typeName(rs.getString("TYPE_NAME"))
+                        .columnSize(rs.getInt("COLUMN_SIZE"))
+                        .decimalDigits(rs.getInt("DECIMAL_DIGITS"))
+                        .nullable(rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable)
+                        .defaultValue(rs.getString("COLUMN_DEF"))
+                        .remarks(rs.getString("REMARKS"))
+                        .autoIncrement("YES".equalsIgnoreCase(rs.getString("IS_AUTOINCREMENT")))
+                        .javaType(MetadataService.getJavaType(rs.getString("TYPE_NAME")))
+                        .build());
+            }
+        }
+
+        return columns;
+    }
+
+    private List<IndexMetadata> readIndexes(DatabaseMetaData metaData, String catalog, String tableName)
+            throws SQLException {
+        List<IndexMetadata> indexes = new ArrayList<>();
+
+        try (ResultSet rs = metaData.getIndexInfo(catalog, null, tableName, false, false)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                if (indexName != null) {
+                    indexes.add(IndexMetadata.builder()
+                            .indexName(indexName)
+                            .columnName(rs.getString("COLUMN_NAME"))
+                            .unique(!rs.getBoolean("NON_UNIQUE"))
+                            .type(String.valueOf(rs.getShort("TYPE")))
+                            .build());
+                }
+            }
+        }
+
+        return indexes;
+    }
+
+    private List<String> readPrimaryKeys(DatabaseMetaData metaData, String catalog, String tableName)
+            throws SQLException {
+        List<String> primaryKeys = new ArrayList<>();
+
+        try (ResultSet rs = metaData.getPrimaryKeys(catalog, null, tableName)) {
+            while (rs.next()) {
+                primaryKeys.add(rs.getString("COLUMN_NAME"));
+            }
+        }
+
+        return primaryKeys;
+    }
+
+    private void markPrimaryKeys(TableMetadata table) {
+        for (ColumnMetadata column : table.getColumns()) {
+            column.setPrimaryKey(table.getPrimaryKeys().contains(column.getColumnName()));
+        }
+    }
+
+    /**
+     * 单个方言的批量目录查询
+     * <p>
+     * 结果列约定：表 TABLE_SCHEMA、TABLE_NAME、TABLE_TYPE、REMARKS；
+     * 字段 TYPE_NAME、COLUMN_SIZE、DECIMAL_DIGITS、IS_NULLABLE、COLUMN_DEF、REMARKS、IS_AUTOINCREMENT；
+     * 索引 INDEX_NAME、NON_UNIQUE、TYPE、COLUMN_NAME；主键 COLUMN_NAME；
+     * 外键 FK_NAME、COLUMN_NAME、REFERENCED_TABLE_NAME、REFERENCED_COLUMN_NAME。均按表、序号排序。
+     */
+    private static class CatalogQueries {
+        private final String tableSelect;
+        private final String tables;
+        private final String columns;
+        private final String indexes;
+        private final String primaryKeys;
+        private final String foreignKeys;
+
+        /**
+         * @param tableSelect 不含排序的表查询，分页时作为子查询再过滤、排序
+         */
+        private CatalogQueries(String tableSelect, String columns, String indexes, String primaryKeys,
+                               String foreignKeys) {
+            this.tableSelect = tableSelect;
+            this.tables = tableSelect + " ORDER BY TABLE_SCHEMA, TABLE_NAME";
+            this.columns = columns;
+            this.indexes = indexes;
+            this.primaryKeys = primaryKeys;
+            this.foreignKeys = foreignKeys;
+        }
+
+        /**
+         * 主键列：TABLE_CONSTRAINTS 与 KEY_COLUMN_USAGE 三种数据库通用
+         */
+        private static String primaryKeyQuery(String schemaFilter) {
+            return "SELECT k.TABLE_SCHEMA, k.TABLE_NAME, k.COLUMN_NAME"
+                    + " FROM information_schema.TABLE_CONSTRAINTS c"
+                    + " JOIN information_schema.KEY_COLUMN_USAGE k"
+                    + " ON k.CONSTRAINT_SCHEMA = c.CONSTRAINT_SCHEMA AND k.CONSTRAINT_NAME = c.CONSTRAINT_NAME"
+                    + " AND k.TABLE_SCHEMA = c.TABLE_SCHEMA AND k.TABLE_NAME = c.TABLE_NAME"
+                    + " WHERE c.CONSTRAINT_TYPE = 'PRIMARY KEY' AND " + schemaFilter.formatted("c.TABLE_SCHEMA")
+                    + " ORDER BY k.TABLE_SCHEMA, k.TABLE_NAME, k.ORDINAL_POSITION";
+        }
+
+        /**
+         * MySQL：当前库（DATABASE()）
+         */
+        static CatalogQueries mysql() {
+            String filter = "%s = DATABASE()";
+            return new CatalogQueries(
+                    "SELECT TABLE_SCHEMA, TABLE_NAME,"
+                            + " CASE TABLE_TYPE WHEN 'BASE TABLE' THEN 'TABLE' ELSE TABLE_TYPE END AS TABLE_TYPE,"
+                            + " TABLE_COMMENT AS REMARKS"
+                            + " FROM information_schema.TABLES WHERE " + filter.formatted("TABLE_SCHEMA"),
+                    "SELECT TABLE_SCHEMA, TABLE_NAME, COLUMN_NAME,"
+                            + " CONCAT(UPPER(DATA_TYPE), IF(COLUMN_TYPE LIKE '%unsigned%', ' UNSIGNED', '')) AS TYPE_NAME,"
+                            + " COALESCE(CHARACTER_MAXIMUM_LENGTH, NUMERIC_PRECISION, DATETIME_PRECISION, 0) AS COLUMN_SIZE,"
+                            + " NUMERIC_SCALE AS DECIMAL_DIGITS, IS_NULLABLE, COLUMN_DEFAULT AS COLUMN_DEF,"
+                            + " COLUMN_COMMENT AS REMARKS,"
+                            + " IF(EXTRA LIKE '%auto_increment%', 'YES', 'NO') AS IS_AUTOINCREMENT"
+                            + " FROM information_schema.COLUMNS WHERE " + filter.formatted("TABLE_SCHEMA")
+                            + " ORDER BY TABLE_NAME, ORDINAL_POSITION",
+                    "SELECT TABLE_SCHEMA, TABLE_NAME, INDEX_NAME, NON_UNIQUE,"
+                            + " CASE INDEX_TYPE WHEN 'HASH' THEN " + DatabaseMetaData.tableIndexHashed
+                            + " ELSE " + DatabaseMetaData.tableIndexOther + " END AS TYPE, COLUMN_NAME"
+                            + " FROM information_schema.STATISTICS WHERE " + filter.formatted("TABLE_SCHEMA")
+                            + " ORDER BY TABLE_NAME, NON_UNIQUE, INDEX_NAME, SEQ_IN_INDEX",
+                    primaryKeyQuery(filter),
+                    "SELECT TABLE_SCHEMA, TABLE_NAME, CONSTRAINT_NAME AS FK_NAME, COLUMN_NAME,"
+                            + " REFERENCED_TABLE_NAME, REFERENCED_COLUMN_NAME"
+                            + " FROM information_schema.KEY_COLUMN_USAGE WHERE " + filter.formatted("TABLE_SCHEMA")
+                            + " AND REFERENCED_TABLE_NAME IS NOT NULL"
+                            + " ORDER BY TABLE_NAME, CONSTRAINT_NAME, ORDINAL_POSITION");
+        }
+
+        /**
+         * PostgreSQL：除系统 schema 外的全部 schema，注释与索引取自 pg_catalog
+         */
+        static CatalogQueries postgresql() {
+            String filter = "%1$s NOT IN ('pg_catalog', 'information_schema') AND %1$s NOT LIKE 'pg\\_toast%%'";
+            return new CatalogQueries(
+                    "SELECT t.table_schema AS TABLE_SCHEMA, t.table_name AS TABLE_NAME,"
+                            + " CASE t.table_type WHEN 'BASE TABLE' THEN 'TABLE' WHEN 'FOREIGN' THEN 'FOREIGN TABLE'"
+                            + " WHEN 'LOCAL TEMPORARY' THEN 'TEMPORARY TABLE' ELSE t.table_type END AS TABLE_TYPE,"
+                            + " obj_description(pc.oid, 'pg_class') AS REMARKS"
+                            + " FROM information_schema.tables t"
+                            + " JOIN pg_catalog.pg_namespace n ON n.nspname = t.table_schema"
+                            + " JOIN pg_catalog.pg_class pc ON pc.relnamespace = n.oid AND pc.relname = t.table_name"
+                            + " WHERE " + filter.formatted("t.table_schema"),
+                    "SELECT c.table_schema AS TABLE_SCHEMA, c.table_name AS TABLE_NAME, c.column_name AS COLUMN_NAME,"
+                            + " CASE WHEN c.column_default LIKE 'nextval(%' THEN CASE c.udt_name"
+                            + " WHEN 'int4' THEN 'serial' WHEN 'int8' THEN 'bigserial' WHEN 'int2' THEN 'smallserial'"
+                            + " ELSE c.udt_name END ELSE c.udt_name END AS TYPE_NAME,"
+                            + " COALESCE(c.character_maximum_length, c.numeric_precision, c.datetime_precision, 0)"
+                            + " AS COLUMN_SIZE,"
+                            + " c.numeric_scale AS DECIMAL_DIGITS, c.is_nullable AS IS_NULLABLE,"
+                            + " c.column_default AS COLUMN_DEF,"
+                            + " col_description(pc.oid, c.ordinal_position::int) AS REMARKS,"
+                            + " CASE WHEN c.is_identity = 'YES' OR c.column_default LIKE 'nextval(%' THEN 'YES'"
+                            + " ELSE 'NO' END AS IS_AUTOINCREMENT"
+                            + " FROM information_schema.columns c"
+                            + " JOIN pg_catalog.pg_namespace n ON n.nspname = c.table_schema"
+                            + " JOIN pg_catalog.pg_class pc ON pc.relnamespace = n.oid AND pc.relname = c.table_name"
+                            + " WHERE " + filter.formatted("c.table_schema")
+                            + " ORDER BY c.table_schema, c.table_name, c.ordinal_position",
+                    "SELECT n.nspname AS TABLE_SCHEMA, t.relname AS TABLE_NAME, i.relname AS INDEX_NAME,"
+                            + " NOT ix.indisunique AS NON_UNIQUE,"
+                            + " CASE WHEN ix.indisclustered THEN " + DatabaseMetaData.tableIndexClustered
+                            + " WHEN am.amname = 'hash' THEN " + DatabaseMetaData.tableIndexHashed
+                            + " ELSE " + DatabaseMetaData.tableIndexOther + " END AS TYPE,"
+                            + " a.attname AS COLUMN_NAME"
+                            + " FROM pg_catalog.pg_index ix"
+                            + " JOIN pg_catalog.pg_class t ON t.oid = ix.indrelid"
+                            + " JOIN pg_catalog.pg_class i ON i.oid = ix.indexrelid"
+                            + " JOIN pg_catalog.pg_namespace n ON n.oid = t.relnamespace"
+                            + " JOIN pg_catalog.pg_am am ON am.oid = i.relam"
+                            + " CROSS JOIN LATERAL unnest(ix.indkey::smallint[]) WITH ORDINALITY AS k(attnum, ord)"
+                            + " LEFT JOIN pg_catalog.pg_attribute a ON a.attrelid = t.oid AND a.attnum = k.attnum"
+                            + " WHERE " + filter.formatted("n.nspname")
+                            + " ORDER BY n.nspname, t.relname, NOT ix.indisunique, i.relname, k.ord",
+                    primaryKeyQuery(filter),
+                    "SELECT n.nspname AS TABLE_SCHEMA, t.relname AS TABLE_NAME, con.conname AS FK_NAME,"
+                            + " a.attname AS COLUMN_NAME, rt.relname AS REFERENCED_TABLE_NAME,"
+                            + " ra.attname AS REFERENCED_COLUMN_NAME"
+                            + " FROM pg_catalog.pg_constraint con"
+                            + " JOIN pg_catalog.pg_class t ON t.oid = con.conrelid"
+                            + " JOIN pg_catalog.pg_namespace n ON n.oid = t.relnamespace"
+                            + " JOIN pg_catalog.pg_class rt ON rt.oid = con.confrelid"
+                            + " CROSS JOIN LATERAL unnest(con.conkey, con.confkey) WITH ORDINALITY AS k(attnum, refnum, ord)"
+                            + " JOIN pg_catalog.pg_attribute a ON a.attrelid = con.conrelid AND a.attnum = k.attnum"
+                            + " JOIN pg_catalog.pg_attribute ra ON ra.attrelid = con.confrelid AND ra.attnum = k.refnum"
+                            + " WHERE con.contype = 'f' AND " + filter.formatted("n.nspname")
+                            + " ORDER BY n.nspname, t.relname, con.conname, k.ord");
+        }
+
+        /**
+         * H2 2.x：除 INFORMATION_SCHEMA 外的全部 schema（H2 1.x 的目录结构不同，查询失败后走回退）
+         */
+        static CatalogQueries h2() {
+            String filter = "%s <> 'INFORMATION_SCHEMA'";
+            return new CatalogQueries(
+                    "SELECT TABLE_SCHEMA, TABLE_NAME,"
+                            + " CASE TABLE_TYPE WHEN 'BASE TABLE' THEN 'TABLE' ELSE TABLE_TYPE END AS TABLE_TYPE, REMARKS"
+                            + " FROM INFORMATION_SCHEMA.TABLES WHERE " + filter.formatted("TABLE_SCHEMA"),
+                    "SELECT TABLE_SCHEMA, TABLE_NAME, COLUMN_NAME, COALESCE(DECLARED_DATA_TYPE, DATA_TYPE) AS TYPE_NAME,"
+                            + " COALESCE(CHARACTER_MAXIMUM_LENGTH, NUMERIC_PRECISION, DATETIME_PRECISION, 0) AS COLUMN_SIZE,"
+                            + " NUMERIC_SCALE AS DECIMAL_DIGITS, IS_NULLABLE, COLUMN_DEFAULT AS COLUMN_DEF, REMARKS,"
+                            + " IS_IDENTITY AS IS_AUTOINCREMENT"
+                            + " FROM INFORMATION_SCHEMA.COLUMNS WHERE " + filter.formatted("TABLE_SCHEMA")
+                            + " ORDER BY TABLE_SCHEMA, TABLE_NAME, ORDINAL_POSITION",
+                    "SELECT i.TABLE_SCHEMA, i.TABLE_NAME, i.INDEX_NAME,"
+                            + " i.INDEX_TYPE_NAME NOT IN ('PRIMARY KEY', 'UNIQUE INDEX') AS NON_UNIQUE,"
+                            + " " + DatabaseMetaData.tableIndexOther + " AS TYPE, c.COLUMN_NAME"
+                            + " FROM INFORMATION_SCHEMA.INDEXES i"
+                            + " JOIN INFORMATION_SCHEMA.INDEX_COLUMNS c ON c.INDEX_SCHEMA = i.INDEX_SCHEMA"
+                            + " AND c.INDEX_NAME = i.INDEX_NAME AND c.TABLE_NAME = i.TABLE_NAME"
+                            + " WHERE " + filter.formatted("i.TABLE_SCHEMA")
+                            + " ORDER BY i.TABLE_SCHEMA, i.TABLE_NAME, NON_UNIQUE, i.INDEX_NAME, c.ORDINAL_POSITION",
+                    primaryKeyQuery(filter),
+                    "SELECT fk.TABLE_SCHEMA, fk.TABLE_NAME, fk.CONSTRAINT_NAME AS FK_NAME, fk.COLUMN_NAME,"
+                            + " pk.TABLE_NAME AS REFERENCED_TABLE_NAME, pk.COLUMN_NAME AS REFERENCED_COLUMN_NAME"
+                            + " FROM INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS rc"
+                            + " JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE fk ON fk.CONSTRAINT_SCHEMA = rc.CONSTRAINT_SCHEMA"
+                            + " AND fk.CONSTRAINT_NAME = rc.CONSTRAINT_NAME"
+                            + " JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE pk ON pk.CONSTRAINT_SCHEMA = rc.UNIQUE_CONSTRAINT_SCHEMA"
+                            + " AND pk.CONSTRAINT_NAME = rc.UNIQUE_CONSTRAINT_NAME"
+                            + " AND pk.ORDINAL_POSITION = fk.POSITION_IN_UNIQUE_CONSTRAINT"
+                            + " WHERE " + filter.formatted("fk.TABLE_SCHEMA")
+                            + " ORDER BY fk.TABLE_SCHEMA, fk.TABLE_NAME, fk.CONSTRAINT_NAME, fk.ORDINAL_POSITION");
+        }
+    }
+}
@@ -15,8 +15,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 数据源管理服务
@@ -27,6 +29,11 @@ public class DataSourceService {
 
     private final ApplicationContext applicationContext;
 
+    /**
+     * 数据库类型缓存：数据源名称 -> 数据库类型
+     */
+    private final Map<String, String> databaseTypes = new ConcurrentHashMap<>();
+
     public DataSourceService(ApplicationContext applicationContext) {
         this.applicationContext = applicationContext;
     }
@@ -193,6 +200,45 @@ public class DataSourceService {
         return applicationContext.getBean(name, DataSource.class);
     }
 
+    /**
+     * 获取数据源的数据库类型（mysql、postgresql、oracle、sqlserver、h2 或 unknown），首次探测后缓存
+     *
+     * @param name 数据源名称
+     */
+    public String getDatabaseType(String name) {
+        String cached = databaseTypes.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        try (Connection connection = getDataSource(name).getConnection()) {
+            String databaseType = resolveDatabaseType(connection.getMetaData().getDatabaseProductName());
+            databaseTypes.put(name, databaseType);
+            return databaseType;
+        } catch (SQLException e) {
+            log.warn("Failed to detect database type: {}", name, e);
+            return "unknown";
+        }
+    }
+
+    /**
+     * 根据数据库产品名称解析数据库类型
+     */
+    public static String resolveDatabaseType(String productName) {
+        String lower = productName != null ? productName.toLowerCase(Locale.ROOT) : "";
+        if (lower.contains("mysql") || lower.contains("mariadb")) {
+            return "mysql";
+        } else if (lower.contains("postgresql")) {
+            return "postgresql";
+        } else if (lower.contains("oracle")) {
+            return "oracle";
+        } else if (lower.contains("sql server")) {
+            return "sqlserver";
+        } else if (lower.contains("h2")) {
+            return "h2";
+        }
+        return "unknown";
+    }
+
     /**
      * 测试数据源连接
      * @param name 数据源名称
@@ -0,0 +1,882 @@
+package com.dbdev.core.service;
+
+import com.dbdev.core.model.ColumnMetadata;
+import com.dbdev.core.model.ForeignKeyMetadata;
+import com.dbdev.core.model.IndexMetadata;
+import com.dbdev.core.model.SchemaDiff;
+import com.dbdev.core.model.TableMetadata;
+
+import java.sql.JDBCType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 建表 DDL 方言：标识符引用、列类型映射、自增、注释、索引与外键语法
+ * <p>
+ * 列类型按 dataType（java.sql.Types）归一为 JDBCType 后查目标方言的类型映射表；源库与目标方言相同时保留原类型名，
+ * 只按映射规则决定长度、精度的写法。各方言实例为单例，映射结果按列类型签名缓存，导出大量表时不重复解析。
+ * 生成的语句不含结尾分隔符，写入脚本时由 {@link #terminate(String)} 补充，通过 JDBC 执行时直接使用。
+ * 除建表外还提供结构迁移所需的增删改字段、索引与注释语句。
+ */
+public final class DdlDialect {
+
+    /**
+     * 各方言，键与 {@link DataSourceService#resolveDatabaseType(String)} 的结果一致
+     */
+    private static final Map<String, DdlDialect> DIALECTS = Map.of(
+            "mysql", mysql(),
+            "postgresql", postgresql(),
+            "h2", h2(),
+            "oracle", oracle(),
+            "sqlserver", sqlServer());
+
+    /**
+     * 不支持的数据库：标准的双引号标识符，不生成自增与注释，类型按原样输出
+     */
+    private static final DdlDialect STANDARD = new DdlDialect("standard", "\"", "\"");
+
+    private final String name;
+    private final String openQuote;
+    private final String closeQuote;
+    private final Map<JDBCType, TypeRule> typeRules = new EnumMap<>(JDBCType.class);
+    private final Map<String, String> namedTypes = new LinkedHashMap<>();
+    private final Map<TypeKey, String> typeCache = new ConcurrentHashMap<>();
+
+    private String identity;
+    private boolean identityAfterConstraints;
+    private CommentStyle commentStyle = CommentStyle.NONE;
+    private boolean backslashEscapes;
+    private boolean nationalLiterals;
+    private boolean booleanLiterals = true;
+    private String dropTable;
+    private String disableForeignKeyChecks;
+    private String enableForeignKeyChecks;
+    private String includeFile = "-- %s";
+    private boolean schemaScopedIndexNames;
+    private boolean indexIfNotExists;
+    private boolean dropIndexOnTable;
+    private String addColumn = "ALTER TABLE %s ADD COLUMN %s";
+    private ColumnAlter columnAlter = ColumnAlter.ALTER_COLUMN;
+
+    private DdlDialect(String name, String openQuote, String closeQuote) {
+        this.name = name;
+        this.openQuote = openQuote;
+        this.closeQuote = closeQuote;
+    }
+
+    /**
+     * 按数据库类型（mysql、postgresql、h2、oracle、sqlserver）查找方言，不支持时返回 null
+     */
+    public static DdlDialect of(String databaseType) {
+        return databaseType != null ? DIALECTS.get(databaseType.toLowerCase(Locale.ROOT)) : null;
+    }
+
+    /**
+     * 数据库自身的方言，不支持的数据库使用标准语法
+     */
+    public static DdlDialect forDatabase(String databaseType) {
+        DdlDialect dialect = of(databaseType);
+        return dialect != null ? dialect : STANDARD;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 引用标识符
+     */
+    public String quote(String identifier) {
+        return openQuote + identifier.replace(closeQuote, closeQuote + closeQuote) + closeQuote;
+    }
+
+    /**
+     * 字符串字面量
+     */
+    public String literal(String text) {
+        String escaped = backslashEscapes
+                ? text.replace("\\", "\\\\")
+                        .replace("'", "\\'")
+                        .replace("\"", "\\\"")
+                        .replace("\n", "\\n")
+                        .replace("\r", "\\r")
+                        .replace("\t", "\\t")
+                : text.replace("'", "''");
+        return (nationalLiterals ? "N'" : "'") + escaped + "'";
+    }
+
+    /**
+     * 为语句补充脚本中的结尾分隔符，PL/SQL 块以单独一行的 / 结束
+     */
+    public String terminate(String statement) {
+        return statement.startsWith("BEGIN") ? statement + "\n/" : statement + ";";
+    }
+
+    /**
+     * 目标方言中的列类型
+     *
+     * @param sourceType 列所在数据库的类型，与本方言相同时保留原类型名
+     */
+    public String columnType(ColumnMetadata column, String sourceType) {
+        return typeCache.computeIfAbsent(new TypeKey(Objects.equals(name, sourceType), column.getTypeName(),
+                column.getDataType(), column.getColumnSize(), column.getDecimalDigits()), this::mapType);
+    }
+
+    /**
+     * 建表语句，注释不能写在建表语句中的方言随后附加注释语句
+     *
+     * @param foreignKeys 写在建表语句中的外键
+     * @param sourceType  表所在数据库的类型
+     */
+    public List<String> createTable(TableMetadata table, List<ForeignKeyMetadata> foreignKeys, String sourceType) {
+        List<String> definitions = new ArrayList<>();
+        List<ColumnMetadata> columns = table.getColumns() != null ? table.getColumns() : List.of();
+        for (ColumnMetadata column : columns) {
+            definitions.add(columnDefinition(column, sourceType));
+        }
+        List<String> primaryKeys = primaryKeys(table);
+        if (!primaryKeys.isEmpty()) {
+            definitions.add("PRIMARY KEY (" + quoteAll(primaryKeys) + ")");
+        }
+        for (ForeignKeyMetadata foreignKey : foreignKeys) {
+            definitions.add(foreignKey(foreignKey));
+        }
+
+        StringBuilder sql = new StringBuilder();
+        sql.append("CREATE TABLE ").append(quote(table.getTableName())).append(" (\n  ")
+                .append(String.join(",\n  ", definitions))
+                .append("\n)");
+        boolean tableRemarks = table.getRemarks() != null && !table.getRemarks().isEmpty();
+        if (commentStyle == CommentStyle.INLINE && tableRemarks) {
+            sql.append(" COMMENT=").append(literal(table.getRemarks()));
+        }
+
+        List<String> statements = new ArrayList<>();
+        statements.add(sql.toString());
+        if (commentStyle == CommentStyle.COMMENT_ON || commentStyle == CommentStyle.EXTENDED_PROPERTY) {
+            addIfPresent(statements, comment(table.getTableName(), null, null, table.getRemarks()));
+            for (ColumnMetadata column : columns) {
+                addIfPresent(statements, comment(table.getTableName(), column.getColumnName(), null,
+                        column.getRemarks()));
+            }
+        }
+        return statements;
+    }
+
+    /**
+     * 表的二级索引，跳过主键对应的索引
+     * <p>
+     * 索引名在 schema 内唯一的方言（PostgreSQL、Oracle、H2）中，来自按表区分索引名的数据库的索引加表名前缀
+     *
+     * @param sourceType 表所在数据库的类型
+     */
+    public List<String> createIndexes(TableMetadata table, String sourceType) {
+        if (table.getIndexes() == null || table.getIndexes().isEmpty()) {
+            return List.of();
+        }
+        Map<String, List<IndexMetadata>> indexMap = new LinkedHashMap<>();
+        for (IndexMetadata index : table.getIndexes()) {
+            indexMap.computeIfAbsent(index.getIndexName(), k -> new ArrayList<>()).add(index);
+        }
+        List<String> primaryKeys = primaryKeys(table);
+
+        List<String> statements = new ArrayList<>();
+        for (Map.Entry<String, List<IndexMetadata>> entry : indexMap.entrySet()) {
+            List<String> columns = entry.getValue().stream()
+                    .map(IndexMetadata::getColumnName)
+                    .filter(Objects::nonNull)
+                    .toList();
+            boolean unique = entry.getValue().get(0).isUnique();
+            if (columns.isEmpty() || entry.getKey() == null || entry.getKey().equals("PRIMARY")
+                    || (unique && columns.equals(primaryKeys))) {
+                continue;
+            }
+            statements.add(createIndex(table.getTableName(),
+                    indexName(table.getTableName(), entry.getKey(), sourceType), unique, columns));
+        }
+        return statements;
+    }
+
+    /**
+     * 目标方言中的索引名：索引名在 schema 内唯一的方言中，来自按表区分索引名的数据库的索引加表名前缀
+     *
+     * @param sourceType 索引所在数据库的类型
+     */
+    public String indexName(String tableName, String indexName, String sourceType) {
+        DdlDialect source = of(sourceType);
+        boolean prefixNames = schemaScopedIndexNames && (source == null || !source.schemaScopedIndexNames);
+        return prefixNames ? tableName + "_" + indexName : indexName;
+    }
+
+    /**
+     * 创建单个索引
+     */
+    public String createIndex(String tableName, String indexName, boolean unique, List<String> columns) {
+        return "CREATE " + (unique ? "UNIQUE INDEX " : "INDEX ") + (indexIfNotExists ? "IF NOT EXISTS " : "")
+                + quote(indexName) + " ON " + quote(tableName) + " (" + quoteAll(columns) + ")";
+    }
+
+    /**
+     * 删除索引
+     */
+    public String dropIndex(String tableName, String indexName) {
+        return "DROP INDEX " + quote(indexName) + (dropIndexOnTable ? " ON " + quote(tableName) : "");
+    }
+
+    /**
+     * 为已有表增加字段，注释不能内联的方言随后附加注释语句
+     *
+     * @param sourceType 字段定义所在数据库的类型
+     */
+    public List<String> addColumn(String tableName, ColumnMetadata column, String sourceType) {
+        List<String> statements = new ArrayList<>();
+        statements.add(addColumn.formatted(quote(tableName), columnDefinition(column, sourceType)));
+        if (commentStyle != CommentStyle.INLINE) {
+            addIfPresent(statements, comment(tableName, column.getColumnName(), null, column.getRemarks()));
+        }
+        return statements;
+    }
+
+    /**
+     * 把已有字段 from 修改为 to 的定义，只生成 changes 中列出的部分
+     * <p>
+     * MySQL 以 MODIFY COLUMN 重写整个定义；其他方言分别修改类型、默认值、可空与注释，
+     * 自增属性的变化只有 MySQL 能直接修改。SQL Server 的默认值是约束，按名称查出后删除再重建。
+     *
+     * @param from       目标库中现有的字段，按其名称修改
+     * @param to         期望的字段定义
+     * @param sourceType 期望定义所在数据库的类型
+     */
+    public List<String> alterColumn(String tableName, ColumnMetadata from, ColumnMetadata to,
+                                    Collection<SchemaDiff.ColumnAttribute> changes, String sourceType) {
+        List<String> statements = new ArrayList<>();
+        if (changes.isEmpty()) {
+            return statements;
+        }
+        String table = quote(tableName);
+        String column = quote(from.getColumnName());
+        boolean typeChanged = changes.contains(SchemaDiff.ColumnAttribute.TYPE);
+        boolean defaultChanged = changes.contains(SchemaDiff.ColumnAttribute.DEFAULT);
+        boolean nullableChanged = changes.contains(SchemaDiff.ColumnAttribute.NULLABLE);
+        String defaultValue = to.isAutoIncrement() && identity != null
+                ? null : defaultValue(to.getDefaultValue(), sourceType);
+
+        switch (columnAlter) {
+            case MODIFY -> {
+                // 完整定义已包含注释
+                statements.add("ALTER TABLE " + table + " MODIFY COLUMN " + columnDefinition(to, sourceType));
+                return statements;
+            }
+            case ALTER_COLUMN -> {
+                if (typeChanged) {
+                    statements.add("ALTER TABLE " + table + " ALTER COLUMN " + column
+                            + " SET DATA TYPE " + columnType(to, sourceType));
+                }
+                if (defaultChanged) {
+                    statements.add("ALTER TABLE " + table + " ALTER COLUMN " + column
+                            + (defaultValue != null ? " SET DEFAULT " + defaultValue : " DROP DEFAULT"));
+                }
+                if (nullableChanged) {
+                    statements.add("ALTER TABLE " + table + " ALTER COLUMN " + column
+                            + (to.isNullable() ? " DROP NOT NULL" : " SET NOT NULL"));
+                }
+            }
+            case MODIFY_PARENTHESIZED -> {
+                StringBuilder sb = new StringBuilder();
+                if (typeChanged) {
+                    sb.append(" ").append(columnType(to, sourceType));
+                }
+                if (defaultChanged) {
+                    sb.append(" DEFAULT ").append(defaultValue != null ? defaultValue : "NULL");
+                }
+                if (nullableChanged) {
+                    sb.append(to.isNullable() ? " NULL" : " NOT NULL");
+                }
+                if (!sb.isEmpty()) {
+                    statements.add("ALTER TABLE " + table + " MODIFY (" + column + sb + ")");
+                }
+            }
+            case ALTER_COLUMN_FULL -> {
+                if (defaultChanged && from.getDefaultValue() != null && !from.getDefaultValue().isEmpty()) {
+                    statements.add(dropDefaultConstraint(tableName, from.getColumnName()));
+                }
+                if (typeChanged || nullableChanged) {
+                    statements.add("ALTER TABLE " + table + " ALTER COLUMN " + column + " "
+                            + columnType(to, sourceType) + (to.isNullable() ? " NULL" : " NOT NULL"));
+                }
+                if (defaultChanged && defaultValue != null) {
+                    statements.add("ALTER TABLE " + table + " ADD DEFAULT " + defaultValue + " FOR " + column);
+                }
+            }
+        }
+        if (changes.contains(SchemaDiff.ColumnAttribute.REMARKS)) {
+            addIfPresent(statements, comment(tableName, from.getColumnName(), from.getRemarks(), to.getRemarks()));
+        }
+        return statements;
+    }
+
+    /**
+     * 删除字段，SQL Server 先删除字段上的默认值约束
+     */
+    public List<String> dropColumn(String tableName, ColumnMetadata column) {
+        List<String> statements = new ArrayList<>();
+        if (columnAlter == ColumnAlter.ALTER_COLUMN_FULL
+                && column.getDefaultValue() != null && !column.getDefaultValue().isEmpty()) {
+            statements.add(dropDefaultConstraint(tableName, column.getColumnName()));
+        }
+        statements.add("ALTER TABLE " + quote(tableName) + " DROP COLUMN " + quote(column.getColumnName()));
+        return statements;
+    }
+
+    /**
+     * 修改表注释，方言不支持注释时返回 null
+     *
+     * @param from 现有注释
+     * @param to   期望的注释，为空时删除注释
+     */
+    public String changeTableComment(String tableName, String from, String to) {
+        if (commentStyle == CommentStyle.INLINE) {
+            return "ALTER TABLE " + quote(tableName) + " COMMENT=" + literal(to != null ? to : "");
+        }
+        return comment(tableName, null, from, to);
+    }
+
+    /**
+     * 建表语句中的外键约束
+     */
+    public String foreignKey(ForeignKeyMetadata foreignKey) {
+        StringBuilder sb = new StringBuilder();
+        if (foreignKey.getForeignKeyName() != null) {
+            sb.append("CONSTRAINT ").append(quote(foreignKey.getForeignKeyName())).append(" ");
+        }
+        sb.append("FOREIGN KEY (").append(quoteAll(foreignKey.getColumnNames()))
+                .append(") REFERENCES ").append(quote(foreignKey.getReferencedTableName()))
+                .append(" (").append(quoteAll(foreignKey.getReferencedColumnNames())).append(")");
+        return sb.toString();
+    }
+
+    /**
+     * 建表后补充外键
+     */
+    public String addForeignKey(ForeignKeyMetadata foreignKey) {
+        return "ALTER TABLE " + quote(foreignKey.getTableName()) + " ADD " + foreignKey(foreignKey);
+    }
+
+    /**
+     * 表存在时删除
+     */
+    public String dropTable(String tableName) {
+        return dropTable.formatted(quote(tableName), quote(tableName).replace("'", "''"));
+    }
+
+    /**
+     * 导入脚本前关闭外键检查的语句，方言不支持时为 null
+     */
+    public String disableForeignKeyChecks() {
+        return disableForeignKeyChecks;
+    }
+
+    /**
+     * 导入脚本后恢复外键检查的语句，方言不支持时为 null
+     */
+    public String enableForeignKeyChecks() {
+        return enableForeignKeyChecks;
+    }
+
+    /**
+     * 在命令行客户端中执行另一个脚本文件的指令
+     */
+    public String includeFile(String path) {
+        return includeFile.formatted(path);
+    }
+
+    private String columnDefinition(ColumnMetadata column, String sourceType) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(quote(column.getColumnName())).append(" ").append(columnType(column, sourceType));
+        boolean identityColumn = column.isAutoIncrement() && identity != null;
+        if (identityColumn && !identityAfterConstraints) {
+            sb.append(" ").append(identity);
+        }
+        // 自增列的默认值是源库的序列表达式，由自增语法代替；DEFAULT 写在约束之前（Oracle 要求）
+        String defaultValue = identityColumn ? null : defaultValue(column.getDefaultValue(), sourceType);
+        if (defaultValue != null) {
+            sb.append(" DEFAULT ").append(defaultValue);
+        }
+        if (!column.isNullable()) {
+            sb.append(" NOT NULL");
+        }
+        if (identityColumn && identityAfterConstraints) {
+            sb.append(" ").append(identity);
+        }
+        if (commentStyle == CommentStyle.INLINE && column.getRemarks() != null && !column.getRemarks().isEmpty()) {
+            sb.append(" COMMENT ").append(literal(column.getRemarks()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 跨方言时去掉 PostgreSQL 的类型转换、序列默认值，并按需把布尔字面量换成 1 / 0
+     */
+    private String defaultValue(String value, String sourceType) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if (Objects.equals(name, sourceType)) {
+            return value;
+        }
+        String lower = value.toLowerCase(Locale.ROOT);
+        if (lower.contains("nextval(") || lower.startsWith("next value for")) {
+            return null;
+        }
+        String translated = value.replaceAll("::[\\w ]+(\\[])?", "");
+        if (!booleanLiterals) {
+            if (translated.equalsIgnoreCase("true")) {
+                return "1";
+            }
+            if (translated.equalsIgnoreCase("false")) {
+                return "0";
+            }
+        }
+        return translated;
+    }
+
+    /**
+     * 把注释从 previous 改为 remarks 的语句，columnName 为 null 时为表注释；两者都为空或方言没有注释语句时返回 null
+     */
+    private String comment(String tableName, String columnName, String previous, String remarks) {
+        boolean hadRemarks = previous != null && !previous.isEmpty();
+        boolean hasRemarks = remarks != null && !remarks.isEmpty();
+        if (!hadRemarks && !hasRemarks) {
+            return null;
+        }
+        switch (commentStyle) {
+            case EXTENDED_PROPERTY -> {
+                String target = ", 'SCHEMA', 'dbo', 'TABLE', " + literal(tableName)
+                        + (columnName != null ? ", 'COLUMN', " + literal(columnName) : "");
+                if (!hasRemarks) {
+                    return "EXEC sp_dropextendedproperty 'MS_Description'" + target;
+                }
+                return "EXEC " + (hadRemarks ? "sp_updateextendedproperty" : "sp_addextendedproperty")
+                        + " 'MS_Description', " + literal(remarks) + target;
+            }
+            case COMMENT_ON -> {
+                String text = literal(hasRemarks ? remarks : "");
+                return columnName != null
+                        ? "COMMENT ON COLUMN " + quote(tableName) + "." + quote(columnName) + " IS " + text
+                        : "COMMENT ON TABLE " + quote(tableName) + " IS " + text;
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * SQL Server 删除字段上系统命名的默认值约束
+     */
+    private String dropDefaultConstraint(String tableName, String columnName) {
+        return "DECLARE @constraint sysname = (SELECT d.name FROM sys.default_constraints d"
+                + " JOIN sys.columns c ON c.object_id = d.parent_object_id AND c.column_id = d.parent_column_id"
+                + " WHERE d.parent_object_id = OBJECT_ID(" + literal(tableName) + ") AND c.name = "
+                + literal(columnName) + "); IF @constraint IS NOT NULL EXEC('ALTER TABLE "
+                + quote(tableName).replace("'", "''") + " DROP CONSTRAINT [' + @constraint + ']')";
+    }
+
+    private static void addIfPresent(List<String> statements, String statement) {
+        if (statement != null) {
+            statements.add(statement);
+        }
+    }
+
+    private String quoteAll(List<String> identifiers) {
+        return String.join(", ", identifiers.stream().map(this::quote).toList());
+    }
+
+    private static List<String> primaryKeys(TableMetadata table) {
+        if (table.getPrimaryKeys() != null && !table.getPrimaryKeys().isEmpty()) {
+            return table.getPrimaryKeys();
+        }
+        if (table.getColumns() == null) {
+            return List.of();
+        }
+        return table.getColumns().stream()
+                .filter(ColumnMetadata::isPrimaryKey)
+                .map(ColumnMetadata::getColumnName)
+                .toList();
+    }
+
+    private String mapType(TypeKey key) {
+        String typeName = key.typeName() != null ? key.typeName().trim().toUpperCase(Locale.ROOT) : "";
+        JDBCType jdbcType = jdbcType(key.dataType(), typeName);
+        if (typeName.isEmpty() && key.dataType() != null && jdbcType == null) {
+            // 手工建表时 dataType 可能是类型名
+            typeName = key.dataType().trim().toUpperCase(Locale.ROOT);
+            jdbcType = jdbcType(null, typeName);
+        }
+        Integer size = key.size();
+        Integer scale = key.scale();
+        if (!key.nativeType()) {
+            String named = namedTypes.get(typeName);
+            if (named != null) {
+                return named;
+            }
+            // 无符号整数扩大一级，避免超出目标类型的范围
+            if (jdbcType != null && typeName.endsWith(" UNSIGNED")) {
+                switch (jdbcType) {
+                    case TINYINT -> jdbcType = JDBCType.SMALLINT;
+                    case SMALLINT -> jdbcType = JDBCType.INTEGER;
+                    case INTEGER -> jdbcType = JDBCType.BIGINT;
+                    case BIGINT -> {
+                        jdbcType = JDBCType.DECIMAL;
+                        size = 20;
+                        scale = 0;
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        TypeRule rule = jdbcType != null ? typeRules.get(jdbcType) : null;
+        if (rule == null) {
+            return sized(typeName.isEmpty() ? "VARCHAR" : typeName, size, scale);
+        }
+        return rule.render(key.nativeType() && !typeName.isEmpty() ? typeName : rule.name(), size, scale);
+    }
+
+    /**
+     * dataType 优先，缺失或无法识别时按类型名推断，两者都无法识别时返回 null
+     */
+    private static JDBCType jdbcType(String dataType, String typeName) {
+        if (dataType != null) {
+            try {
+                return JDBCType.valueOf(Integer.parseInt(dataType.trim()));
+            } catch (IllegalArgumentException e) {
+                // 非数字或未知的类型编号，按类型名推断
+            }
+        }
+        int type = CatalogLoader.jdbcType(typeName.isEmpty() ? null : typeName);
+        return type == JDBCType.OTHER.getVendorTypeNumber() ? null : JDBCType.valueOf(type);
+    }
+
+    /**
+     * 无法识别的类型：长度在合理范围内时附带长度与精度
+     */
+    private static String sized(String typeName, Integer size, Integer scale) {
+        if (size != null && size > 0 && size < 10000) {
+            if (scale != null && scale > 0) {
+                return withArguments(typeName, size + "," + scale);
+            }
+            return withArguments(typeName, String.valueOf(size));
+        }
+        return typeName;
+    }
+
+    /**
+     * 在类型名后附加参数，已带参数的类型名保持不变，UNSIGNED 后缀保持在最后
+     */
+    private static String withArguments(String typeName, String arguments) {
+        if (typeName.contains("(")) {
+            return typeName;
+        }
+        if (typeName.endsWith(" UNSIGNED")) {
+            return typeName.substring(0, typeName.length() - " UNSIGNED".length())
+                    + "(" + arguments + ") UNSIGNED";
+        }
+        return typeName + "(" + arguments + ")";
+    }
+
+    // ==================== 各方言 ====================
+
+    static DdlDialect mysql() {
+        DdlDialect dialect = new DdlDialect("mysql", "`", "`");
+        dialect.identity = "AUTO_INCREMENT";
+        dialect.identityAfterConstraints = true;
+        dialect.commentStyle = CommentStyle.INLINE;
+        dialect.backslashEscapes = true;
+        dialect.dropTable = "DROP TABLE IF EXISTS %s";
+        dialect.disableForeignKeyChecks = "SET FOREIGN_KEY_CHECKS = 0";
+        dialect.enableForeignKeyChecks = "SET FOREIGN_KEY_CHECKS = 1";
+        dialect.includeFile = "SOURCE %s;";
+        dialect.dropIndexOnTable = true;
+        dialect.columnAlter = ColumnAlter.MODIFY;
+        dialect.rule(TypeRule.length("BIT", 64, null), JDBCType.BIT);
+        dialect.rule(TypeRule.of("BOOLEAN"), JDBCType.BOOLEAN);
+        dialect.rule(TypeRule.of("TINYINT"), JDBCType.TINYINT);
+        dialect.rule(TypeRule.of("SMALLINT"), JDBCType.SMALLINT);
+        dialect.rule(TypeRule.of("INT"), JDBCType.INTEGER);
+        dialect.rule(TypeRule.of("BIGINT"), JDBCType.BIGINT);
+        dialect.rule(TypeRule.of("FLOAT"), JDBCType.REAL);
+        dialect.rule(TypeRule.of("DOUBLE"), JDBCType.FLOAT, JDBCType.DOUBLE);
+        dialect.rule(TypeRule.precision("DECIMAL", 65), JDBCType.NUMERIC, JDBCType.DECIMAL);
+        dialect.rule(TypeRule.length("CHAR", 255, "LONGTEXT"), JDBCType.CHAR, JDBCType.NCHAR);
+        dialect.rule(TypeRule.length("VARCHAR", 16383, "LONGTEXT"), JDBCType.VARCHAR, JDBCType.NVARCHAR);
+        dialect.rule(TypeRule.of("LONGTEXT"),
+                JDBCType.LONGVARCHAR, JDBCType.LONGNVARCHAR, JDBCType.CLOB, JDBCType.NCLOB);
+        dialect.rule(TypeRule.length("BINARY", 255, "LONGBLOB"), JDBCType.BINARY);
+        dialect.rule(TypeRule.length("VARBINARY", 65535, "LONGBLOB"), JDBCType.VARBINARY);
+        dialect.rule(TypeRule.of("LONGBLOB"), JDBCType.LONGVARBINARY, JDBCType.BLOB);
+        dialect.rule(TypeRule.of("DATE"), JDBCType.DATE);
+        dialect.rule(TypeRule.fraction("TIME", 6), JDBCType.TIME, JDBCType.TIME_WITH_TIMEZONE);
+        dialect.rule(TypeRule.fraction("DATETIME", 6), JDBCType.TIMESTAMP);
+        dialect.rule(TypeRule.fraction("TIMESTAMP", 6), JDBCType.TIMESTAMP_WITH_TIMEZONE);
+        dialect.namedTypes.put("JSON", "JSON");
+        dialect.namedTypes.put("JSONB", "JSON");
+        dialect.namedTypes.put("UUID", "CHAR(36)");
+        return dialect;
+    }
+
+    static DdlDialect postgresql() {
+        DdlDialect dialect = new DdlDialect("postgresql", "\"", "\"");
+        dialect.identity = "GENERATED BY DEFAULT AS IDENTITY";
+        dialect.commentStyle = CommentStyle.COMMENT_ON;
+        dialect.dropTable = "DROP TABLE IF EXISTS %s CASCADE";
+        dialect.includeFile = "\\i %s";
+        dialect.schemaScopedIndexNames = true;
+        dialect.rule(TypeRule.of("BOOLEAN"), JDBCType.BIT, JDBCType.BOOLEAN);
+        dialect.rule(TypeRule.of("SMALLINT"), JDBCType.TINYINT, JDBCType.SMALLINT);
+        dialect.rule(TypeRule.of("INTEGER"), JDBCType.INTEGER);
+        dialect.rule(TypeRule.of("BIGINT"), JDBCType.BIGINT);
+        dialect.rule(TypeRule.of("REAL"), JDBCType.REAL);
+        dialect.rule(TypeRule.of("DOUBLE PRECISION"), JDBCType.FLOAT, JDBCType.DOUBLE);
+        dialect.rule(TypeRule.precision("NUMERIC", 1000), JDBCType.NUMERIC, JDBCType.DECIMAL);
+        dialect.rule(TypeRule.length("CHAR", 10485760, "TEXT"), JDBCType.CHAR, JDBCType.NCHAR);
+        dialect.rule(TypeRule.length("VARCHAR", 10485760, "TEXT"), JDBCType.VARCHAR, JDBCType.NVARCHAR);
+        dialect.rule(TypeRule.of("TEXT"),
+                JDBCType.LONGVARCHAR, JDBCType.LONGNVARCHAR, JDBCType.CLOB, JDBCType.NCLOB);
+        dialect.rule(TypeRule.of("BYTEA"),
+                JDBCType.BINARY, JDBCType.VARBINARY, JDBCType.LONGVARBINARY, JDBCType.BLOB);
+        dialect.rule(TypeRule.of("DATE"), JDBCType.DATE);
+        dialect.rule(TypeRule.fraction("TIME", 6), JDBCType.TIME);
+        dialect.rule(TypeRule.fraction("TIMETZ", 6), JDBCType.TIME_WITH_TIMEZONE);
+        dialect.rule(TypeRule.fraction("TIMESTAMP", 6), JDBCType.TIMESTAMP);
+        dialect.rule(TypeRule.fraction("TIMESTAMPTZ", 6), JDBCType.TIMESTAMP_WITH_TIMEZONE);
+        dialect.namedTypes.put("JSON", "JSONB");
+        dialect.namedTypes.put("UUID", "UUID");
+        return dialect;
+    }
+
+    static DdlDialect h2() {
+        DdlDialect dialect = new DdlDialect("h2", "\"", "\"");
+        dialect.identity = "GENERATED BY DEFAULT AS IDENTITY";
+        dialect.commentStyle = CommentStyle.COMMENT_ON;
+        dialect.dropTable = "DROP TABLE IF EXISTS %s CASCADE";
+        dialect.disableForeignKeyChecks = "SET REFERENTIAL_INTEGRITY FALSE";
+        dialect.enableForeignKeyChecks = "SET REFERENTIAL_INTEGRITY TRUE";
+        dialect.includeFile = "RUNSCRIPT FROM '%s'";
+        dialect.schemaScopedIndexNames = true;
+        // 建外键时自动创建的索引与源库中导出的同名索引重复
+        dialect.indexIfNotExists = true;
+        dialect.rule(TypeRule.of("BOOLEAN"), JDBCType.BIT, JDBCType.BOOLEAN);
+        dialect.rule(TypeRule.of("TINYINT"), JDBCType.TINYINT);
+        dialect.rule(TypeRule.of("SMALLINT"), JDBCType.SMALLINT);
+        dialect.rule(TypeRule.of("INTEGER"), JDBCType.INTEGER);
+        dialect.rule(TypeRule.of("BIGINT"), JDBCType.BIGINT);
+        dialect.rule(TypeRule.of("REAL"), JDBCType.REAL);
+        dialect.rule(TypeRule.of("DOUBLE PRECISION"), JDBCType.FLOAT, JDBCType.DOUBLE);
+        dialect.rule(TypeRule.precision("NUMERIC", 100000), JDBCType.NUMERIC, JDBCType.DECIMAL);
+        dialect.rule(TypeRule.length("CHAR", 1000000000, "CLOB"), JDBCType.CHAR, JDBCType.NCHAR);
+        dialect.rule(TypeRule.length("VARCHAR", 1000000000, "CLOB"), JDBCType.VARCHAR, JDBCType.NVARCHAR);
+        dialect.rule(TypeRule.of("CLOB"), JDBCType.LONGVARCHAR, JDBCType.LONGNVARCHAR, JDBCType.CLOB, JDBCType.NCLOB);
+        dialect.rule(TypeRule.length("BINARY", 1000000000, "BLOB"), JDBCType.BINARY);
+        dialect.rule(TypeRule.length("VARBINARY", 1000000000, "BLOB"), JDBCType.VARBINARY);
+        dialect.rule(TypeRule.of("BLOB"), JDBCType.LONGVARBINARY, JDBCType.BLOB);
+        dialect.rule(TypeRule.of("DATE"), JDBCType.DATE);
+        dialect.rule(TypeRule.fraction("TIME", 9), JDBCType.TIME);
+        dialect.rule(TypeRule.of("TIME WITH TIME ZONE"), JDBCType.TIME_WITH_TIMEZONE);
+        dialect.rule(TypeRule.fraction("TIMESTAMP", 9), JDBCType.TIMESTAMP);
+        dialect.rule(TypeRule.of("TIMESTAMP WITH TIME ZONE"), JDBCType.TIMESTAMP_WITH_TIMEZONE);
+        dialect.namedTypes.put("JSON", "JSON");
+        dialect.namedTypes.put("JSONB", "JSON");
+        dialect.namedTypes.put("UUID", "UUID");
+        return dialect;
+    }
+
+    static DdlDialect oracle() {
+        DdlDialect dialect = new DdlDialect("oracle", "\"", "\"");
+        dialect.identity = "GENERATED BY DEFAULT AS IDENTITY";
+        dialect.commentStyle = CommentStyle.COMMENT_ON;
+        dialect.booleanLiterals = false;
+        // 12c 之前没有 DROP TABLE IF EXISTS，忽略表不存在（ORA-00942）的错误
+        dialect.dropTable = "BEGIN EXECUTE IMMEDIATE 'DROP TABLE %2$s CASCADE CONSTRAINTS'; "
+                + "EXCEPTION WHEN OTHERS THEN IF SQLCODE != -942 THEN RAISE; END IF; END;";
+        dialect.includeFile = "@%s";
+        dialect.addColumn = "ALTER TABLE %s ADD (%s)";
+        dialect.columnAlter = ColumnAlter.MODIFY_PARENTHESIZED;
+        dialect.schemaScopedIndexNames = true;
+        dialect.rule(TypeRule.of("NUMBER(1)"), JDBCType.BIT, JDBCType.BOOLEAN);
+        dialect.rule(TypeRule.of("NUMBER(3)"), JDBCType.TINYINT);
+        dialect.rule(TypeRule.of("NUMBER(5)"), JDBCType.SMALLINT);
+        dialect.rule(TypeRule.of("NUMBER(10)"), JDBCType.INTEGER);
+        dialect.rule(TypeRule.of("NUMBER(19)"), JDBCType.BIGINT);
+        dialect.rule(TypeRule.of("BINARY_FLOAT"), JDBCType.REAL);
+        dialect.rule(TypeRule.of("BINARY_DOUBLE"), JDBCType.FLOAT, JDBCType.DOUBLE);
+        dialect.rule(TypeRule.precision("NUMBER", 38), JDBCType.NUMERIC, JDBCType.DECIMAL);
+        dialect.rule(TypeRule.length("CHAR", 2000, "CLOB"), JDBCType.CHAR);
+        dialect.rule(TypeRule.length("NCHAR", 1000, "NCLOB"), JDBCType.NCHAR);
+        dialect.rule(TypeRule.length("VARCHAR2", 4000, "CLOB"), JDBCType.VARCHAR);
+        dialect.rule(TypeRule.length("NVARCHAR2", 2000, "NCLOB"), JDBCType.NVARCHAR);
+        dialect.rule(TypeRule.of("CLOB"), JDBCType.LONGVARCHAR, JDBCType.CLOB);
+        dialect.rule(TypeRule.of("NCLOB"), JDBCType.LONGNVARCHAR, JDBCType.NCLOB);
+        dialect.rule(TypeRule.length("RAW", 2000, "BLOB"), JDBCType.BINARY, JDBCType.VARBINARY);
+        dialect.rule(TypeRule.of("BLOB"), JDBCType.LONGVARBINARY, JDBCType.BLOB);
+        dialect.rule(TypeRule.of("DATE"), JDBCType.DATE, JDBCType.TIME);
+        dialect.rule(TypeRule.fraction("TIMESTAMP", 9), JDBCType.TIMESTAMP);
+        dialect.rule(TypeRule.of("TIMESTAMP WITH TIME ZONE"),
+                JDBCType.TIMESTAMP_WITH_TIMEZONE, JDBCType.TIME_WITH_TIMEZONE);
+        dialect.namedTypes.put("JSON", "CLOB");
+        dialect.namedTypes.put("JSONB", "CLOB");
+        dialect.namedTypes.put("UUID", "RAW(16)");
+        return dialect;
+    }
+
+    static DdlDialect sqlServer() {
+        DdlDialect dialect = new DdlDialect("sqlserver", "[", "]");
+        dialect.identity = "IDENTITY(1,1)";
+        dialect.commentStyle = CommentStyle.EXTENDED_PROPERTY;
+        dialect.nationalLiterals = true;
+        dialect.booleanLiterals = false;
+        dialect.dropTable = "DROP TABLE IF EXISTS %s";
+        dialect.includeFile = ":r %s";
+        dialect.dropIndexOnTable = true;
+        dialect.addColumn = "ALTER TABLE %s ADD %s";
+        dialect.columnAlter = ColumnAlter.ALTER_COLUMN_FULL;
+        dialect.rule(TypeRule.of("BIT"), JDBCType.BIT, JDBCType.BOOLEAN);
+        dialect.rule(TypeRule.of("TINYINT"), JDBCType.TINYINT);
+        dialect.rule(TypeRule.of("SMALLINT"), JDBCType.SMALLINT);
+        dialect.rule(TypeRule.of("INT"), JDBCType.INTEGER);
+        dialect.rule(TypeRule.of("BIGINT"), JDBCType.BIGINT);
+        dialect.rule(TypeRule.of("REAL"), JDBCType.REAL);
+        dialect.rule(TypeRule.of("FLOAT"), JDBCType.FLOAT, JDBCType.DOUBLE);
+        dialect.rule(TypeRule.precision("DECIMAL", 38), JDBCType.NUMERIC, JDBCType.DECIMAL);
+        // 跨库时字符类型统一使用 Unicode 类型
+        dialect.rule(TypeRule.length("NCHAR", 4000, "NVARCHAR(MAX)"), JDBCType.CHAR, JDBCType.NCHAR);
+        dialect.rule(TypeRule.length("NVARCHAR", 4000, "NVARCHAR(MAX)"), JDBCType.VARCHAR, JDBCType.NVARCHAR);
+        dialect.rule(TypeRule.of("NVARCHAR(MAX)"),
+                JDBCType.LONGVARCHAR, JDBCType.LONGNVARCHAR, JDBCType.CLOB, JDBCType.NCLOB);
+        dialect.rule(TypeRule.length("BINARY", 8000, "VARBINARY(MAX)"), JDBCType.BINARY);
+        dialect.rule(TypeRule.length("VARBINARY", 8000, "VARBINARY(MAX)"), JDBCType.VARBINARY);
+        dialect.rule(TypeRule.of("VARBINARY(MAX)"), JDBCType.LONGVARBINARY, JDBCType.BLOB);
+        dialect.rule(TypeRule.of("DATE"), JDBCType.DATE);
+        dialect.rule(TypeRule.fraction("TIME", 7), JDBCType.TIME, JDBCType.TIME_WITH_TIMEZONE);
+        dialect.rule(TypeRule.fraction("DATETIME2", 7), JDBCType.TIMESTAMP);
+        dialect.rule(TypeRule.fraction("DATETIMEOFFSET", 7), JDBCType.TIMESTAMP_WITH_TIMEZONE);
+        dialect.namedTypes.put("JSON", "NVARCHAR(MAX)");
+        dialect.namedTypes.put("JSONB", "NVARCHAR(MAX)");
+        dialect.namedTypes.put("UUID", "UNIQUEIDENTIFIER");
+        return dialect;
+    }
+
+    private void rule(TypeRule rule, JDBCType... jdbcTypes) {
+        for (JDBCType jdbcType : jdbcTypes) {
+            typeRules.put(jdbcType, rule);
+        }
+    }
+
+    /**
+     * 注释写法：建表语句内联（MySQL）、COMMENT ON 语句、SQL Server 扩展属性
+     */
+    private enum CommentStyle {
+        NONE,
+        INLINE,
+        COMMENT_ON,
+        EXTENDED_PROPERTY
+    }
+
+    /**
+     * 修改字段的写法
+     */
+    private enum ColumnAlter {
+        /**
+         * MODIFY COLUMN 重写完整定义（MySQL）
+         */
+        MODIFY,
+        /**
+         * ALTER COLUMN 分别修改类型、默认值与可空（PostgreSQL、H2）
+         */
+        ALTER_COLUMN,
+        /**
+         * MODIFY (字段 类型 DEFAULT 可空)，只写变化的部分（Oracle）
+         */
+        MODIFY_PARENTHESIZED,
+        /**
+         * ALTER COLUMN 同时给出类型与可空，默认值为单独的约束（SQL Server）
+         */
+        ALTER_COLUMN_FULL
+    }
+
+    /**
+     * 类型参数的写法
+     */
+    private enum Sizing {
+        /**
+         * 不带参数
+         */
+        NONE,
+        /**
+         * 长度，超过上限时改用 overflow 类型
+         */
+        LENGTH,
+        /**
+         * 精度与小数位数，超过上限时不带参数
+         */
+        PRECISION,
+        /**
+         * 秒的小数位数，取自 decimalDigits，为 0 时取不超过上限的 columnSize（H2 以其表示时间精度），
+         * 超过上限时取上限
+         */
+        FRACTION
+    }
+
+    /**
+     * 目标方言中一类 JDBC 类型的写法
+     */
+    private record TypeRule(String name, Sizing sizing, int max, String overflow) {
+
+        static TypeRule of(String name) {
+            return new TypeRule(name, Sizing.NONE, 0, null);
+        }
+
+        static TypeRule length(String name, int max, String overflow) {
+            return new TypeRule(name, Sizing.LENGTH, max, overflow);
+        }
+
+        static TypeRule precision(String name, int max) {
+            return new TypeRule(name, Sizing.PRECISION, max, null);
+        }
+
+        static TypeRule fraction(String name, int max) {
+            return new TypeRule(name, Sizing.FRACTION, max, null);
+        }
+
+        String render(String typeName, Integer size, Integer scale) {
+            return switch (sizing) {
+                case NONE -> typeName;
+                case LENGTH -> size == null || size <= 0 ? typeName
+                        : size > max ? (overflow != null ? overflow : typeName)
+                        : withArguments(typeName, String.valueOf(size));
+                case PRECISION -> size == null || size <= 0 || size > max ? typeName
+                        : scale != null && scale > 0 ? withArguments(typeName, size + "," + Math.min(scale, size))
+                        : withArguments(typeName, String.valueOf(size));
+                case FRACTION -> {
+                    int fraction = scale != null && scale > 0 ? Math.min(scale, max)
+                            : size != null && size > 0 && size <= max ? size : 0;
+                    yield fraction > 0 ? withArguments(typeName, String.valueOf(fraction)) : typeName;
+                }
+            };
+        }
+    }
+
+    /**
+     * 类型映射缓存的键，nativeType 表示列来自与本方言相同的数据库
+     */
+    private record TypeKey(boolean nativeType, String typeName, String dataType, Integer size, Integer scale) {
+    }
+}
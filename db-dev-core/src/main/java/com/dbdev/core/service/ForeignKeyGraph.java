@@ -0,0 +1,321 @@
+package com.dbdev.core.service;
+
+import com.dbdev.core.model.ForeignKeyMetadata;
+import com.dbdev.core.model.TableRelations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 外键关系图
+ * <p>
+ * 表映射为连续的 int 编号，每个外键是一条从引用方指向被引用方的边。出边与入边各以压缩邻接数组保存：
+ * 编号为 i 的表的边为 edges[offsets[i]] 到 edges[offsets[i + 1] - 1]，遍历不产生对象分配。
+ * 建立后不可变，可在多个线程间共享。
+ */
+public final class ForeignKeyGraph {
+
+    private final String[] tableNames;
+    private final Map<String, Integer> tableIds;
+    private final List<ForeignKeyMetadata> foreignKeys;
+
+    private final int[] edgeSource;
+    private final int[] edgeTarget;
+    private final int[] outOffsets;
+    private final int[] outEdges;
+    private final int[] inOffsets;
+    private final int[] inEdges;
+
+    /**
+     * @param tableNames 全部表名，决定无外键的表在依赖顺序中的相对位置
+     * @param foreignKeys 外键，引用了 tableNames 以外的表时该表同样加入图中
+     */
+    public ForeignKeyGraph(Collection<String> tableNames, List<ForeignKeyMetadata> foreignKeys) {
+        this.tableIds = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        for (String tableName : tableNames) {
+            register(tableName, names);
+        }
+        for (ForeignKeyMetadata foreignKey : foreignKeys) {
+            register(foreignKey.getTableName(), names);
+            register(foreignKey.getReferencedTableName(), names);
+        }
+        this.tableNames = names.toArray(new String[0]);
+        this.foreignKeys = List.copyOf(foreignKeys);
+
+        int edgeCount = foreignKeys.size();
+        this.edgeSource = new int[edgeCount];
+        this.edgeTarget = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            edgeSource[e] = tableIds.get(foreignKeys.get(e).getTableName());
+            edgeTarget[e] = tableIds.get(foreignKeys.get(e).getReferencedTableName());
+        }
+        this.outOffsets = offsets(edgeSource, this.tableNames.length);
+        this.outEdges = edges(edgeSource, outOffsets);
+        this.inOffsets = offsets(edgeTarget, this.tableNames.length);
+        this.inEdges = edges(edgeTarget, inOffsets);
+    }
+
+    private void register(String tableName, List<String> names) {
+        if (tableIds.putIfAbsent(tableName, names.size()) == null) {
+            names.add(tableName);
+        }
+    }
+
+    /**
+     * 按端点计数后前缀求和，得到每个表的边在边数组中的起始位置
+     */
+    private static int[] offsets(int[] endpoints, int nodeCount) {
+        int[] offsets = new int[nodeCount + 1];
+        for (int node : endpoints) {
+            offsets[node + 1]++;
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        return offsets;
+    }
+
+    private static int[] edges(int[] endpoints, int[] offsets) {
+        int[] edges = new int[endpoints.length];
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int e = 0; e < endpoints.length; e++) {
+            edges[next[endpoints[e]]++] = e;
+        }
+        return edges;
+    }
+
+    /**
+     * 图中的全部表
+     */
+    public List<String> getTableNames() {
+        return List.of(tableNames);
+    }
+
+    /**
+     * 全部外键
+     */
+    public List<ForeignKeyMetadata> getForeignKeys() {
+        return foreignKeys;
+    }
+
+    /**
+     * 表引用其他表的外键
+     */
+    public List<ForeignKeyMetadata> getForeignKeys(String tableName) {
+        Integer id = tableIds.get(tableName);
+        return id == null ? List.of() : collect(outOffsets, outEdges, id);
+    }
+
+    /**
+     * 其他表引用该表的外键
+     */
+    public List<ForeignKeyMetadata> getReferencedBy(String tableName) {
+        Integer id = tableIds.get(tableName);
+        return id == null ? List.of() : collect(inOffsets, inEdges, id);
+    }
+
+    private List<ForeignKeyMetadata> collect(int[] offsets, int[] edges, int node) {
+        List<ForeignKeyMetadata> result = new ArrayList<>(offsets[node + 1] - offsets[node]);
+        for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+            result.add(foreignKeys.get(edges[i]));
+        }
+        return result;
+    }
+
+    /**
+     * 表的直接关系（双向）
+     */
+    public TableRelations getRelations(String tableName) {
+        return TableRelations.builder()
+                .tableName(tableName)
+                .foreignKeys(getForeignKeys(tableName))
+                .referencedBy(getReferencedBy(tableName))
+                .build();
+    }
+
+    /**
+     * 依赖顺序：被引用的表排在引用它的表之前，可按此顺序建表
+     * <p>
+     * 自引用不影响顺序；处于循环中的表及依赖它们的表无法排序，按原顺序追加在末尾
+     */
+    public List<String> dependencyOrder() {
+        int nodeCount = tableNames.length;
+        int[] pending = new int[nodeCount];
+        for (int e = 0; e < edgeSource.length; e++) {
+            if (edgeSource[e] != edgeTarget[e]) {
+                pending[edgeSource[e]]++;
+            }
+        }
+
+        int[] queue = new int[nodeCount];
+        int head = 0;
+        int tail = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            if (pending[node] == 0) {
+                queue[tail++] = node;
+            }
+        }
+        while (head < tail) {
+            int node = queue[head++];
+            for (int i = inOffsets[node]; i < inOffsets[node + 1]; i++) {
+                int referencing = edgeSource[inEdges[i]];
+                if (referencing != node && --pending[referencing] == 0) {
+                    queue[tail++] = referencing;
+                }
+            }
+        }
+
+        List<String> order = new ArrayList<>(nodeCount);
+        boolean[] placed = new boolean[nodeCount];
+        for (int i = 0; i < tail; i++) {
+            order.add(tableNames[queue[i]]);
+            placed[queue[i]] = true;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            if (!placed[node]) {
+                order.add(tableNames[node]);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * 外键循环：互相可达的表组成的强连通分量（含自引用的单表），使用非递归的 Tarjan 算法
+     */
+    public List<List<String>> cycles() {
+        int nodeCount = tableNames.length;
+        int[] index = new int[nodeCount];
+        int[] lowLink = new int[nodeCount];
+        Arrays.fill(index, -1);
+        boolean[] onStack = new boolean[nodeCount];
+        int[] stack = new int[nodeCount];
+        int stackSize = 0;
+        // 模拟递归调用栈：节点与其下一条待访问出边的位置
+        int[] callNode = new int[nodeCount];
+        int[] callEdge = new int[nodeCount];
+        int nextIndex = 0;
+
+        List<List<String>> cycles = new ArrayList<>();
+        for (int root = 0; root < nodeCount; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callNode[0] = root;
+            callEdge[0] = outOffsets[root];
+            index[root] = lowLink[root] = nextIndex++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth >= 0) {
+                int node = callNode[depth];
+                if (callEdge[depth] < outOffsets[node + 1]) {
+                    int target = edgeTarget[outEdges[callEdge[depth]++]];
+                    if (index[target] < 0) {
+                        index[target] = lowLink[target] = nextIndex++;
+                        stack[stackSize++] = target;
+                        onStack[target] = true;
+                        depth++;
+                        callNode[depth] = target;
+                        callEdge[depth] = outOffsets[target];
+                    } else if (onStack[target]) {
+                        lowLink[node] = Math.min(lowLink[node], index[target]);
+                    }
+                    continue;
+                }
+
+                if (lowLink[node] == index[node]) {
+                    List<String> component = new ArrayList<>();
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        component.add(tableNames[member]);
+                    } while (member != node);
+                    if (component.size() > 1 || hasSelfReference(node)) {
+                        Collections.reverse(component);
+                        cycles.add(component);
+                    }
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callNode[depth];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+                }
+            }
+        }
+        return cycles;
+    }
+
+    private boolean hasSelfReference(int node) {
+        for (int i = outOffsets[node]; i < outOffsets[node + 1]; i++) {
+            if (edgeTarget[outEdges[i]] == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 两表之间经过外键数最少的关联路径，不区分外键方向
+     *
+     * @return 依次经过的外键，两表相同时为空列表，不可达时返回 null
+     */
+    public List<ForeignKeyMetadata> joinPath(String fromTable, String toTable) {
+        Integer from = tableIds.get(fromTable);
+        Integer to = tableIds.get(toTable);
+        if (from == null || to == null) {
+            return null;
+        }
+        if (from.equals(to)) {
+            return List.of();
+        }
+
+        int nodeCount = tableNames.length;
+        int[] previousEdge = new int[nodeCount];
+        Arrays.fill(previousEdge, -1);
+        boolean[] visited = new boolean[nodeCount];
+        int[] queue = new int[nodeCount];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = from;
+        visited[from] = true;
+
+        while (head < tail && !visited[to]) {
+            int node = queue[head++];
+            for (int i = outOffsets[node]; i < outOffsets[node + 1]; i++) {
+                tail = visit(outEdges[i], edgeTarget[outEdges[i]], visited, previousEdge, queue, tail);
+            }
+            for (int i = inOffsets[node]; i < inOffsets[node + 1]; i++) {
+                tail = visit(inEdges[i], edgeSource[inEdges[i]], visited, previousEdge, queue, tail);
+            }
+        }
+        if (!visited[to]) {
+            return null;
+        }
+
+        List<ForeignKeyMetadata> path = new ArrayList<>();
+        for (int node = to; node != from; ) {
+            int edge = previousEdge[node];
+            path.add(foreignKeys.get(edge));
+            node = edgeSource[edge] == node ? edgeTarget[edge] : edgeSource[edge];
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private static int visit(int edge, int node, boolean[] visited, int[] previousEdge, int[] queue, int tail) {
+        if (!visited[node]) {
+            visited[node] = true;
+            previousEdge[node] = edge;
+            queue[tail++] = node;
+        }
+        return tail;
+    }
+}
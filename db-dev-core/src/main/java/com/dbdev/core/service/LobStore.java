@@ -0,0 +1,410 @@
+package com.dbdev.core.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 大字段暂存
+ * <p>
+ * 查询结果中的 TEXT/CLOB/BLOB 等大字段超过内联长度时只返回截断的预览、长度和获取句柄，
+ * 内容以流的方式写入临时文件，之后可通过句柄按需读取，避免单个大字段撑大结果页。
+ * 单个值最多暂存 max-size，所有暂存内容合计不超过 max-total-size，超出时淘汰最早的内容；
+ * 句柄只允许获得该结果的用户读取。
+ */
+@Slf4j
+@Component
+public class LobStore implements DisposableBean {
+
+    /**
+     * 暂存内容：句柄 -> 文件
+     */
+    private final Map<String, LobEntry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 已暂存（含正在写入）的总长度，文本按字符、二进制按字节计
+     */
+    private final AtomicLong spooledLength = new AtomicLong();
+
+    /**
+     * 暂存顺序，淘汰时先淘汰序号最小的内容
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Value("${db.dev.sql.lob.inline-limit:4096}")
+    private int inlineLimit;
+
+    @Value("${db.dev.sql.lob.max-size:67108864}")
+    private long maxSize;
+
+    @Value("${db.dev.sql.lob.max-total-size:536870912}")
+    private long maxTotalSize;
+
+    @Value("${db.dev.sql.lob.ttl:600}")
+    private int ttlSeconds;
+
+    private volatile Path directory;
+
+    /**
+     * 内联返回的最大字符数（二进制为字节数），0 表示不截断
+     */
+    public int getInlineLimit() {
+        return inlineLimit;
+    }
+
+    /**
+     * 读取文本大字段
+     *
+     * @param owner 结果所属用户，只有该用户可通过句柄读取
+     * @return 未超过内联长度时返回完整字符串，否则返回 {@link LobValue}
+     */
+    public Object readText(Reader reader, String owner) throws IOException {
+        if (reader == null) {
+            return null;
+        }
+        try (reader) {
+            char[] buffer = new char[inlineLimit + 1];
+            int count = readFully(reader, buffer);
+            if (count <= inlineLimit) {
+                return new String(buffer, 0, count);
+            }
+            String preview = new String(buffer, 0, inlineLimit);
+
+            Path file = Files.createTempFile(directory(), "lob-", ".txt");
+            Spool spool = new Spool();
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                int read = count;
+                do {
+                    int accepted = spool.accept(read);
+                    writer.write(buffer, 0, accepted);
+                    if (accepted < read) {
+                        break;
+                    }
+                } while ((read = reader.read(buffer)) != -1);
+            } catch (IOException e) {
+                spool.release();
+                deleteQuietly(file);
+                throw e;
+            }
+            return register(file, false, spool, preview, owner);
+        }
+    }
+
+    /**
+     * 读取二进制大字段，内容以 Base64 表示
+     *
+     * @param owner 结果所属用户，只有该用户可通过句柄读取
+     * @return 未超过内联长度时返回完整内容的 Base64，否则返回 {@link LobValue}
+     */
+    public Object readBinary(InputStream input, String owner) throws IOException {
+        if (input == null) {
+            return null;
+        }
+        try (input) {
+            byte[] buffer = new byte[inlineLimit + 1];
+            int count = input.readNBytes(buffer, 0, buffer.length);
+            if (count <= inlineLimit) {
+                return Base64.getEncoder().encodeToString(count == buffer.length ? buffer
+                        : Arrays.copyOf(buffer, count));
+            }
+            String preview = Base64.getEncoder().encodeToString(Arrays.copyOf(buffer, inlineLimit));
+
+            Path file = Files.createTempFile(directory(), "lob-", ".bin");
+            Spool spool = new Spool();
+            try (OutputStream output = Files.newOutputStream(file)) {
+                int read = count;
+                do {
+                    int accepted = spool.accept(read);
+                    output.write(buffer, 0, accepted);
+                    if (accepted < read) {
+                        break;
+                    }
+                } while ((read = input.read(buffer)) != -1);
+            } catch (IOException e) {
+                spool.release();
+                deleteQuietly(file);
+                throw e;
+            }
+            return register(file, true, spool, preview, owner);
+        }
+    }
+
+    /**
+     * 超过 max-size 或总量上限的内容只保留已写入的前缀，句柄仍然可用
+     */
+    private LobValue register(Path file, boolean binary, Spool spool, String preview, String owner)
+            throws IOException {
+        if (spool.length == 0) {
+            Files.deleteIfExists(file);
+            return new LobValue(preview, null, null, binary, false);
+        }
+        String handle = UUID.randomUUID().toString().replace("-", "");
+        entries.put(handle, new LobEntry(file, binary, spool.length, !spool.truncated, owner,
+                sequence.incrementAndGet()));
+        return new LobValue(preview, spool.length, handle, binary, !spool.truncated);
+    }
+
+    /**
+     * 从总量中预留暂存长度，不足时先淘汰最早的内容
+     *
+     * @return 实际预留的长度，可能小于 length
+     */
+    private long reserve(long length) {
+        if (maxTotalSize <= 0) {
+            spooledLength.addAndGet(length);
+            return length;
+        }
+        while (true) {
+            long current = spooledLength.get();
+            long available = maxTotalSize - current;
+            if (available < length && evictOldest()) {
+                continue;
+            }
+            long reserved = Math.max(0, Math.min(length, available));
+            if (spooledLength.compareAndSet(current, current + reserved)) {
+                return reserved;
+            }
+        }
+    }
+
+    /**
+     * 淘汰最早暂存的内容
+     *
+     * @return 是否有内容被淘汰
+     */
+    private boolean evictOldest() {
+        return entries.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().sequence))
+                .map(entry -> {
+                    log.debug("LOB spool limit reached, evicting {}", entry.getKey());
+                    remove(entry.getKey(), entry.getValue());
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    private void remove(String handle, LobEntry entry) {
+        if (entries.remove(handle, entry)) {
+            deleteQuietly(entry.getPath());
+            spooledLength.addAndGet(-entry.getLength());
+        }
+    }
+
+    private static int readFully(Reader reader, char[] buffer) throws IOException {
+        int count = 0;
+        int read;
+        while (count < buffer.length && (read = reader.read(buffer, count, buffer.length - count)) != -1) {
+            count += read;
+        }
+        return count;
+    }
+
+    private Path directory() throws IOException {
+        Path current = directory;
+        if (current == null) {
+            synchronized (this) {
+                current = directory;
+                if (current == null) {
+                    current = Files.createTempDirectory("db-dev-lob-");
+                    directory = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 根据句柄获取暂存内容
+     *
+     * @param owner 当前用户
+     * @return 暂存内容，不存在、已过期或不属于该用户时返回 null
+     */
+    public LobEntry get(String handle, String owner) {
+        LobEntry entry = entries.get(handle);
+        if (entry == null || owner == null || !entry.owners.contains(owner)) {
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 允许其他用户读取句柄，用于合并执行或结果缓存共享给多个用户的结果
+     */
+    void grant(Collection<String> handles, String owner) {
+        if (owner == null) {
+            return;
+        }
+        for (String handle : handles) {
+            LobEntry entry = entries.get(handle);
+            if (entry != null) {
+                entry.owners.add(owner);
+            }
+        }
+    }
+
+    /**
+     * 清理超过保留时间的暂存内容
+     */
+    @Scheduled(fixedDelayString = "${db.dev.sql.lob.evict-interval:60000}")
+    public void evictExpired() {
+        long deadline = System.currentTimeMillis() - ttlSeconds * 1000L;
+        entries.forEach((handle, entry) -> {
+            if (entry.getCreateTime() < deadline) {
+                remove(handle, entry);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        entries.forEach(this::remove);
+        if (directory != null) {
+            deleteQuietly(directory);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete LOB spool file {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * 单个值的写入进度，按块从总量中预留长度
+     */
+    private class Spool {
+        private long length;
+        private boolean truncated;
+
+        /**
+         * 预留本块的长度
+         *
+         * @return 可以写入的长度，小于 count 时内容被截断，应停止读取
+         */
+        int accept(int count) {
+            long reserved = reserve(Math.max(0, Math.min(count, maxSize - length)));
+            length += reserved;
+            if (reserved < count) {
+                truncated = true;
+            }
+            return (int) reserved;
+        }
+
+        /**
+         * 写入失败时归还预留的长度
+         */
+        void release() {
+            spooledLength.addAndGet(-length);
+            length = 0;
+        }
+    }
+
+    /**
+     * 暂存的大字段内容
+     */
+    public static class LobEntry {
+        private final Path path;
+        private final boolean binary;
+        private final long length;
+        private final boolean complete;
+        private final Set<String> owners = ConcurrentHashMap.newKeySet();
+        private final long sequence;
+        private final long createTime = System.currentTimeMillis();
+
+        LobEntry(Path path, boolean binary, long length, boolean complete, String owner, long sequence) {
+            this.path = path;
+            this.binary = binary;
+            this.length = length;
+            this.complete = complete;
+            this.sequence = sequence;
+            if (owner != null) {
+                owners.add(owner);
+            }
+        }
+
+        /**
+         * 文本内容以 UTF-8 编码存储
+         */
+        public Path getPath() { return path; }
+        public boolean isBinary() { return binary; }
+
+        /**
+         * 暂存的长度（字符数或字节数）
+         */
+        public long getLength() { return length; }
+
+        /**
+         * 是否为完整内容，为 false 时只暂存了前 length 部分
+         */
+        public boolean isComplete() { return complete; }
+        public long getCreateTime() { return createTime; }
+    }
+
+    /**
+     * 截断后的大字段单元格
+     */
+    public static class LobValue {
+        private final String preview;
+        private final Long length;
+        private final String handle;
+        private final boolean binary;
+        private final boolean complete;
+
+        LobValue(String preview, Long length, String handle, boolean binary, boolean complete) {
+            this.preview = preview;
+            this.length = length;
+            this.handle = handle;
+            this.binary = binary;
+            this.complete = complete;
+        }
+
+        /**
+         * 固定为 true，便于前端识别截断的单元格
+         */
+        public boolean isTruncated() { return true; }
+
+        /**
+         * 内容预览，二进制为 Base64
+         */
+        public String getPreview() { return preview; }
+
+        /**
+         * 句柄可获取的长度（字符数或字节数），暂存空间已满无法暂存时为 null
+         */
+        public Long getLength() { return length; }
+
+        /**
+         * 获取内容的句柄，暂存空间已满无法暂存时为 null
+         */
+        public String getHandle() { return handle; }
+
+        public boolean isBinary() { return binary; }
+
+        /**
+         * 句柄是否对应完整内容，超过 max-size 或暂存总量上限时为 false，句柄只返回前 length 部分
+         */
+        public boolean isComplete() { return complete; }
+    }
+}
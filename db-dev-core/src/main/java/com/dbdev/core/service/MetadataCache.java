@@ -0,0 +1,193 @@
+package com.dbdev.core.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 元数据缓存
+ * <p>
+ * 按（数据源、范围、表名）缓存读取到的元数据，条目在 TTL 内有效，总数受容量限制（LRU 淘汰）。
+ * 每个数据源维护一个版本号，整库或单表失效时版本号递增，加载期间版本号发生变化的结果不写入缓存，
+ * 避免失效前开始的读取把旧结构放回缓存。
+ */
+@Slf4j
+@Component
+public class MetadataCache {
+
+    /**
+     * 数据源版本号
+     */
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * 缓存条目（访问顺序，超出容量时淘汰最久未访问的条目）
+     */
+    private final LinkedHashMap<CacheKey, CachedEntry> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedEntry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    @Value("${db.dev.metadata.cache.ttl:600}")
+    private long ttlSeconds;
+
+    @Value("${db.dev.metadata.cache.max-entries:10000}")
+    private int maxEntries;
+
+    /**
+     * 读取缓存，未命中时加载并写入
+     *
+     * @param dataSourceName 数据源名称
+     * @param scope 缓存范围
+     * @param tableName 表名，仅 {@link Scope#TABLE} 使用
+     * @param loader 未命中时的加载逻辑
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String dataSourceName, Scope scope, String tableName, Loader<T> loader) throws SQLException {
+        CacheKey key = new CacheKey(dataSourceName, scope, scope == Scope.TABLE ? tableName : null);
+        long version = getVersion(dataSourceName);
+
+        if (ttlSeconds > 0) {
+            synchronized (cache) {
+                CachedEntry cached = cache.get(key);
+                if (cached != null) {
+                    if (cached.version() == version && cached.expireAt() >= System.currentTimeMillis()) {
+                        return (T) cached.value();
+                    }
+                    cache.remove(key);
+                }
+            }
+        }
+
+        T value = loader.load();
+        put(key, value, version);
+        return value;
+    }
+
+    /**
+     * 直接写入缓存（例如整库加载后顺带填充各表、从快照恢复），版本号已变化时忽略
+     *
+     * @param version 开始加载前通过 {@link #getVersion(String)} 取得的版本号
+     */
+    public void put(String dataSourceName, Scope scope, String tableName, Object value, long version) {
+        put(new CacheKey(dataSourceName, scope, scope == Scope.TABLE ? tableName : null), value, version);
+    }
+
+    private void put(CacheKey key, Object value, long version) {
+        if (ttlSeconds <= 0 || maxEntries <= 0 || value == null) {
+            return;
+        }
+        synchronized (cache) {
+            if (getVersion(key.dataSourceName()) != version) {
+                return;
+            }
+            cache.put(key, new CachedEntry(value, version, System.currentTimeMillis() + ttlSeconds * 1000));
+        }
+    }
+
+    /**
+     * 数据源当前的元数据版本号，每次整库或单表失效后递增
+     */
+    public long getVersion(String dataSourceName) {
+        return versions.computeIfAbsent(dataSourceName, name -> new AtomicLong()).get();
+    }
+
+    /**
+     * 使指定数据源的全部缓存失效
+     */
+    public void invalidate(String dataSourceName) {
+        synchronized (cache) {
+            versions.computeIfAbsent(dataSourceName, name -> new AtomicLong()).incrementAndGet();
+            cache.keySet().removeIf(key -> key.dataSourceName().equals(dataSourceName));
+        }
+        log.debug("Invalidated metadata cache of {}", dataSourceName);
+    }
+
+    /**
+     * 使单表缓存以及包含该表的整库缓存（数据库元数据、完整元数据、外键关系图）失效
+     * <p>
+     * 同样递增版本号，使失效前开始的整库加载不能把旧的整库结果和该表详情写回缓存；
+     * 其余表的详情不受影响，改记为新版本号继续有效。
+     */
+    public void invalidateTable(String dataSourceName, String tableName) {
+        synchronized (cache) {
+            AtomicLong counter = versions.computeIfAbsent(dataSourceName, name -> new AtomicLong());
+            long previous = counter.getAndIncrement();
+            long version = previous + 1;
+            cache.keySet().removeIf(key -> key.dataSourceName().equals(dataSourceName)
+                    && (key.scope() != Scope.TABLE || key.tableName().equals(tableName)));
+            cache.replaceAll((key, entry) -> key.dataSourceName().equals(dataSourceName)
+                    && entry.version() == previous ? entry.withVersion(version) : entry);
+        }
+        log.debug("Invalidated metadata cache of {}.{}", dataSourceName, tableName);
+    }
+
+    /**
+     * 使全部缓存失效
+     */
+    public void invalidateAll() {
+        synchronized (cache) {
+            versions.values().forEach(AtomicLong::incrementAndGet);
+            cache.clear();
+        }
+    }
+
+    /**
+     * 清理过期条目
+     */
+    @Scheduled(fixedDelayString = "${db.dev.metadata.cache.evict-interval:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            cache.values().removeIf(entry -> entry.expireAt() < now);
+        }
+    }
+
+    /**
+     * 缓存范围
+     */
+    public enum Scope {
+        /**
+         * 数据库元数据（含表列表）
+         */
+        DATABASE,
+        /**
+         * 含字段、索引的完整元数据（导出使用）
+         */
+        FULL,
+        /**
+         * 单表详情
+         */
+        TABLE,
+        /**
+         * 外键关系图
+         */
+        FOREIGN_KEYS
+    }
+
+    /**
+     * 未命中时的加载逻辑
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    private record CacheKey(String dataSourceName, Scope scope, String tableName) {
+    }
+
+    private record CachedEntry(Object value, long version, long expireAt) {
+        CachedEntry withVersion(long version) {
+            return new CachedEntry(value, version, expireAt);
+        }
+    }
+}
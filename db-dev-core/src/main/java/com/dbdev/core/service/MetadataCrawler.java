@@ -0,0 +1,179 @@
+package com.dbdev.core.service;
+
+import com.dbdev.core.model.TableMetadata;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 元数据并行抓取器
+ * <p>
+ * 无法批量读取目录时，逐表的 DatabaseMetaData 调用分摊到多个连接上并行执行。
+ * 连接数受 db.dev.metadata.crawler.parallelism 与连接池容量的 max-pool-fraction 比例共同限制，
+ * 调用方已持有的连接计入其中。各表结果写回原列表中的对象，顺序与输入一致。
+ */
+@Slf4j
+@Component
+public class MetadataCrawler implements DisposableBean {
+
+    private final DataSourceService dataSourceService;
+    private final PoolStatsService poolStatsService;
+
+    private final ExecutorService executor;
+
+    @Value("${db.dev.metadata.crawler.parallelism:4}")
+    private int parallelism;
+
+    @Value("${db.dev.metadata.crawler.max-pool-fraction:0.25}")
+    private double maxPoolFraction;
+
+    public MetadataCrawler(DataSourceService dataSourceService, PoolStatsService poolStatsService) {
+        this.dataSourceService = dataSourceService;
+        this.poolStatsService = poolStatsService;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "db-dev-metadata-crawler-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 并行处理各表
+     *
+     * @param dataSourceName 数据源名称，用于获取额外连接并按连接池容量限制并行度
+     * @param connection 调用方已持有的连接，由当前线程使用
+     * @param tables 待处理的表
+     * @param task 单表处理逻辑，只修改传入的表对象
+     * @param progress 进度回调，可能在多个线程中调用
+     */
+    public void crawl(String dataSourceName, Connection connection, List<TableMetadata> tables,
+                      TableTask task, Progress progress) throws SQLException {
+        int total = tables.size();
+        int workers = workerCount(dataSourceName, total);
+        long startTime = System.currentTimeMillis();
+        log.info("Crawling metadata of {} tables from {} with {} connection(s)", total, dataSourceName, workers);
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicReference<SQLException> failure = new AtomicReference<>();
+
+        List<Future<?>> futures = new ArrayList<>();
+        if (workers > 1) {
+            DataSource dataSource = dataSourceService.getDataSource(dataSourceName);
+            for (int i = 1; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    try (Connection workerConnection = dataSource.getConnection()) {
+                        work(workerConnection, tables, task, progress, next, completed, failure);
+                    } catch (SQLException e) {
+                        // 拿不到额外连接时由其余线程继续完成
+                        log.debug("Metadata crawler worker could not get a connection: {}", e.getMessage());
+                    }
+                }));
+            }
+        }
+
+        work(connection, tables, task, progress, next, completed, failure);
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, new SQLException("Metadata crawl interrupted", e));
+            } catch (ExecutionException e) {
+                failure.compareAndSet(null, new SQLException(e.getCause().getMessage(), e.getCause()));
+            }
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        log.info("Crawled metadata of {} tables from {} in {} ms", total, dataSourceName,
+                System.currentTimeMillis() - startTime);
+    }
+
+    private void work(Connection connection, List<TableMetadata> tables, TableTask task, Progress progress,
+                      AtomicInteger next, AtomicInteger completed, AtomicReference<SQLException> failure) {
+        int index;
+        while (failure.get() == null && (index = next.getAndIncrement()) < tables.size()) {
+            TableMetadata table = tables.get(index);
+            try {
+                task.process(connection, table);
+            } catch (SQLException e) {
+                failure.compareAndSet(null, e);
+                return;
+            }
+            int done = completed.incrementAndGet();
+            if (done % 100 == 0) {
+                log.debug("Crawled metadata of {}/{} tables", done, tables.size());
+            }
+            progress.onTable(done, tables.size(), table.getTableName());
+        }
+    }
+
+    /**
+     * 并行连接数：不超过配置的并行度、表数量以及连接池容量的指定比例，至少为 1
+     * 无法获取连接池容量（非连接池数据源）时仅按并行度限制
+     */
+    int workerCount(String dataSourceName, int tableCount) {
+        int workers = Math.min(parallelism, tableCount);
+        int maxConnections = maxConnections(dataSourceName);
+        if (maxConnections > 0) {
+            workers = Math.min(workers, (int) (maxConnections * maxPoolFraction));
+        }
+        return Math.max(1, workers);
+    }
+
+    private int maxConnections(String dataSourceName) {
+        try {
+            return poolStatsService.getPoolStats(dataSourceName).getMaxConnections();
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 单表处理逻辑
+     */
+    @FunctionalInterface
+    public interface TableTask {
+        void process(Connection connection, TableMetadata table) throws SQLException;
+    }
+
+    /**
+     * 抓取进度回调
+     */
+    @FunctionalInterface
+    public interface Progress {
+
+        Progress NONE = (completed, total, tableName) -> { };
+
+        /**
+         * 一张表处理完成
+         *
+         * @param completed 已完成的表数量
+         * @param total 表总数
+         * @param tableName 刚完成的表名
+         */
+        void onTable(int completed, int total, String tableName);
+    }
+}
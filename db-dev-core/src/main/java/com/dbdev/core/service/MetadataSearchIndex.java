@@ -0,0 +1,327 @@
+package com.dbdev.core.service;
+
+import com.dbdev.core.model.ColumnMetadata;
+import com.dbdev.core.model.DatabaseMetadata;
+import com.dbdev.core.model.MetadataSearchHit;
+import com.dbdev.core.model.TableMetadata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 元数据三元组倒排索引
+ * <p>
+ * 每张表及其每个字段各为一个文档，名称与注释分别按小写字符三元组建立倒排表，倒排表为递增的 int 文档号数组。
+ * 元数据变化时只删除并重新加入结构不同的表，删除的文档仅做标记，标记数超过文档总数一半时整体重建。
+ * 非线程安全，由调用方同步。
+ */
+final class MetadataSearchIndex {
+
+    /**
+     * 少于该长度的查询无法拆出三元组，改为逐个文档匹配
+     */
+    private static final int GRAM_LENGTH = 3;
+
+    /**
+     * 得分相同时表排在字段前面
+     */
+    private static final double TABLE_BONUS = 5;
+
+    /**
+     * 注释命中相对名称命中的权重
+     */
+    private static final double REMARK_WEIGHT = 0.5;
+
+    private static final Comparator<Candidate> WORST_FIRST =
+            Comparator.comparingDouble(Candidate::score).thenComparing(Candidate::id, Comparator.reverseOrder());
+
+    private final List<Document> documents = new ArrayList<>();
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+
+    private final Map<Long, IntList> namePostings = new HashMap<>();
+    private final Map<Long, IntList> remarkPostings = new HashMap<>();
+
+    /**
+     * 表名 -> 已索引的表（不同 schema 的同名表归为一组）及其文档号
+     */
+    private final Map<String, TableEntry> tables = new HashMap<>();
+
+    /**
+     * 最近一次建立索引所用的元数据
+     */
+    private DatabaseMetadata source;
+
+    /**
+     * 按新的元数据增量更新：删除不存在或结构变化的表，加入新增或变化的表
+     */
+    void update(DatabaseMetadata metadata) {
+        if (metadata == source) {
+            return;
+        }
+        Map<String, List<TableMetadata>> incoming = groupByName(metadata.getTables());
+
+        Iterator<Map.Entry<String, TableEntry>> iterator = tables.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, TableEntry> entry = iterator.next();
+            List<TableMetadata> current = incoming.get(entry.getKey());
+            if (current != null && current.equals(entry.getValue().tables())) {
+                incoming.remove(entry.getKey());
+                continue;
+            }
+            for (int id : entry.getValue().documentIds()) {
+                deleted.set(id);
+            }
+            deletedCount += entry.getValue().documentIds().length;
+            iterator.remove();
+        }
+        incoming.forEach((tableName, group) -> tables.put(tableName, add(group)));
+        source = metadata;
+
+        if (deletedCount > documents.size() / 2) {
+            rebuild();
+        }
+    }
+
+    private static Map<String, List<TableMetadata>> groupByName(List<TableMetadata> tables) {
+        Map<String, List<TableMetadata>> grouped = new LinkedHashMap<>();
+        if (tables != null) {
+            for (TableMetadata table : tables) {
+                grouped.computeIfAbsent(table.getTableName(), name -> new ArrayList<>()).add(table);
+            }
+        }
+        return grouped;
+    }
+
+    private void rebuild() {
+        List<List<TableMetadata>> groups = new ArrayList<>();
+        for (TableEntry entry : tables.values()) {
+            groups.add(entry.tables());
+        }
+        documents.clear();
+        deleted.clear();
+        deletedCount = 0;
+        namePostings.clear();
+        remarkPostings.clear();
+        tables.clear();
+        for (List<TableMetadata> group : groups) {
+            tables.put(group.get(0).getTableName(), add(group));
+        }
+    }
+
+    private TableEntry add(List<TableMetadata> group) {
+        IntList ids = new IntList();
+        for (TableMetadata table : group) {
+            ids.add(addDocument(table.getTableName(), null, table.getRemarks()));
+            if (table.getColumns() != null) {
+                for (ColumnMetadata column : table.getColumns()) {
+                    ids.add(addDocument(table.getTableName(), column.getColumnName(), column.getRemarks()));
+                }
+            }
+        }
+        return new TableEntry(group, ids.toArray());
+    }
+
+    private int addDocument(String tableName, String columnName, String remarks) {
+        int id = documents.size();
+        String name = normalize(columnName != null ? columnName : tableName);
+        String remark = remarks == null || remarks.isBlank() ? null : normalize(remarks);
+        int nameGrams = addPostings(namePostings, name, id);
+        int remarkGrams = remark == null ? 0 : addPostings(remarkPostings, remark, id);
+        documents.add(new Document(tableName, columnName, remarks, name, remark, nameGrams, remarkGrams));
+        return id;
+    }
+
+    private static int addPostings(Map<Long, IntList> postings, String text, int id) {
+        long[] grams = trigrams(text);
+        for (long gram : grams) {
+            postings.computeIfAbsent(gram, key -> new IntList()).add(id);
+        }
+        return grams.length;
+    }
+
+    /**
+     * 搜索表名、字段名与注释
+     *
+     * @param limit 最多返回的结果数
+     * @return 按相关度从高到低排列的结果
+     */
+    List<MetadataSearchHit> search(String query, int limit) {
+        String q = query == null ? "" : normalize(query.trim());
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // 过短的查询拆不出有效的三元组，逐个文档做包含匹配
+        boolean scan = q.length() < GRAM_LENGTH;
+        long[] grams = scan ? new long[0] : trigrams(q);
+        int[] nameHits = new int[documents.size()];
+        int[] remarkHits = new int[documents.size()];
+        IntList candidates = new IntList();
+        if (scan) {
+            for (int id = 0; id < documents.size(); id++) {
+                candidates.add(id);
+            }
+        } else {
+            countHits(namePostings, grams, nameHits, remarkHits, candidates);
+            countHits(remarkPostings, grams, remarkHits, nameHits, candidates);
+        }
+        // 模糊匹配至少命中一半的查询三元组
+        int minHits = Math.max(1, (grams.length + 1) / 2);
+
+        PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        for (int i = 0; i < candidates.size; i++) {
+            int id = candidates.values[i];
+            if (deleted.get(id)) {
+                continue;
+            }
+            Document document = documents.get(id);
+            double score = score(document.name(), q, grams.length, nameHits[id], document.nameGrams(), minHits);
+            if (document.remark() != null) {
+                score = Math.max(score, REMARK_WEIGHT
+                        * score(document.remark(), q, grams.length, remarkHits[id], document.remarkGrams(), minHits));
+            }
+            if (score <= 0) {
+                continue;
+            }
+            if (document.columnName() == null) {
+                score += TABLE_BONUS;
+            }
+            top.add(new Candidate(id, score));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<MetadataSearchHit> hits = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            Candidate candidate = top.poll();
+            Document document = documents.get(candidate.id());
+            hits.add(MetadataSearchHit.builder()
+                    .type(document.columnName() == null ? "table" : "column")
+                    .tableName(document.tableName())
+                    .columnName(document.columnName())
+                    .remarks(document.remarks())
+                    .score(Math.round(candidate.score() * 100) / 100.0)
+                    .build());
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    /**
+     * 累计各文档命中的三元组数，首次命中（名称与注释均未命中过）的文档加入候选
+     */
+    private static void countHits(Map<Long, IntList> postings, long[] grams, int[] hits, int[] otherHits,
+                                  IntList candidates) {
+        for (long gram : grams) {
+            IntList posting = postings.get(gram);
+            if (posting == null) {
+                continue;
+            }
+            for (int i = 0; i < posting.size; i++) {
+                int id = posting.values[i];
+                if (hits[id]++ == 0 && otherHits[id] == 0) {
+                    candidates.add(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * 单个字段的得分：完全相同 > 前缀 > 单词开头 > 包含 > 三元组相似度
+     */
+    private static double score(String text, String q, int queryGrams, int hits, int textGrams, int minHits) {
+        if (text.equals(q)) {
+            return 100;
+        }
+        double coverage = 10.0 * q.length() / text.length();
+        if (text.startsWith(q)) {
+            return 80 + coverage;
+        }
+        int at = text.indexOf(q);
+        if (at > 0) {
+            char previous = text.charAt(at - 1);
+            return (previous == '_' || previous == ' ' || previous == '.' ? 70 : 60) + coverage;
+        }
+        if (queryGrams == 0 || hits < minHits) {
+            return 0;
+        }
+        // 三元组集合的 Jaccard 相似度
+        return 50.0 * hits / (queryGrams + textGrams - hits);
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 文本两端补空格后去重的三元组，每个三元组的三个字符打包为一个 long
+     * <p>
+     * 补位使开头与结尾的字符多出现在两个三元组中，短名称拼写错误时仍能命中足够的三元组
+     */
+    private static long[] trigrams(String text) {
+        text = ' ' + text + ' ';
+        int count = text.length() - GRAM_LENGTH + 1;
+        if (count <= 0) {
+            return new long[0];
+        }
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * 基本类型 int 的可增长数组，用作倒排表
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * 被索引的文档：一张表或一个字段
+     *
+     * @param name 小写的表名或字段名
+     * @param remark 小写的注释，无注释时为 null
+     */
+    private record Document(String tableName, String columnName, String remarks, String name, String remark,
+                            int nameGrams, int remarkGrams) {
+    }
+
+    private record TableEntry(List<TableMetadata> tables, int[] documentIds) {
+    }
+
+    private record Candidate(int id, double score) {
+    }
+}
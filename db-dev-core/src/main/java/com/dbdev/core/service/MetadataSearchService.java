@@ -0,0 +1,49 @@
+package com.dbdev.core.service;
+
+import com.dbdev.core.model.DatabaseMetadata;
+import com.dbdev.core.model.MetadataSearchHit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 元数据搜索服务
+ * <p>
+ * 每个数据源维护一个表名、字段名与注释的倒排索引，索引来源于缓存的完整元数据。
+ * 每次搜索前与当前缓存的元数据比对，只重新索引结构发生变化的表。
+ */
+@Service
+public class MetadataSearchService {
+
+    private final MetadataService metadataService;
+
+    private final Map<String, MetadataSearchIndex> indexes = new ConcurrentHashMap<>();
+
+    @Value("${db.dev.metadata.search.max-results:100}")
+    private int maxResults;
+
+    public MetadataSearchService(MetadataService metadataService) {
+        this.metadataService = metadataService;
+    }
+
+    /**
+     * 搜索表与字段
+     *
+     * @param dataSourceName 数据源名称
+     * @param query 关键字，匹配表名、字段名与注释，不区分大小写
+     * @param limit 最多返回的结果数，不超过 db.dev.metadata.search.max-results
+     * @return 按相关度从高到低排列的结果
+     */
+    public List<MetadataSearchHit> search(String dataSourceName, String query, int limit) throws SQLException {
+        DatabaseMetadata metadata = metadataService.getFullMetadata(dataSourceName, MetadataCrawler.Progress.NONE);
+        MetadataSearchIndex index = indexes.computeIfAbsent(dataSourceName, name -> new MetadataSearchIndex());
+        synchronized (index) {
+            index.update(metadata);
+            return index.search(query, Math.min(limit, maxResults));
+        }
+    }
+}
@@ -2,16 +2,17 @@ package com.dbdev.core.service;
 
 import com.dbdev.core.model.ColumnMetadata;
 import com.dbdev.core.model.DatabaseMetadata;
-import com.dbdev.core.model.IndexMetadata;
 import com.dbdev.core.model.TableMetadata;
+import com.dbdev.core.model.TablePage;
+import com.dbdev.core.model.TableQuery;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 /**
  * 数据库元数据服务
@@ -20,6 +21,71 @@ import java.util.Locale;
 @Service
 public class MetadataService {
 
+    private final CatalogLoader catalogLoader;
+    private final DataSourceService dataSourceService;
+    private final MetadataCache metadataCache;
+    private final SchemaFingerprintService schemaFingerprintService;
+    private final MetadataSnapshotStore metadataSnapshotStore;
+    private final TableStatisticsService tableStatisticsService;
+
+    @Value("${db.dev.metadata.max-page-size:500}")
+    private int maxPageSize;
+
+    public MetadataService(CatalogLoader catalogLoader, DataSourceService dataSourceService,
+                           MetadataCache metadataCache, SchemaFingerprintService schemaFingerprintService,
+                           MetadataSnapshotStore metadataSnapshotStore,
+                           TableStatisticsService tableStatisticsService) {
+        this.catalogLoader = catalogLoader;
+        this.dataSourceService = dataSourceService;
+        this.metadataCache = metadataCache;
+        this.schemaFingerprintService = schemaFingerprintService;
+        this.metadataSnapshotStore = metadataSnapshotStore;
+        this.tableStatisticsService = tableStatisticsService;
+    }
+
+    /**
+     * 获取数据源的结构指纹
+     * <p>
+     * 首次访问数据源时计算并作为变化检测的基准，之后由定期检查、结构修改或手动清除缓存时更新
+     *
+     * @return 指纹，未启用或计算失败时返回 null
+     */
+    public String getSchemaFingerprint(String dataSourceName) {
+        return schemaFingerprintService.getFingerprint(dataSourceName);
+    }
+
+    /**
+     * 元数据接口的 ETag：结构指纹加元数据缓存版本号和表统计信息版本号
+     * <p>
+     * 指纹只覆盖部分结构（如回退为 getTables 时不含字段），缓存失效后版本号变化，客户端随之重新获取；
+     * 响应中附带的统计信息定期刷新，刷新后同样使 ETag 变化
+     *
+     * @return ETag，指纹未启用或计算失败时返回 null
+     */
+    public String getMetadataETag(String dataSourceName) {
+        String fingerprint = getSchemaFingerprint(dataSourceName);
+        if (fingerprint == null) {
+            return null;
+        }
+        return fingerprint + "-" + metadataCache.getVersion(dataSourceName)
+                + "-" + tableStatisticsService.getVersion(dataSourceName);
+    }
+
+    /**
+     * 获取数据库元数据（经缓存），读取后保存快照，各表附带最近一次采集的统计信息
+     */
+    public DatabaseMetadata getDatabaseMetadata(String dataSourceName) throws SQLException {
+        String fingerprint = getSchemaFingerprint(dataSourceName);
+        DatabaseMetadata metadata = metadataCache.get(dataSourceName, MetadataCache.Scope.DATABASE, null, () -> {
+            DatabaseMetadata loaded = getDatabaseMetadata(dataSourceService.getDataSource(dataSourceName));
+            metadataSnapshotStore.saveDatabase(dataSourceName, fingerprint, loaded);
+            return loaded;
+        });
+        return metadata.toBuilder()
+                .tables(tableStatisticsService.attach(dataSourceName, metadata.getTables()))
+                .build();
+    }
+
     /**
      * 获取数据库元数据
      */
@@ -31,36 +97,84 @@ public class MetadataService {
                     .databaseName(connection.getCatalog())
                     .productName(metaData.getDatabaseProductName())
                     .productVersion(metaData.getDatabaseProductVersion())
-                    .tables(getTables(metaData, connection.getCatalog()))
+                    .tables(catalogLoader.loadTables(connection))
                     .build();
         }
     }
 
+    /**
+     * 获取包含所有表字段、索引与主键的完整元数据（经缓存），同时填充各表的详情缓存并保存快照，
+     * 各表附带最近一次采集的统计信息
+     *
+     * @param progress 未命中缓存、实际读取目录时的进度回调
+     */
+    public DatabaseMetadata getFullMetadata(String dataSourceName, MetadataCrawler.Progress progress)
+            throws SQLException {
+        String fingerprint = getSchemaFingerprint(dataSourceName);
+        long version = metadataCache.getVersion(dataSourceName);
+        DatabaseMetadata metadata = metadataCache.get(dataSourceName, MetadataCache.Scope.FULL, null, () -> {
+            try (Connection connection = dataSourceService.getDataSource(dataSourceName).getConnection()) {
+                DatabaseMetaData metaData = connection.getMetaData();
+                List<TableMetadata> tables = catalogLoader.loadTablesWithDetails(dataSourceName, connection, progress);
+                for (TableMetadata table : tables) {
+                    metadataCache.put(dataSourceName, MetadataCache.Scope.TABLE, table.getTableName(), table, version);
+                }
+
+                DatabaseMetadata loaded = DatabaseMetadata.builder()
+                        .databaseName(connection.getCatalog())
+                        .productName(metaData.getDatabaseProductName())
+                        .productVersion(metaData.getDatabaseProductVersion())
+                        .tables(tables)
+                        .build();
+                metadataSnapshotStore.saveFull(dataSourceName, fingerprint, loaded);
+                return loaded;
+            }
+        });
+        return metadata.toBuilder()
+                .tables(tableStatisticsService.attach(dataSourceName, metadata.getTables()))
+                .build();
+    }
+
+    /**
+     * 获取表列表（经缓存，与数据库元数据共用同一缓存条目）
+     */
+    public List<TableMetadata> getTables(String dataSourceName) throws SQLException {
+        return getDatabaseMetadata(dataSourceName).getTables();
+    }
+
+    /**
+     * 分页获取表列表，名称、类型过滤与排序尽量在数据库端完成，只返回当前页
+     * <p>
+     * 页码小于 1 时取第一页，每页条数限制在 1 到 db.dev.metadata.max-page-size 之间
+     */
+    public TablePage getTablePage(String dataSourceName, TableQuery query) throws SQLException {
+        query.setPage(Math.max(1, query.getPage()));
+        query.setPageSize(Math.max(1, Math.min(query.getPageSize(), maxPageSize)));
+        TablePage page;
+        try (Connection connection = dataSourceService.getDataSource(dataSourceName).getConnection()) {
+            page = catalogLoader.loadTablePage(connection, query);
+        }
+        page.setTables(tableStatisticsService.attach(dataSourceName, page.getTables()));
+        return page;
+    }
+
     /**
      * 获取表列表
      */
     public List<TableMetadata> getTables(DataSource dataSource) throws SQLException {
         try (Connection connection = dataSource.getConnection()) {
-            DatabaseMetaData metaData = connection.getMetaData();
-            return getTables(metaData, connection.getCatalog());
+            return catalogLoader.loadTables(connection);
         }
     }
 
-    private List<TableMetadata> getTables(DatabaseMetaData metaData, String catalog) throws SQLException {
-        List<TableMetadata> tables = new ArrayList<>();
-
-        try (ResultSet rs = metaData.getTables(catalog, null, "%", null)) {
-            while (rs.next()) {
-                String tableName = rs.getString("TABLE_NAME");
-                tables.add(TableMetadata.builder()
-                        .tableName(tableName)
-                        .tableType(rs.getString("TABLE_TYPE"))
-                        .remarks(rs.getString("REMARKS"))
-                        .build());
-            }
-        }
-
-        return tables;
+    /**
+     * 获取表详细信息（经缓存），附带最近一次采集的统计信息
+     */
+    public TableMetadata getTableDetail(String dataSourceName, String tableName) throws SQLException {
+        getSchemaFingerprint(dataSourceName);
+        TableMetadata table = metadataCache.get(dataSourceName, MetadataCache.Scope.TABLE, tableName,
+                () -> getTableDetail(dataSourceService.getDataSource(dataSourceName), tableName));
+        return tableStatisticsService.attach(dataSourceName, List.of(table)).get(0);
     }
 
     /**
@@ -68,46 +182,46 @@ public class MetadataService {
      */
     public TableMetadata getTableDetail(DataSource dataSource, String tableName) throws SQLException {
         try (Connection connection = dataSource.getConnection()) {
-            DatabaseMetaData metaData = connection.getMetaData();
-            String catalog = connection.getCatalog();
-
-            return TableMetadata.builder()
-                    .tableName(tableName)
-                    .columns(getColumns(metaData, catalog, tableName))
-                    .indexes(getIndexes(metaData, catalog, tableName))
-                    .primaryKeys(getPrimaryKeys(metaData, catalog, tableName))
-                    .build();
+            return catalogLoader.loadTableDetail(connection, tableName);
         }
     }
 
     /**
-     * 获取字段列表
+     * 获取外键关系图（经缓存），一次读取数据源的全部外键
      */
-    private List<ColumnMetadata> getColumns(DatabaseMetaData metaData, String catalog, String tableName)
-            throws SQLException {
-        List<ColumnMetadata> columns = new ArrayList<>();
+    public ForeignKeyGraph getForeignKeyGraph(String dataSourceName) throws SQLException {
+        getSchemaFingerprint(dataSourceName);
+        return metadataCache.get(dataSourceName, MetadataCache.Scope.FOREIGN_KEYS, null, () -> {
+            List<String> tableNames = new ArrayList<>();
+            for (TableMetadata table : getTables(dataSourceName)) {
+                tableNames.add(table.getTableName());
+            }
+            try (Connection connection = dataSourceService.getDataSource(dataSourceName).getConnection()) {
+                return new ForeignKeyGraph(tableNames, catalogLoader.loadForeignKeys(dataSourceName, connection));
+            }
+        });
+    }
 
-        try (ResultSet rs = metaData.getColumns(catalog, null, tableName, "%")) {
-            while (rs.next()) {
-                columns.add(ColumnMetadata.builder()
-                        .columnName(rs.getString("COLUMN_NAME"))
-                        .dataType(rs.getString("DATA_TYPE"))
-                        .typeName(rs.getString("TYPE_NAME"))
-                        .columnSize(rs.getInt("COLUMN_SIZE"))
-                        .decimalDigits(rs.getInt("DECIMAL_DIGITS"))
-                        .nullable(rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable)
-                        .defaultValue(rs.getString("COLUMN_DEF"))
-                        .remarks(rs.getString("REMARKS"))
-                        .autoIncrement("YES".equalsIgnoreCase(rs.getString("IS_AUTOINCREMENT")))
-                        .javaType(getJavaType(rs.getString("TYPE_NAME")))
-                        .build());
+    /**
+     * 清除元数据缓存，并重新计算结构指纹
+     *
+     * @param dataSourceName 数据源名称，为 null 时清除全部
+     * @param tableName 表名，为 null 时清除整个数据源
+     */
+    public void invalidateCache(String dataSourceName, String tableName) {
+        if (dataSourceName == null) {
+            metadataCache.invalidateAll();
+            schemaFingerprintService.checkForChanges();
+        } else {
+            if (tableName == null) {
+                metadataCache.invalidate(dataSourceName);
+            } else {
+                metadataCache.invalidateTable(dataSourceName, tableName);
             }
+            schemaFingerprintService.refresh(dataSourceName);
         }
-
-        return columns;
     }
 
-
     /**
      * 根据 dataType 获取 Java 类型
      */
@@ -145,43 +259,12 @@ public class MetadataService {
 
 
     /**
-     * 获取索引列表
+     * 创建表，并使该表及表列表的缓存失效、重新计算结构指纹
      */
-    private List<IndexMetadata> getIndexes(DatabaseMetaData metaData, String catalog, String tableName)
-            throws SQLException {
-        List<IndexMetadata> indexes = new ArrayList<>();
-
-        try (ResultSet rs = metaData.getIndexInfo(catalog, null, tableName, false, false)) {
-            while (rs.next()) {
-                String indexName = rs.getString("INDEX_NAME");
-                if (indexName != null) {
-                    indexes.add(IndexMetadata.builder()
-                            .indexName(indexName)
-                            .columnName(rs.getString("COLUMN_NAME"))
-                            .unique(!rs.getBoolean("NON_UNIQUE"))
-                            .type(String.valueOf(rs.getShort("TYPE")))
-                            .build());
-                }
-            }
-        }
-
-        return indexes;
-    }
-
-    /**
-     * 获取主键列表
-     */
-    private List<String> getPrimaryKeys(DatabaseMetaData metaData, String catalog, String tableName)
-            throws SQLException {
-        List<String> primaryKeys = new ArrayList<>();
-
-        try (ResultSet rs = metaData.getPrimaryKeys(catalog, null, tableName)) {
-            while (rs.next()) {
-                primaryKeys.add(rs.getString("COLUMN_NAME"));
-            }
-        }
-
-        return primaryKeys;
+    public void createTable(String dataSourceName, TableMetadata tableMetadata) throws SQLException {
+        createTable(dataSourceService.getDataSource(dataSourceName), tableMetadata);
+        metadataCache.invalidateTable(dataSourceName, tableMetadata.getTableName());
+        schemaFingerprintService.refresh(dataSourceName);
     }
 
     /**
@@ -201,94 +284,20 @@ public class MetadataService {
         try (Connection connection = dataSource.getConnection();
              Statement statement = connection.createStatement()) {
 
-            String productName = connection.getMetaData().getDatabaseProductName();
-            boolean isMySql = productName != null
-                    && productName.toLowerCase(Locale.ROOT).contains("mysql");
-
-            List<String> columnDefinitions = new ArrayList<>();
-            List<String> primaryKeys = new ArrayList<>();
+            DdlDialect dialect = DdlDialect.forDatabase(DataSourceService.resolveDatabaseType(
+                    connection.getMetaData().getDatabaseProductName()));
 
             for (ColumnMetadata column : tableMetadata.getColumns()) {
                 if (column.getColumnName() == null || column.getColumnName().trim().isEmpty()) {
                     throw new SQLException("Column name must not be empty");
                 }
-
-                StringBuilder columnDef = new StringBuilder();
-                columnDef.append(quoteIdentifier(column.getColumnName(), isMySql))
-                        .append(" ")
-                        .append(buildColumnType(column));
-
-                if (!column.isNullable()) {
-                    columnDef.append(" NOT NULL");
-                }
-
-                if (column.getDefaultValue() != null && !column.getDefaultValue().isEmpty()) {
-                    columnDef.append(" DEFAULT ").append(column.getDefaultValue());
-                }
-
-                if (column.isAutoIncrement() && isMySql) {
-                    columnDef.append(" AUTO_INCREMENT");
-                }
-
-                columnDefinitions.add(columnDef.toString());
-
-                if (column.isPrimaryKey()) {
-                    primaryKeys.add(quoteIdentifier(column.getColumnName(), isMySql));
-                }
-            }
-
-            if (!primaryKeys.isEmpty()) {
-                columnDefinitions.add("PRIMARY KEY (" + String.join(", ", primaryKeys) + ")");
             }
 
-            StringBuilder sql = new StringBuilder();
-            sql.append("CREATE TABLE ")
-                    .append(quoteIdentifier(tableMetadata.getTableName(), isMySql))
-                    .append(" (")
-                    .append(String.join(", ", columnDefinitions))
-                    .append(")");
-
-            if (tableMetadata.getRemarks() != null
-                    && !tableMetadata.getRemarks().trim().isEmpty()
-                    && isMySql) {
-                sql.append(" COMMENT '")
-                        .append(tableMetadata.getRemarks().replace("'", "''"))
-                        .append("'");
+            // 建表语句之后可能附带注释语句（PostgreSQL、Oracle 等）
+            for (String sql : dialect.createTable(tableMetadata, List.of(), dialect.getName())) {
+                log.info("Creating table with SQL: {}", sql);
+                statement.executeUpdate(sql);
             }
-
-            String createSql = sql.toString();
-            log.info("Creating table with SQL: {}", createSql);
-            statement.executeUpdate(createSql);
-        }
-    }
-
-    private String buildColumnType(ColumnMetadata column) {
-        String typeName = column.getTypeName();
-        if (typeName == null || typeName.trim().isEmpty()) {
-            typeName = column.getDataType();
-        }
-        if (typeName == null || typeName.trim().isEmpty()) {
-            typeName = "VARCHAR";
-        }
-        typeName = typeName.toUpperCase(Locale.ROOT);
-
-        Integer size = column.getColumnSize();
-        Integer scale = column.getDecimalDigits();
-
-        if (size != null && size > 0) {
-            if (scale != null && scale > 0) {
-                return typeName + "(" + size + "," + scale + ")";
-            }
-            return typeName + "(" + size + ")";
-        }
-
-        return typeName;
-    }
-
-    private String quoteIdentifier(String identifier, boolean isMySql) {
-        if (isMySql) {
-            return "`" + identifier.replace("`", "``") + "`";
         }
-        return "\"" + identifier.replace("\"", "\"\"") + "\"";
     }
 }
@@ -0,0 +1,610 @@
+package com.dbdev.core.service;
+
+import com.dbdev.core.model.ColumnMetadata;
+import com.dbdev.core.model.DatabaseMetadata;
+import com.dbdev.core.model.IndexMetadata;
+import com.dbdev.core.model.SchemaBaseline;
+import com.dbdev.core.model.TableMetadata;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 元数据快照存储
+ * <p>
+ * 每个数据源的数据库元数据（表列表）与完整元数据（含字段、索引）以紧凑的二进制格式写入
+ * db.dev.metadata.snapshot.dir，并记录写入时的结构指纹。应用启动时以内存映射方式读取快照并填充元数据缓存，
+ * 之后在后台重新计算指纹，结构已变化时使该数据源的缓存失效，重启后无需重新抓取整个目录即可使用。
+ * <p>
+ * 另可把完整元数据保存为命名的结构基线（baselines 子目录），基线只在显式保存时更新，供结构对比使用。
+ */
+@Slf4j
+@Component
+public class MetadataSnapshotStore implements DisposableBean {
+
+    private static final int MAGIC = 0x44424D53;
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".snapshot";
+    private static final String BASELINE_DIR = "baselines";
+
+    private final MetadataCache metadataCache;
+    private final SchemaFingerprintService schemaFingerprintService;
+
+    /**
+     * 各数据源最近一次写入或读取的快照，用于合并表列表与完整元数据两部分
+     */
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean loaded = new AtomicBoolean();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "db-dev-metadata-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${db.dev.metadata.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${db.dev.metadata.snapshot.dir:${user.home}/.db-dev/snapshots}")
+    private String directory;
+
+    public MetadataSnapshotStore(MetadataCache metadataCache, SchemaFingerprintService schemaFingerprintService) {
+        this.metadataCache = metadataCache;
+        this.schemaFingerprintService = schemaFingerprintService;
+    }
+
+    /**
+     * 保存数据库元数据（表列表）
+     *
+     * @param fingerprint 开始读取前的结构指纹，为 null 时不保存
+     */
+    public void saveDatabase(String dataSourceName, String fingerprint, DatabaseMetadata database) {
+        save(dataSourceName, fingerprint, database, null);
+    }
+
+    /**
+     * 保存完整元数据
+     *
+     * @param fingerprint 开始读取前的结构指纹，为 null 时不保存
+     */
+    public void saveFull(String dataSourceName, String fingerprint, DatabaseMetadata full) {
+        save(dataSourceName, fingerprint, null, full);
+    }
+
+    private void save(String dataSourceName, String fingerprint, DatabaseMetadata database, DatabaseMetadata full) {
+        if (!enabled || fingerprint == null) {
+            return;
+        }
+        Snapshot snapshot = snapshots.compute(dataSourceName, (name, previous) -> {
+            boolean merge = previous != null && fingerprint.equals(previous.fingerprint);
+            return new Snapshot(dataSourceName, fingerprint, System.currentTimeMillis(),
+                    database != null ? database : merge ? previous.database : null,
+                    full != null ? full : merge ? previous.full : null);
+        });
+        executor.execute(() -> {
+            // 排队期间已有更新的快照时跳过
+            if (snapshots.get(dataSourceName) != snapshot) {
+                return;
+            }
+            try {
+                write(fileOf(dataSourceName), snapshot);
+                log.debug("Saved metadata snapshot of {}", dataSourceName);
+            } catch (IOException e) {
+                log.warn("Failed to save metadata snapshot of {}: {}", dataSourceName, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 上下文刷新完成后读取全部快照填充缓存，并在后台校验结构指纹
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void loadSnapshots() {
+        if (!enabled || !loaded.compareAndSet(false, true)) {
+            return;
+        }
+        Path dir = Paths.get(directory);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path file : files) {
+                load(file);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to list metadata snapshots in {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private void load(Path file) {
+        Snapshot snapshot;
+        try {
+            snapshot = read(file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Discarding unreadable metadata snapshot {}: {}", file, e.getMessage());
+            deleteQuietly(file);
+            return;
+        }
+
+        String dataSourceName = snapshot.dataSourceName;
+        long version = metadataCache.getVersion(dataSourceName);
+        if (snapshot.database != null) {
+            metadataCache.put(dataSourceName, MetadataCache.Scope.DATABASE, null, snapshot.database, version);
+        }
+        if (snapshot.full != null) {
+            metadataCache.put(dataSourceName, MetadataCache.Scope.FULL, null, snapshot.full, version);
+            for (TableMetadata table : snapshot.full.getTables()) {
+                metadataCache.put(dataSourceName, MetadataCache.Scope.TABLE, table.getTableName(), table, version);
+            }
+        }
+        snapshots.put(dataSourceName, snapshot);
+        log.info("Loaded metadata snapshot of {} saved at {}", dataSourceName, Instant.ofEpochMilli(snapshot.savedAt));
+
+        executor.execute(() -> revalidate(dataSourceName, snapshot));
+    }
+
+    /**
+     * 重新计算结构指纹，与快照不一致时使该数据源的缓存失效
+     */
+    private void revalidate(String dataSourceName, Snapshot snapshot) {
+        SchemaFingerprintService.SchemaFingerprint current;
+        try {
+            current = schemaFingerprintService.compute(dataSourceName);
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Failed to revalidate metadata snapshot of {}, dropping it: {}", dataSourceName, e.getMessage());
+            metadataCache.invalidate(dataSourceName);
+            return;
+        }
+        if (!current.getValue().equals(snapshot.fingerprint)) {
+            log.info("Schema of {} changed since its snapshot was saved, invalidating", dataSourceName);
+            metadataCache.invalidate(dataSourceName);
+            snapshots.remove(dataSourceName, snapshot);
+        }
+        // 以当前结构作为后续变化检测的基准
+        schemaFingerprintService.setBaseline(dataSourceName, current);
+    }
+
+    /**
+     * 保存结构基线，同名基线被覆盖；不受 db.dev.metadata.snapshot.enabled 影响
+     *
+     * @param fingerprint 保存时的结构指纹，可为 null
+     */
+    public void saveBaseline(String name, String dataSourceName, String fingerprint, DatabaseMetadata full)
+            throws IOException {
+        write(baselineFile(name), new Snapshot(dataSourceName, fingerprint, System.currentTimeMillis(), null, full));
+        log.info("Saved schema baseline {} of {}", name, dataSourceName);
+    }
+
+    /**
+     * 读取结构基线的完整元数据
+     *
+     * @return 基线不存在时返回 null
+     */
+    public DatabaseMetadata loadBaseline(String name) throws IOException {
+        Path file = baselineFile(name);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        return read(file).full;
+    }
+
+    /**
+     * 列出已保存的结构基线（只读取文件头），按保存时间倒序
+     */
+    public List<SchemaBaseline> listBaselines() {
+        List<SchemaBaseline> baselines = new ArrayList<>();
+        Path dir = Paths.get(directory, BASELINE_DIR);
+        if (!Files.isDirectory(dir)) {
+            return baselines;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    Snapshot header = new SnapshotReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()))
+                            .readHeader();
+                    baselines.add(SchemaBaseline.builder()
+                            .name(fileName.substring(0, fileName.length() - SUFFIX.length()))
+                            .dataSourceName(header.dataSourceName)
+                            .fingerprint(header.fingerprint)
+                            .savedAt(header.savedAt)
+                            .build());
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Skipping unreadable schema baseline {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to list schema baselines in {}: {}", dir, e.getMessage());
+        }
+        baselines.sort(Comparator.comparingLong(SchemaBaseline::getSavedAt).reversed());
+        return baselines;
+    }
+
+    /**
+     * 删除结构基线
+     *
+     * @return 基线不存在时返回 false
+     */
+    public boolean deleteBaseline(String name) throws IOException {
+        return Files.deleteIfExists(baselineFile(name));
+    }
+
+    private Path baselineFile(String name) {
+        return Paths.get(directory, BASELINE_DIR, name.replaceAll("[^A-Za-z0-9._-]", "_") + SUFFIX);
+    }
+
+    private Path fileOf(String dataSourceName) {
+        return Paths.get(directory, dataSourceName.replaceAll("[^A-Za-z0-9._-]", "_") + SUFFIX);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete metadata snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    // ==================== 编码 ====================
+
+    /**
+     * 写入临时文件后原子替换，避免读取到写了一半的快照
+     */
+    private void write(Path file, Snapshot snapshot) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                SnapshotWriter writer = new SnapshotWriter(new DataOutputStream(new BufferedOutputStream(output)));
+                writer.writeSnapshot(snapshot);
+                writer.flush();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+    }
+
+    private Snapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new SnapshotReader(buffer).readSnapshot();
+        }
+    }
+
+    /**
+     * 快照内容
+     */
+    private static class Snapshot {
+        private final String dataSourceName;
+        private final String fingerprint;
+        private final long savedAt;
+        private final DatabaseMetadata database;
+        private final DatabaseMetadata full;
+
+        Snapshot(String dataSourceName, String fingerprint, long savedAt,
+                 DatabaseMetadata database, DatabaseMetadata full) {
+            this.dataSourceName = dataSourceName;
+            this.fingerprint = fingerprint;
+            this.savedAt = savedAt;
+            this.database = database;
+            this.full = full;
+        }
+    }
+
+    /**
+     * 二进制写入：整数使用变长编码，字符串首次出现时写入内容，之后以编号引用
+     */
+    private static class SnapshotWriter {
+        private final DataOutputStream output;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        SnapshotWriter(DataOutputStream output) {
+            this.output = output;
+        }
+
+        void writeSnapshot(Snapshot snapshot) throws IOException {
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            writeString(snapshot.dataSourceName);
+            writeString(snapshot.fingerprint);
+            output.writeLong(snapshot.savedAt);
+            writeDatabase(snapshot.database);
+            writeDatabase(snapshot.full);
+        }
+
+        private void writeDatabase(DatabaseMetadata database) throws IOException {
+            output.writeBoolean(database != null);
+            if (database == null) {
+                return;
+            }
+            writeString(database.getDatabaseName());
+            writeString(database.getProductName());
+            writeString(database.getProductVersion());
+            writeSize(database.getTables());
+            if (database.getTables() == null) {
+                return;
+            }
+            for (TableMetadata table : database.getTables()) {
+                writeTable(table);
+            }
+        }
+
+        private void writeTable(TableMetadata table) throws IOException {
+            writeString(table.getTableName());
+            writeString(table.getTableType());
+            writeString(table.getRemarks());
+
+            writeSize(table.getColumns());
+            if (table.getColumns() != null) {
+                for (ColumnMetadata column : table.getColumns()) {
+                    writeString(column.getColumnName());
+                    writeString(column.getDataType());
+                    writeString(column.getTypeName());
+                    writeNullableInt(column.getColumnSize());
+                    writeNullableInt(column.getDecimalDigits());
+                    output.writeByte((column.isNullable() ? 1 : 0)
+                            | (column.isAutoIncrement() ? 2 : 0)
+                            | (column.isPrimaryKey() ? 4 : 0));
+                    writeString(column.getDefaultValue());
+                    writeString(column.getRemarks());
+                    writeString(column.getJavaType());
+                }
+            }
+
+            writeSize(table.getIndexes());
+            if (table.getIndexes() != null) {
+                for (IndexMetadata index : table.getIndexes()) {
+                    writeString(index.getIndexName());
+                    writeString(index.getColumnName());
+                    output.writeBoolean(index.isUnique());
+                    writeString(index.getType());
+                }
+            }
+
+            writeSize(table.getPrimaryKeys());
+            if (table.getPrimaryKeys() != null) {
+                for (String primaryKey : table.getPrimaryKeys()) {
+                    writeString(primaryKey);
+                }
+            }
+        }
+
+        /**
+         * 列表长度，0 表示 null，否则为长度 + 1
+         */
+        private void writeSize(List<?> list) throws IOException {
+            writeVarInt(list == null ? 0 : list.size() + 1);
+        }
+
+        private void writeNullableInt(Integer value) throws IOException {
+            if (value == null) {
+                output.writeByte(0);
+            } else {
+                output.writeByte(1);
+                writeVarInt((value << 1) ^ (value >> 31));
+            }
+        }
+
+        /**
+         * 0 表示 null，1 表示随后是新字符串，n >= 2 引用第 n - 2 个已出现的字符串
+         */
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            Integer id = strings.get(value);
+            if (id != null) {
+                writeVarInt(id + 2);
+                return;
+            }
+            strings.put(value, strings.size());
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(1);
+            writeVarInt(bytes.length);
+            output.write(bytes);
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                output.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            output.writeByte(value);
+        }
+
+        void flush() throws IOException {
+            output.flush();
+        }
+    }
+
+    /**
+     * 二进制读取，与 {@link SnapshotWriter} 对应
+     */
+    private static class SnapshotReader {
+        private final ByteBuffer buffer;
+        private final List<String> strings = new ArrayList<>();
+
+        SnapshotReader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        Snapshot readSnapshot() throws IOException {
+            Snapshot header = readHeader();
+            DatabaseMetadata database = readDatabase();
+            DatabaseMetadata full = readDatabase();
+
+            return new Snapshot(header.dataSourceName, header.fingerprint, header.savedAt, database, full);
+        }
+
+        /**
+         * 只读取数据源名称、指纹与保存时间
+         */
+        Snapshot readHeader() throws IOException {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a metadata snapshot");
+            }
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            String dataSourceName = readString();
+            String fingerprint = readString();
+            long savedAt = buffer.getLong();
+            return new Snapshot(dataSourceName, fingerprint, savedAt, null, null);
+        }
+
+        private DatabaseMetadata readDatabase() {
+            if (buffer.get() == 0) {
+                return null;
+            }
+            DatabaseMetadata database = DatabaseMetadata.builder()
+                    .databaseName(readString())
+                    .productName(readString())
+                    .productVersion(readString())
+                    .build();
+            int tableCount = readSize();
+            if (tableCount >= 0) {
+                List<TableMetadata> tables = new ArrayList<>(tableCount);
+                for (int i = 0; i < tableCount; i++) {
+                    tables.add(readTable());
+                }
+                database.setTables(tables);
+            }
+            return database;
+        }
+
+        private TableMetadata readTable() {
+            TableMetadata table = TableMetadata.builder()
+                    .tableName(readString())
+                    .tableType(readString())
+                    .remarks(readString())
+                    .build();
+
+            int columnCount = readSize();
+            if (columnCount >= 0) {
+                List<ColumnMetadata> columns = new ArrayList<>(columnCount);
+                for (int i = 0; i < columnCount; i++) {
+                    ColumnMetadata.ColumnMetadataBuilder column = ColumnMetadata.builder()
+                            .columnName(readString())
+                            .dataType(readString())
+                            .typeName(readString())
+                            .columnSize(readNullableInt())
+                            .decimalDigits(readNullableInt());
+                    int flags = buffer.get();
+                    columns.add(column
+                            .nullable((flags & 1) != 0)
+                            .autoIncrement((flags & 2) != 0)
+                            .primaryKey((flags & 4) != 0)
+                            .defaultValue(readString())
+                            .remarks(readString())
+                            .javaType(readString())
+                            .build());
+                }
+                table.setColumns(columns);
+            }
+
+            int indexCount = readSize();
+            if (indexCount >= 0) {
+                List<IndexMetadata> indexes = new ArrayList<>(indexCount);
+                for (int i = 0; i < indexCount; i++) {
+                    indexes.add(IndexMetadata.builder()
+                            .indexName(readString())
+                            .columnName(readString())
+                            .unique(buffer.get() != 0)
+                            .type(readString())
+                            .build());
+                }
+                table.setIndexes(indexes);
+            }
+
+            int primaryKeyCount = readSize();
+            if (primaryKeyCount >= 0) {
+                List<String> primaryKeys = new ArrayList<>(primaryKeyCount);
+                for (int i = 0; i < primaryKeyCount; i++) {
+                    primaryKeys.add(readString());
+                }
+                table.setPrimaryKeys(primaryKeys);
+            }
+            return table;
+        }
+
+        /**
+         * @return 列表长度，null 时为 -1
+         */
+        private int readSize() {
+            return readVarInt() - 1;
+        }
+
+        private Integer readNullableInt() {
+            if (buffer.get() == 0) {
+                return null;
+            }
+            int value = readVarInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private String readString() {
+            int tag = readVarInt();
+            if (tag == 0) {
+                return null;
+            }
+            if (tag >= 2) {
+                return strings.get(tag - 2);
+            }
+            byte[] bytes = new byte[readVarInt()];
+            buffer.get(bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(value);
+            return value;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
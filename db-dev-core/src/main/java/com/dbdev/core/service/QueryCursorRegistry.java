@@ -0,0 +1,245 @@
+package com.dbdev.core.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 查询游标注册表
+ * 保存分页会话中仍处于打开状态的 ResultSet，按空闲时间淘汰；每个客户端的游标数量受限，
+ * 每个游标独占一个连接，因此每个数据源同时打开的游标数也单独受限，不占用控制台查询的准入许可
+ */
+@Slf4j
+@Component
+public class QueryCursorRegistry implements DisposableBean {
+
+    /**
+     * 游标存储：cursorId -> 游标
+     */
+    private final Map<String, QueryCursor> cursors = new ConcurrentHashMap<>();
+
+    /**
+     * 各数据源已占用的游标名额（含正在打开的游标）
+     */
+    private final Map<String, Integer> reserved = new HashMap<>();
+
+    @Value("${db.dev.sql.cursor.idle-timeout:60}")
+    private int idleTimeoutSeconds;
+
+    @Value("${db.dev.sql.cursor.max-per-user:3}")
+    private int maxCursorsPerUser;
+
+    @Value("${db.dev.sql.cursor.max-per-data-source:8}")
+    private int maxCursorsPerDataSource;
+
+    /**
+     * 打开游标前占用数据源的游标名额，游标关闭或未注册时通过 {@link #release(String)} 归还
+     * <p>
+     * 先关闭该客户端超出上限的最久未使用的游标，再检查数据源的名额
+     *
+     * @param client 客户端标识，用于每个客户端的游标上限
+     * @return 是否占用成功，数据源的名额已满时返回 false
+     */
+    public synchronized boolean reserve(String client, String dataSourceName) {
+        evictOverflow(client);
+        int count = reserved.getOrDefault(dataSourceName, 0);
+        if (count >= Math.max(maxCursorsPerDataSource, 1)) {
+            return false;
+        }
+        reserved.put(dataSourceName, count + 1);
+        return true;
+    }
+
+    /**
+     * 归还数据源的游标名额
+     */
+    public synchronized void release(String dataSourceName) {
+        reserved.computeIfPresent(dataSourceName, (name, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * 数据源同时打开的游标上限
+     */
+    public int getMaxCursorsPerDataSource() {
+        return maxCursorsPerDataSource;
+    }
+
+    /**
+     * 注册已占用名额的游标，超过客户端上限时关闭该客户端最久未使用的游标
+     */
+    public synchronized String register(QueryCursor cursor) {
+        evictOverflow(cursor.getClient());
+        cursors.put(cursor.getId(), cursor);
+        return cursor.getId();
+    }
+
+    /**
+     * 关闭客户端最久未使用的游标，为新游标留出一个位置
+     */
+    private void evictOverflow(String client) {
+        List<QueryCursor> owned = cursors.values().stream()
+                .filter(c -> c.getClient().equals(client))
+                .sorted(Comparator.comparingLong(QueryCursor::getLastAccessTime))
+                .toList();
+        int overflow = owned.size() - Math.max(maxCursorsPerUser, 1) + 1;
+        for (int i = 0; i < overflow; i++) {
+            QueryCursor oldest = owned.get(i);
+            log.debug("Cursor limit reached for client {}, closing cursor {}", client, oldest.getId());
+            remove(oldest.getId());
+        }
+    }
+
+    /**
+     * 获取游标，仅允许创建者访问
+     */
+    public QueryCursor get(String owner, String cursorId) {
+        QueryCursor cursor = cursors.get(cursorId);
+        if (cursor == null || !cursor.getOwner().equals(owner)) {
+            return null;
+        }
+        cursor.touch();
+        return cursor;
+    }
+
+    /**
+     * 关闭并移除游标
+     */
+    public boolean close(String owner, String cursorId) {
+        QueryCursor cursor = cursors.get(cursorId);
+        if (cursor == null || !cursor.getOwner().equals(owner)) {
+            return false;
+        }
+        remove(cursorId);
+        return true;
+    }
+
+    /**
+     * 移除游标，释放数据库资源并归还数据源的游标名额
+     */
+    void remove(String cursorId) {
+        QueryCursor cursor = cursors.remove(cursorId);
+        if (cursor != null) {
+            cursor.close();
+            release(cursor.getDataSourceName());
+        }
+    }
+
+    /**
+     * 当前打开的游标数量
+     */
+    public int size() {
+        return cursors.size();
+    }
+
+    /**
+     * 清理空闲超时的游标
+     */
+    @Scheduled(fixedDelayString = "${db.dev.sql.cursor.evict-interval:30000}")
+    public void evictIdleCursors() {
+        long deadline = System.currentTimeMillis() - idleTimeoutSeconds * 1000L;
+        cursors.values().stream()
+                .filter(cursor -> cursor.getLastAccessTime() < deadline)
+                .map(QueryCursor::getId)
+                .toList()
+                .forEach(cursorId -> {
+                    log.debug("Evicting idle cursor: {}", cursorId);
+                    remove(cursorId);
+                });
+    }
+
+    @Override
+    public void destroy() {
+        cursors.keySet().forEach(this::remove);
+    }
+
+    /**
+     * 查询游标，独占一个数据库连接直到关闭
+     */
+    public static class QueryCursor {
+        private final String id = UUID.randomUUID().toString().replace("-", "");
+        private final String owner;
+        private final String client;
+        private final String dataSourceName;
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private final ResultSet resultSet;
+        private final List<SqlExecuteService.ColumnInfo> columns;
+        private final SqlExecuteService.ResultFormat format;
+        private final boolean restoreAutoCommit;
+        private volatile long lastAccessTime = System.currentTimeMillis();
+        private boolean positioned;
+        private long rowsFetched;
+
+        /**
+         * @param owner 游标所属用户，只有该用户可以读取和关闭游标
+         * @param client 客户端标识，用于每个客户端的游标上限
+         */
+        public QueryCursor(String owner, String client, String dataSourceName, Connection connection,
+                           PreparedStatement statement, ResultSet resultSet,
+                           List<SqlExecuteService.ColumnInfo> columns, SqlExecuteService.ResultFormat format,
+                           boolean restoreAutoCommit) {
+            this.owner = owner;
+            this.client = client;
+            this.dataSourceName = dataSourceName;
+            this.connection = connection;
+            this.statement = statement;
+            this.resultSet = resultSet;
+            this.columns = columns;
+            this.format = format;
+            this.restoreAutoCommit = restoreAutoCommit;
+        }
+
+        void touch() {
+            lastAccessTime = System.currentTimeMillis();
+        }
+
+        /**
+         * 释放 ResultSet、Statement 并归还连接
+         */
+        synchronized void close() {
+            try {
+                resultSet.close();
+                statement.close();
+            } catch (SQLException e) {
+                log.error("Error closing cursor resources", e);
+            }
+            try {
+                if (restoreAutoCommit) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+                connection.close();
+            } catch (SQLException e) {
+                log.error("Error releasing cursor connection", e);
+            }
+        }
+
+        // Getters
+        public String getId() { return id; }
+        public String getOwner() { return owner; }
+        public String getClient() { return client; }
+        public String getDataSourceName() { return dataSourceName; }
+        public ResultSet getResultSet() { return resultSet; }
+        public List<SqlExecuteService.ColumnInfo> getColumns() { return columns; }
+        public SqlExecuteService.ResultFormat getFormat() { return format; }
+        public long getLastAccessTime() { return lastAccessTime; }
+        public long getRowsFetched() { return rowsFetched; }
+
+        boolean isPositioned() { return positioned; }
+        void setPositioned(boolean positioned) { this.positioned = positioned; }
+        void addRowsFetched(int count) { this.rowsFetched += count; }
+    }
+}
@@ -0,0 +1,320 @@
+package com.dbdev.core.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步查询任务服务
+ * <p>
+ * 查询提交后在独立的有界线程池中执行，调用方通过任务ID轮询或订阅结果，并可随时取消。
+ * 慢查询因此不会长期占用宿主应用的 Servlet 工作线程。
+ */
+@Slf4j
+@Service
+public class QueryJobService implements InitializingBean, DisposableBean {
+
+    private final SqlExecuteService sqlExecuteService;
+
+    /**
+     * 任务存储：jobId -> 任务
+     */
+    private final Map<String, QueryJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${db.dev.sql.async.pool-size:4}")
+    private int poolSize;
+
+    @Value("${db.dev.sql.async.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${db.dev.sql.async.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    @Value("${db.dev.sql.async.result-ttl:600}")
+    private int resultTtlSeconds;
+
+    @Value("${db.dev.sql.async.max-wait-timeout:60000}")
+    private long maxWaitTimeout;
+
+    private ExecutorService executor;
+
+    /**
+     * 虚拟线程模式下限制排队与执行的任务总数
+     */
+    private Semaphore admission;
+
+    /**
+     * 虚拟线程模式下限制同时执行的任务数
+     */
+    private Semaphore running;
+
+    public QueryJobService(SqlExecuteService sqlExecuteService) {
+        this.sqlExecuteService = sqlExecuteService;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        int threads = Math.max(poolSize, 1);
+        int capacity = Math.max(queueCapacity, 1);
+        if (virtualThreads) {
+            executor = createVirtualThreadExecutor();
+        }
+        if (executor != null) {
+            admission = new Semaphore(threads + capacity);
+            running = new Semaphore(threads);
+            log.info("SQL async jobs running on virtual threads, concurrency: {}", threads);
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(capacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "db-dev-sql-job-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    /**
+     * 通过反射创建虚拟线程执行器，运行时低于 JDK 21 时返回 null 并回退到平台线程池
+     */
+    private ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) java.util.concurrent.Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not available on this JVM, falling back to a platform thread pool");
+            return null;
+        }
+    }
+
+    /**
+     * 提交异步查询
+     *
+     * @param owner 任务所属用户
+     * @param dataSourceName 数据源名称
+     * @param sql SQL查询语句
+     * @param params 查询参数
+     * @param format 结果结构
+     * @return 任务
+     * @throws RejectedExecutionException 任务队列已满时抛出
+     */
+    public QueryJob submit(String owner, String dataSourceName, String sql, List<Object> params,
+                           SqlExecuteService.ResultFormat format) {
+        QueryJob job = new QueryJob(owner, dataSourceName, sql);
+
+        if (admission != null && !admission.tryAcquire()) {
+            throw new RejectedExecutionException("异步查询队列已满");
+        }
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, params, format));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            if (admission != null) {
+                admission.release();
+            }
+            throw new RejectedExecutionException("异步查询队列已满", e);
+        }
+        return job;
+    }
+
+    private void run(QueryJob job, List<Object> params, SqlExecuteService.ResultFormat format) {
+        boolean acquired = false;
+        try {
+            if (running != null) {
+                running.acquire();
+                acquired = true;
+            }
+            if (!job.start()) {
+                return;
+            }
+            SqlExecuteService.SqlQueryResult result = sqlExecuteService.executeQuery(
+                    job.getOwner(), job.getDataSourceName(), job.getSql(), params, format, job::attachStatement);
+            job.complete(result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.complete(SqlExecuteService.SqlQueryResult.error("查询任务被中断"));
+        } catch (RuntimeException e) {
+            log.error("Async query job failed: {}", job.getId(), e);
+            job.complete(SqlExecuteService.SqlQueryResult.error("查询任务执行失败: " + e.getMessage()));
+        } finally {
+            if (acquired) {
+                running.release();
+            }
+            if (admission != null) {
+                admission.release();
+            }
+        }
+    }
+
+    /**
+     * 获取任务，仅允许创建者访问
+     */
+    public QueryJob get(String owner, String jobId) {
+        QueryJob job = jobs.get(jobId);
+        if (job == null || !job.getOwner().equals(owner)) {
+            return null;
+        }
+        return job;
+    }
+
+    /**
+     * 长轮询等待时间限制在 1 到 db.dev.sql.async.max-wait-timeout 毫秒之间
+     */
+    public long resolveWaitTimeout(long timeout) {
+        return Math.max(1, Math.min(timeout, maxWaitTimeout));
+    }
+
+    /**
+     * 取消任务：排队中的任务直接取消，执行中的任务调用 Statement.cancel()
+     *
+     * @return 任务是否存在
+     */
+    public boolean cancel(String owner, String jobId) {
+        QueryJob job = get(owner, jobId);
+        if (job == null) {
+            return false;
+        }
+        job.cancel();
+        return true;
+    }
+
+    /**
+     * 清理已结束且超过保留时间的任务
+     */
+    @Scheduled(fixedDelayString = "${db.dev.sql.async.evict-interval:60000}")
+    public void evictFinishedJobs() {
+        long deadline = System.currentTimeMillis() - resultTtlSeconds * 1000L;
+        jobs.values().removeIf(job -> job.getEndTime() != null && job.getEndTime() < deadline);
+    }
+
+    @Override
+    public void destroy() {
+        jobs.values().forEach(QueryJob::cancel);
+        executor.shutdownNow();
+    }
+
+    /**
+     * 任务状态
+     */
+    public enum JobStatus {
+        PENDING, RUNNING, SUCCEEDED, FAILED, CANCELLED
+    }
+
+    /**
+     * 异步查询任务
+     */
+    public static class QueryJob {
+        private final String id = UUID.randomUUID().toString().replace("-", "");
+        private final String owner;
+        private final String dataSourceName;
+        private final String sql;
+        private final long submitTime = System.currentTimeMillis();
+        private final CompletableFuture<QueryJob> completion = new CompletableFuture<>();
+        private volatile JobStatus status = JobStatus.PENDING;
+        private volatile Long startTime;
+        private volatile Long endTime;
+        private volatile Statement statement;
+        private volatile SqlExecuteService.SqlQueryResult result;
+
+        QueryJob(String owner, String dataSourceName, String sql) {
+            this.owner = owner;
+            this.dataSourceName = dataSourceName;
+            this.sql = sql;
+        }
+
+        /**
+         * 标记开始执行，已取消的任务返回 false
+         */
+        synchronized boolean start() {
+            if (status != JobStatus.PENDING) {
+                return false;
+            }
+            status = JobStatus.RUNNING;
+            startTime = System.currentTimeMillis();
+            return true;
+        }
+
+        void attachStatement(Statement statement) {
+            this.statement = statement;
+            if (status == JobStatus.CANCELLED) {
+                cancelStatement();
+            }
+        }
+
+        synchronized void complete(SqlExecuteService.SqlQueryResult result) {
+            statement = null;
+            if (status == JobStatus.CANCELLED) {
+                this.result = SqlExecuteService.SqlQueryResult.error("查询已取消");
+            } else {
+                this.result = result;
+                status = result.isSuccess() ? JobStatus.SUCCEEDED : JobStatus.FAILED;
+            }
+            endTime = System.currentTimeMillis();
+            completion.complete(this);
+        }
+
+        synchronized void cancel() {
+            if (status == JobStatus.PENDING) {
+                status = JobStatus.CANCELLED;
+                result = SqlExecuteService.SqlQueryResult.error("查询已取消");
+                endTime = System.currentTimeMillis();
+                completion.complete(this);
+            } else if (status == JobStatus.RUNNING) {
+                status = JobStatus.CANCELLED;
+                cancelStatement();
+            }
+        }
+
+        private void cancelStatement() {
+            Statement current = statement;
+            if (current != null) {
+                try {
+                    current.cancel();
+                } catch (SQLException e) {
+                    log.warn("Failed to cancel statement for job {}: {}", id, e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * 任务结束时完成的 Future，可用于订阅结果
+         */
+        public CompletableFuture<QueryJob> getCompletion() { return completion; }
+
+        public boolean isFinished() { return completion.isDone(); }
+
+        // Getters
+        public String getId() { return id; }
+        public String getOwner() { return owner; }
+        public String getDataSourceName() { return dataSourceName; }
+        public String getSql() { return sql; }
+        public long getSubmitTime() { return submitTime; }
+        public JobStatus getStatus() { return status; }
+        public Long getStartTime() { return startTime; }
+        public Long getEndTime() { return endTime; }
+        public SqlExecuteService.SqlQueryResult getResult() { return result; }
+    }
+}
@@ -0,0 +1,620 @@
+package com.dbdev.core.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 按列类型读取结果集的行读取器
+ * <p>
+ * 每次查询根据 {@link ResultSetMetaData} 为每列预先确定一次读取方式，之后逐行按类型调用
+ * getLong、getBigDecimal、getObject(LocalDateTime) 等方法，避免 getObject 返回驱动特有对象后再由 Jackson 反射序列化；
+ * 日期时间直接格式化到复用的缓冲区。与逐格 getObject 后交给 ObjectMapper 的方式对比见 RowReaderBenchmark。
+ * 值统一转换为稳定的 JSON 表示：整数与浮点数为数字，DECIMAL 为不带指数的数字，
+ * 日期时间为 ISO-8601 字符串，二进制为 Base64 字符串，其余类型为驱动提供的文本。
+ * 大字段按 JDBC 类型判断（LONGVARCHAR、CLOB、LONGVARBINARY、BLOB 等）。
+ * 指定 {@link LobStore} 时，大字段以流方式读取，超过内联长度的值返回 {@link LobStore.LobValue}，
+ * 句柄只允许结果所属用户读取。
+ */
+public final class RowReader {
+
+    private final ResultSet resultSet;
+    private final ColumnKind[] kinds;
+    private final LobStore lobStore;
+    private final String owner;
+
+    /**
+     * 本次读取暂存的大字段句柄，调用 {@link #trackLobHandles()} 后才记录
+     */
+    private List<String> lobHandles;
+
+    /**
+     * 日期时间格式化复用的缓冲区，足够容纳 LocalDateTime 的最长文本
+     */
+    private final char[] buffer = new char[40];
+
+    private RowReader(ResultSet resultSet, ColumnKind[] kinds, LobStore lobStore, String owner) {
+        this.resultSet = resultSet;
+        this.kinds = kinds;
+        this.lobStore = lobStore;
+        this.owner = owner;
+    }
+
+    /**
+     * 根据结果集的列类型创建行读取器，大字段完整读取
+     */
+    public static RowReader of(ResultSet resultSet) throws SQLException {
+        return of(resultSet, null, null);
+    }
+
+    /**
+     * 根据结果集的列类型创建行读取器
+     *
+     * @param lobStore 大字段暂存，为 null 或未启用截断时大字段完整读取
+     * @param owner    结果所属用户，为 null 时大字段完整读取
+     */
+    public static RowReader of(ResultSet resultSet, LobStore lobStore, String owner) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        ColumnKind[] kinds = new ColumnKind[metaData.getColumnCount()];
+        for (int i = 0; i < kinds.length; i++) {
+            kinds[i] = ColumnKind.of(metaData, i + 1);
+        }
+        boolean truncate = lobStore != null && lobStore.getInlineLimit() > 0 && owner != null;
+        return new RowReader(resultSet, kinds, truncate ? lobStore : null, owner);
+    }
+
+    public int getColumnCount() {
+        return kinds.length;
+    }
+
+    /**
+     * 记录读取过程中暂存的大字段句柄，用于把结果共享给其他用户时授权
+     */
+    RowReader trackLobHandles() {
+        lobHandles = new ArrayList<>();
+        return this;
+    }
+
+    /**
+     * 已读取的行中暂存的大字段句柄
+     */
+    List<String> getLobHandles() {
+        return lobHandles != null ? lobHandles : List.of();
+    }
+
+    /**
+     * 读取当前行指定列的值
+     *
+     * @param index 列下标，从 0 开始
+     * @return Integer、Long、Double、BigDecimal、Boolean、String、{@link LobStore.LobValue} 或 null
+     */
+    public Object getValue(int index) throws SQLException {
+        ColumnKind kind = kinds[index];
+        if (lobStore != null && (kind == ColumnKind.TEXT_LOB || kind == ColumnKind.BINARY_LOB)) {
+            try {
+                Object value = kind == ColumnKind.TEXT_LOB
+                        ? lobStore.readText(resultSet.getCharacterStream(index + 1), owner)
+                        : lobStore.readBinary(resultSet.getBinaryStream(index + 1), owner);
+                if (lobHandles != null && value instanceof LobStore.LobValue lob && lob.getHandle() != null) {
+                    lobHandles.add(lob.getHandle());
+                }
+                return value;
+            } catch (IOException e) {
+                throw new SQLException("读取大字段失败: " + e.getMessage(), e);
+            }
+        }
+        return kind.read(resultSet, index + 1, buffer);
+    }
+
+    /**
+     * 将当前行指定列的值按类型写出，不产生中间对象
+     *
+     * @param index 列下标，从 0 开始
+     */
+    public void writeValue(int index, ValueWriter writer) throws SQLException, IOException {
+        if (lobStore != null && (kinds[index] == ColumnKind.TEXT_LOB || kinds[index] == ColumnKind.BINARY_LOB)) {
+            Object value = getValue(index);
+            if (value == null) {
+                writer.writeNull();
+            } else if (value instanceof LobStore.LobValue lob) {
+                writer.writeLob(lob);
+            } else {
+                writer.writeString((String) value);
+            }
+            return;
+        }
+        kinds[index].write(resultSet, index + 1, writer, buffer);
+    }
+
+    /**
+     * 按类型写出单元格值，由序列化层实现（如 JSON 生成器）
+     */
+    public interface ValueWriter {
+        void writeNull() throws IOException;
+
+        void writeString(String value) throws IOException;
+
+        /**
+         * 写出 text 中 offset 起 length 个字符，text 在调用返回后会被复用
+         */
+        void writeString(char[] text, int offset, int length) throws IOException;
+
+        void writeNumber(int value) throws IOException;
+
+        void writeNumber(long value) throws IOException;
+
+        void writeNumber(double value) throws IOException;
+
+        /**
+         * 写出十进制数，value 为不带指数的数字文本
+         */
+        void writeDecimal(String value) throws IOException;
+
+        void writeBoolean(boolean value) throws IOException;
+
+        /**
+         * 写出二进制值，表示为 Base64 字符串
+         */
+        void writeBinary(byte[] value) throws IOException;
+
+        /**
+         * 写出截断的大字段
+         */
+        void writeLob(LobStore.LobValue value) throws IOException;
+    }
+
+    /**
+     * toString 输出不带指数的数字文本的 BigDecimal
+     * <p>
+     * Jackson 按 toString 写出 BigDecimal，1E+3、1E-7 这类值会以科学计数法出现在结果中；
+     * 这里不依赖宿主应用 ObjectMapper 的 WRITE_BIGDECIMAL_AS_PLAIN 配置。
+     */
+    static final class PlainDecimal extends BigDecimal {
+
+        PlainDecimal(BigDecimal value) {
+            super(value.unscaledValue(), value.scale());
+        }
+
+        @Override
+        public String toString() {
+            return toPlainString();
+        }
+    }
+
+    /**
+     * 列的读取方式
+     */
+    private enum ColumnKind {
+        INT {
+            @Override
+            Object read(ResultSet rs, int column, char[] buffer) throws SQLException {
+                int value = rs.getInt(column);
+                return rs.wasNull() ? null : value;
+            }
+
+            @Override
+            void write(ResultSet rs, int column, ValueWriter writer, char[] buffer)
+                    throws SQLException, IOException {
+                int value = rs.getInt(column);
+                if (rs.wasNull()) {
+                    writer.writeNull();
+                } else {
+                    writer.writeNumber(value);
+                }
+            }
+        },
+        LONG {
+            @Override
+            Object read(ResultSet rs, int column, char[] buffer) throws SQLException {
+                long value = rs.getLong(column);
+                return rs.wasNull() ? null : value;
+            }
+
+            @Override
+            void write(ResultSet rs, int column, ValueWriter writer, char[] buffer)
+                    throws SQLException, IOException {
+                long value = rs.getLong(column);
+                if (rs.wasNull()) {
+                    writer.writeNull();
+                } else {
+                    writer.writeNumber(value);
+                }
+            }
+        },
+        DOUBLE {
+            @Override
+            Object read(ResultSet rs, int column, char[] buffer) throws SQLException {
+                double value = rs.getDouble(column);
+                return rs.wasNull() ? null : value;
+            }
+
+            @Override
+            void write(ResultSet rs, int column, ValueWriter writer, char[] buffer)
+                    throws SQLException, IOException {
+                double value = rs.getDouble(column);
+                if (rs.wasNull()) {
+                    writer.writeNull();
+                } else {
+                    writer.writeNumber(value);
+                }
+            }
+        },
+        DECIMAL {
+            @Override
+            Object read(ResultSet rs, int column, char[] buffer) throws SQLException {
+                BigDecimal value = rs.getBigDecimal(column);
+                return value != null ? new PlainDecimal(value) : null;
+            }
+
+            @Override
+            void write(ResultSet rs, int column, ValueWriter writer, char[] buffer)
+                    throws SQLException, IOException {
+                BigDecimal value = rs.getBigDecimal(column);
+                if (value == null) {
+                    writer.writeNull();
+                } else {
+                    writer.writeDecimal(value.toPlainString());
+                }
+            }
+        },
+        BOOLEAN {
+            @Override
+            Object read(ResultSet rs, int column, char[] buffer) throws SQLException {
+                boolean value = rs.getBoolean(column);
+                return rs.wasNull() ? null : value;
+            }
+
+            @Override
+            void write(ResultSet rs, int column, ValueWriter writer, char[] buffer)
+                    throws SQLException, IOException {
+                boolean value = rs.getBoolean(column);
+                if (rs.wasNull()) {
+                    writer.writeNull();
+                } else {
+                    writer.writeBoolean(value);
+                }
+            }
+        },
+        DATE {
+            @Override
+            Object read(ResultSet rs, int column, char[] buffer) throws SQLException {
+                int length = formatDate(rs, column, buffer);
+                return length >= 0 ? new String(buffer, 0, length) : null;
+            }
+
+            @Override
+            void write(ResultSet rs, int column, ValueWriter writer, char[] buffer)
+                    throws SQLException, IOException {
+                int length = formatDate(rs, column, buffer);
+                if (length < 0) {
+                    writer.writeNull();
+                } else {
+                    writer.writeString(buffer, 0, length);
+                }
+            }
+        },
+        TIME {
+            @Override
+            Object read(ResultSet rs, int column, char[] buffer) throws SQLException {
+                int length = formatTime(rs, column, buffer);
+                return length >= 0 ? new String(buffer, 0, length) : null;
+            }
+
+            @Override
+            void write(ResultSet rs, int column, ValueWriter writer, char[] buffer)
+                    throws SQLException, IOException {
+                int length = formatTime(rs, column, buffer);
+                if (length < 0) {
+                    writer.writeNull();
+                } else {
+                    writer.writeString(buffer, 0, length);
+                }
+            }
+        },
+        TIMESTAMP {
+            @Override
+            Object read(ResultSet rs, int column, char[] buffer) throws SQLException {
+                int length = formatTimestamp(rs, column, buffer);
+                return length >= 0 ? new String(buffer, 0, length) : null;
+            }
+
+            @Override
+            void write(ResultSet rs, int column, ValueWriter writer, char[] buffer)
+                    throws SQLException, IOException {
+                int length = formatTimestamp(rs, column, buffer);
+                if (length < 0) {
+                    writer.writeNull();
+                } else {
+                    writer.writeString(buffer, 0, length);
+                }
+            }
+        },
+        TIMESTAMP_WITH_TIMEZONE {
+            @Override
+            Object read(ResultSet rs, int column, char[] buffer) throws SQLException {
+                try {
+                    OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+                    return value != null ? value.toString() : null;
+                } catch (SQLException e) {
+                    // 驱动不支持按 OffsetDateTime 读取时使用驱动提供的文本
+                    return rs.getString(column);
+                }
+            }
+        },
+        BINARY {
+            @Override
+            Object read(ResultSet rs, int column, char[] buffer) throws SQLException {
+                byte[] value = rs.getBytes(column);
+                return value != null ? Base64.getEncoder().encodeToString(value) : null;
+            }
+
+            @Override
+            void write(ResultSet rs, int column, ValueWriter writer, char[] buffer)
+                    throws SQLException, IOException {
+                byte[] value = rs.getBytes(column);
+                if (value == null) {
+                    writer.writeNull();
+                } else {
+                    writer.writeBinary(value);
+                }
+            }
+        },
+        STRING {
+            @Override
+            Object read(ResultSet rs, int column, char[] buffer) throws SQLException {
+                return rs.getString(column);
+            }
+        },
+        TEXT_LOB {
+            @Override
+            Object read(ResultSet rs, int column, char[] buffer) throws SQLException {
+                return rs.getString(column);
+            }
+        },
+        BINARY_LOB {
+            @Override
+            Object read(ResultSet rs, int column, char[] buffer) throws SQLException {
+                return BINARY.read(rs, column, buffer);
+            }
+
+            @Override
+            void write(ResultSet rs, int column, ValueWriter writer, char[] buffer)
+                    throws SQLException, IOException {
+                BINARY.write(rs, column, writer, buffer);
+            }
+        },
+        OTHER {
+            @Override
+            Object read(ResultSet rs, int column, char[] buffer) throws SQLException {
+                Object value = rs.getObject(column);
+                if (value instanceof BigDecimal decimal) {
+                    return new PlainDecimal(decimal);
+                }
+                if (value == null || value instanceof String || value instanceof Number
+                        || value instanceof Boolean) {
+                    return value;
+                }
+                // JSON、UUID、数组等驱动特有类型使用驱动提供的文本表示
+                return rs.getString(column);
+            }
+        };
+
+        /**
+         * 读取当前行的值
+         *
+         * @param buffer 日期时间格式化复用的缓冲区
+         * @return Integer、Long、Double、BigDecimal、Boolean、String 或 null
+         */
+        abstract Object read(ResultSet rs, int column, char[] buffer) throws SQLException;
+
+        /**
+         * 按 {@link #read} 返回值的类型写出，数值类列类型覆盖此方法以避免装箱
+         */
+        void write(ResultSet rs, int column, ValueWriter writer, char[] buffer)
+                throws SQLException, IOException {
+            Object value = read(rs, column, buffer);
+            if (value == null) {
+                writer.writeNull();
+            } else if (value instanceof String string) {
+                writer.writeString(string);
+            } else if (value instanceof Boolean bool) {
+                writer.writeBoolean(bool);
+            } else if (value instanceof Integer || value instanceof Long
+                    || value instanceof Short || value instanceof Byte) {
+                writer.writeNumber(((Number) value).longValue());
+            } else if (value instanceof Float || value instanceof Double) {
+                writer.writeNumber(((Number) value).doubleValue());
+            } else if (value instanceof BigDecimal decimal) {
+                writer.writeDecimal(decimal.toPlainString());
+            } else {
+                writer.writeDecimal(new BigDecimal(value.toString()).toPlainString());
+            }
+        }
+
+        /**
+         * 读取 DATE 列并按 LocalDate#toString 的格式写入 buffer
+         *
+         * @return 文本长度，值为 null 时返回 -1
+         */
+        private static int formatDate(ResultSet rs, int column, char[] buffer) throws SQLException {
+            LocalDate value;
+            try {
+                value = rs.getObject(column, LocalDate.class);
+            } catch (SQLException e) {
+                Date date = rs.getDate(column);
+                value = date != null ? date.toLocalDate() : null;
+            }
+            if (value == null) {
+                return -1;
+            }
+            int length = appendDate(value, buffer);
+            return length >= 0 ? length : copy(value.toString(), buffer);
+        }
+
+        /**
+         * 读取 TIME 列并按 LocalTime#toString 的格式写入 buffer
+         */
+        private static int formatTime(ResultSet rs, int column, char[] buffer) throws SQLException {
+            LocalTime value;
+            try {
+                value = rs.getObject(column, LocalTime.class);
+            } catch (SQLException e) {
+                Time time = rs.getTime(column);
+                value = time != null ? time.toLocalTime() : null;
+            }
+            return value != null ? appendTime(value, buffer, 0) : -1;
+        }
+
+        /**
+         * 读取 TIMESTAMP 列并按 LocalDateTime#toString 的格式写入 buffer
+         */
+        private static int formatTimestamp(ResultSet rs, int column, char[] buffer) throws SQLException {
+            // 按 JDBC 4.2 直接读取 LocalDateTime，省去 Timestamp 的时区换算，驱动不支持时回退
+            LocalDateTime value;
+            try {
+                value = rs.getObject(column, LocalDateTime.class);
+            } catch (SQLException e) {
+                Timestamp timestamp = rs.getTimestamp(column);
+                value = timestamp != null ? timestamp.toLocalDateTime() : null;
+            }
+            if (value == null) {
+                return -1;
+            }
+            int length = appendDate(value.toLocalDate(), buffer);
+            if (length < 0) {
+                return copy(value.toString(), buffer);
+            }
+            buffer[length] = 'T';
+            return appendTime(value.toLocalTime(), buffer, length + 1);
+        }
+
+        /**
+         * 写入 yyyy-MM-dd，年份不在 0~9999 时返回 -1，由调用方使用 toString
+         */
+        private static int appendDate(LocalDate value, char[] buffer) {
+            int year = value.getYear();
+            if (year < 0 || year > 9999) {
+                return -1;
+            }
+            appendDigits(year, 4, buffer, 0);
+            buffer[4] = '-';
+            appendDigits(value.getMonthValue(), 2, buffer, 5);
+            buffer[7] = '-';
+            appendDigits(value.getDayOfMonth(), 2, buffer, 8);
+            return 10;
+        }
+
+        /**
+         * 写入 HH:mm，秒或纳秒不为 0 时追加 :ss 与 3、6 或 9 位小数，与 LocalTime#toString 一致
+         *
+         * @return 写入后的结束位置
+         */
+        private static int appendTime(LocalTime value, char[] buffer, int offset) {
+            appendDigits(value.getHour(), 2, buffer, offset);
+            buffer[offset + 2] = ':';
+            appendDigits(value.getMinute(), 2, buffer, offset + 3);
+            int position = offset + 5;
+            int second = value.getSecond();
+            int nano = value.getNano();
+            if (second == 0 && nano == 0) {
+                return position;
+            }
+            buffer[position] = ':';
+            appendDigits(second, 2, buffer, position + 1);
+            position += 3;
+            if (nano == 0) {
+                return position;
+            }
+            buffer[position++] = '.';
+            if (nano % 1_000_000 == 0) {
+                appendDigits(nano / 1_000_000, 3, buffer, position);
+                return position + 3;
+            }
+            if (nano % 1000 == 0) {
+                appendDigits(nano / 1000, 6, buffer, position);
+                return position + 6;
+            }
+            appendDigits(nano, 9, buffer, position);
+            return position + 9;
+        }
+
+        private static void appendDigits(int value, int width, char[] buffer, int offset) {
+            for (int i = offset + width - 1; i >= offset; i--) {
+                buffer[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+        }
+
+        private static int copy(String text, char[] buffer) {
+            text.getChars(0, text.length(), buffer, 0);
+            return text.length();
+        }
+
+        static ColumnKind of(ResultSetMetaData metaData, int column) throws SQLException {
+            switch (metaData.getColumnType(column)) {
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                    return INT;
+                case Types.INTEGER:
+                    return metaData.isSigned(column) ? INT : LONG;
+                case Types.BIGINT:
+                    // 无符号 BIGINT 可能超出 long 范围
+                    return metaData.isSigned(column) ? LONG : DECIMAL;
+                case Types.REAL:
+                case Types.FLOAT:
+                case Types.DOUBLE:
+                    return DOUBLE;
+                case Types.DECIMAL:
+                case Types.NUMERIC:
+                    return DECIMAL;
+                case Types.BOOLEAN:
+                    return BOOLEAN;
+                case Types.BIT:
+                    // MySQL BIT(n>1) 为位串，按二进制处理
+                    return metaData.getPrecision(column) > 1 ? BINARY : BOOLEAN;
+                case Types.DATE:
+                    return DATE;
+                case Types.TIME:
+                    return TIME;
+                case Types.TIMESTAMP:
+                    return TIMESTAMP;
+                case Types.TIME_WITH_TIMEZONE:
+                case Types.TIMESTAMP_WITH_TIMEZONE:
+                    return TIMESTAMP_WITH_TIMEZONE;
+                case Types.BINARY:
+                case Types.VARBINARY:
+                    // 只按 JDBC 类型判断大字段：PostgreSQL 的 text、bytea 报告的精度很大，但属于普通列
+                    return BINARY;
+                case Types.LONGVARBINARY:
+                case Types.BLOB:
+                    return BINARY_LOB;
+                case Types.CHAR:
+                case Types.NCHAR:
+                case Types.SQLXML:
+                case Types.VARCHAR:
+                case Types.NVARCHAR:
+                    return STRING;
+                case Types.LONGVARCHAR:
+                case Types.LONGNVARCHAR:
+                case Types.CLOB:
+                case Types.NCLOB:
+                    return TEXT_LOB;
+                default:
+                    return OTHER;
+            }
+        }
+    }
+}
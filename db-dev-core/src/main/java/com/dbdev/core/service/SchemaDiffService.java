@@ -0,0 +1,615 @@
+package com.dbdev.core.service;
+
+import com.dbdev.core.model.ColumnMetadata;
+import com.dbdev.core.model.DatabaseMetadata;
+import com.dbdev.core.model.IndexMetadata;
+import com.dbdev.core.model.SchemaBaseline;
+import com.dbdev.core.model.SchemaDiff;
+import com.dbdev.core.model.TableMetadata;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 表结构对比服务
+ * <p>
+ * 比较两个数据源，或数据源与已保存的结构基线。两端的表按名称（忽略大小写）放入哈希表配对，
+ * 每张表的字段、索引、主键与注释先归一为一个 64 位哈希，再逐字段比较；哈希相同的表同样逐项确认，
+ * 哈希碰撞掩盖的差异照常输出并在 warnings 中提示，数千张表时耗时与表数量基本成线性。
+ * 索引按唯一性与字段顺序比较，名称不同但定义相同的索引视为一致。
+ * 迁移语句先删除定义变化与多出的索引，再建表、增改字段，最后创建索引，
+ * 避免修改字段类型时被该字段上的索引阻止（如 SQL Server 的 ALTER COLUMN）。
+ * 同类数据库之间比较类型名与默认值，跨数据库时只比较 JDBC 类型、长度与精度，默认值不参与比较。
+ * 外键不在完整元数据与基线中，不参与比较。
+ */
+@Slf4j
+@Service
+public class SchemaDiffService {
+
+    private final MetadataService metadataService;
+    private final MetadataSnapshotStore metadataSnapshotStore;
+
+    public SchemaDiffService(MetadataService metadataService, MetadataSnapshotStore metadataSnapshotStore) {
+        this.metadataService = metadataService;
+        this.metadataSnapshotStore = metadataSnapshotStore;
+    }
+
+    /**
+     * 把数据源当前的完整元数据保存为结构基线，同名基线被覆盖
+     */
+    public SchemaBaseline saveBaseline(String dataSourceName, String name) throws SQLException, IOException {
+        String fingerprint = metadataService.getSchemaFingerprint(dataSourceName);
+        DatabaseMetadata full = metadataService.getFullMetadata(dataSourceName, MetadataCrawler.Progress.NONE);
+        metadataSnapshotStore.saveBaseline(name, dataSourceName, fingerprint, full);
+        return SchemaBaseline.builder()
+                .name(name)
+                .dataSourceName(dataSourceName)
+                .fingerprint(fingerprint)
+                .savedAt(System.currentTimeMillis())
+                .build();
+    }
+
+    /**
+     * 已保存的结构基线，按保存时间倒序
+     */
+    public List<SchemaBaseline> listBaselines() {
+        return metadataSnapshotStore.listBaselines();
+    }
+
+    /**
+     * 删除结构基线
+     *
+     * @return 基线不存在时返回 false
+     */
+    public boolean deleteBaseline(String name) throws IOException {
+        return metadataSnapshotStore.deleteBaseline(name);
+    }
+
+    /**
+     * 比较两份表结构，生成使目标端与源端一致的迁移语句
+     *
+     * @param source       期望的结构
+     * @param target       待迁移的结构
+     * @param dialect      迁移语句的方言，为 null 时使用目标端数据库的方言
+     * @param includeDrops 是否为仅目标端存在的表、字段与索引生成删除语句
+     */
+    public SchemaDiff compare(Side source, Side target, DdlDialect dialect, boolean includeDrops)
+            throws SQLException, IOException {
+        DatabaseMetadata sourceMetadata = load(source);
+        DatabaseMetadata targetMetadata = load(target);
+        String sourceType = DataSourceService.resolveDatabaseType(sourceMetadata.getProductName());
+        String targetType = DataSourceService.resolveDatabaseType(targetMetadata.getProductName());
+        DdlDialect ddl = dialect != null ? dialect : DdlDialect.forDatabase(targetType);
+
+        long start = System.currentTimeMillis();
+        Comparison comparison = new Comparison(ddl, sourceType, sourceType.equals(targetType), includeDrops);
+        comparison.run(tablesOf(sourceMetadata), tablesOf(targetMetadata));
+        log.info("Compared schema {} with {} in {}ms: {} unchanged, {} changed, {} missing, {} extra, {} index changes",
+                source.label(), target.label(), System.currentTimeMillis() - start, comparison.unchanged,
+                comparison.changedTables.size(), comparison.missingTables.size(), comparison.extraTables.size(),
+                comparison.indexChanges.size());
+
+        comparison.indexChanges.sort(Comparator.comparing(SchemaDiff.IndexDiff::getTableName,
+                String.CASE_INSENSITIVE_ORDER));
+        return SchemaDiff.builder()
+                .source(source.label())
+                .target(target.label())
+                .dialect(ddl.getName())
+                .sourceTables(tablesOf(sourceMetadata).size())
+                .targetTables(tablesOf(targetMetadata).size())
+                .unchangedTables(comparison.unchanged)
+                .indexChanges(comparison.indexChanges)
+                .missingTables(comparison.missingTables)
+                .extraTables(comparison.extraTables)
+                .changedTables(comparison.changedTables)
+                .migration(comparison.migration())
+                .warnings(comparison.warnings)
+                .build();
+    }
+
+    private DatabaseMetadata load(Side side) throws SQLException, IOException {
+        if (side.baseline() == null) {
+            return metadataService.getFullMetadata(side.dataSourceName(), MetadataCrawler.Progress.NONE);
+        }
+        DatabaseMetadata baseline = metadataSnapshotStore.loadBaseline(side.baseline());
+        if (baseline == null) {
+            throw new IOException("结构基线不存在: " + side.baseline());
+        }
+        return baseline;
+    }
+
+    private static List<TableMetadata> tablesOf(DatabaseMetadata metadata) {
+        return metadata.getTables() != null ? metadata.getTables() : List.of();
+    }
+
+    /**
+     * 对比的一端：数据源或结构基线
+     */
+    public record Side(String dataSourceName, String baseline) {
+
+        public static Side dataSource(String dataSourceName) {
+            return new Side(dataSourceName, null);
+        }
+
+        public static Side baseline(String name) {
+            return new Side(null, name);
+        }
+
+        String label() {
+            return baseline != null ? "baseline:" + baseline : dataSourceName;
+        }
+    }
+
+    /**
+     * 一次对比的状态，迁移语句按执行顺序分组
+     */
+    private static class Comparison {
+        private final DdlDialect dialect;
+        private final String sourceType;
+        private final boolean sameDatabase;
+        private final boolean includeDrops;
+
+        private final List<SchemaDiff.IndexDiff> indexChanges = new ArrayList<>();
+        private final List<String> missingTables = new ArrayList<>();
+        private final List<String> extraTables = new ArrayList<>();
+        private final List<SchemaDiff.TableDiff> changedTables = new ArrayList<>();
+        private final List<String> warnings = new ArrayList<>();
+        private int unchanged;
+
+        /**
+         * 删除定义变化的索引与多出的索引，最先执行，修改字段时不再受这些索引阻止
+         */
+        private final List<String> indexDropStatements = new ArrayList<>();
+        private final List<String> tableStatements = new ArrayList<>();
+        private final List<String> columnStatements = new ArrayList<>();
+        /**
+         * 新建与重建的索引，在增加、修改字段之后执行
+         */
+        private final List<String> indexStatements = new ArrayList<>();
+        private final List<String> dropStatements = new ArrayList<>();
+        private int skippedDrops;
+
+        Comparison(DdlDialect dialect, String sourceType, boolean sameDatabase, boolean includeDrops) {
+            this.dialect = dialect;
+            this.sourceType = sourceType;
+            this.sameDatabase = sameDatabase;
+            this.includeDrops = includeDrops;
+        }
+
+        void run(List<TableMetadata> sourceTables, List<TableMetadata> targetTables) {
+            Map<String, TableMetadata> targets = new LinkedHashMap<>();
+            for (TableMetadata table : targetTables) {
+                targets.put(key(table.getTableName()), table);
+            }
+
+            for (TableMetadata source : sourceTables) {
+                TableMetadata target = targets.remove(key(source.getTableName()));
+                if (target == null) {
+                    addMissingTable(source);
+                } else if (tableHash(source) == tableHash(target)) {
+                    // 哈希相同仍逐项确认，避免碰撞掩盖差异
+                    if (compareTable(source, target)) {
+                        warnings.add("表 " + target.getTableName() + " 的结构哈希与源端相同但定义不同（哈希碰撞），已按逐项比较结果输出");
+                    } else {
+                        unchanged++;
+                    }
+                } else if (!compareTable(source, target)) {
+                    // 只有字段顺序不同
+                    unchanged++;
+                }
+            }
+
+            List<String> dropTables = new ArrayList<>();
+            for (TableMetadata target : targets.values()) {
+                extraTables.add(target.getTableName());
+                if (!isTable(target)) {
+                    continue;
+                }
+                if (includeDrops) {
+                    dropTables.add(dialect.dropTable(target.getTableName()));
+                } else {
+                    skippedDrops++;
+                }
+            }
+            dropStatements.addAll(dropTables);
+            if (skippedDrops > 0) {
+                warnings.add("目标端多出的 " + skippedDrops + " 处表、字段或索引未生成删除语句（includeDrops=true 时生成）");
+            }
+        }
+
+        List<String> migration() {
+            List<String> statements = new ArrayList<>();
+            for (List<String> group : List.of(indexDropStatements, tableStatements, columnStatements,
+                    indexStatements, dropStatements)) {
+                for (String statement : group) {
+                    statements.add(dialect.terminate(statement));
+                }
+            }
+            return statements;
+        }
+
+        private void addMissingTable(TableMetadata source) {
+            missingTables.add(source.getTableName());
+            if (!isTable(source)) {
+                warnings.add(source.getTableType() + " " + source.getTableName() + " 在目标端不存在，需手工创建");
+                return;
+            }
+            tableStatements.addAll(dialect.createTable(source, List.of(), sourceType));
+            tableStatements.addAll(dialect.createIndexes(source, sourceType));
+        }
+
+        /**
+         * 逐项比较两端的表，没有差异时不产生任何输出
+         *
+         * @return 是否存在差异
+         */
+        private boolean compareTable(TableMetadata source, TableMetadata target) {
+            String tableName = target.getTableName();
+            boolean table = isTable(source) && isTable(target);
+            Map<String, ColumnMetadata> targetColumns = new LinkedHashMap<>();
+            for (ColumnMetadata column : columnsOf(target)) {
+                targetColumns.put(key(column.getColumnName()), column);
+            }
+
+            List<SchemaDiff.ColumnDiff> columnDiffs = new ArrayList<>();
+            List<String> tableColumnStatements = new ArrayList<>();
+            for (ColumnMetadata column : columnsOf(source)) {
+                ColumnMetadata targetColumn = targetColumns.remove(key(column.getColumnName()));
+                if (targetColumn == null) {
+                    columnDiffs.add(SchemaDiff.ColumnDiff.builder()
+                            .columnName(column.getColumnName())
+                            .type(SchemaDiff.ChangeType.MISSING)
+                            .column(column)
+                            .build());
+                    tableColumnStatements.addAll(dialect.addColumn(tableName, column, sourceType));
+                    continue;
+                }
+                List<SchemaDiff.ColumnAttribute> changes = columnChanges(column, targetColumn);
+                if (changes.isEmpty()) {
+                    continue;
+                }
+                columnDiffs.add(SchemaDiff.ColumnDiff.builder()
+                        .columnName(targetColumn.getColumnName())
+                        .type(SchemaDiff.ChangeType.CHANGED)
+                        .changes(changes)
+                        .column(column)
+                        .targetColumn(targetColumn)
+                        .build());
+                tableColumnStatements.addAll(dialect.alterColumn(tableName, targetColumn, column, changes, sourceType));
+                if (changes.contains(SchemaDiff.ColumnAttribute.AUTO_INCREMENT) && !"mysql".equals(dialect.getName())) {
+                    warnings.add("表 " + tableName + " 字段 " + targetColumn.getColumnName() + " 的自增属性不同，需手工修改");
+                }
+            }
+            List<String> dropColumns = new ArrayList<>();
+            for (ColumnMetadata targetColumn : targetColumns.values()) {
+                columnDiffs.add(SchemaDiff.ColumnDiff.builder()
+                        .columnName(targetColumn.getColumnName())
+                        .type(SchemaDiff.ChangeType.EXTRA)
+                        .targetColumn(targetColumn)
+                        .build());
+                if (includeDrops) {
+                    dropColumns.addAll(dialect.dropColumn(tableName, targetColumn));
+                } else {
+                    skippedDrops++;
+                }
+            }
+
+            SchemaDiff.TableDiff.TableDiffBuilder diff = SchemaDiff.TableDiff.builder().tableName(tableName);
+            boolean changed = !columnDiffs.isEmpty();
+            if (!text(source.getRemarks()).equals(text(target.getRemarks()))) {
+                changed = true;
+                diff.remarks(source.getRemarks()).targetRemarks(target.getRemarks());
+                String statement = dialect.changeTableComment(tableName, target.getRemarks(), source.getRemarks());
+                if (statement != null) {
+                    tableColumnStatements.add(statement);
+                }
+            }
+            List<String> primaryKeys = primaryKeys(source);
+            List<String> targetPrimaryKeys = primaryKeys(target);
+            if (!keys(primaryKeys).equals(keys(targetPrimaryKeys))) {
+                changed = true;
+                diff.primaryKeys(primaryKeys).targetPrimaryKeys(targetPrimaryKeys);
+                warnings.add("表 " + tableName + " 的主键不同（源端 " + primaryKeys + "，目标端 " + targetPrimaryKeys
+                        + "），需手工修改");
+            }
+            if (changed) {
+                changedTables.add(diff.columns(columnDiffs).build());
+            }
+
+            boolean indexesChanged = compareIndexes(source, target, table);
+            if (table) {
+                columnStatements.addAll(tableColumnStatements);
+                dropStatements.addAll(dropColumns);
+            } else if (changed || indexesChanged) {
+                warnings.add(target.getTableType() + " " + tableName + " 的定义不同，需手工处理");
+            }
+            return changed || indexesChanged;
+        }
+
+        /**
+         * 同名且定义（唯一性与字段）相同的索引先配对，再把同名但定义不同的视为变化，
+         * 剩余的按定义配对（名称不同但定义相同视为一致），最后剩下的为缺少或多出的索引
+         *
+         * @param table 两端是否都是表，否则只记录差异不生成语句
+         * @return 是否存在差异
+         */
+        private boolean compareIndexes(TableMetadata source, TableMetadata target, boolean table) {
+            String tableName = target.getTableName();
+            List<IndexDefinition> targetIndexes = indexesOf(target);
+            List<IndexDefinition> unmatched = new ArrayList<>(targetIndexes);
+            List<IndexDefinition> pending = new ArrayList<>();
+            for (IndexDefinition index : indexesOf(source)) {
+                if (!unmatched.removeIf(candidate -> candidate.sameName(index) && candidate.sameDefinition(index))) {
+                    pending.add(index);
+                }
+            }
+            Map<IndexDefinition, IndexDefinition> changed = new LinkedHashMap<>();
+            for (IndexDefinition index : pending) {
+                for (IndexDefinition candidate : unmatched) {
+                    if (candidate.sameName(index)) {
+                        changed.put(index, candidate);
+                        unmatched.remove(candidate);
+                        break;
+                    }
+                }
+            }
+            List<IndexDefinition> missing = new ArrayList<>();
+            for (IndexDefinition index : pending) {
+                if (!changed.containsKey(index)
+                        && !unmatched.removeIf(candidate -> candidate.sameDefinition(index))) {
+                    missing.add(index);
+                }
+            }
+            if (changed.isEmpty() && missing.isEmpty() && unmatched.isEmpty()) {
+                return false;
+            }
+
+            Map<String, String> targetColumns = new HashMap<>();
+            for (ColumnMetadata column : columnsOf(target)) {
+                targetColumns.put(key(column.getColumnName()), column.getColumnName());
+            }
+            for (IndexDefinition index : pending) {
+                IndexDefinition previous = changed.get(index);
+                if (previous == null && !missing.contains(index)) {
+                    continue;
+                }
+                // 字段名按目标端的写法，新增字段沿用源端的写法
+                List<String> columns = index.columns().stream()
+                        .map(column -> targetColumns.getOrDefault(key(column), column))
+                        .toList();
+
+                SchemaDiff.IndexDiff.IndexDiffBuilder diff = SchemaDiff.IndexDiff.builder()
+                        .tableName(tableName)
+                        .indexName(index.name())
+                        .columns(index.columns())
+                        .unique(index.unique());
+                if (previous != null) {
+                    indexChanges.add(diff.type(SchemaDiff.ChangeType.CHANGED)
+                            .targetColumns(previous.columns())
+                            .targetUnique(previous.unique())
+                            .build());
+                    if (table) {
+                        indexDropStatements.add(dialect.dropIndex(tableName, previous.name()));
+                        indexStatements.add(dialect.createIndex(tableName, previous.name(), index.unique(), columns));
+                    }
+                } else {
+                    indexChanges.add(diff.type(SchemaDiff.ChangeType.MISSING)
+                            .coveredBy(index.unique() ? null : coveringIndex(index, targetIndexes))
+                            .build());
+                    if (table) {
+                        indexStatements.add(dialect.createIndex(tableName,
+                                dialect.indexName(tableName, index.name(), sourceType), index.unique(), columns));
+                    }
+                }
+            }
+            for (IndexDefinition index : unmatched) {
+                indexChanges.add(SchemaDiff.IndexDiff.builder()
+                        .tableName(tableName)
+                        .indexName(index.name())
+                        .type(SchemaDiff.ChangeType.EXTRA)
+                        .targetColumns(index.columns())
+                        .targetUnique(index.unique())
+                        .build());
+                if (!table) {
+                    continue;
+                }
+                if (includeDrops) {
+                    indexDropStatements.add(dialect.dropIndex(tableName, index.name()));
+                } else {
+                    skippedDrops++;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 以 index 的字段为最左前缀的目标端索引
+         */
+        private static String coveringIndex(IndexDefinition index, List<IndexDefinition> targetIndexes) {
+            List<String> columns = keys(index.columns());
+            for (IndexDefinition candidate : targetIndexes) {
+                List<String> candidateColumns = keys(candidate.columns());
+                if (candidateColumns.size() >= columns.size()
+                        && candidateColumns.subList(0, columns.size()).equals(columns)) {
+                    return candidate.name();
+                }
+            }
+            return null;
+        }
+
+        private List<SchemaDiff.ColumnAttribute> columnChanges(ColumnMetadata source, ColumnMetadata target) {
+            List<SchemaDiff.ColumnAttribute> changes = new ArrayList<>();
+            if (!typeSignature(source).equals(typeSignature(target))) {
+                changes.add(SchemaDiff.ColumnAttribute.TYPE);
+            }
+            if (source.isNullable() != target.isNullable()) {
+                changes.add(SchemaDiff.ColumnAttribute.NULLABLE);
+            }
+            if (sameDatabase && !text(source.getDefaultValue()).equals(text(target.getDefaultValue()))) {
+                changes.add(SchemaDiff.ColumnAttribute.DEFAULT);
+            }
+            if (source.isAutoIncrement() != target.isAutoIncrement()) {
+                changes.add(SchemaDiff.ColumnAttribute.AUTO_INCREMENT);
+            }
+            if (!text(source.getRemarks()).equals(text(target.getRemarks()))) {
+                changes.add(SchemaDiff.ColumnAttribute.REMARKS);
+            }
+            return changes;
+        }
+
+        /**
+         * 表的结构哈希，与 {@link #compareTable} 比较的内容一致：不同时两表必有差异（或仅字段顺序不同），相同时仍需逐项确认
+         */
+        private long tableHash(TableMetadata table) {
+            Hash hash = new Hash();
+            hash.add(table.getRemarks());
+            for (String primaryKey : keys(primaryKeys(table))) {
+                hash.add(primaryKey);
+            }
+            for (ColumnMetadata column : columnsOf(table)) {
+                hash.add(key(column.getColumnName()))
+                        .add(typeSignature(column))
+                        .add(column.isNullable())
+                        .add(sameDatabase ? column.getDefaultValue() : null)
+                        .add(column.isAutoIncrement())
+                        .add(column.getRemarks());
+            }
+            // 索引与名称、顺序无关
+            List<String> indexes = new ArrayList<>();
+            for (IndexDefinition index : indexesOf(table)) {
+                indexes.add((index.unique() ? "U:" : "I:") + String.join(",", keys(index.columns())));
+            }
+            indexes.sort(null);
+            for (String index : indexes) {
+                hash.add(index);
+            }
+            return hash.value;
+        }
+
+        /**
+         * 同类数据库比较类型名，跨数据库比较 JDBC 类型
+         */
+        private String typeSignature(ColumnMetadata column) {
+            String type = sameDatabase
+                    ? text(column.getTypeName()).toUpperCase(Locale.ROOT)
+                    : text(column.getDataType());
+            return type + "(" + column.getColumnSize() + "," + column.getDecimalDigits() + ")";
+        }
+    }
+
+    /**
+     * 按名称分组后的索引，跳过主键对应的索引与没有普通字段的表达式索引
+     */
+    private static List<IndexDefinition> indexesOf(TableMetadata table) {
+        if (table.getIndexes() == null || table.getIndexes().isEmpty()) {
+            return List.of();
+        }
+        Map<String, List<IndexMetadata>> indexMap = new LinkedHashMap<>();
+        for (IndexMetadata index : table.getIndexes()) {
+            if (index.getIndexName() != null) {
+                indexMap.computeIfAbsent(index.getIndexName(), k -> new ArrayList<>()).add(index);
+            }
+        }
+        List<String> primaryKeys = keys(primaryKeys(table));
+        List<IndexDefinition> indexes = new ArrayList<>();
+        for (Map.Entry<String, List<IndexMetadata>> entry : indexMap.entrySet()) {
+            List<String> columns = entry.getValue().stream()
+                    .map(IndexMetadata::getColumnName)
+                    .filter(Objects::nonNull)
+                    .toList();
+            boolean unique = entry.getValue().get(0).isUnique();
+            if (columns.isEmpty() || entry.getKey().equals("PRIMARY") || (unique && keys(columns).equals(primaryKeys))) {
+                continue;
+            }
+            indexes.add(new IndexDefinition(entry.getKey(), unique, columns));
+        }
+        return indexes;
+    }
+
+    private static List<String> primaryKeys(TableMetadata table) {
+        if (table.getPrimaryKeys() != null && !table.getPrimaryKeys().isEmpty()) {
+            return table.getPrimaryKeys();
+        }
+        return columnsOf(table).stream()
+                .filter(ColumnMetadata::isPrimaryKey)
+                .map(ColumnMetadata::getColumnName)
+                .toList();
+    }
+
+    private static List<ColumnMetadata> columnsOf(TableMetadata table) {
+        return table.getColumns() != null ? table.getColumns() : List.of();
+    }
+
+    private static boolean isTable(TableMetadata table) {
+        return table.getTableType() == null || table.getTableType().toUpperCase(Locale.ROOT).contains("TABLE");
+    }
+
+    /**
+     * 名称比较忽略大小写
+     */
+    private static String key(String name) {
+        return name != null ? name.toUpperCase(Locale.ROOT) : "";
+    }
+
+    private static List<String> keys(List<String> names) {
+        return names.stream().map(SchemaDiffService::key).toList();
+    }
+
+    private static String text(String value) {
+        return value != null ? value.trim() : "";
+    }
+
+    /**
+     * 索引定义
+     */
+    private record IndexDefinition(String name, boolean unique, List<String> columns) {
+
+        boolean sameName(IndexDefinition other) {
+            return key(name).equals(key(other.name));
+        }
+
+        boolean sameDefinition(IndexDefinition other) {
+            return unique == other.unique && keys(columns).equals(keys(other.columns));
+        }
+    }
+
+    /**
+     * 64 位 FNV-1a 哈希，各字段以分隔符隔开，null 与空字符串区分
+     */
+    private static class Hash {
+        private static final long PRIME = 0x100000001b3L;
+
+        private long value = 0xcbf29ce484222325L;
+
+        Hash add(String text) {
+            if (text == null) {
+                mix(0xFFFF);
+            } else {
+                for (int i = 0; i < text.length(); i++) {
+                    mix(text.charAt(i));
+                }
+            }
+            mix(0x1F);
+            return this;
+        }
+
+        Hash add(boolean flag) {
+            mix(flag ? 1 : 0);
+            return this;
+        }
+
+        private void mix(int c) {
+            value = (value ^ c) * PRIME;
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.dbdev.core.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步表结构导出任务服务
+ * <p>
+ * 导出在独立线程池中执行，结果写入 db.dev.export.dir 下的文件，调用方轮询进度后下载。
+ * 文件名由数据源、结构指纹、格式与压缩方式组成：结构未变化时重复导出直接复用已有文件；
+ * 相同的导出正在进行时，后提交的请求共用同一个任务。
+ * 无法取得指纹时不缓存，文件随任务过期删除。
+ */
+@Slf4j
+@Service
+public class SchemaExportJobService implements InitializingBean, DisposableBean {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final SchemaExportService schemaExportService;
+    private final MetadataService metadataService;
+
+    /**
+     * 任务存储：jobId -> 任务
+     */
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * 进行中的可缓存任务：数据源、指纹、格式与压缩方式 -> 任务
+     */
+    private final Map<String, ExportJob> activeJobs = new ConcurrentHashMap<>();
+
+    @Value("${db.dev.export.dir:${user.home}/.db-dev/exports}")
+    private String directory;
+
+    @Value("${db.dev.export.pool-size:2}")
+    private int poolSize;
+
+    @Value("${db.dev.export.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${db.dev.export.job-ttl:600}")
+    private int jobTtlSeconds;
+
+    @Value("${db.dev.export.max-cached-files:50}")
+    private int maxCachedFiles;
+
+    @Value("${db.dev.export.max-wait-timeout:60000}")
+    private long maxWaitTimeout;
+
+    private ThreadPoolExecutor executor;
+
+    public SchemaExportJobService(SchemaExportService schemaExportService, MetadataService metadataService) {
+        this.schemaExportService = schemaExportService;
+        this.metadataService = metadataService;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        int threads = Math.max(poolSize, 1);
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "db-dev-export-job-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 提交导出任务，结构未变化且已有导出文件时返回已完成的任务
+     *
+     * @throws RejectedExecutionException 任务队列已满时抛出
+     */
+    public ExportJob submit(String dataSourceName, SchemaExportService.Format format,
+                            SchemaExportService.Compression compression) {
+        return submit(dataSourceName, format, compression, null);
+    }
+
+    /**
+     * 提交导出任务，SQL 格式按指定方言生成
+     *
+     * @param dialect SQL 的目标方言，为 null 时使用数据源自身的方言
+     * @throws RejectedExecutionException 任务队列已满时抛出
+     */
+    public ExportJob submit(String dataSourceName, SchemaExportService.Format format,
+                            SchemaExportService.Compression compression, DdlDialect dialect) {
+        DdlDialect target = format == SchemaExportService.Format.SQL ? dialect : null;
+        String fingerprint = metadataService.getSchemaFingerprint(dataSourceName);
+        if (fingerprint == null) {
+            ExportJob job = new ExportJob(dataSourceName, format, compression, target, null);
+            start(job, artifactOf(job.getId(), format, compression, target));
+            return job;
+        }
+
+        Path cached = artifactOf(dataSourceName + "-" + fingerprint, format, compression, target);
+        if (Files.isRegularFile(cached)) {
+            ExportJob job = new ExportJob(dataSourceName, format, compression, target, fingerprint);
+            touch(cached);
+            job.completeFromCache(cached);
+            jobs.put(job.getId(), job);
+            return job;
+        }
+
+        String key = dataSourceName + "\n" + fingerprint + "\n" + format + "\n" + compression
+                + "\n" + (target != null ? target.getName() : "");
+        ExportJob job = new ExportJob(dataSourceName, format, compression, target, fingerprint);
+        ExportJob existing = activeJobs.putIfAbsent(key, job);
+        if (existing != null) {
+            return existing;
+        }
+        job.getCompletion().whenComplete((finished, e) -> activeJobs.remove(key, finished));
+        try {
+            start(job, cached);
+        } catch (RejectedExecutionException e) {
+            activeJobs.remove(key, job);
+            throw e;
+        }
+        return job;
+    }
+
+    private void start(ExportJob job, Path target) {
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, target));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new RejectedExecutionException("导出任务队列已满", e);
+        }
+    }
+
+    private void run(ExportJob job, Path target) {
+        if (!job.start()) {
+            return;
+        }
+        Path temp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), TEMP_SUFFIX);
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                // 先读取完整元数据（通常已在缓存中），再逐表写出
+                metadataService.getFullMetadata(job.getDataSourceName(), job::onMetadataLoaded);
+                job.checkCancelled();
+                schemaExportService.export(job.getDataSourceName(), job.getFormat(), job.getCompression(),
+                        job.getDialect(), out, job::onTableExported);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.succeed(target);
+            log.info("Schema export job {} finished: dataSource={}, format={}",
+                    job.getId(), job.getDataSourceName(), job.getFormat());
+        } catch (CancellationException e) {
+            job.fail("导出已取消");
+        } catch (SQLException | IOException | RuntimeException e) {
+            log.error("Schema export job failed: {}", job.getId(), e);
+            job.fail("导出失败: " + e.getMessage());
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.debug("Failed to delete temporary export file {}: {}", temp, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取任务
+     */
+    public ExportJob get(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * 长轮询等待时间限制在 1 到 db.dev.export.max-wait-timeout 毫秒之间
+     */
+    public long resolveWaitTimeout(long timeout) {
+        return Math.max(1, Math.min(timeout, maxWaitTimeout));
+    }
+
+    /**
+     * 取消任务：排队中的任务直接取消，执行中的任务在写完当前表后停止
+     *
+     * @return 任务是否存在
+     */
+    public boolean cancel(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null) {
+            return false;
+        }
+        job.cancel();
+        return true;
+    }
+
+    /**
+     * 清理已结束且超过保留时间的任务及其不可缓存的文件，未被任务引用的缓存文件按最近使用时间只保留 max-cached-files 个
+     */
+    @Scheduled(fixedDelayString = "${db.dev.export.evict-interval:60000}")
+    public void evictFinishedJobs() {
+        long deadline = System.currentTimeMillis() - jobTtlSeconds * 1000L;
+        jobs.values().removeIf(job -> {
+            if (job.getEndTime() == null || job.getEndTime() >= deadline) {
+                return false;
+            }
+            if (job.getFingerprint() == null && job.getFile() != null) {
+                delete(job.getFile());
+            }
+            return true;
+        });
+        trimCache();
+    }
+
+    private void trimCache() {
+        Path dir = Paths.get(directory);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        Set<Path> inUse = new HashSet<>();
+        for (ExportJob job : jobs.values()) {
+            if (job.getFile() != null) {
+                inUse.add(job.getFile());
+            }
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file) && !file.toString().endsWith(TEMP_SUFFIX) && !inUse.contains(file)) {
+                    files.add(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to list export files in {}: {}", dir, e.getMessage());
+            return;
+        }
+        int excess = files.size() - Math.max(maxCachedFiles, 0);
+        if (excess <= 0) {
+            return;
+        }
+        files.sort(Comparator.comparing(SchemaExportJobService::lastModified));
+        for (int i = 0; i < excess; i++) {
+            delete(files.get(i));
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    /**
+     * 命中缓存时更新修改时间，使其按最近使用时间淘汰
+     */
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Failed to touch export file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete export file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Path artifactOf(String name, SchemaExportService.Format format,
+                            SchemaExportService.Compression compression, DdlDialect dialect) {
+        String qualified = dialect != null ? name + "-" + dialect.getName() : name;
+        return Paths.get(directory, qualified.replaceAll("[^A-Za-z0-9._-]", "_")
+                + "." + format.getExtension() + compression.getSuffix());
+    }
+
+    @Override
+    public void destroy() {
+        jobs.values().forEach(ExportJob::cancel);
+        executor.shutdownNow();
+    }
+
+    /**
+     * 任务阶段
+     */
+    public enum Phase {
+        /**
+         * 读取元数据
+         */
+        METADATA,
+        /**
+         * 逐表写出
+         */
+        RENDERING
+    }
+
+    /**
+     * 导出任务
+     */
+    public static class ExportJob {
+        private final String id = UUID.randomUUID().toString().replace("-", "");
+        private final String dataSourceName;
+        private final SchemaExportService.Format format;
+        private final SchemaExportService.Compression compression;
+        private final DdlDialect dialect;
+        private final String fingerprint;
+        private final long submitTime = System.currentTimeMillis();
+        private final CompletableFuture<ExportJob> completion = new CompletableFuture<>();
+        private volatile QueryJobService.JobStatus status = QueryJobService.JobStatus.PENDING;
+        private volatile Phase phase;
+        private volatile int completedTables;
+        private volatile int totalTables;
+        private volatile String currentTable;
+        private volatile boolean cached;
+        private volatile Long startTime;
+        private volatile Long endTime;
+        private volatile Path file;
+        private volatile String message;
+
+        ExportJob(String dataSourceName, SchemaExportService.Format format,
+                  SchemaExportService.Compression compression, DdlDialect dialect, String fingerprint) {
+            this.dataSourceName = dataSourceName;
+            this.format = format;
+            this.compression = compression;
+            this.dialect = dialect;
+            this.fingerprint = fingerprint;
+        }
+
+        /**
+         * 标记开始执行，已取消的任务返回 false
+         */
+        synchronized boolean start() {
+            if (status != QueryJobService.JobStatus.PENDING) {
+                return false;
+            }
+            status = QueryJobService.JobStatus.RUNNING;
+            phase = Phase.METADATA;
+            startTime = System.currentTimeMillis();
+            return true;
+        }
+
+        void onMetadataLoaded(int completed, int total, String tableName) {
+            completedTables = completed;
+            totalTables = total;
+            currentTable = tableName;
+        }
+
+        void onTableExported(int completed, int total, String tableName) {
+            checkCancelled();
+            phase = Phase.RENDERING;
+            completedTables = completed;
+            totalTables = total;
+            currentTable = tableName;
+        }
+
+        void checkCancelled() {
+            if (status == QueryJobService.JobStatus.CANCELLED) {
+                throw new CancellationException();
+            }
+        }
+
+        synchronized void completeFromCache(Path file) {
+            this.file = file;
+            cached = true;
+            status = QueryJobService.JobStatus.SUCCEEDED;
+            startTime = endTime = System.currentTimeMillis();
+            completion.complete(this);
+        }
+
+        synchronized void succeed(Path file) {
+            this.file = file;
+            status = QueryJobService.JobStatus.SUCCEEDED;
+            endTime = System.currentTimeMillis();
+            completion.complete(this);
+        }
+
+        synchronized void fail(String message) {
+            // 取消导致的异常可能被模板引擎包装，以取消状态为准
+            if (status == QueryJobService.JobStatus.CANCELLED) {
+                this.message = "导出已取消";
+            } else {
+                this.message = message;
+                status = QueryJobService.JobStatus.FAILED;
+            }
+            endTime = System.currentTimeMillis();
+            completion.complete(this);
+        }
+
+        synchronized void cancel() {
+            if (status == QueryJobService.JobStatus.PENDING) {
+                status = QueryJobService.JobStatus.CANCELLED;
+                message = "导出已取消";
+                endTime = System.currentTimeMillis();
+                completion.complete(this);
+            } else if (status == QueryJobService.JobStatus.RUNNING) {
+                status = QueryJobService.JobStatus.CANCELLED;
+            }
+        }
+
+        /**
+         * 任务结束时完成的 Future，可用于订阅结果
+         */
+        public CompletableFuture<ExportJob> getCompletion() { return completion; }
+
+        public boolean isFinished() { return completion.isDone(); }
+
+        // Getters
+        public String getId() { return id; }
+        public String getDataSourceName() { return dataSourceName; }
+        public SchemaExportService.Format getFormat() { return format; }
+        public SchemaExportService.Compression getCompression() { return compression; }
+        public DdlDialect getDialect() { return dialect; }
+        public String getFingerprint() { return fingerprint; }
+        public long getSubmitTime() { return submitTime; }
+        public QueryJobService.JobStatus getStatus() { return status; }
+        public Phase getPhase() { return phase; }
+        public int getCompletedTables() { return completedTables; }
+        public int getTotalTables() { return totalTables; }
+        public String getCurrentTable() { return currentTable; }
+        public boolean isCached() { return cached; }
+        public Long getStartTime() { return startTime; }
+        public Long getEndTime() { return endTime; }
+        public String getMessage() { return message; }
+
+        /**
+         * 导出文件，任务成功后可用
+         */
+        public Path getFile() { return status == QueryJobService.JobStatus.SUCCEEDED ? file : null; }
+    }
+}
@@ -2,55 +2,455 @@ package com.dbdev.core.service;
 
 import com.dbdev.core.model.ColumnMetadata;
 import com.dbdev.core.model.DatabaseMetadata;
+import com.dbdev.core.model.ForeignKeyMetadata;
 import com.dbdev.core.model.IndexMetadata;
 import com.dbdev.core.model.TableMetadata;
+import com.dbdev.core.model.TableStatistics;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfWriter;
+import freemarker.core.XHTMLOutputFormat;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
-import lombok.extern.slf4j.Slf4j;
+import freemarker.template.TemplateException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-
-import javax.sql.DataSource;
+import org.xhtmlrenderer.pdf.ITextFontResolver;
+import org.xhtmlrenderer.pdf.ITextRenderer;
+import org.xhtmlrenderer.pdf.PagePosition;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
-import java.sql.Connection;
-import java.sql.DatabaseMetaData;
-import java.sql.ResultSet;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * 数据库表结构导出服务
+ * <p>
+ * 各格式均直接写入调用方提供的 Writer：SQL 与 Markdown 每生成一张表即写出，HTML 由模板边渲染边输出，
+ * 导出过程中不保留完整文档。输出到字节流时可选 GZIP 压缩，或打包为每张表一个文件的 ZIP；
+ * PDF 按批排版后逐批写出
  */
-@Slf4j
 @Service
 public class SchemaExportService {
 
-    private final DataSourceService dataSourceService;
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * ZIP 中各表文件所在的目录
+     */
+    private static final String TABLES_DIR = "tables/";
+
+    /**
+     * PDF 每批排版的表数量，决定排版时内存中的文档大小
+     */
+    private static final int PDF_BATCH_SIZE = 20;
+
+    /**
+     * PDF 中表名标题的锚点，用于定位书签与索引页码
+     */
+    private static final String PDF_ANCHOR_PREFIX = "table-";
+    private static final Pattern PDF_ANCHOR = Pattern.compile(PDF_ANCHOR_PREFIX + "\\d+");
+
+    private final MetadataService metadataService;
     private final Configuration freeMarkerConfiguration;
 
-    public SchemaExportService(DataSourceService dataSourceService) {
-        this.dataSourceService = dataSourceService;
+    @Value("${db.dev.export.pdf.parallelism:4}")
+    private int pdfParallelism;
+
+    @Value("${db.dev.export.pdf.font:}")
+    private String pdfFont;
+
+    public SchemaExportService(MetadataService metadataService) {
+        this.metadataService = metadataService;
         this.freeMarkerConfiguration = new Configuration(Configuration.VERSION_2_3_32);
         this.freeMarkerConfiguration.setClassForTemplateLoading(this.getClass(), "/templates");
         this.freeMarkerConfiguration.setDefaultEncoding("UTF-8");
+        // 插值按 XHTML 转义，注释中的 < & 等字符不会破坏文档结构（PDF 排版要求文档是合法的 XML）
+        this.freeMarkerConfiguration.setOutputFormat(XHTMLOutputFormat.INSTANCE);
+    }
+
+    /**
+     * 按格式导出
+     *
+     * @param progress 每写出一张表回调一次
+     */
+    public void export(String dataSourceName, Format format, Writer writer, MetadataCrawler.Progress progress)
+            throws SQLException, IOException {
+        switch (format) {
+            case MARKDOWN -> exportToMarkdown(dataSourceName, writer, progress);
+            case HTML -> exportToHtml(dataSourceName, writer, progress);
+            case SQL -> exportToSql(dataSourceName, writer, progress);
+            case PDF -> throw new IllegalArgumentException("PDF 只能导出到字节流");
+        }
+    }
+
+    /**
+     * 按格式与压缩方式导出到字节流，写完后不关闭 out
+     * <p>
+     * GZIP 将单个文档边生成边压缩；ZIP 为每张表生成一个文件，遍历表的同时逐个写入压缩包，最后写入索引文件
+     *
+     * @param progress 每写出一张表回调一次
+     */
+    public void export(String dataSourceName, Format format, Compression compression, OutputStream out,
+                       MetadataCrawler.Progress progress) throws SQLException, IOException {
+        export(dataSourceName, format, compression, null, out, progress);
+    }
+
+    /**
+     * 按格式与压缩方式导出到字节流，SQL 格式按指定方言生成
+     *
+     * @param dialect SQL 的目标方言，为 null 时使用数据源自身的方言，其他格式忽略
+     */
+    public void export(String dataSourceName, Format format, Compression compression, DdlDialect dialect,
+                       OutputStream out, MetadataCrawler.Progress progress) throws SQLException, IOException {
+        if (!compression.supports(format)) {
+            throw new IllegalArgumentException(format + " 不支持 " + compression + " 压缩");
+        }
+        switch (compression) {
+            case NONE -> exportDocument(dataSourceName, format, dialect, out, progress);
+            case GZIP -> {
+                GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+                exportDocument(dataSourceName, format, dialect, gzip, progress);
+                gzip.finish();
+            }
+            case ZIP -> exportToZip(dataSourceName, format, dialect, out, progress);
+        }
+    }
+
+    private void exportDocument(String dataSourceName, Format format, DdlDialect dialect, OutputStream out,
+                                MetadataCrawler.Progress progress) throws SQLException, IOException {
+        if (format == Format.PDF) {
+            exportToPdf(dataSourceName, out, progress);
+            return;
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.SQL) {
+            exportToSql(dataSourceName, dialect, writer, progress);
+        } else {
+            export(dataSourceName, format, writer, progress);
+        }
+        writer.flush();
+    }
+
+    /**
+     * 导出为 PDF
+     * <p>
+     * 各表章节由 schema-table.ftl 在多个线程中并行渲染为 XHTML 片段，主线程每取 PDF_BATCH_SIZE 个片段
+     * 组成一个文档排版并追加写入 PDF，同时只在后台预渲染下一批，内存占用与表数量无关。
+     * 每张表生成一个书签，全部表写完后追加带页码的表索引。
+     */
+    private void exportToPdf(String dataSourceName, OutputStream out, MetadataCrawler.Progress progress)
+            throws SQLException, IOException {
+        DatabaseMetadata metadata = metadataService.getFullMetadata(dataSourceName, MetadataCrawler.Progress.NONE);
+        ForeignKeyGraph foreignKeyGraph = metadataService.getForeignKeyGraph(dataSourceName);
+        List<TableMetadata> tables = metadata.getTables();
+        Map<String, Object> model = htmlModel(metadata, foreignKeyGraph);
+        Template fragmentTemplate = freeMarkerConfiguration.getTemplate("schema-table.ftl");
+        Template pageTemplate = freeMarkerConfiguration.getTemplate("schema-pdf.ftl");
+
+        ITextRenderer renderer = new ITextRenderer();
+        model.put("fontFamily", registerPdfFont(renderer));
+
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(pdfParallelism, 1), runnable -> {
+            Thread thread = new Thread(runnable, "db-dev-pdf-render-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Deque<Future<String>> fragments = new ArrayDeque<>();
+        List<Map<String, Object>> toc = new ArrayList<>(tables.size());
+        int submitted = 0;
+        int pages = 0;
+        try {
+            int start = 0;
+            do {
+                int end = Math.min(tables.size(), start + PDF_BATCH_SIZE);
+                // 当前批与下一批的片段在后台渲染
+                for (; submitted < Math.min(tables.size(), end + PDF_BATCH_SIZE); submitted++) {
+                    Map<String, Object> data = new HashMap<>(model);
+                    data.put("table", tables.get(submitted));
+                    data.put("anchor", PDF_ANCHOR_PREFIX + submitted);
+                    fragments.add(executor.submit(() -> render(fragmentTemplate, data)));
+                }
+                List<String> batch = new ArrayList<>(end - start);
+                List<Map<String, Object>> bookmarks = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++) {
+                    batch.add(await(fragments.poll()));
+                    Map<String, Object> bookmark = new HashMap<>();
+                    bookmark.put("tableName", tables.get(i).getTableName());
+                    bookmark.put("anchor", PDF_ANCHOR_PREFIX + i);
+                    bookmarks.add(bookmark);
+                }
+
+                Map<String, Object> page = new HashMap<>(model);
+                page.put("header", start == 0);
+                page.put("fragments", batch);
+                page.put("bookmarks", bookmarks);
+                renderer.setDocumentFromString(render(pageTemplate, page));
+                renderer.layout();
+                if (start == 0) {
+                    renderer.createPDF(new NonClosingOutputStream(out), false);
+                    renderer.getWriter().setViewerPreferences(PdfWriter.PageModeUseOutlines);
+                } else {
+                    renderer.writeNextDocument(pages + 1);
+                }
+
+                // 锚点在表名标题上，其所在页即表的起始页（PagePosition 的页号从 0 开始）
+                int[] startPages = new int[end - start];
+                for (PagePosition position : renderer.findPagePositionsByID(PDF_ANCHOR)) {
+                    int index = Integer.parseInt(position.getId().substring(PDF_ANCHOR_PREFIX.length()));
+                    startPages[index - start] = position.getPageNo();
+                }
+                for (int i = start; i < end; i++) {
+                    Map<String, Object> entry = new HashMap<>();
+                    entry.put("tableName", tables.get(i).getTableName());
+                    entry.put("remarks", tables.get(i).getRemarks());
+                    entry.put("page", pages + startPages[i - start] + 1);
+                    toc.add(entry);
+                }
+                pages += renderer.getRootBox().getLayer().getPages().size();
+                for (int i = start; i < end; i++) {
+                    progress.onTable(i + 1, tables.size(), tables.get(i).getTableName());
+                }
+                start = end;
+            } while (start < tables.size());
+
+            Map<String, Object> index = new HashMap<>(model);
+            index.put("header", false);
+            index.put("fragments", List.of());
+            index.put("bookmarks", List.of());
+            index.put("toc", toc);
+            renderer.setDocumentFromString(render(pageTemplate, index));
+            renderer.layout();
+            renderer.writeNextDocument(pages + 1);
+            renderer.finishPDF();
+        } catch (DocumentException e) {
+            throw new IOException("Failed to render PDF export: " + e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 注册 db.dev.export.pdf.font 指定的字体（如含中文字形的 TTF），返回其字体族名，未配置时返回 null
+     */
+    private String registerPdfFont(ITextRenderer renderer) throws IOException {
+        if (pdfFont == null || pdfFont.isBlank()) {
+            return null;
+        }
+        try {
+            renderer.getFontResolver().addFont(pdfFont, BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
+            Set<String> families = ITextFontResolver.getDistinctFontFamilyNames(
+                    pdfFont, BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
+            return families.isEmpty() ? null : families.iterator().next();
+        } catch (DocumentException e) {
+            throw new IOException("Failed to load PDF font " + pdfFont + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String await(Future<String> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("PDF export interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * 导出为 ZIP：tables/ 下每张表一个文件，遍历表时逐个写入，最后写入索引文件
+     * <p>
+     * SQL 的索引文件按依赖顺序以命令行客户端的引用指令（如 MySQL 的 SOURCE）引用各表文件并补充循环引用的外键，
+     * Markdown 与 HTML 的索引文件为表目录
+     */
+    private void exportToZip(String dataSourceName, Format format, DdlDialect dialect, OutputStream out,
+                             MetadataCrawler.Progress progress) throws SQLException, IOException {
+        DatabaseMetadata metadata = metadataService.getFullMetadata(dataSourceName, MetadataCrawler.Progress.NONE);
+        ForeignKeyGraph foreignKeyGraph = metadataService.getForeignKeyGraph(dataSourceName);
+        String sourceType = DataSourceService.resolveDatabaseType(metadata.getProductName());
+        DdlDialect target = targetDialect(sourceType, dialect);
+        List<TableMetadata> tables = format == Format.SQL
+                ? inDependencyOrder(metadata.getTables(), foreignKeyGraph)
+                : metadata.getTables();
+        Map<String, Object> templateData = format == Format.HTML ? htmlModel(metadata, foreignKeyGraph) : null;
+        Set<String> created = new HashSet<>();
+        List<ForeignKeyMetadata> deferred = new ArrayList<>();
+        Set<String> usedNames = new HashSet<>();
+        List<String> entryNames = new ArrayList<>(tables.size());
+
+        // 不关闭 writer 与 zip，以免关闭调用方的 out
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder();
+
+        int completed = 0;
+        for (TableMetadata table : tables) {
+            String entryName = TABLES_DIR + entryFileName(table.getTableName(), format, usedNames);
+            entryNames.add(entryName);
+            zip.putNextEntry(new ZipEntry(entryName));
+            switch (format) {
+                case SQL -> appendSqlTable(sb, table, foreignKeyGraph, created, deferred, target, sourceType);
+                case MARKDOWN -> appendMarkdownTable(sb, table, foreignKeyGraph);
+                case HTML -> {
+                    templateData.put("tables", List.of(table));
+                    renderHtml(templateData, writer);
+                }
+            }
+            flush(sb, writer);
+            writer.flush();
+            zip.closeEntry();
+            progress.onTable(++completed, tables.size(), table.getTableName());
+        }
+
+        zip.putNextEntry(new ZipEntry("index." + format.getExtension()));
+        switch (format) {
+            case SQL -> {
+                appendSqlHeader(sb, metadata, target);
+                sb.append("-- 在解压目录中执行，按依赖顺序建表\n");
+                for (String entryName : entryNames) {
+                    sb.append(target.includeFile(entryName)).append("\n");
+                }
+                sb.append("\n");
+                appendSqlFooter(sb, deferred, target);
+            }
+            case MARKDOWN -> {
+                appendMarkdownHeader(sb, metadata);
+                for (int i = 0; i < tables.size(); i++) {
+                    TableMetadata table = tables.get(i);
+                    sb.append("- [").append(table.getTableName()).append("](").append(entryNames.get(i)).append(")");
+                    if (table.getRemarks() != null && !table.getRemarks().isEmpty()) {
+                        sb.append(" - ").append(table.getRemarks());
+                    }
+                    sb.append("\n");
+                }
+            }
+            case HTML -> {
+                List<Map<String, String>> links = new ArrayList<>(tables.size());
+                for (int i = 0; i < tables.size(); i++) {
+                    Map<String, String> link = new HashMap<>();
+                    link.put("tableName", tables.get(i).getTableName());
+                    link.put("remarks", tables.get(i).getRemarks());
+                    link.put("href", entryNames.get(i));
+                    links.add(link);
+                }
+                templateData.put("tables", List.of());
+                templateData.put("links", links);
+                renderHtml(templateData, writer);
+            }
+        }
+        flush(sb, writer);
+        writer.flush();
+        zip.closeEntry();
+        zip.finish();
+    }
+
+    /**
+     * ZIP 中的表文件名：替换文件系统不允许的字符，忽略大小写重名时追加序号
+     */
+    private static String entryFileName(String tableName, Format format, Set<String> usedNames) {
+        String base = tableName.replaceAll("[\\\\/:*?\"<>|\\s]", "_");
+        String name = base;
+        for (int n = 2; !usedNames.add(name.toLowerCase(Locale.ROOT)); n++) {
+            name = base + "_" + n;
+        }
+        return name + "." + format.getExtension();
     }
 
     /**
      * 导出为 SQL 格式（CREATE TABLE 语句）
+     * <p>
+     * 按外键依赖顺序建表，被引用的表在前；外键引用已建的表时写在建表语句中，
+     * 处于循环中的外键在全部建表后以 ALTER TABLE 补充
      */
-    public String exportToSql(String dataSourceName) throws SQLException {
-        DataSource dataSource = dataSourceService.getDataSource(dataSourceName);
-        DatabaseMetadata metadata = getFullMetadata(dataSource);
+    public void exportToSql(String dataSourceName, Writer writer, MetadataCrawler.Progress progress)
+            throws SQLException, IOException {
+        exportToSql(dataSourceName, null, writer, progress);
+    }
+
+    /**
+     * 按指定方言导出建表语句，可用于在其他数据库中建立相同结构（如建立本地 H2 压测库）
+     *
+     * @param dialect 目标方言，为 null 时使用数据源自身的方言
+     */
+    public void exportToSql(String dataSourceName, DdlDialect dialect, Writer writer,
+                            MetadataCrawler.Progress progress) throws SQLException, IOException {
+        DatabaseMetadata metadata = metadataService.getFullMetadata(dataSourceName, MetadataCrawler.Progress.NONE);
+        ForeignKeyGraph foreignKeyGraph = metadataService.getForeignKeyGraph(dataSourceName);
+        String sourceType = DataSourceService.resolveDatabaseType(metadata.getProductName());
+        DdlDialect target = targetDialect(sourceType, dialect);
+        List<TableMetadata> tables = inDependencyOrder(metadata.getTables(), foreignKeyGraph);
+        Set<String> created = new HashSet<>();
+        List<ForeignKeyMetadata> deferred = new ArrayList<>();
 
         StringBuilder sb = new StringBuilder();
+        appendSqlHeader(sb, metadata, target);
+        flush(sb, writer);
+
+        // 导出每个表的 CREATE TABLE 语句
+        int completed = 0;
+        for (TableMetadata table : tables) {
+            appendSqlTable(sb, table, foreignKeyGraph, created, deferred, target, sourceType);
+            flush(sb, writer);
+            progress.onTable(++completed, tables.size(), table.getTableName());
+        }
 
-        // 文件头注释
+        appendSqlFooter(sb, deferred, target);
+        flush(sb, writer);
+    }
+
+    /**
+     * 未指定方言时使用数据源自身的方言，不支持的数据库沿用 MySQL 语法
+     */
+    private static DdlDialect targetDialect(String sourceType, DdlDialect dialect) {
+        if (dialect != null) {
+            return dialect;
+        }
+        DdlDialect source = DdlDialect.of(sourceType);
+        return source != null ? source : DdlDialect.of("mysql");
+    }
+
+    /**
+     * 文件头注释
+     */
+    private void appendSqlHeader(StringBuilder sb, DatabaseMetadata metadata, DdlDialect dialect) {
         sb.append("-- ========================================\n");
         sb.append("-- 数据库表结构导出\n");
         sb.append("-- ========================================\n");
@@ -61,111 +461,124 @@ public class SchemaExportService {
                 .append(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
                 .append("\n");
         sb.append("-- 表数量: ").append(metadata.getTables().size()).append("\n");
+        sb.append("-- 目标方言: ").append(dialect.getName()).append("\n");
         sb.append("-- ========================================\n\n");
+        if (dialect.disableForeignKeyChecks() != null) {
+            sb.append(dialect.terminate(dialect.disableForeignKeyChecks())).append("\n\n");
+        }
+    }
 
-        // 导出每个表的 CREATE TABLE 语句
-        for (TableMetadata table : metadata.getTables()) {
-            sb.append("-- ----------------------------------------\n");
-            sb.append("-- 表名: ").append(table.getTableName());
-            if (table.getRemarks() != null && !table.getRemarks().isEmpty()) {
-                sb.append(" (").append(table.getRemarks()).append(")");
-            }
-            sb.append("\n");
-            sb.append("-- ----------------------------------------\n\n");
-
-            sb.append("DROP TABLE IF EXISTS `").append(table.getTableName()).append("`;\n");
-            sb.append("CREATE TABLE `").append(table.getTableName()).append("` (\n");
-
-            // 字段定义
-            List<String> columnDefinitions = new ArrayList<>();
-            if (table.getColumns() != null) {
-                for (ColumnMetadata col : table.getColumns()) {
-                    StringBuilder colDef = new StringBuilder();
-                    colDef.append("  `").append(col.getColumnName()).append("` ");
-                    colDef.append(formatSqlColumnType(col));
-
-                    // 非空约束
-                    if (!col.isNullable()) {
-                        colDef.append(" NOT NULL");
-                    }
-
-                    // 默认值
-                    if (col.getDefaultValue() != null && !col.getDefaultValue().isEmpty()) {
-                        colDef.append(" DEFAULT ").append(col.getDefaultValue());
-                    }
-
-                    // 自增
-                    if (col.isAutoIncrement()) {
-                        colDef.append(" AUTO_INCREMENT");
-                    }
+    /**
+     * 单表的建表语句与索引，引用尚未建立的表的外键加入 deferred
+     */
+    private void appendSqlTable(StringBuilder sb, TableMetadata table, ForeignKeyGraph foreignKeyGraph,
+                                Set<String> created, List<ForeignKeyMetadata> deferred,
+                                DdlDialect dialect, String sourceType) {
+        created.add(table.getTableName());
+        sb.append("-- ----------------------------------------\n");
+        sb.append("-- 表名: ").append(table.getTableName());
+        if (table.getRemarks() != null && !table.getRemarks().isEmpty()) {
+            sb.append(" (").append(table.getRemarks()).append(")");
+        }
+        sb.append("\n");
+        if (table.getStatistics() != null) {
+            sb.append("-- 统计: ").append(formatStatistics(table.getStatistics())).append("\n");
+        }
+        sb.append("-- ----------------------------------------\n\n");
 
-                    // 注释
-                    if (col.getRemarks() != null && !col.getRemarks().isEmpty()) {
-                        colDef.append(" COMMENT '").append(escapeSql(col.getRemarks())).append("'");
-                    }
+        sb.append(dialect.terminate(dialect.dropTable(table.getTableName()))).append("\n");
 
-                    columnDefinitions.add(colDef.toString());
-                }
+        // 外键引用已建的表时写在建表语句中
+        List<ForeignKeyMetadata> inline = new ArrayList<>();
+        for (ForeignKeyMetadata foreignKey : foreignKeyGraph.getForeignKeys(table.getTableName())) {
+            if (created.contains(foreignKey.getReferencedTableName())) {
+                inline.add(foreignKey);
+            } else {
+                deferred.add(foreignKey);
             }
+        }
+        for (String statement : dialect.createTable(table, inline, sourceType)) {
+            sb.append(dialect.terminate(statement)).append("\n");
+        }
+        sb.append("\n");
 
-            // 主键约束
-            if (table.getPrimaryKeys() != null && !table.getPrimaryKeys().isEmpty()) {
-                StringBuilder pkDef = new StringBuilder();
-                pkDef.append("  PRIMARY KEY (");
-                pkDef.append(String.join(", ", table.getPrimaryKeys().stream()
-                        .map(pk -> "`" + pk + "`")
-                        .toList()));
-                pkDef.append(")");
-                columnDefinitions.add(pkDef.toString());
+        // 索引
+        List<String> indexes = dialect.createIndexes(table, sourceType);
+        if (!indexes.isEmpty()) {
+            for (String statement : indexes) {
+                sb.append(dialect.terminate(statement)).append("\n");
             }
-
-            sb.append(String.join(",\n", columnDefinitions));
             sb.append("\n");
+        }
+    }
 
-            // 表注释
-            if (table.getRemarks() != null && !table.getRemarks().isEmpty()) {
-                sb.append(") COMMENT='").append(escapeSql(table.getRemarks())).append("';\n\n");
-            } else {
-                sb.append(");\n\n");
+    /**
+     * 全部建表后补充循环引用的外键
+     */
+    private void appendSqlFooter(StringBuilder sb, List<ForeignKeyMetadata> deferred, DdlDialect dialect) {
+        if (!deferred.isEmpty()) {
+            sb.append("-- ----------------------------------------\n");
+            sb.append("-- 循环引用的外键\n");
+            sb.append("-- ----------------------------------------\n\n");
+            for (ForeignKeyMetadata foreignKey : deferred) {
+                sb.append(dialect.terminate(dialect.addForeignKey(foreignKey))).append("\n");
             }
+            sb.append("\n");
+        }
+        if (dialect.enableForeignKeyChecks() != null) {
+            sb.append(dialect.terminate(dialect.enableForeignKeyChecks())).append("\n");
+        }
+    }
 
-            // 索引
-            if (table.getIndexes() != null && !table.getIndexes().isEmpty()) {
-                Map<String, List<IndexMetadata>> indexMap = new LinkedHashMap<>();
-                for (IndexMetadata idx : table.getIndexes()) {
-                    indexMap.computeIfAbsent(idx.getIndexName(), k -> new ArrayList<>()).add(idx);
-                }
+    /**
+     * 写出已生成的片段并清空缓冲，缓冲区容量保留给下一张表复用
+     */
+    private static void flush(StringBuilder sb, Writer writer) throws IOException {
+        writer.append(sb);
+        sb.setLength(0);
+    }
 
-                for (Map.Entry<String, List<IndexMetadata>> entry : indexMap.entrySet()) {
-                    List<String> cols = entry.getValue().stream()
-                            .map(IndexMetadata::getColumnName)
-                            .filter(Objects::nonNull)
-                            .toList();
-
-                    if (!cols.isEmpty() && !entry.getKey().equals("PRIMARY")) {
-                        String indexType = entry.getValue().get(0).isUnique() ? "UNIQUE INDEX" : "INDEX";
-                        sb.append("CREATE ").append(indexType).append(" `").append(entry.getKey())
-                                .append("` ON `").append(table.getTableName()).append("` (");
-                        sb.append(String.join(", ", cols.stream().map(c -> "`" + c + "`").toList()));
-                        sb.append(");\n");
-                    }
-                }
-                sb.append("\n");
+    /**
+     * 按外键依赖顺序排列表，关系图中没有的表保持原顺序排在最后
+     */
+    private List<TableMetadata> inDependencyOrder(List<TableMetadata> tables, ForeignKeyGraph foreignKeyGraph) {
+        Map<String, List<TableMetadata>> byName = new LinkedHashMap<>();
+        for (TableMetadata table : tables) {
+            byName.computeIfAbsent(table.getTableName(), name -> new ArrayList<>()).add(table);
+        }
+        List<TableMetadata> ordered = new ArrayList<>(tables.size());
+        for (String tableName : foreignKeyGraph.dependencyOrder()) {
+            List<TableMetadata> group = byName.remove(tableName);
+            if (group != null) {
+                ordered.addAll(group);
             }
         }
-
-        return sb.toString();
+        byName.values().forEach(ordered::addAll);
+        return ordered;
     }
 
     /**
      * 导出为 Markdown 格式
      */
-    public String exportToMarkdown(String dataSourceName) throws SQLException {
-        DataSource dataSource = dataSourceService.getDataSource(dataSourceName);
-        DatabaseMetadata metadata = getFullMetadata(dataSource);
+    public void exportToMarkdown(String dataSourceName, Writer writer, MetadataCrawler.Progress progress)
+            throws SQLException, IOException {
+        DatabaseMetadata metadata = metadataService.getFullMetadata(dataSourceName, MetadataCrawler.Progress.NONE);
+        ForeignKeyGraph foreignKeyGraph = metadataService.getForeignKeyGraph(dataSourceName);
 
         StringBuilder sb = new StringBuilder();
+        appendMarkdownHeader(sb, metadata);
+        flush(sb, writer);
 
+        // 遍历所有表
+        int completed = 0;
+        for (TableMetadata table : metadata.getTables()) {
+            appendMarkdownTable(sb, table, foreignKeyGraph);
+            flush(sb, writer);
+            progress.onTable(++completed, metadata.getTables().size(), table.getTableName());
+        }
+    }
+
+    private void appendMarkdownHeader(StringBuilder sb, DatabaseMetadata metadata) {
         // 标题
         sb.append("# 数据库表结构文档\n\n");
         sb.append("> 生成时间: ").append(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
@@ -174,197 +587,240 @@ public class SchemaExportService {
                 .append("\n\n");
         sb.append("> 表数量: ").append(metadata.getTables().size()).append("\n\n");
         sb.append("---\n\n");
+    }
 
-        // 遍历所有表
-        for (TableMetadata table : metadata.getTables()) {
-            sb.append("## ").append(table.getTableName());
-            if (table.getRemarks() != null && !table.getRemarks().isEmpty()) {
-                sb.append(" - ").append(table.getRemarks());
-            }
-            sb.append("\n\n");
+    private void appendMarkdownTable(StringBuilder sb, TableMetadata table, ForeignKeyGraph foreignKeyGraph) {
+        sb.append("## ").append(table.getTableName());
+        if (table.getRemarks() != null && !table.getRemarks().isEmpty()) {
+            sb.append(" - ").append(table.getRemarks());
+        }
+        sb.append("\n\n");
 
-            // 表信息
-            sb.append("**类型**: ").append(table.getTableType()).append("\n\n");
+        // 表信息
+        sb.append("**类型**: ").append(table.getTableType()).append("\n\n");
+        if (table.getStatistics() != null) {
+            sb.append("**统计**: ").append(formatStatistics(table.getStatistics())).append("\n\n");
+        }
 
-            // 字段列表
-            sb.append("### 字段列表\n\n");
-            sb.append("| 字段名 | 类型 | 可空 | 默认值 | 备注 |\n");
-            sb.append("|--------|------|------|--------|------|\n");
+        // 字段列表
+        sb.append("### 字段列表\n\n");
+        sb.append("| 字段名 | 类型 | 可空 | 默认值 | 备注 |\n");
+        sb.append("|--------|------|------|--------|------|\n");
+
+        if (table.getColumns() != null) {
+            for (ColumnMetadata col : table.getColumns()) {
+                sb.append("| ").append(col.getColumnName());
+                sb.append(" | ").append(formatColumnType(col));
+                sb.append(" | ").append(col.isNullable() ? "是" : "否");
+                sb.append(" | ").append(col.getDefaultValue() != null ? col.getDefaultValue() : "-");
+                sb.append(" | ").append(col.getRemarks() != null ? col.getRemarks() : "-");
+                sb.append(" |\n");
+            }
+        }
+        sb.append("\n");
 
-            if (table.getColumns() != null) {
-                for (ColumnMetadata col : table.getColumns()) {
-                    sb.append("| ").append(col.getColumnName());
-                    sb.append(" | ").append(formatColumnType(col));
-                    sb.append(" | ").append(col.isNullable() ? "是" : "否");
-                    sb.append(" | ").append(col.getDefaultValue() != null ? col.getDefaultValue() : "-");
-                    sb.append(" | ").append(col.getRemarks() != null ? col.getRemarks() : "-");
-                    sb.append(" |\n");
-                }
+        // 主键
+        if (table.getPrimaryKeys() != null && !table.getPrimaryKeys().isEmpty()) {
+            sb.append("**主键**: ").append(String.join(", ", table.getPrimaryKeys())).append("\n\n");
+        }
+
+        // 外键
+        List<ForeignKeyMetadata> foreignKeys = foreignKeyGraph.getForeignKeys(table.getTableName());
+        if (!foreignKeys.isEmpty()) {
+            sb.append("### 外键\n\n");
+            for (ForeignKeyMetadata foreignKey : foreignKeys) {
+                sb.append("- ").append(describeForeignKey(foreignKey)).append("\n");
             }
             sb.append("\n");
+        }
 
-            // 主键
-            if (table.getPrimaryKeys() != null && !table.getPrimaryKeys().isEmpty()) {
-                sb.append("**主键**: ").append(String.join(", ", table.getPrimaryKeys())).append("\n\n");
+        // 索引
+        if (table.getIndexes() != null && !table.getIndexes().isEmpty()) {
+            sb.append("### 索引\n\n");
+            Map<String, List<IndexMetadata>> indexMap = new LinkedHashMap<>();
+            for (IndexMetadata idx : table.getIndexes()) {
+                indexMap.computeIfAbsent(idx.getIndexName(), k -> new ArrayList<>()).add(idx);
             }
 
-            // 索引
-            if (table.getIndexes() != null && !table.getIndexes().isEmpty()) {
-                sb.append("### 索引\n\n");
-                Map<String, List<IndexMetadata>> indexMap = new LinkedHashMap<>();
-                for (IndexMetadata idx : table.getIndexes()) {
-                    indexMap.computeIfAbsent(idx.getIndexName(), k -> new ArrayList<>()).add(idx);
-                }
-
-                for (Map.Entry<String, List<IndexMetadata>> entry : indexMap.entrySet()) {
-                    List<String> cols = new ArrayList<>();
-                    for (IndexMetadata idx : entry.getValue()) {
-                        if (idx.getColumnName() != null) {
-                            cols.add(idx.getColumnName());
-                        }
+            for (Map.Entry<String, List<IndexMetadata>> entry : indexMap.entrySet()) {
+                List<String> cols = new ArrayList<>();
+                for (IndexMetadata idx : entry.getValue()) {
+                    if (idx.getColumnName() != null) {
+                        cols.add(idx.getColumnName());
                     }
-                    sb.append("- **").append(entry.getKey()).append("**: ").append(String.join(", "));
-                    sb.append(entry.getValue().get(0).isUnique() ? " (唯一)" : "").append("\n");
                 }
-                sb.append("\n");
+                sb.append("- **").append(entry.getKey()).append("**: ").append(String.join(", ", cols));
+                sb.append(entry.getValue().get(0).isUnique() ? " (唯一)" : "").append("\n");
             }
-
-            sb.append("---\n\n");
+            sb.append("\n");
         }
 
-        return sb.toString();
+        sb.append("---\n\n");
     }
 
     /**
-     * 导出为 HTML 格式（使用 FreeMarker 模板）
+     * 导出为 HTML 格式（使用 FreeMarker 模板），模板渲染结果直接写入 writer
      */
-    public String exportToHtml(String dataSourceName) {
-        try {
-            DataSource dataSource = dataSourceService.getDataSource(dataSourceName);
-            DatabaseMetadata metadata = getFullMetadata(dataSource);
-
-            // 预处理数据：添加 formattedType 字段
-            for (TableMetadata table : metadata.getTables()) {
-                if (table.getColumns() != null) {
-                    for (ColumnMetadata col : table.getColumns()) {
-                        col.setFormattedType(formatColumnType(col));
-                    }
-                }
-            }
+    public void exportToHtml(String dataSourceName, Writer writer, MetadataCrawler.Progress progress)
+            throws SQLException, IOException {
+        DatabaseMetadata metadata = metadataService.getFullMetadata(dataSourceName, MetadataCrawler.Progress.NONE);
+        ForeignKeyGraph foreignKeyGraph = metadataService.getForeignKeyGraph(dataSourceName);
+
+        Map<String, Object> templateData = htmlModel(metadata, foreignKeyGraph);
+        templateData.put("tables", new ProgressList(metadata.getTables(), progress));
+
+        renderHtml(templateData, writer);
+        List<TableMetadata> tables = metadata.getTables();
+        if (!tables.isEmpty()) {
+            progress.onTable(tables.size(), tables.size(), tables.get(tables.size() - 1).getTableName());
+        }
+    }
+
+    private void renderHtml(Map<String, Object> templateData, Writer writer) throws IOException {
+        render(freeMarkerConfiguration.getTemplate("schema-export.ftl"), templateData, writer);
+    }
 
-            Map<String, Object> templateData = new HashMap<>();
-            templateData.put("metadata", metadata);
-            templateData.put("generateTime",
-                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+    private static String render(Template template, Map<String, Object> data) throws IOException {
+        StringWriter writer = new StringWriter();
+        render(template, data, writer);
+        return writer.toString();
+    }
 
-            Template template = freeMarkerConfiguration.getTemplate("schema-export.ftl");
-            StringWriter writer = new StringWriter();
-            template.process(templateData, writer);
-            return writer.toString();
-        } catch (Exception exception) {
-            log.error("Failed to export to HTML: {}", exception.getMessage());
+    private static void render(Template template, Map<String, Object> data, Writer writer) throws IOException {
+        try {
+            template.process(data, writer);
+        } catch (TemplateException e) {
+            throw new IOException("Failed to render " + template.getName() + ": " + e.getMessage(), e);
         }
-        return "";
     }
 
     /**
-     * 获取完整的数据库元数据（包含所有表的详细信息）
+     * ITextRenderer.finishPDF 会关闭输出流，导出到调用方的流时只刷新不关闭
      */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(new BufferedOutputStream(out, BUFFER_SIZE));
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
 
-    private DatabaseMetadata getFullMetadata(DataSource dataSource) throws SQLException {
-        try (Connection connection = dataSource.getConnection()) {
-            DatabaseMetaData metaData = connection.getMetaData();
-            String catalog = connection.getCatalog();
-
-            List<TableMetadata> tables = new ArrayList<>();
-
-            // 获取所有表
-            try (ResultSet rs = metaData.getTables(catalog, null, "%", new String[] { "TABLE" })) {
-                while (rs.next()) {
-                    String tableName = rs.getString("TABLE_NAME");
-                    TableMetadata table = TableMetadata.builder()
-                            .tableName(tableName)
-                            .tableType(rs.getString("TABLE_TYPE"))
-                            .remarks(rs.getString("REMARKS"))
-                            .columns(getColumns(metaData, catalog, tableName))
-                            .indexes(getIndexes(metaData, catalog, tableName))
-                            .primaryKeys(getPrimaryKeys(metaData, catalog, tableName))
-                            .build();
-                    tables.add(table);
+    /**
+     * 模板数据：添加 formattedType 字段、各表统计摘要与外键说明，待渲染的表由调用方以 tables 放入
+     */
+    private Map<String, Object> htmlModel(DatabaseMetadata metadata, ForeignKeyGraph foreignKeyGraph) {
+        Map<String, String> statistics = new HashMap<>();
+        Map<String, List<String>> foreignKeys = new HashMap<>();
+        for (TableMetadata table : metadata.getTables()) {
+            if (table.getColumns() != null) {
+                for (ColumnMetadata col : table.getColumns()) {
+                    col.setFormattedType(formatColumnType(col));
                 }
             }
-
-            return DatabaseMetadata.builder()
-                    .databaseName(catalog)
-                    .productName(metaData.getDatabaseProductName())
-                    .productVersion(metaData.getDatabaseProductVersion())
-                    .tables(tables)
-                    .build();
-        }
-    }
-
-    private List<ColumnMetadata> getColumns(DatabaseMetaData metaData, String catalog, String tableName)
-            throws SQLException {
-        List<ColumnMetadata> columns = new ArrayList<>();
-
-        try (ResultSet rs = metaData.getColumns(catalog, null, tableName, "%")) {
-            while (rs.next()) {
-                columns.add(ColumnMetadata.builder()
-                        .columnName(rs.getString("COLUMN_NAME"))
-                        .dataType(rs.getString("DATA_TYPE"))
-                        .typeName(rs.getString("TYPE_NAME"))
-                        .columnSize(rs.getInt("COLUMN_SIZE"))
-                        .decimalDigits(rs.getInt("DECIMAL_DIGITS"))
-                        .nullable(rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable)
-                        .defaultValue(rs.getString("COLUMN_DEF"))
-                        .remarks(rs.getString("REMARKS"))
-                        .autoIncrement("YES".equalsIgnoreCase(rs.getString("IS_AUTOINCREMENT")))
-                        .javaType(MetadataService.getJavaType(rs.getString("TYPE_NAME")))
-                        .build());
+            if (table.getStatistics() != null) {
+                statistics.put(table.getTableName(), formatStatistics(table.getStatistics()));
+            }
+            List<String> descriptions = foreignKeyGraph.getForeignKeys(table.getTableName()).stream()
+                    .map(this::describeForeignKey)
+                    .toList();
+            if (!descriptions.isEmpty()) {
+                foreignKeys.put(table.getTableName(), descriptions);
             }
         }
 
-        // 标记主键
-        List<String> pkColumns = getPrimaryKeys(metaData, catalog, tableName);
-        for (ColumnMetadata col : columns) {
-            col.setPrimaryKey(pkColumns.contains(col.getColumnName()));
-        }
+        Map<String, Object> templateData = new HashMap<>();
+        templateData.put("metadata", metadata);
+        templateData.put("statistics", statistics);
+        templateData.put("foreignKeys", foreignKeys);
+        templateData.put("generateTime",
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
 
-        return columns;
+        return templateData;
     }
 
-    private List<IndexMetadata> getIndexes(DatabaseMetaData metaData, String catalog, String tableName)
-            throws SQLException {
-        List<IndexMetadata> indexes = new ArrayList<>();
+    /**
+     * 模板遍历的表列表视图：读取第 i 张表时说明前 i 张已渲染完成，据此回调进度，重复读取不重复回调
+     */
+    private static final class ProgressList extends AbstractList<TableMetadata> {
+        private final List<TableMetadata> tables;
+        private final MetadataCrawler.Progress progress;
+        private int reported;
+
+        ProgressList(List<TableMetadata> tables, MetadataCrawler.Progress progress) {
+            this.tables = tables;
+            this.progress = progress;
+        }
 
-        try (ResultSet rs = metaData.getIndexInfo(catalog, null, tableName, false, false)) {
-            while (rs.next()) {
-                String indexName = rs.getString("INDEX_NAME");
-                if (indexName != null) {
-                    indexes.add(IndexMetadata.builder()
-                            .indexName(indexName)
-                            .columnName(rs.getString("COLUMN_NAME"))
-                            .unique(!rs.getBoolean("NON_UNIQUE"))
-                            .type(String.valueOf(rs.getShort("TYPE")))
-                            .build());
-                }
+        @Override
+        public TableMetadata get(int index) {
+            for (; reported < index; reported++) {
+                progress.onTable(reported + 1, tables.size(), tables.get(reported).getTableName());
             }
+            return tables.get(index);
         }
 
-        return indexes;
+        @Override
+        public int size() {
+            return tables.size();
+        }
     }
 
-    private List<String> getPrimaryKeys(DatabaseMetaData metaData, String catalog, String tableName)
-            throws SQLException {
-        List<String> primaryKeys = new ArrayList<>();
+    /**
+     * 外键说明，如 order_id -> orders(id)
+     */
+    private String describeForeignKey(ForeignKeyMetadata foreignKey) {
+        String description = String.join(", ", foreignKey.getColumnNames()) + " -> "
+                + foreignKey.getReferencedTableName()
+                + "(" + String.join(", ", foreignKey.getReferencedColumnNames()) + ")";
+        return foreignKey.getForeignKeyName() != null
+                ? foreignKey.getForeignKeyName() + ": " + description
+                : description;
+    }
 
-        try (ResultSet rs = metaData.getPrimaryKeys(catalog, null, tableName)) {
-            while (rs.next()) {
-                primaryKeys.add(rs.getString("COLUMN_NAME"));
-            }
+    /**
+     * 统计信息摘要，省略数据库未提供的项
+     */
+    private String formatStatistics(TableStatistics statistics) {
+        List<String> parts = new ArrayList<>();
+        if (statistics.getRowCount() != null) {
+            parts.add("约 " + statistics.getRowCount() + " 行");
+        }
+        if (statistics.getDataLength() != null) {
+            parts.add("数据 " + formatSize(statistics.getDataLength()));
+        }
+        if (statistics.getIndexLength() != null) {
+            parts.add("索引 " + formatSize(statistics.getIndexLength()));
         }
+        if (statistics.getFreeLength() != null && statistics.getFreeLength() > 0) {
+            parts.add("碎片 " + formatSize(statistics.getFreeLength()));
+        }
+        if (statistics.getDeadRows() != null && statistics.getDeadRows() > 0) {
+            parts.add("死元组 " + statistics.getDeadRows());
+        }
+        return parts.isEmpty() ? "-" : String.join(", ", parts);
+    }
 
-        return primaryKeys;
+    private static String formatSize(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        String[] units = { "KB", "MB", "GB", "TB" };
+        double size = bytes;
+        int unit = -1;
+        while (size >= 1024 && unit < units.length - 1) {
+            size /= 1024;
+            unit++;
+        }
+        return String.format("%.1f %s", size, units[unit]);
     }
 
     private String formatColumnType(ColumnMetadata col) {
@@ -379,30 +835,93 @@ public class SchemaExportService {
     }
 
     /**
-     * 格式化 SQL 列类型
+     * 导出格式
      */
-    private String formatSqlColumnType(ColumnMetadata col) {
-        String type = col.getTypeName().toUpperCase();
-        if (col.getColumnSize() > 0 && col.getColumnSize() < 10000) {
-            if (col.getDecimalDigits() != null && col.getDecimalDigits() > 0) {
-                return type + "(" + col.getColumnSize() + "," + col.getDecimalDigits() + ")";
+    public enum Format {
+        MARKDOWN("md"),
+        HTML("html"),
+        SQL("sql"),
+        PDF("pdf");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * 文件扩展名
+         */
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * 按名称或扩展名解析，不支持的格式返回 null
+         */
+        public static Format of(String name) {
+            if (name == null) {
+                return null;
             }
-            return type + "(" + col.getColumnSize() + ")";
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name) || format.extension.equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            return null;
         }
-        return type;
     }
 
     /**
-     * SQL 字符串转义
+     * 输出到字节流时的压缩方式
      */
-    private String escapeSql(String text) {
-        if (text == null)
+    public enum Compression {
+        /**
+         * 不压缩
+         */
+        NONE(""),
+        /**
+         * GZIP 压缩的单个文档
+         */
+        GZIP(".gz"),
+        /**
+         * 每张表一个文件另加索引文件的 ZIP 包
+         */
+        ZIP(".zip");
+
+        private final String suffix;
+
+        Compression(String suffix) {
+            this.suffix = suffix;
+        }
+
+        /**
+         * 追加在导出文件名后的扩展名
+         */
+        public String getSuffix() {
+            return suffix;
+        }
+
+        /**
+         * PDF 无法按表拆分，不支持 ZIP
+         */
+        public boolean supports(Format format) {
+            return this != ZIP || format != Format.PDF;
+        }
+
+        /**
+         * 按名称解析，为空时不压缩，不支持的方式返回 null
+         */
+        public static Compression of(String name) {
+            if (name == null || name.isBlank()) {
+                return NONE;
+            }
+            for (Compression compression : values()) {
+                if (compression.name().equalsIgnoreCase(name)) {
+                    return compression;
+                }
+            }
             return null;
-        return text.replace("\\", "\\\\")
-                .replace("'", "\\'")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
-    }
-}
\ No newline at end of file
+        }
+    }
+}
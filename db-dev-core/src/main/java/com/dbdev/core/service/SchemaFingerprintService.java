@@ -0,0 +1,269 @@
+package com.dbdev.core.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 数据库结构指纹服务
+ * <p>
+ * MySQL、PostgreSQL、H2 用一条聚合查询得到每张表的字段、索引与注释校验和，其他数据库回退为 getTables 结果的哈希。
+ * 定期重新计算已访问过的数据源的指纹，与上次结果比较后只让发生变化的表的元数据缓存失效。
+ * 指纹与元数据缓存版本号一起作为元数据接口的 ETag。
+ */
+@Slf4j
+@Service
+public class SchemaFingerprintService {
+
+    /**
+     * 各方言的表级校验和查询，结果列：TABLE_NAME、ITEM_COUNT、CHECKSUM
+     */
+    private static final Map<String, String> CHECKSUM_QUERIES = Map.of(
+            "mysql", "SELECT TABLE_NAME, COUNT(*) AS ITEM_COUNT, SUM(h) AS CHECKSUM FROM ("
+                    + "SELECT TABLE_NAME, CRC32(CONCAT_WS('|', COLUMN_NAME, ORDINAL_POSITION, COLUMN_TYPE,"
+                    + " IS_NULLABLE, COLUMN_DEFAULT, EXTRA, COLUMN_COMMENT)) AS h"
+                    + " FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE()"
+                    + " UNION ALL SELECT TABLE_NAME, CRC32(CONCAT_WS('|', INDEX_NAME, SEQ_IN_INDEX, COLUMN_NAME,"
+                    + " NON_UNIQUE, INDEX_TYPE))"
+                    + " FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE()"
+                    + " UNION ALL SELECT TABLE_NAME, CRC32(CONCAT_WS('|', TABLE_TYPE, TABLE_COMMENT))"
+                    + " FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE()"
+                    + ") x GROUP BY TABLE_NAME",
+            "postgresql", "SELECT table_name AS TABLE_NAME, count(*) AS ITEM_COUNT,"
+                    + " sum(('x' || substr(md5(item), 1, 15))::bit(60)::bigint) AS CHECKSUM FROM ("
+                    + "SELECT table_schema, table_name, concat_ws('|', column_name, ordinal_position, udt_name,"
+                    + " character_maximum_length, numeric_precision, numeric_scale, is_nullable, column_default) AS item"
+                    + " FROM information_schema.columns"
+                    + " WHERE table_schema NOT IN ('pg_catalog', 'information_schema')"
+                    + " UNION ALL SELECT schemaname, tablename, concat_ws('|', indexname, indexdef)"
+                    + " FROM pg_catalog.pg_indexes WHERE schemaname NOT IN ('pg_catalog', 'information_schema')"
+                    + " UNION ALL SELECT n.nspname, c.relname, concat_ws('|', c.relkind, obj_description(c.oid, 'pg_class'))"
+                    + " FROM pg_catalog.pg_class c JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace"
+                    + " WHERE c.relkind IN ('r', 'v', 'm', 'f', 'p')"
+                    + " AND n.nspname NOT IN ('pg_catalog', 'information_schema') AND n.nspname NOT LIKE 'pg\\_toast%'"
+                    + ") x GROUP BY table_schema, table_name ORDER BY table_schema",
+            "h2", "SELECT TABLE_NAME, COUNT(*) AS ITEM_COUNT, SUM(h) AS CHECKSUM FROM ("
+                    + "SELECT TABLE_NAME, ORA_HASH(CONCAT_WS('|', COLUMN_NAME, ORDINAL_POSITION, DATA_TYPE,"
+                    + " CHARACTER_MAXIMUM_LENGTH, NUMERIC_PRECISION, NUMERIC_SCALE, IS_NULLABLE, COLUMN_DEFAULT,"
+                    + " REMARKS)) AS h"
+                    + " FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA <> 'INFORMATION_SCHEMA'"
+                    + " UNION ALL SELECT TABLE_NAME, ORA_HASH(CONCAT_WS('|', INDEX_NAME, INDEX_TYPE_NAME))"
+                    + " FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA <> 'INFORMATION_SCHEMA'"
+                    + " UNION ALL SELECT TABLE_NAME, ORA_HASH(CONCAT_WS('|', TABLE_TYPE, REMARKS))"
+                    + " FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA <> 'INFORMATION_SCHEMA'"
+                    + ") x GROUP BY TABLE_NAME");
+
+    private final DataSourceService dataSourceService;
+    private final MetadataCache metadataCache;
+
+    /**
+     * 各数据源最近一次计算的指纹
+     */
+    private final Map<String, SchemaFingerprint> fingerprints = new ConcurrentHashMap<>();
+
+    @Value("${db.dev.metadata.fingerprint.enabled:true}")
+    private boolean enabled;
+
+    public SchemaFingerprintService(DataSourceService dataSourceService, MetadataCache metadataCache) {
+        this.dataSourceService = dataSourceService;
+        this.metadataCache = metadataCache;
+    }
+
+    /**
+     * 获取数据源最近一次计算的指纹，首次访问时立即计算
+     *
+     * @return 指纹，未启用或计算失败时返回 null
+     */
+    public String getFingerprint(String dataSourceName) {
+        if (!enabled) {
+            return null;
+        }
+        SchemaFingerprint fingerprint = fingerprints.get(dataSourceName);
+        if (fingerprint == null) {
+            try {
+                fingerprint = compute(dataSourceName);
+            } catch (SQLException e) {
+                log.warn("Failed to compute schema fingerprint of {}: {}", dataSourceName, e.getMessage());
+                return null;
+            }
+            SchemaFingerprint existing = fingerprints.putIfAbsent(dataSourceName, fingerprint);
+            if (existing != null) {
+                fingerprint = existing;
+            }
+        }
+        return fingerprint.getValue();
+    }
+
+    /**
+     * 记录变化检测的基准指纹，已有基准时忽略
+     */
+    public void setBaseline(String dataSourceName, SchemaFingerprint fingerprint) {
+        if (enabled) {
+            fingerprints.putIfAbsent(dataSourceName, fingerprint);
+        }
+    }
+
+    /**
+     * 计算数据源当前的结构指纹
+     */
+    public SchemaFingerprint compute(String dataSourceName) throws SQLException {
+        try (Connection connection = dataSourceService.getDataSource(dataSourceName).getConnection()) {
+            String databaseType = DataSourceService.resolveDatabaseType(
+                    connection.getMetaData().getDatabaseProductName());
+            String query = CHECKSUM_QUERIES.get(databaseType);
+            if (query != null) {
+                try {
+                    return fromChecksumQuery(connection, query);
+                } catch (SQLException e) {
+                    log.debug("Checksum query failed on {}, falling back to getTables: {}",
+                            dataSourceName, e.getMessage());
+                    if (!connection.getAutoCommit()) {
+                        connection.rollback();
+                    }
+                }
+            }
+            return fromTableList(connection);
+        }
+    }
+
+    private SchemaFingerprint fromChecksumQuery(Connection connection, String query) throws SQLException {
+        Map<String, String> signatures = new TreeMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(query)) {
+            while (rs.next()) {
+                // 不同 schema 的同名表合并为一个签名，与元数据缓存按表名区分的粒度一致
+                signatures.merge(rs.getString("TABLE_NAME"),
+                        rs.getLong("ITEM_COUNT") + ":" + rs.getString("CHECKSUM"), (a, b) -> a + "," + b);
+            }
+        }
+        return new SchemaFingerprint(signatures);
+    }
+
+    private SchemaFingerprint fromTableList(Connection connection) throws SQLException {
+        Map<String, String> signatures = new TreeMap<>();
+        try (ResultSet rs = connection.getMetaData().getTables(connection.getCatalog(), null, "%", null)) {
+            while (rs.next()) {
+                signatures.merge(rs.getString("TABLE_NAME"),
+                        rs.getString("TABLE_TYPE") + "|" + rs.getString("REMARKS"), (a, b) -> a + "," + b);
+            }
+        }
+        return new SchemaFingerprint(signatures);
+    }
+
+    /**
+     * 定期重新计算指纹，只让发生变化的表失效
+     */
+    @Scheduled(fixedDelayString = "${db.dev.metadata.fingerprint.check-interval:60000}")
+    public void checkForChanges() {
+        if (!enabled) {
+            return;
+        }
+        for (String dataSourceName : Set.copyOf(fingerprints.keySet())) {
+            check(dataSourceName);
+        }
+    }
+
+    /**
+     * 立即重新计算数据源的指纹（例如修改表结构或手动清除缓存后），只让发生变化的表失效
+     * <p>
+     * 尚未计算过指纹的数据源不处理，下次访问时计算
+     */
+    public void refresh(String dataSourceName) {
+        if (enabled && fingerprints.containsKey(dataSourceName)) {
+            check(dataSourceName);
+        }
+    }
+
+    private synchronized void check(String dataSourceName) {
+        SchemaFingerprint previous = fingerprints.get(dataSourceName);
+        SchemaFingerprint current;
+        try {
+            current = compute(dataSourceName);
+        } catch (RuntimeException | SQLException e) {
+            log.warn("Failed to check schema of {}: {}", dataSourceName, e.getMessage());
+            return;
+        }
+        fingerprints.put(dataSourceName, current);
+        if (previous == null || previous.getValue().equals(current.getValue())) {
+            return;
+        }
+
+        Set<String> changed = previous.changedTables(current);
+        log.info("Schema of {} changed, {} table(s) affected", dataSourceName, changed.size());
+        if (changed.isEmpty()) {
+            metadataCache.invalidate(dataSourceName);
+        } else {
+            for (String tableName : changed) {
+                metadataCache.invalidateTable(dataSourceName, tableName);
+            }
+        }
+    }
+
+    /**
+     * 结构指纹
+     */
+    public static class SchemaFingerprint {
+        private final Map<String, String> tableSignatures;
+        private final String value;
+
+        SchemaFingerprint(Map<String, String> tableSignatures) {
+            this.tableSignatures = tableSignatures;
+            this.value = digest(tableSignatures);
+        }
+
+        private static String digest(Map<String, String> tableSignatures) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (Map.Entry<String, String> entry : tableSignatures.entrySet()) {
+                    digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                    digest.update(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) '\n');
+                }
+                return HexFormat.of().formatHex(digest.digest(), 0, 16);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * 与另一指纹相比新增、删除或结构变化的表
+         */
+        public Set<String> changedTables(SchemaFingerprint other) {
+            Set<String> changed = new HashSet<>();
+            tableSignatures.forEach((table, signature) -> {
+                if (!signature.equals(other.tableSignatures.get(table))) {
+                    changed.add(table);
+                }
+            });
+            for (String table : other.tableSignatures.keySet()) {
+                if (!tableSignatures.containsKey(table)) {
+                    changed.add(table);
+                }
+            }
+            return changed;
+        }
+
+        /**
+         * 指纹值（十六进制）
+         */
+        public String getValue() {
+            return value;
+        }
+    }
+}
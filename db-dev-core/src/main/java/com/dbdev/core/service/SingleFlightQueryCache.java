@@ -0,0 +1,163 @@
+package com.dbdev.core.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 查询合并与短期结果缓存
+ * <p>
+ * 相同（数据源、SQL 文本、参数、结果结构）的查询在执行期间重叠时只执行一次，其余请求共享同一结果。
+ * 可选地将成功结果按 TTL 缓存在容量受限的 LRU 中，支持按数据源显式失效。
+ */
+@Slf4j
+@Component
+public class SingleFlightQueryCache {
+
+    /**
+     * 正在执行的查询：查询键 -> 结果
+     */
+    private final Map<QueryKey, CompletableFuture<SqlExecuteService.SqlQueryResult>> inFlight =
+            new ConcurrentHashMap<>();
+
+    /**
+     * 结果缓存（访问顺序，超出容量时淘汰最久未访问的条目）
+     */
+    private final LinkedHashMap<QueryKey, CachedResult> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<QueryKey, CachedResult> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    @Value("${db.dev.sql.dedup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${db.dev.sql.result-cache.ttl:0}")
+    private long cacheTtlMillis;
+
+    @Value("${db.dev.sql.result-cache.max-entries:100}")
+    private int maxEntries;
+
+    /**
+     * 执行查询，重叠的相同查询共享一次执行
+     *
+     * @param dataSourceName 数据源名称
+     * @param sql SQL查询语句
+     * @param params 查询参数
+     * @param format 结果结构
+     * @param loader 实际执行查询
+     * @return 查询结果
+     */
+    public SqlExecuteService.SqlQueryResult execute(String dataSourceName, String sql, List<Object> params,
+                                                   SqlExecuteService.ResultFormat format,
+                                                   Supplier<SqlExecuteService.SqlQueryResult> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        QueryKey key = new QueryKey(dataSourceName, normalizeSql(sql),
+                params != null ? Collections.unmodifiableList(new ArrayList<>(params)) : List.of(), format);
+
+        SqlExecuteService.SqlQueryResult cached = getCached(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<SqlExecuteService.SqlQueryResult> future = new CompletableFuture<>();
+        CompletableFuture<SqlExecuteService.SqlQueryResult> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            log.debug("Joining in-flight query on {}", dataSourceName);
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+        }
+
+        try {
+            SqlExecuteService.SqlQueryResult result = loader.get();
+            if (result.isSuccess()) {
+                putCached(key, result);
+            }
+            future.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 清除指定数据源的缓存结果
+     */
+    public void invalidate(String dataSourceName) {
+        synchronized (cache) {
+            cache.keySet().removeIf(key -> key.dataSourceName().equals(dataSourceName));
+        }
+    }
+
+    /**
+     * 清除全部缓存结果
+     */
+    public void invalidateAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private SqlExecuteService.SqlQueryResult getCached(QueryKey key) {
+        if (cacheTtlMillis <= 0) {
+            return null;
+        }
+        synchronized (cache) {
+            CachedResult cached = cache.get(key);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.expireAt() < System.currentTimeMillis()) {
+                cache.remove(key);
+                return null;
+            }
+            return cached.result();
+        }
+    }
+
+    private void putCached(QueryKey key, SqlExecuteService.SqlQueryResult result) {
+        if (cacheTtlMillis <= 0 || maxEntries <= 0) {
+            return;
+        }
+        synchronized (cache) {
+            cache.put(key, new CachedResult(result, System.currentTimeMillis() + cacheTtlMillis));
+        }
+    }
+
+    /**
+     * 规范化 SQL：仅去除首尾空白
+     * <p>
+     * 不合并语句中间的空白：单行注释以换行结束，而 #、反斜杠转义、美元符引号等是否构成注释或字符串
+     * 因数据库而异，合并后可能让语义不同的语句得到相同的键，从而共享执行结果。
+     */
+    static String normalizeSql(String sql) {
+        return sql != null ? sql.strip() : "";
+    }
+
+    private record QueryKey(String dataSourceName, String sql, List<Object> params,
+                            SqlExecuteService.ResultFormat format) {
+    }
+
+    private record CachedResult(SqlExecuteService.SqlQueryResult result, long expireAt) {
+    }
+}
@@ -0,0 +1,135 @@
+package com.dbdev.core.service;
+
+import com.dbdev.core.model.PoolStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * SQL 控制台准入控制
+ * <p>
+ * 控制台查询与宿主应用共用连接池，这里按数据源限制同时执行的查询数，超出时排队等待，
+ * 排队已满或等待超时则拒绝；连接池使用率超过阈值时直接拒绝，为业务流量预留连接。
+ */
+@Slf4j
+@Service
+public class SqlAdmissionService {
+
+    private final PoolStatsService poolStatsService;
+
+    /**
+     * 并发许可：数据源名称 -> 信号量
+     */
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    @Value("${db.dev.sql.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${db.dev.sql.admission.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${db.dev.sql.admission.max-waiting:8}")
+    private int maxWaiting;
+
+    @Value("${db.dev.sql.admission.wait-timeout:5000}")
+    private long waitTimeoutMillis;
+
+    @Value("${db.dev.sql.admission.max-pool-usage:80}")
+    private double maxPoolUsagePercent;
+
+    public SqlAdmissionService(PoolStatsService poolStatsService) {
+        this.poolStatsService = poolStatsService;
+    }
+
+    /**
+     * 申请执行许可，使用完毕后必须关闭返回的许可
+     *
+     * @param dataSourceName 数据源名称
+     * @return 执行许可
+     * @throws AdmissionRejectedException 连接池余量不足、排队已满或等待超时
+     */
+    public Permit acquire(String dataSourceName) {
+        if (!enabled) {
+            return Permit.NOOP;
+        }
+
+        checkPoolHeadroom(dataSourceName);
+
+        Semaphore semaphore = permits.computeIfAbsent(dataSourceName,
+                name -> new Semaphore(Math.max(maxConcurrent, 1), true));
+        if (semaphore.getQueueLength() >= maxWaiting) {
+            throw new AdmissionRejectedException("数据源 " + dataSourceName + " 的控制台查询排队已满，请稍后重试");
+        }
+
+        try {
+            if (!semaphore.tryAcquire(waitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new AdmissionRejectedException("数据源 " + dataSourceName + " 的控制台查询繁忙，等待超时");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AdmissionRejectedException("等待执行许可时被中断");
+        }
+        return new Permit(semaphore);
+    }
+
+    /**
+     * 连接池使用率超过阈值时拒绝，无法获取统计信息的连接池不做限制
+     */
+    private void checkPoolHeadroom(String dataSourceName) {
+        if (maxPoolUsagePercent <= 0 || maxPoolUsagePercent >= 100) {
+            return;
+        }
+
+        PoolStats stats;
+        try {
+            stats = poolStatsService.getPoolStats(dataSourceName);
+        } catch (RuntimeException e) {
+            log.debug("Pool stats unavailable for {}, skipping headroom check", dataSourceName);
+            return;
+        }
+
+        if (stats.getUsagePercent() >= maxPoolUsagePercent) {
+            log.warn("Rejecting console query on {}: pool usage {}% exceeds {}%",
+                    dataSourceName, stats.getUsagePercent(), maxPoolUsagePercent);
+            throw new AdmissionRejectedException(String.format(
+                    "数据源 %s 连接池使用率 %.0f%% 已超过阈值 %.0f%%，为保障业务流量暂不执行控制台查询",
+                    dataSourceName, stats.getUsagePercent(), maxPoolUsagePercent));
+        }
+    }
+
+    /**
+     * 执行许可
+     */
+    public static class Permit implements AutoCloseable {
+        static final Permit NOOP = new Permit(null);
+
+        private final Semaphore semaphore;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public void close() {
+            if (semaphore != null && released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        }
+    }
+
+    /**
+     * 准入被拒绝
+     */
+    public static class AdmissionRejectedException extends RuntimeException {
+        public AdmissionRejectedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -6,7 +6,6 @@ import org.springframework.stereotype.Service;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
@@ -14,9 +13,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 /**
  * SQL分析服务 - 提供SQL执行计划和性能分析
@@ -25,22 +22,20 @@ import java.util.regex.Pattern;
 @Service
 public class SqlAnalysisService {
 
-    // 预编译的正则表达式，提升性能
-    private static final Pattern SINGLE_LINE_COMMENT_PATTERN = Pattern.compile("--.*$");
-    private static final Pattern MULTI_LINE_COMMENT_PATTERN = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
-    private static final Pattern DANGEROUS_KEYWORDS_PATTERN = Pattern.compile(
-            "\\b(insert|update|delete|drop|create|alter|truncate|grant|revoke|exec|execute|sp_|xp_)\\b",
-            Pattern.CASE_INSENSITIVE);
-
     // SQL Server EXPLAIN 模板
     private static final String SQLSERVER_EXPLAIN_TEMPLATE = "SET SHOWPLAN_TEXT ON; DECLARE @sql NVARCHAR(MAX) = ?; EXEC(@sql); SET SHOWPLAN_TEXT OFF;";
 
     private static final int QUERY_TIMEOUT_SECONDS = 30;
 
     private final DataSourceService dataSourceService;
+    private final SqlAdmissionService sqlAdmissionService;
+    private final SqlValidator sqlValidator;
 
-    public SqlAnalysisService(DataSourceService dataSourceService) {
+    public SqlAnalysisService(DataSourceService dataSourceService, SqlAdmissionService sqlAdmissionService,
+                              SqlValidator sqlValidator) {
         this.dataSourceService = dataSourceService;
+        this.sqlAdmissionService = sqlAdmissionService;
+        this.sqlValidator = sqlValidator;
     }
 
     /**
@@ -51,12 +46,6 @@ public class SqlAnalysisService {
      * @return 分析结果
      */
     public AnalysisResult analyzeQuery(String dataSourceName, String sql) {
-        // 验证SQL语句
-        SqlValidationResult validation = validateSql(sql);
-        if (!validation.isValid()) {
-            return AnalysisResult.error(validation.getErrorMessage());
-        }
-
         DataSource dataSource;
         try {
             dataSource = dataSourceService.getDataSource(dataSourceName);
@@ -65,30 +54,20 @@ public class SqlAnalysisService {
             return AnalysisResult.error("数据源不存在: " + dataSourceName);
         }
 
-        String databaseType = getDatabaseType(dataSource);
-        return executeExplain(dataSource, sql, databaseType);
-    }
+        // 验证SQL语句
+        String databaseType = dataSourceService.getDatabaseType(dataSourceName);
+        SqlValidator.Verdict verdict = sqlValidator.validate(sql, databaseType);
+        if (!verdict.isValid()) {
+            return AnalysisResult.error(verdict.getErrorMessage());
+        }
+        if (!"SELECT".equals(verdict.getStatementType())) {
+            return AnalysisResult.error("只允许执行SELECT查询语句的分析");
+        }
 
-    /**
-     * 获取数据库类型
-     */
-    private String getDatabaseType(DataSource dataSource) {
-        try (Connection conn = dataSource.getConnection()) {
-            DatabaseMetaData metaData = conn.getMetaData();
-            String productName = metaData.getDatabaseProductName().toLowerCase();
-            if (productName.contains("mysql")) {
-                return "mysql";
-            } else if (productName.contains("postgresql")) {
-                return "postgresql";
-            } else if (productName.contains("oracle")) {
-                return "oracle";
-            } else if (productName.contains("sql server")) {
-                return "sqlserver";
-            }
-            return "unknown";
-        } catch (SQLException e) {
-            log.warn("Failed to detect database type", e);
-            return "unknown";
+        try (SqlAdmissionService.Permit permit = sqlAdmissionService.acquire(dataSourceName)) {
+            return executeExplain(dataSource, sql, databaseType);
+        } catch (SqlAdmissionService.AdmissionRejectedException e) {
+            return AnalysisResult.error(e.getMessage());
         }
     }
 
@@ -261,73 +240,6 @@ public class SqlAnalysisService {
         return suggestions;
     }
 
-    /**
-     * 验证SQL语句
-     */
-    private SqlValidationResult validateSql(String sql) {
-        if (sql == null || sql.trim().isEmpty()) {
-            return SqlValidationResult.invalid("SQL语句不能为空");
-        }
-
-        String trimmedSql = sql.trim();
-
-        // 检查是否以注释开头
-        if (trimmedSql.startsWith("--") || trimmedSql.startsWith("/*")) {
-            return SqlValidationResult.invalid("不支持纯注释语句");
-        }
-
-        // 移除注释（使用预编译的正则）
-        String cleanSql = SINGLE_LINE_COMMENT_PATTERN.matcher(trimmedSql).replaceAll("");
-        cleanSql = MULTI_LINE_COMMENT_PATTERN.matcher(cleanSql).replaceAll("").trim();
-
-        // 检查是否为空
-        if (cleanSql.isEmpty()) {
-            return SqlValidationResult.invalid("SQL语句不能为空");
-        }
-
-        // 检查是否为SELECT语句
-        String lowerSql = cleanSql.toLowerCase(Locale.ROOT);
-        if (!lowerSql.startsWith("select")) {
-            return SqlValidationResult.invalid("只允许执行SELECT查询语句的分析");
-        }
-
-        // 检查是否包含危险关键词（使用预编译的正则）
-        if (DANGEROUS_KEYWORDS_PATTERN.matcher(cleanSql).find()) {
-            String matchedKeyword = extractMatchedKeyword(DANGEROUS_KEYWORDS_PATTERN.matcher(cleanSql));
-            return SqlValidationResult.invalid("SQL语句包含危险操作: " + matchedKeyword);
-        }
-
-        return SqlValidationResult.valid();
-    }
-
-    /**
-     * 提取匹配到的危险关键词
-     */
-    private String extractMatchedKeyword(java.util.regex.Matcher matcher) {
-        matcher.pattern().pattern();
-        if (matcher.find()) {
-            return matcher.group(1);
-        }
-        return "未知危险操作";
-    }
-
-    /**
-     * SQL验证结果
-     */
-    @Data
-    private static class SqlValidationResult {
-        private final boolean valid;
-        private final String errorMessage;
-
-        public static SqlValidationResult valid() {
-            return new SqlValidationResult(true, null);
-        }
-
-        public static SqlValidationResult invalid(String errorMessage) {
-            return new SqlValidationResult(false, errorMessage);
-        }
-    }
-
     /**
      * 分析结果
      */
@@ -6,16 +6,20 @@ import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.stereotype.Service;
 
 import javax.sql.DataSource;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * SQL执行服务 - 仅支持查询语句
@@ -24,7 +28,17 @@ import java.util.Map;
 @Service
 public class SqlExecuteService {
 
+    /**
+     * 支持在语句末尾追加 LIMIT 的数据库类型
+     */
+    private static final Set<String> LIMIT_DIALECTS = Set.of("mysql", "postgresql", "h2");
+
     private final DataSourceService dataSourceService;
+    private final QueryCursorRegistry queryCursorRegistry;
+    private final SqlAdmissionService sqlAdmissionService;
+    private final SingleFlightQueryCache singleFlightQueryCache;
+    private final SqlValidator sqlValidator;
+    private final LobStore lobStore;
     
     @Value("${db.dev.sql.max-rows:500}")
     private int maxRows;
@@ -32,8 +46,21 @@ public class SqlExecuteService {
     @Value("${db.dev.sql.timeout:30}")
     private int queryTimeoutSeconds;
 
-    public SqlExecuteService(DataSourceService dataSourceService) {
+    @Value("${db.dev.sql.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${db.dev.sql.stream-max-rows:100000}")
+    private int streamMaxRows;
+
+    public SqlExecuteService(DataSourceService dataSourceService, QueryCursorRegistry queryCursorRegistry,
+                             SqlAdmissionService sqlAdmissionService, SingleFlightQueryCache singleFlightQueryCache,
+                             SqlValidator sqlValidator, LobStore lobStore) {
         this.dataSourceService = dataSourceService;
+        this.queryCursorRegistry = queryCursorRegistry;
+        this.sqlAdmissionService = sqlAdmissionService;
+        this.singleFlightQueryCache = singleFlightQueryCache;
+        this.sqlValidator = sqlValidator;
+        this.lobStore = lobStore;
     }
 
     /**
@@ -45,12 +72,44 @@ public class SqlExecuteService {
      * @return 查询结果
      */
     public SqlQueryResult executeQuery(String dataSourceName, String sql, List<Object> params) {
-        // 验证SQL语句
-        SqlValidationResult validation = validateSql(sql);
-        if (!validation.isValid()) {
-            return SqlQueryResult.error(validation.getErrorMessage());
-        }
+        return executeQuery(null, dataSourceName, sql, params, ResultFormat.MAP);
+    }
 
+    /**
+     * 执行SQL查询，并按指定结构组织结果
+     * 同时进行中的相同查询只执行一次并共享结果
+     *
+     * @param owner 结果所属用户，可读取结果中截断大字段的句柄；为 null 时大字段完整返回
+     * @param dataSourceName 数据源名称
+     * @param sql SQL查询语句
+     * @param params 查询参数
+     * @param format 结果结构
+     * @return 查询结果
+     */
+    public SqlQueryResult executeQuery(String owner, String dataSourceName, String sql, List<Object> params,
+                                       ResultFormat format) {
+        ResultFormat resolvedFormat = format != null ? format : ResultFormat.MAP;
+        SqlQueryResult result = singleFlightQueryCache.execute(dataSourceName, sql, params, resolvedFormat,
+                () -> executeQuery(owner, dataSourceName, sql, params, resolvedFormat, null));
+        // 结果可能来自其他用户发起的同一查询，允许当前用户读取其中的大字段
+        lobStore.grant(result.lobHandles, owner);
+        return result;
+    }
+
+    /**
+     * 执行SQL查询，并在语句创建后回调，便于调用方在执行期间调用 {@link Statement#cancel()}
+     * 该方法不参与查询合并，保证取消只影响调用方自己的执行
+     *
+     * @param owner 结果所属用户，为 null 时大字段完整返回
+     * @param dataSourceName 数据源名称
+     * @param sql SQL查询语句
+     * @param params 查询参数
+     * @param format 结果结构
+     * @param statementListener 语句创建后回调，可为 null
+     * @return 查询结果
+     */
+    public SqlQueryResult executeQuery(String owner, String dataSourceName, String sql, List<Object> params,
+                                       ResultFormat format, Consumer<Statement> statementListener) {
         DataSource dataSource;
         try {
             dataSource = dataSourceService.getDataSource(dataSourceName);
@@ -59,55 +118,48 @@ public class SqlExecuteService {
             return SqlQueryResult.error("数据源不存在: " + dataSourceName);
         }
 
+        String databaseType = dataSourceService.getDatabaseType(dataSourceName);
+        SqlValidator.Verdict verdict = sqlValidator.validate(sql, databaseType);
+        if (!verdict.isValid()) {
+            return SqlQueryResult.error(verdict.getErrorMessage());
+        }
+
+        SqlAdmissionService.Permit permit;
+        try {
+            permit = sqlAdmissionService.acquire(dataSourceName);
+        } catch (SqlAdmissionService.AdmissionRejectedException e) {
+            return SqlQueryResult.error(e.getMessage());
+        }
+
         Connection connection = null;
         PreparedStatement preparedStatement = null;
         ResultSet resultSet = null;
         ResultSetMetaData metaData = null;
 
+        // 多读取一行用于判断是否还有更多数据
+        int rowLimit = maxRows + 1;
+
         try {
             connection = DataSourceUtils.getConnection(dataSource);
-            preparedStatement = connection.prepareStatement(sql);
+            preparedStatement = connection.prepareStatement(pushDownLimit(sql, databaseType, verdict, rowLimit));
             preparedStatement.setQueryTimeout(queryTimeoutSeconds);
+            preparedStatement.setMaxRows(rowLimit);
+            preparedStatement.setFetchSize(Math.min(fetchSize, rowLimit));
+            if (statementListener != null) {
+                statementListener.accept(preparedStatement);
+            }
 
             // 设置参数
-            if (params != null) {
-                for (int i = 0; i < params.size(); i++) {
-                    preparedStatement.setObject(i + 1, params.get(i));
-                }
-            }
+            bindParams(preparedStatement, params);
 
             resultSet = preparedStatement.executeQuery();
             metaData = resultSet.getMetaData();
 
             // 获取列信息
-            int columnCount = metaData.getColumnCount();
-            List<ColumnInfo> columns = new ArrayList<>();
-            for (int i = 1; i <= columnCount; i++) {
-                columns.add(new ColumnInfo(
-                        metaData.getColumnName(i),
-                        metaData.getColumnTypeName(i),
-                        metaData.getColumnDisplaySize(i)
-                ));
-            }
+            List<ColumnInfo> columns = readColumns(metaData);
 
             // 获取数据
-            List<Map<String, Object>> rows = new ArrayList<>();
-            int rowCount = 0;
-            while (resultSet.next() && rowCount < maxRows) {
-                Map<String, Object> row = new LinkedHashMap<>();
-                for (int i = 1; i <= columnCount; i++) {
-                    String columnName = metaData.getColumnName(i);
-                    Object value = resultSet.getObject(i);
-                    row.put(columnName, value);
-                }
-                rows.add(row);
-                rowCount++;
-            }
-
-            // 检查是否还有更多数据
-            boolean hasMore = resultSet.next();
-
-            return SqlQueryResult.success(columns, rows, rowCount, hasMore);
+            return readRows(resultSet, columns, format, maxRows, false, owner);
 
         } catch (SQLException e) {
             log.error("SQL execution error", e);
@@ -121,84 +173,511 @@ public class SqlExecuteService {
             } catch (SQLException e) {
                 log.error("Error closing resources", e);
             }
+            permit.close();
         }
     }
 
     /**
-     * 验证SQL语句
-     * 只允许SELECT查询语句
+     * 将行数上限下推到 SQL，避免数据库生成并发送超出展示范围的结果
+     * <p>
+     * 仅对顶层未指定行数限制的 SELECT 在末尾追加 LIMIT，已有 LIMIT/OFFSET/FETCH 的语句保持原样；
+     * 其他数据库或无法安全改写的语句仅依赖 {@link Statement#setMaxRows(int)}。
      */
-    private SqlValidationResult validateSql(String sql) {
-        if (sql == null || sql.trim().isEmpty()) {
-            return SqlValidationResult.invalid("SQL语句不能为空");
+    private String pushDownLimit(String sql, String databaseType, SqlValidator.Verdict verdict, int limit) {
+        if (!verdict.isLimitable() || !LIMIT_DIALECTS.contains(databaseType)) {
+            return sql;
+        }
+        String trimmed = sql.strip();
+        while (trimmed.endsWith(";")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1).strip();
+        }
+        if (trimmed.indexOf(';') >= 0) {
+            return sql;
         }
+        // 换行追加，避免末尾的单行注释吞掉 LIMIT
+        return trimmed + "\nLIMIT " + limit;
+    }
 
-        String trimmedSql = sql.trim().toLowerCase(Locale.ROOT);
+    /**
+     * 按指定结构读取最多 limit 行
+     * <p>
+     * 读满 limit 行后会向前探测一行以判断是否还有数据，探测成功时 ResultSet 停在未读取的行上，
+     * 下次读取需传入 positioned = true。大字段超过内联长度时截断，完整内容通过 {@link #getLob} 获取。
+     *
+     * @param positioned ResultSet 当前是否已停在一行未读取的数据上
+     * @param owner 结果所属用户，为 null 时大字段完整读取
+     */
+    private SqlQueryResult readRows(ResultSet resultSet, List<ColumnInfo> columns, ResultFormat format,
+                                    int limit, boolean positioned, String owner) throws SQLException {
+        ResultFormat resolvedFormat = format != null ? format : ResultFormat.MAP;
+        RowReader reader = RowReader.of(resultSet, lobStore, owner).trackLobHandles();
+        SqlQueryResult result = switch (resolvedFormat) {
+            case ARRAY -> readArrayRows(resultSet, reader, columns, limit, positioned);
+            case COLUMNAR -> readColumnarRows(resultSet, reader, columns, limit, positioned);
+            default -> readMapRows(resultSet, reader, columns, limit, positioned);
+        };
+        result.format = resolvedFormat;
+        result.lobHandles = reader.getLobHandles();
+        return result;
+    }
 
-        // 检查是否以注释开头
-        if (trimmedSql.startsWith("--") || trimmedSql.startsWith("/*")) {
-            return SqlValidationResult.invalid("不支持纯注释语句");
+    /**
+     * 按行读取为 列名 -> 值 的映射
+     */
+    private SqlQueryResult readMapRows(ResultSet resultSet, RowReader reader, List<ColumnInfo> columns, int limit,
+                                       boolean positioned) throws SQLException {
+        int columnCount = columns.size();
+        String[] columnNames = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columnNames[i] = columns.get(i).getName();
         }
 
-        // 移除注释
-        String cleanSql = trimmedSql.replaceAll("--.*$", "")
-                .replaceAll("/\\*.*?\\*/", "")
-                .trim();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        int rowCount = 0;
+        boolean hasRow = positioned || resultSet.next();
+        while (hasRow && rowCount < limit) {
+            Map<String, Object> row = new LinkedHashMap<>(columnCount * 4 / 3 + 1);
+            for (int i = 0; i < columnCount; i++) {
+                row.put(columnNames[i], reader.getValue(i));
+            }
+            rows.add(row);
+            rowCount++;
+            // 检查是否还有更多数据
+            hasRow = resultSet.next();
+        }
+
+        return SqlQueryResult.success(columns, rows, rowCount, hasRow);
+    }
 
-        // 检查是否为空
-        if (cleanSql.isEmpty()) {
-            return SqlValidationResult.invalid("SQL语句不能为空");
+    /**
+     * 按行读取为位置数组，列名仅在 columns 中出现一次
+     */
+    private SqlQueryResult readArrayRows(ResultSet resultSet, RowReader reader, List<ColumnInfo> columns, int limit,
+                                         boolean positioned) throws SQLException {
+        int columnCount = columns.size();
+        List<Object[]> rows = new ArrayList<>();
+        int rowCount = 0;
+        boolean hasRow = positioned || resultSet.next();
+        while (hasRow && rowCount < limit) {
+            Object[] row = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                row[i] = reader.getValue(i);
+            }
+            rows.add(row);
+            rowCount++;
+            hasRow = resultSet.next();
         }
 
-        // 检查是否为SELECT语句
-        if (!cleanSql.startsWith("select")) {
-            return SqlValidationResult.invalid("只允许执行SELECT查询语句");
+        SqlQueryResult result = SqlQueryResult.success(columns, null, rowCount, hasRow);
+        result.rows = rows;
+        return result;
+    }
+
+    /**
+     * 按列读取，每列一个值数组
+     */
+    private SqlQueryResult readColumnarRows(ResultSet resultSet, RowReader reader, List<ColumnInfo> columns, int limit,
+                                            boolean positioned) throws SQLException {
+        int columnCount = columns.size();
+        List<List<Object>> columnData = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            columnData.add(new ArrayList<>());
         }
 
-        // 检查是否包含危险关键词
-        String[] dangerousKeywords = {
-                "insert", "update", "delete", "drop", "create", "alter", "truncate",
-                "grant", "revoke", "exec", "execute", "sp_", "xp_"
-        };
+        int rowCount = 0;
+        boolean hasRow = positioned || resultSet.next();
+        while (hasRow && rowCount < limit) {
+            for (int i = 0; i < columnCount; i++) {
+                columnData.get(i).add(reader.getValue(i));
+            }
+            rowCount++;
+            hasRow = resultSet.next();
+        }
+
+        SqlQueryResult result = SqlQueryResult.success(columns, null, rowCount, hasRow);
+        result.columnData = columnData;
+        return result;
+    }
+
+    /**
+     * 获取截断大字段的暂存内容
+     *
+     * @param handle 查询结果中返回的句柄
+     * @param owner 当前用户
+     * @return 暂存内容，不存在、已过期或不属于该用户时返回 null
+     */
+    public LobStore.LobEntry getLob(String handle, String owner) {
+        return lobStore.get(handle, owner);
+    }
+
+    /**
+     * 清除查询结果缓存
+     *
+     * @param dataSourceName 数据源名称，为空时清除全部
+     */
+    public void invalidateResultCache(String dataSourceName) {
+        if (dataSourceName == null || dataSourceName.trim().isEmpty()) {
+            singleFlightQueryCache.invalidateAll();
+        } else {
+            singleFlightQueryCache.invalidate(dataSourceName);
+        }
+    }
+
+    /**
+     * 打开查询游标并返回第一页
+     * <p>
+     * 游标独占一个连接并保持 ResultSet 打开，后续通过 {@link #fetchCursor} 继续读取，
+     * 整个浏览过程只执行一次查询。结果读完后游标自动关闭。
+     * 准入许可只在执行查询和读取第一页期间持有，打开中的游标占用数据源的游标名额
+     * （db.dev.sql.cursor.max-per-data-source），不会因游标闲置而阻塞其他控制台查询。
+     *
+     * @param owner 游标所属用户
+     * @param client 客户端标识（已登录时为用户名，否则为客户端地址），用于每个客户端的游标上限
+     * @param dataSourceName 数据源名称
+     * @param sql SQL查询语句
+     * @param params 查询参数
+     * @param pageSize 每页行数（不超过 max-rows）
+     * @param format 结果结构
+     * @return 第一页结果，hasMore 为 true 时包含 cursorId
+     */
+    public SqlQueryResult openCursor(String owner, String client, String dataSourceName, String sql,
+                                     List<Object> params, int pageSize, ResultFormat format) {
+        DataSource dataSource;
+        try {
+            dataSource = dataSourceService.getDataSource(dataSourceName);
+        } catch (Exception e) {
+            log.error("Failed to get data source: {}", dataSourceName, e);
+            return SqlQueryResult.error("数据源不存在: " + dataSourceName);
+        }
+
+        SqlValidator.Verdict verdict = sqlValidator.validate(sql, dataSourceService.getDatabaseType(dataSourceName));
+        if (!verdict.isValid()) {
+            return SqlQueryResult.error(verdict.getErrorMessage());
+        }
+
+        if (!queryCursorRegistry.reserve(client, dataSourceName)) {
+            return SqlQueryResult.error("数据源 " + dataSourceName + " 打开的游标已达上限（"
+                    + queryCursorRegistry.getMaxCursorsPerDataSource() + "），请关闭不再使用的游标后重试");
+        }
+
+        SqlAdmissionService.Permit permit;
+        try {
+            permit = sqlAdmissionService.acquire(dataSourceName);
+        } catch (SqlAdmissionService.AdmissionRejectedException e) {
+            queryCursorRegistry.release(dataSourceName);
+            return SqlQueryResult.error(e.getMessage());
+        }
 
-        for (String keyword : dangerousKeywords) {
-            if (cleanSql.contains(keyword)) {
-                return SqlValidationResult.invalid("SQL语句包含危险操作: " + keyword);
+        Connection connection = null;
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+        boolean restoreAutoCommit = false;
+        boolean registered = false;
+        try (permit) {
+            // 游标跨请求持有连接，不参与当前线程的事务
+            connection = dataSource.getConnection();
+            String productName = connection.getMetaData().getDatabaseProductName();
+            String lowerProductName = productName != null ? productName.toLowerCase(Locale.ROOT) : "";
+            if (lowerProductName.contains("postgresql") && connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+                restoreAutoCommit = true;
+            }
+
+            preparedStatement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            preparedStatement.setQueryTimeout(queryTimeoutSeconds);
+            preparedStatement.setFetchSize(resolveStreamFetchSize(lowerProductName));
+            bindParams(preparedStatement, params);
+            resultSet = preparedStatement.executeQuery();
+
+            List<ColumnInfo> columns = readColumns(resultSet.getMetaData());
+            SqlQueryResult result = readRows(resultSet, columns, format, resolvePageSize(pageSize), false, owner);
+            if (!result.isHasMore()) {
+                return result;
+            }
+
+            QueryCursorRegistry.QueryCursor cursor = new QueryCursorRegistry.QueryCursor(
+                    owner, client, dataSourceName, connection, preparedStatement, resultSet, columns,
+                    format != null ? format : ResultFormat.MAP, restoreAutoCommit);
+            cursor.addRowsFetched(result.getRowCount());
+            cursor.setPositioned(true);
+            // 游标持有连接期间一直占用数据源的游标名额，关闭或被淘汰时归还
+            result.cursorId = queryCursorRegistry.register(cursor);
+            registered = true;
+            return result;
+        } catch (SQLException e) {
+            log.error("SQL cursor open error", e);
+            return SqlQueryResult.error("SQL执行错误: " + e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("SQL cursor open error", e);
+            return SqlQueryResult.error("打开游标失败: " + e.getMessage());
+        } finally {
+            if (!registered) {
+                closeQuietly(resultSet, preparedStatement, connection, restoreAutoCommit);
+                queryCursorRegistry.release(dataSourceName);
+            }
+        }
+    }
+
+    /**
+     * 从已打开的游标读取下一页
+     *
+     * @param owner 游标所属用户
+     * @param cursorId 游标ID
+     * @param pageSize 每页行数（不超过 max-rows）
+     * @return 下一页结果
+     */
+    public SqlQueryResult fetchCursor(String owner, String cursorId, int pageSize) {
+        QueryCursorRegistry.QueryCursor cursor = queryCursorRegistry.get(owner, cursorId);
+        if (cursor == null) {
+            return SqlQueryResult.error("游标不存在或已过期: " + cursorId);
+        }
+
+        // 沿用游标自己的连接，不申请准入许可，并发量由数据源的游标名额限制
+        synchronized (cursor) {
+            try {
+                SqlQueryResult result = readRows(cursor.getResultSet(), cursor.getColumns(), cursor.getFormat(),
+                        resolvePageSize(pageSize), cursor.isPositioned(), owner);
+                cursor.addRowsFetched(result.getRowCount());
+                cursor.setPositioned(result.isHasMore());
+                if (result.isHasMore()) {
+                    result.cursorId = cursorId;
+                } else {
+                    queryCursorRegistry.remove(cursorId);
+                }
+                return result;
+            } catch (SQLException e) {
+                log.error("SQL cursor fetch error", e);
+                queryCursorRegistry.remove(cursorId);
+                return SqlQueryResult.error("读取游标失败: " + e.getMessage());
             }
         }
+    }
+
+    /**
+     * 关闭游标
+     *
+     * @param owner 游标所属用户
+     * @param cursorId 游标ID
+     * @return 游标是否存在
+     */
+    public boolean closeCursor(String owner, String cursorId) {
+        return queryCursorRegistry.close(owner, cursorId);
+    }
+
+    private int resolvePageSize(int pageSize) {
+        return pageSize > 0 ? Math.min(pageSize, maxRows) : maxRows;
+    }
 
-        return SqlValidationResult.valid();
+    private void closeQuietly(ResultSet resultSet, PreparedStatement preparedStatement, Connection connection,
+                              boolean restoreAutoCommit) {
+        try {
+            if (resultSet != null) resultSet.close();
+            if (preparedStatement != null) preparedStatement.close();
+            if (connection != null) {
+                if (restoreAutoCommit) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+                connection.close();
+            }
+        } catch (SQLException e) {
+            log.error("Error closing resources", e);
+        }
     }
 
     /**
-     * SQL验证结果
+     * 流式执行SQL查询
+     * <p>
+     * 逐行从 ResultSet 读取并交给 {@link RowHandler}，不在内存中缓存结果集，
+     * 单次查询的内存占用与返回行数无关。行数上限由 {@code db.dev.sql.stream-max-rows} 控制（0 表示不限制）。
+     * 大字段随行直接写出，不截断也不暂存。
+     *
+     * @param dataSourceName 数据源名称
+     * @param sql SQL查询语句
+     * @param params 查询参数
+     * @param handler 行处理器
+     * @return 查询结果（不包含 data，仅包含列信息、行数和是否还有更多数据）
+     * @throws IOException 行处理器写出失败时抛出
      */
-    private static class SqlValidationResult {
-        private final boolean valid;
-        private final String errorMessage;
+    public SqlQueryResult executeQueryStream(String dataSourceName, String sql, List<Object> params,
+                                             RowHandler handler) throws IOException {
+        DataSource dataSource;
+        try {
+            dataSource = dataSourceService.getDataSource(dataSourceName);
+        } catch (Exception e) {
+            log.error("Failed to get data source: {}", dataSourceName, e);
+            return SqlQueryResult.error("数据源不存在: " + dataSourceName);
+        }
+
+        SqlValidator.Verdict verdict = sqlValidator.validate(sql, dataSourceService.getDatabaseType(dataSourceName));
+        if (!verdict.isValid()) {
+            return SqlQueryResult.error(verdict.getErrorMessage());
+        }
+
+        SqlAdmissionService.Permit permit;
+        try {
+            permit = sqlAdmissionService.acquire(dataSourceName);
+        } catch (SqlAdmissionService.AdmissionRejectedException e) {
+            return SqlQueryResult.error(e.getMessage());
+        }
+
+        Connection connection = null;
+        Boolean originalAutoCommit = null;
+
+        try {
+            connection = DataSourceUtils.getConnection(dataSource);
+            String productName = connection.getMetaData().getDatabaseProductName();
+            String lowerProductName = productName != null ? productName.toLowerCase(Locale.ROOT) : "";
+
+            // PostgreSQL 仅在关闭自动提交时才按 fetchSize 使用游标分批拉取
+            if (lowerProductName.contains("postgresql") && connection.getAutoCommit()
+                    && !DataSourceUtils.isConnectionTransactional(connection, dataSource)) {
+                originalAutoCommit = Boolean.TRUE;
+                connection.setAutoCommit(false);
+            }
+
+            try (PreparedStatement preparedStatement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                preparedStatement.setQueryTimeout(queryTimeoutSeconds);
+                preparedStatement.setFetchSize(resolveStreamFetchSize(lowerProductName));
+                bindParams(preparedStatement, params);
+
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    List<ColumnInfo> columns = readColumns(resultSet.getMetaData());
+                    handler.onColumns(columns);
+
+                    // 处理器通过行读取器按类型直接写出当前行，不物化行对象；大字段不经暂存直接写出
+                    RowReader reader = RowReader.of(resultSet);
+                    int rowCount = 0;
+                    boolean hasMore = false;
+                    boolean finished = false;
+                    try {
+                        while (resultSet.next()) {
+                            if (streamMaxRows > 0 && rowCount >= streamMaxRows) {
+                                hasMore = true;
+                                // MySQL 流式结果集关闭时会读完剩余行，达到上限后先取消语句
+                                cancelQuietly(preparedStatement);
+                                break;
+                            }
+                            handler.onRow(reader);
+                            rowCount++;
+                        }
+                        finished = true;
+                    } finally {
+                        // 客户端断开（写出失败）等异常退出时同样先取消，避免关闭时在连接上读完剩余结果
+                        if (!finished) {
+                            cancelQuietly(preparedStatement);
+                        }
+                    }
+
+                    return SqlQueryResult.success(columns, null, rowCount, hasMore);
+                }
+            }
+        } catch (SQLException e) {
+            log.error("SQL streaming execution error", e);
+            return SqlQueryResult.error("SQL执行错误: " + e.getMessage());
+        } finally {
+            if (connection != null) {
+                try {
+                    if (originalAutoCommit != null) {
+                        connection.rollback();
+                        connection.setAutoCommit(originalAutoCommit);
+                    }
+                } catch (SQLException e) {
+                    log.error("Error restoring connection state", e);
+                }
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            }
+            permit.close();
+        }
+    }
 
-        private SqlValidationResult(boolean valid, String errorMessage) {
-            this.valid = valid;
-            this.errorMessage = errorMessage;
+    private void cancelQuietly(Statement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException e) {
+            log.warn("Failed to cancel streaming statement: {}", e.getMessage());
         }
+    }
 
-        public static SqlValidationResult valid() {
-            return new SqlValidationResult(true, null);
+    /**
+     * 计算流式查询的 fetchSize
+     * MySQL Connector/J 只有 fetchSize 为 Integer.MIN_VALUE 时才逐行流式读取
+     */
+    private int resolveStreamFetchSize(String lowerProductName) {
+        if (lowerProductName.contains("mysql") || lowerProductName.contains("mariadb")) {
+            return Integer.MIN_VALUE;
         }
+        return Math.max(fetchSize, 0);
+    }
 
-        public static SqlValidationResult invalid(String errorMessage) {
-            return new SqlValidationResult(false, errorMessage);
+    /**
+     * 绑定查询参数
+     */
+    private void bindParams(PreparedStatement preparedStatement, List<Object> params) throws SQLException {
+        if (params != null) {
+            for (int i = 0; i < params.size(); i++) {
+                preparedStatement.setObject(i + 1, params.get(i));
+            }
         }
+    }
 
-        public boolean isValid() {
-            return valid;
+    /**
+     * 读取列信息
+     */
+    private List<ColumnInfo> readColumns(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        List<ColumnInfo> columns = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            columns.add(new ColumnInfo(
+                    metaData.getColumnName(i),
+                    metaData.getColumnTypeName(i),
+                    metaData.getColumnDisplaySize(i)
+            ));
         }
+        return columns;
+    }
 
-        public String getErrorMessage() {
-            return errorMessage;
+    /**
+     * 查询结果结构
+     * MAP: 每行一个 列名 -> 值 的对象；ARRAY: 列信息一次，每行一个位置数组；COLUMNAR: 列信息一次，每列一个值数组
+     */
+    public enum ResultFormat {
+        MAP, ARRAY, COLUMNAR;
+
+        /**
+         * 解析请求参数，未知或为空时返回 MAP
+         */
+        public static ResultFormat of(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return MAP;
+            }
+            for (ResultFormat format : values()) {
+                if (format.name().equalsIgnoreCase(value.trim())) {
+                    return format;
+                }
+            }
+            return MAP;
         }
     }
 
+    /**
+     * 流式查询行处理器
+     */
+    public interface RowHandler {
+
+        /**
+         * 列信息就绪，在第一行之前调用一次
+         */
+        void onColumns(List<ColumnInfo> columns) throws IOException;
+
+        /**
+         * 处理当前行，row 仅在本次调用期间指向该行
+         */
+        void onRow(RowReader row) throws IOException, SQLException;
+    }
+
     /**
      * SQL查询结果
      */
@@ -207,9 +686,18 @@ public class SqlExecuteService {
         private String message;
         private List<ColumnInfo> columns;
         private List<Map<String, Object>> data;
+        private List<Object[]> rows;
+        private List<List<Object>> columnData;
+        private ResultFormat format;
+        private String cursorId;
         private int rowCount;
         private boolean hasMore;
 
+        /**
+         * 结果中暂存的大字段句柄
+         */
+        private List<String> lobHandles = List.of();
+
         public static SqlQueryResult success(List<ColumnInfo> columns, 
                                            List<Map<String, Object>> data, 
                                            int rowCount, 
@@ -236,6 +724,10 @@ public class SqlExecuteService {
         public String getMessage() { return message; }
         public List<ColumnInfo> getColumns() { return columns; }
         public List<Map<String, Object>> getData() { return data; }
+        public List<Object[]> getRows() { return rows; }
+        public List<List<Object>> getColumnData() { return columnData; }
+        public ResultFormat getFormat() { return format; }
+        public String getCursorId() { return cursorId; }
         public int getRowCount() { return rowCount; }
         public boolean isHasMore() { return hasMore; }
     }
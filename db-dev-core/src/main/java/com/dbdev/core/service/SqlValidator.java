@@ -0,0 +1,355 @@
+package com.dbdev.core.service;
+
+import com.alibaba.druid.DbType;
+import com.alibaba.druid.sql.SQLUtils;
+import com.alibaba.druid.sql.ast.SQLStatement;
+import com.alibaba.druid.sql.ast.statement.SQLDeleteStatement;
+import com.alibaba.druid.sql.ast.statement.SQLExplainStatement;
+import com.alibaba.druid.sql.ast.statement.SQLInsertStatement;
+import com.alibaba.druid.sql.ast.statement.SQLSelect;
+import com.alibaba.druid.sql.ast.statement.SQLSelectQuery;
+import com.alibaba.druid.sql.ast.statement.SQLSelectQueryBlock;
+import com.alibaba.druid.sql.ast.statement.SQLSelectStatement;
+import com.alibaba.druid.sql.ast.statement.SQLUnionQuery;
+import com.alibaba.druid.sql.ast.statement.SQLUpdateStatement;
+import com.alibaba.druid.sql.ast.statement.SQLWithSubqueryClause;
+import com.alibaba.druid.sql.dialect.mysql.ast.statement.MySqlSelectQueryBlock;
+import com.alibaba.druid.sql.dialect.postgresql.ast.stmt.PGSelectQueryBlock;
+import com.alibaba.druid.sql.dialect.sqlserver.ast.SQLServerSelectQueryBlock;
+import com.alibaba.druid.sql.visitor.SQLASTVisitorAdapter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SQL 校验器
+ * <p>
+ * 使用 Druid SQL 解析器按语法树判断语句类型，按 db.dev.sql.allowed-keywords 与 db.dev.sql.read-only 校验，
+ * 避免按字符串匹配关键字时误拒 created_at、updated_by 等列名。
+ * 校验结论按原始 SQL 文本缓存在容量受限的 LRU 中，重复执行相同语句时不再重复解析。
+ * 结论中同时记录语句能否追加行数限制，供执行时下推 LIMIT 使用。
+ */
+@Slf4j
+@Component
+public class SqlValidator implements InitializingBean {
+
+    /**
+     * 只读模式下允许的语句类型
+     */
+    private static final Set<String> READ_ONLY_STATEMENTS = Set.of("SELECT", "SHOW", "DESCRIBE", "EXPLAIN");
+
+    private static final List<String> DEFAULT_ALLOWED_KEYWORDS = List.of("SELECT", "SHOW", "DESCRIBE");
+
+    private final Environment environment;
+
+    /**
+     * 校验结论缓存（访问顺序，超出容量时淘汰最久未访问的条目）
+     */
+    private final LinkedHashMap<String, Verdict> verdicts = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Verdict> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    private final boolean readOnly;
+
+    private final int cacheSize;
+
+    private Set<String> allowedKeywords;
+
+    public SqlValidator(Environment environment,
+                        @Value("${db.dev.sql.read-only:true}") boolean readOnly,
+                        @Value("${db.dev.sql.validation-cache-size:1000}") int cacheSize) {
+        this.environment = environment;
+        this.readOnly = readOnly;
+        this.cacheSize = cacheSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Set<String> keywords = new LinkedHashSet<>();
+        for (String keyword : resolveAllowedKeywords()) {
+            if (StringUtils.hasText(keyword)) {
+                keywords.add(normalizeKeyword(keyword.trim()));
+            }
+        }
+        allowedKeywords = Set.copyOf(keywords);
+        log.info("SQL validation policy: readOnly={}, allowedKeywords={}", readOnly, allowedKeywords);
+    }
+
+    /**
+     * 读取允许的关键字，同时支持 YAML 列表（allowed-keywords[0]）与逗号分隔两种写法
+     */
+    private List<String> resolveAllowedKeywords() {
+        String prefix = "db.dev.sql.allowed-keywords";
+        List<String> keywords = new ArrayList<>();
+        for (int i = 0; ; i++) {
+            String value = environment.getProperty(prefix + "[" + i + "]");
+            if (value == null) {
+                break;
+            }
+            keywords.add(value);
+        }
+        if (!keywords.isEmpty()) {
+            return keywords;
+        }
+        String value = environment.getProperty(prefix);
+        if (value != null) {
+            return List.of(StringUtils.commaDelimitedListToStringArray(value));
+        }
+        return DEFAULT_ALLOWED_KEYWORDS;
+    }
+
+    /**
+     * 校验SQL语句
+     *
+     * @param sql SQL语句
+     * @param databaseType 数据库类型（mysql、postgresql 等），决定使用的解析方言
+     * @return 校验结论
+     */
+    public Verdict validate(String sql, String databaseType) {
+        if (sql == null || sql.trim().isEmpty()) {
+            return Verdict.invalid("SQL语句不能为空");
+        }
+
+        // 按解析的原文缓存，任何规范化都可能让注释边界不同的语句共用一个结论
+        String key = databaseType + '\u0000' + sql;
+        synchronized (verdicts) {
+            Verdict cached = verdicts.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Verdict verdict = doValidate(sql, databaseType);
+        if (cacheSize > 0) {
+            synchronized (verdicts) {
+                verdicts.put(key, verdict);
+            }
+        }
+        return verdict;
+    }
+
+    private Verdict doValidate(String sql, String databaseType) {
+        String keyword = leadingKeyword(sql);
+        if (keyword.isEmpty()) {
+            return Verdict.invalid("SQL语句不能为空");
+        }
+
+        List<SQLStatement> statements;
+        try {
+            statements = SQLUtils.parseStatements(sql, resolveDbType(databaseType));
+        } catch (RuntimeException e) {
+            log.debug("Failed to parse SQL: {}", e.getMessage());
+            return Verdict.invalid("SQL语法解析失败: " + e.getMessage());
+        }
+
+        if (statements.isEmpty()) {
+            return Verdict.invalid("SQL语句不能为空");
+        }
+        if (statements.size() > 1) {
+            return Verdict.invalid("只允许执行单条SQL语句");
+        }
+
+        SQLStatement statement = statements.get(0);
+        String statementType = statement instanceof SQLSelectStatement ? "SELECT" : keyword;
+
+        WriteOperation violation = findWriteOperation(statement);
+        if (readOnly) {
+            if (!READ_ONLY_STATEMENTS.contains(statementType)) {
+                return Verdict.invalid("只读模式下不允许执行 " + statementType + " 语句");
+            }
+            if (violation != null) {
+                return Verdict.invalid("只读模式下不允许 " + violation.description());
+            }
+        }
+
+        if (!allowedKeywords.contains(statementType)) {
+            return Verdict.invalid("不允许执行 " + statementType + " 语句，允许的语句类型: "
+                    + String.join(", ", allowedKeywords));
+        }
+        // WITH 中的数据修改语句按其自身类型校验
+        if (violation != null && violation.statementType() != null
+                && !allowedKeywords.contains(violation.statementType())) {
+            return Verdict.invalid("不允许执行 " + violation.statementType() + " 语句，允许的语句类型: "
+                    + String.join(", ", allowedKeywords));
+        }
+
+        boolean limitable = violation == null
+                && statement instanceof SQLSelectStatement select
+                && !hasRowLimit(select.getSelect());
+        return Verdict.valid(statementType, limitable);
+    }
+
+    /**
+     * 顶层查询是否已指定行数限制（LIMIT、OFFSET、FETCH FIRST、TOP 等）
+     * 无法识别的查询结构按已限制处理，避免错误改写
+     */
+    private boolean hasRowLimit(SQLSelect select) {
+        if (select.getLimit() != null || select.getRowCount() != null || select.getOffset() != null) {
+            return true;
+        }
+        SQLSelectQuery query = select.getQuery();
+        if (query instanceof SQLUnionQuery union) {
+            return union.getLimit() != null;
+        }
+        if (query instanceof SQLSelectQueryBlock block) {
+            return block.getLimit() != null || block.getFirst() != null || block.getOffset() != null
+                    || (block instanceof PGSelectQueryBlock pg && pg.getFetch() != null)
+                    || (block instanceof SQLServerSelectQueryBlock sqlServer && sqlServer.getTop() != null);
+        }
+        return true;
+    }
+
+    /**
+     * 查找只读语句中的写操作：SELECT ... INTO、加锁读取（FOR UPDATE / FOR SHARE / LOCK IN SHARE MODE）、
+     * WITH 中的数据修改语句（PostgreSQL 的 WITH d AS (DELETE ... RETURNING *) SELECT ...），
+     * 以及 EXPLAIN 包裹的非查询语句
+     */
+    private WriteOperation findWriteOperation(SQLStatement statement) {
+        if (statement instanceof SQLExplainStatement explain) {
+            SQLStatement explained = explain.getStatement();
+            if (explained != null && !(explained instanceof SQLSelectStatement)) {
+                return new WriteOperation("EXPLAIN 非查询语句", null);
+            }
+            return explained != null ? findWriteOperation(explained) : null;
+        }
+        if (!(statement instanceof SQLSelectStatement)) {
+            return null;
+        }
+
+        WriteOperation[] violation = new WriteOperation[1];
+        statement.accept(new SQLASTVisitorAdapter() {
+            @Override
+            public boolean visit(SQLWithSubqueryClause.Entry x) {
+                SQLStatement returning = x.getReturningStatement();
+                if (returning != null && !(returning instanceof SQLSelectStatement)) {
+                    String type = returning instanceof SQLDeleteStatement ? "DELETE"
+                            : returning instanceof SQLUpdateStatement ? "UPDATE"
+                            : returning instanceof SQLInsertStatement ? "INSERT"
+                            : leadingKeyword(returning.toString());
+                    violation[0] = new WriteOperation("WITH 中的 " + type + " 语句", type);
+                }
+                return violation[0] == null;
+            }
+
+            @Override
+            public boolean visit(SQLSelectQueryBlock x) {
+                if (x.getInto() != null) {
+                    violation[0] = new WriteOperation("SELECT ... INTO", null);
+                } else if (x.isForUpdate() || x.isForShare()
+                        || (x instanceof PGSelectQueryBlock pg && pg.getForClause() != null)
+                        || (x instanceof MySqlSelectQueryBlock mysql && mysql.isLockInShareMode())) {
+                    violation[0] = new WriteOperation("SELECT ... FOR UPDATE/SHARE", null);
+                }
+                return violation[0] == null;
+            }
+        });
+        return violation[0];
+    }
+
+    private DbType resolveDbType(String databaseType) {
+        DbType dbType = databaseType != null ? DbType.of(databaseType) : null;
+        return dbType != null ? dbType : DbType.other;
+    }
+
+    /**
+     * 跳过空白、注释与左括号后读取第一个关键字
+     */
+    static String leadingKeyword(String sql) {
+        int i = 0;
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c) || c == '(') {
+                i++;
+            } else if (sql.startsWith("--", i) || c == '#') {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else if (sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else {
+                break;
+            }
+        }
+        int start = i;
+        while (i < length && Character.isLetter(sql.charAt(i))) {
+            i++;
+        }
+        return normalizeKeyword(sql.substring(start, i));
+    }
+
+    private static String normalizeKeyword(String keyword) {
+        String upper = keyword.toUpperCase(Locale.ROOT);
+        return "DESC".equals(upper) ? "DESCRIBE" : upper;
+    }
+
+    /**
+     * 只读语句中的写操作
+     *
+     * @param description 错误信息中的描述
+     * @param statementType 写操作自身的语句类型（如 WITH 中的 DELETE），需同时满足允许的语句类型，无则为 null
+     */
+    private record WriteOperation(String description, String statementType) {
+    }
+
+    /**
+     * 校验结论
+     */
+    public static class Verdict {
+        private final boolean valid;
+        private final String errorMessage;
+        private final String statementType;
+        private final boolean limitable;
+
+        private Verdict(boolean valid, String errorMessage, String statementType, boolean limitable) {
+            this.valid = valid;
+            this.errorMessage = errorMessage;
+            this.statementType = statementType;
+            this.limitable = limitable;
+        }
+
+        public static Verdict valid(String statementType, boolean limitable) {
+            return new Verdict(true, null, statementType, limitable);
+        }
+
+        public static Verdict invalid(String errorMessage) {
+            return new Verdict(false, errorMessage, null, false);
+        }
+
+        public boolean isValid() {
+            return valid;
+        }
+
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+
+        /**
+         * 语句类型（SELECT、SHOW、DESCRIBE 等），校验失败时为 null
+         */
+        public String getStatementType() {
+            return statementType;
+        }
+
+        /**
+         * 是否为顶层未指定行数限制、可安全追加 LIMIT 的 SELECT 语句
+         */
+        public boolean isLimitable() {
+            return limitable;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.dbdev.core.service;
+
+import com.dbdev.core.model.TableMetadata;
+import com.dbdev.core.model.TableStatistics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 表统计信息服务
+ * <p>
+ * 每个数据源用一条目录查询读取全部表的估算行数、数据与索引大小：MySQL 取自 information_schema.TABLES，
+ * PostgreSQL 取自 pg_class 与 pg_stat_user_tables（按页数估算大小，不访问数据文件），H2 只有估算行数。
+ * 首次访问数据源时采集，之后定期刷新，读取元数据时附加到表对象的副本上；每次采集后版本号递增，
+ * 参与元数据接口的 ETag。
+ */
+@Slf4j
+@Service
+public class TableStatisticsService {
+
+    /**
+     * 各方言的统计查询，结果列：TABLE_NAME、ROW_COUNT、DATA_LENGTH、INDEX_LENGTH、FREE_LENGTH、DEAD_ROWS、LAST_ANALYZED
+     */
+    private static final Map<String, String> STATISTICS_QUERIES = Map.of(
+            "mysql", "SELECT TABLE_NAME, TABLE_ROWS AS ROW_COUNT, DATA_LENGTH, INDEX_LENGTH,"
+                    + " DATA_FREE AS FREE_LENGTH, NULL AS DEAD_ROWS, NULL AS LAST_ANALYZED"
+                    + " FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_TYPE = 'BASE TABLE'",
+            "postgresql", "SELECT c.relname AS TABLE_NAME,"
+                    + " CASE WHEN c.reltuples < 0 THEN NULL ELSE c.reltuples::bigint END AS ROW_COUNT,"
+                    + " c.relpages::bigint * current_setting('block_size')::bigint AS DATA_LENGTH,"
+                    + " coalesce((SELECT sum(i.relpages)::bigint FROM pg_catalog.pg_index x"
+                    + " JOIN pg_catalog.pg_class i ON i.oid = x.indexrelid WHERE x.indrelid = c.oid), 0)"
+                    + " * current_setting('block_size')::bigint AS INDEX_LENGTH,"
+                    + " NULL::bigint AS FREE_LENGTH, s.n_dead_tup AS DEAD_ROWS,"
+                    + " greatest(s.last_analyze, s.last_autoanalyze) AS LAST_ANALYZED"
+                    + " FROM pg_catalog.pg_class c JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace"
+                    + " LEFT JOIN pg_catalog.pg_stat_user_tables s ON s.relid = c.oid"
+                    + " WHERE c.relkind IN ('r', 'p', 'm')"
+                    + " AND n.nspname NOT IN ('pg_catalog', 'information_schema') AND n.nspname NOT LIKE 'pg\\_toast%'"
+                    + " ORDER BY n.nspname",
+            "h2", "SELECT TABLE_NAME, ROW_COUNT_ESTIMATE AS ROW_COUNT, CAST(NULL AS BIGINT) AS DATA_LENGTH,"
+                    + " CAST(NULL AS BIGINT) AS INDEX_LENGTH, CAST(NULL AS BIGINT) AS FREE_LENGTH,"
+                    + " CAST(NULL AS BIGINT) AS DEAD_ROWS, CAST(NULL AS TIMESTAMP) AS LAST_ANALYZED"
+                    + " FROM INFORMATION_SCHEMA.TABLES"
+                    + " WHERE TABLE_SCHEMA <> 'INFORMATION_SCHEMA' AND TABLE_TYPE = 'BASE TABLE'");
+
+    private final DataSourceService dataSourceService;
+
+    /**
+     * 数据源 -> 表名 -> 统计信息
+     */
+    private final Map<String, Map<String, TableStatistics>> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * 数据源 -> 统计信息版本号
+     */
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    @Value("${db.dev.metadata.statistics.enabled:true}")
+    private boolean enabled;
+
+    public TableStatisticsService(DataSourceService dataSourceService) {
+        this.dataSourceService = dataSourceService;
+    }
+
+    /**
+     * 获取数据源各表的统计信息，首次访问时立即采集
+     *
+     * @return 表名到统计信息的映射，未启用、不支持或采集失败时为空
+     */
+    public Map<String, TableStatistics> getStatistics(String dataSourceName) {
+        if (!enabled) {
+            return Map.of();
+        }
+        Map<String, TableStatistics> tables = statistics.get(dataSourceName);
+        if (tables == null) {
+            try {
+                tables = collect(dataSourceName);
+            } catch (RuntimeException | SQLException e) {
+                log.warn("Failed to collect table statistics of {}: {}", dataSourceName, e.getMessage());
+                tables = Map.of();
+            }
+            Map<String, TableStatistics> existing = statistics.putIfAbsent(dataSourceName, tables);
+            if (existing != null) {
+                tables = existing;
+            } else {
+                versions.computeIfAbsent(dataSourceName, name -> new AtomicLong()).incrementAndGet();
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * 统计信息版本号，每次采集后递增，首次访问时立即采集
+     */
+    public long getVersion(String dataSourceName) {
+        if (!enabled) {
+            return 0;
+        }
+        getStatistics(dataSourceName);
+        return versions.computeIfAbsent(dataSourceName, name -> new AtomicLong()).get();
+    }
+
+    /**
+     * 返回附带最近一次采集统计信息的表副本
+     * <p>
+     * 传入的表对象可能是多个请求共享的缓存对象，不在其上修改
+     */
+    public List<TableMetadata> attach(String dataSourceName, List<TableMetadata> tables) {
+        if (!enabled || tables == null || tables.isEmpty()) {
+            return tables;
+        }
+        Map<String, TableStatistics> collected = getStatistics(dataSourceName);
+        List<TableMetadata> attached = new ArrayList<>(tables.size());
+        for (TableMetadata table : tables) {
+            attached.add(table.toBuilder().statistics(collected.get(table.getTableName())).build());
+        }
+        return attached;
+    }
+
+    /**
+     * 采集数据源当前的统计信息
+     */
+    public Map<String, TableStatistics> collect(String dataSourceName) throws SQLException {
+        try (Connection connection = dataSourceService.getDataSource(dataSourceName).getConnection()) {
+            String databaseType = DataSourceService.resolveDatabaseType(
+                    connection.getMetaData().getDatabaseProductName());
+            String query = STATISTICS_QUERIES.get(databaseType);
+            if (query == null) {
+                return Map.of();
+            }
+
+            long collectedAt = System.currentTimeMillis();
+            Map<String, TableStatistics> tables = new HashMap<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(query)) {
+                while (rs.next()) {
+                    Timestamp lastAnalyzed = rs.getTimestamp("LAST_ANALYZED");
+                    // 不同 schema 的同名表只保留第一个，与元数据按表名区分的粒度一致
+                    tables.putIfAbsent(rs.getString("TABLE_NAME"), TableStatistics.builder()
+                            .rowCount(getLong(rs, "ROW_COUNT"))
+                            .dataLength(getLong(rs, "DATA_LENGTH"))
+                            .indexLength(getLong(rs, "INDEX_LENGTH"))
+                            .freeLength(getLong(rs, "FREE_LENGTH"))
+                            .deadRows(getLong(rs, "DEAD_ROWS"))
+                            .lastAnalyzed(lastAnalyzed != null ? lastAnalyzed.getTime() : null)
+                            .collectedAt(collectedAt)
+                            .build());
+                }
+            }
+            return tables;
+        }
+    }
+
+    private static Long getLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    /**
+     * 定期刷新已访问过的数据源的统计信息，失败时保留上次结果
+     */
+    @Scheduled(fixedDelayString = "${db.dev.metadata.statistics.refresh-interval:300000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        for (String dataSourceName : Set.copyOf(statistics.keySet())) {
+            try {
+                statistics.put(dataSourceName, collect(dataSourceName));
+                // 响应中包含采集时间，每次刷新都使 ETag 变化
+                versions.computeIfAbsent(dataSourceName, name -> new AtomicLong()).incrementAndGet();
+            } catch (RuntimeException | SQLException e) {
+                log.warn("Failed to refresh table statistics of {}: {}", dataSourceName, e.getMessage());
+            }
+        }
+    }
+}
@@ -21,6 +21,9 @@
         .table-section { margin: 30px 0; padding: 20px; border: 1px solid #e4e7ed; border-radius: 8px; }
         .table-name { color: #409eff; font-size: 18px; margin-bottom: 10px; }
         .remark { color: #909399; font-style: italic; }
+        .stats { color: #909399; font-size: 13px; margin: 0 0 10px; }
+        .toc { line-height: 1.8; }
+        .toc a { color: #409eff; text-decoration: none; }
     </style>
 </head>
 <body>
@@ -32,64 +35,16 @@
             <p><strong>表数量:</strong> ${metadata.tables?size}</p>
         </div>
 
-        <#list metadata.tables as table>
-        <div class="table-section">
-            <h2 class="table-name">${table.tableName}<#if table.remarks?has_content> <span class="remark">- ${table.remarks}</span></#if></h2>
+        <#if links??>
+        <ul class="toc">
+            <#list links as link>
+            <li><a href="${link.href}">${link.tableName}</a><#if link.remarks?has_content> <span class="remark">- ${link.remarks}</span></#if></li>
+            </#list>
+        </ul>
+        </#if>
 
-            <h3>字段列表</h3>
-            <table>
-                <thead>
-                    <tr>
-                        <th>字段名</th>
-                        <th>类型</th>
-                        <th>可空</th>
-                        <th>默认值</th>
-                        <th>自增</th>
-                        <th>备注</th>
-                    </tr>
-                </thead>
-                <tbody>
-                    <#list table.columns as col>
-                    <tr<#if col.primaryKey> class="primary-key"</#if>>
-                        <td>${col.columnName}<#if col.primaryKey> 🔑</#if></td>
-                        <td>${col.formattedType}</td>
-                        <td>${col.nullable?string('是', '否')}</td>
-                        <td>${col.defaultValue!'-'}</td>
-                        <td>${col.autoIncrement?string('是', '否')}</td>
-                        <td>${col.remarks!'-'}</td>
-                    </tr>
-                    </#list>
-                </tbody>
-            </table>
-
-            <#if table.primaryKeys?has_content>
-            <p><strong>主键:</strong> ${table.primaryKeys?join(', ')}</p>
-            </#if>
-
-            <#if table.indexes?has_content>
-            <h3>索引</h3>
-            <div class="index">
-                <#assign indexGroups = {} />
-                <#list table.indexes as idx>
-                    <#assign key = idx.indexName />
-                    <#if !indexGroups[key]??>
-                        <#assign indexGroups = indexGroups + {key: []} />
-                    </#if>
-                    <#assign indexGroups = indexGroups + {key: indexGroups[key] + [idx]} />
-                </#list>
-                <#list indexGroups?keys as indexName>
-                    <#assign indexes = indexGroups[indexName] />
-                    <#assign cols = [] />
-                    <#list indexes as idx>
-                        <#if idx.columnName?has_content>
-                            <#assign cols = cols + [idx.columnName] />
-                        </#if>
-                    </#list>
-                    <p>• <strong>${indexName}</strong>: ${cols?join(', ')}<#if indexes[0].unique> (唯一)</#if></p>
-                </#list>
-            </div>
-            </#if>
-        </div>
+        <#list tables as table>
+        <#include "schema-table.ftl">
         </#list>
     </div>
 </body>
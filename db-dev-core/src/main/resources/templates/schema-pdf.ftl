@@ -0,0 +1,74 @@
+<?xml version="1.0" encoding="UTF-8"?>
+<#-- PDF 的一批表：fragments 为 schema-table.ftl 渲染好的表章节，bookmarks 为对应的书签；首批带文档头，toc 存在时渲染表索引 -->
+<!DOCTYPE html PUBLIC "-//W3C//DTD XHTML 1.0 Transitional//EN" "http://www.w3.org/TR/xhtml1/DTD/xhtml1-transitional.dtd">
+<html xmlns="http://www.w3.org/1999/xhtml">
+<head>
+    <meta http-equiv="Content-Type" content="text/html; charset=UTF-8" />
+    <title>数据库表结构文档</title>
+    <style>
+        @page { size: A4; margin: 18mm 15mm; @bottom-center { content: counter(page); font-size: 9px; color: #909399; } }
+        body { font-family: <#if fontFamily??>"${fontFamily}", </#if>sans-serif; font-size: 11px; color: #303133; }
+        h1 { color: #333; border-bottom: 2px solid #409eff; padding-bottom: 6px; }
+        h3 { color: #606266; font-size: 12px; margin: 10px 0 4px; }
+        .info { background: #ecf5ff; padding: 8px 12px; margin: 12px 0; color: #409eff; }
+        .info p { margin: 2px 0; }
+        table { width: 100%; border-collapse: collapse; margin: 6px 0; -fs-table-paginate: paginate; }
+        thead { display: table-header-group; }
+        tr { page-break-inside: avoid; }
+        th, td { border: 1px solid #dcdfe6; padding: 3px 6px; text-align: left; word-wrap: break-word; }
+        th { background: #409eff; color: white; }
+        .primary-key { background: #fdf6ec; }
+        .index { background: #f0f9eb; padding: 4px 8px; margin: 4px 0; }
+        .index p { margin: 2px 0; }
+        .table-section { margin: 0 0 18px; }
+        .table-name { color: #409eff; font-size: 15px; margin: 0 0 6px; page-break-after: avoid; }
+        .remark { color: #909399; font-style: italic; }
+        .stats { color: #909399; font-size: 10px; margin: 0 0 6px; }
+        .toc td.page { width: 60px; text-align: right; }
+    </style>
+    <bookmarks>
+        <#list bookmarks as bookmark>
+        <bookmark name="${bookmark.tableName}" href="#${bookmark.anchor}" />
+        </#list>
+        <#if toc??>
+        <bookmark name="表索引" href="#toc" />
+        </#if>
+    </bookmarks>
+</head>
+<body>
+    <#if header>
+    <h1>数据库表结构文档</h1>
+    <div class="info">
+        <p><strong>数据库:</strong> ${metadata.productName} ${metadata.productVersion}</p>
+        <p><strong>生成时间:</strong> ${generateTime}</p>
+        <p><strong>表数量:</strong> ${metadata.tables?size}</p>
+    </div>
+    </#if>
+
+    <#list fragments as fragment>
+    ${fragment?no_esc}
+    </#list>
+
+    <#if toc??>
+    <h1 id="toc">表索引</h1>
+    <table class="toc">
+        <thead>
+            <tr>
+                <th>表名</th>
+                <th>备注</th>
+                <th>页码</th>
+            </tr>
+        </thead>
+        <tbody>
+            <#list toc as entry>
+            <tr>
+                <td>${entry.tableName}</td>
+                <td>${entry.remarks!'-'}</td>
+                <td class="page">${entry.page}</td>
+            </tr>
+            </#list>
+        </tbody>
+    </table>
+    </#if>
+</body>
+</html>
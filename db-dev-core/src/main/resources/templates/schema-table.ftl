@@ -0,0 +1,70 @@
+<#-- 单表章节，由 schema-export.ftl 逐表包含，PDF 导出时单独渲染为片段；变量：table、statistics、foreignKeys，可选 anchor -->
+<div class="table-section">
+    <h2 class="table-name"<#if anchor??> id="${anchor}"</#if>>${table.tableName}<#if table.remarks?has_content> <span class="remark">- ${table.remarks}</span></#if></h2>
+    <#if statistics[table.tableName]??>
+    <p class="stats">${statistics[table.tableName]}</p>
+    </#if>
+
+    <h3>字段列表</h3>
+    <table>
+        <thead>
+            <tr>
+                <th>字段名</th>
+                <th>类型</th>
+                <th>可空</th>
+                <th>默认值</th>
+                <th>自增</th>
+                <th>备注</th>
+            </tr>
+        </thead>
+        <tbody>
+            <#list table.columns as col>
+            <tr<#if col.primaryKey> class="primary-key"</#if>>
+                <td>${col.columnName}<#if col.primaryKey> 🔑</#if></td>
+                <td>${col.formattedType}</td>
+                <td>${col.nullable?string('是', '否')}</td>
+                <td>${col.defaultValue!'-'}</td>
+                <td>${col.autoIncrement?string('是', '否')}</td>
+                <td>${col.remarks!'-'}</td>
+            </tr>
+            </#list>
+        </tbody>
+    </table>
+
+    <#if table.primaryKeys?has_content>
+    <p><strong>主键:</strong> ${table.primaryKeys?join(', ')}</p>
+    </#if>
+
+    <#if foreignKeys[table.tableName]??>
+    <h3>外键</h3>
+    <div class="index">
+        <#list foreignKeys[table.tableName] as fk>
+            <p>• ${fk}</p>
+        </#list>
+    </div>
+    </#if>
+
+    <#if table.indexes?has_content>
+    <h3>索引</h3>
+    <div class="index">
+        <#assign indexGroups = {} />
+        <#list table.indexes as idx>
+            <#assign key = idx.indexName />
+            <#if !indexGroups[key]??>
+                <#assign indexGroups = indexGroups + {key: []} />
+            </#if>
+            <#assign indexGroups = indexGroups + {key: indexGroups[key] + [idx]} />
+        </#list>
+        <#list indexGroups?keys as indexName>
+            <#assign indexes = indexGroups[indexName] />
+            <#assign cols = [] />
+            <#list indexes as idx>
+                <#if idx.columnName?has_content>
+                    <#assign cols = cols + [idx.columnName] />
+                </#if>
+            </#list>
+            <p>• <strong>${indexName}</strong>: ${cols?join(', ')}<#if indexes[0].unique> (唯一)</#if></p>
+        </#list>
+    </div>
+    </#if>
+</div>
@@ -0,0 +1,123 @@
+package com.dbdev.core.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LobStoreTest {
+
+    private LobStore lobStore;
+
+    @BeforeEach
+    void setUp() {
+        lobStore = new LobStore();
+        set("inlineLimit", 4);
+        set("maxSize", 16L);
+        set("maxTotalSize", 32L);
+        set("ttlSeconds", 600);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lobStore.destroy();
+    }
+
+    @Test
+    void handleIsOnlyReadableByItsOwner() throws Exception {
+        LobStore.LobValue value = text("abcdefgh", "alice");
+        assertNotNull(lobStore.get(value.getHandle(), "alice"));
+        assertNull(lobStore.get(value.getHandle(), "bob"));
+        assertNull(lobStore.get(value.getHandle(), null));
+
+        lobStore.grant(List.of(value.getHandle()), "bob");
+        assertNotNull(lobStore.get(value.getHandle(), "bob"));
+    }
+
+    @Test
+    void valueOverMaxSizeKeepsPrefixAndHandle() throws Exception {
+        LobStore.LobValue value = text("0123456789abcdefXYZ", "alice");
+        assertEquals("0123", value.getPreview());
+        assertEquals(16L, value.getLength());
+        assertFalse(value.isComplete());
+
+        LobStore.LobEntry entry = lobStore.get(value.getHandle(), "alice");
+        assertEquals("0123456789abcdef", Files.readString(entry.getPath()));
+        assertFalse(entry.isComplete());
+    }
+
+    @Test
+    void totalSizeEvictsOldestEntries() throws Exception {
+        LobStore.LobValue first = binary(16, "alice");
+        LobStore.LobValue second = binary(16, "alice");
+        LobStore.LobValue third = binary(16, "alice");
+        assertTrue(third.isComplete());
+
+        assertNull(lobStore.get(first.getHandle(), "alice"));
+        assertNotNull(lobStore.get(second.getHandle(), "alice"));
+        assertNotNull(lobStore.get(third.getHandle(), "alice"));
+    }
+
+    @Test
+    void onlyLobJdbcTypesAreSpooled() throws Exception {
+        // PostgreSQL 的 text 报告为精度很大的 VARCHAR，按普通字符串完整读取
+        assertEquals("abcdefgh", column(Types.VARCHAR, "abcdefgh").getValue(0));
+        assertInstanceOf(LobStore.LobValue.class, column(Types.CLOB, "abcdefgh").getValue(0));
+        assertInstanceOf(LobStore.LobValue.class, column(Types.LONGVARCHAR, "abcdefgh").getValue(0));
+    }
+
+    /**
+     * 单列文本结果集的行读取器，所属用户为 alice
+     */
+    private RowReader column(int type, String value) throws Exception {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+                LobStoreTest.class.getClassLoader(), new Class<?>[]{ResultSetMetaData.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getColumnCount" -> 1;
+                    case "getColumnType" -> type;
+                    case "getPrecision" -> Integer.MAX_VALUE;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(
+                LobStoreTest.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getMetaData" -> metaData;
+                    case "getString" -> value;
+                    case "getCharacterStream" -> new StringReader(value);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return RowReader.of(resultSet, lobStore, "alice");
+    }
+
+    private LobStore.LobValue text(String content, String owner) throws Exception {
+        return assertInstanceOf(LobStore.LobValue.class, lobStore.readText(new StringReader(content), owner));
+    }
+
+    private LobStore.LobValue binary(int length, String owner) throws Exception {
+        return assertInstanceOf(LobStore.LobValue.class,
+                lobStore.readBinary(new ByteArrayInputStream(new byte[length]), owner));
+    }
+
+    private void set(String name, Object value) {
+        Field field = ReflectionUtils.findField(LobStore.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, lobStore, value);
+    }
+}
@@ -0,0 +1,53 @@
+package com.dbdev.core.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetadataCacheTest {
+
+    private MetadataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new MetadataCache();
+        set("ttlSeconds", 600L);
+        set("maxEntries", 100);
+    }
+
+    @Test
+    void inFlightFullLoadIsNotWrittenBackAfterTableInvalidation() throws Exception {
+        String result = cache.get("ds", MetadataCache.Scope.FULL, null, () -> {
+            long version = cache.getVersion("ds");
+            cache.put("ds", MetadataCache.Scope.TABLE, "orders", "stale orders", version);
+            // 加载期间表结构被修改
+            cache.invalidateTable("ds", "orders");
+            return "stale full";
+        });
+        assertEquals("stale full", result);
+
+        assertEquals("fresh full", cache.get("ds", MetadataCache.Scope.FULL, null, () -> "fresh full"));
+        assertEquals("fresh orders", cache.get("ds", MetadataCache.Scope.TABLE, "orders", () -> "fresh orders"));
+    }
+
+    @Test
+    void otherTablesSurviveTableInvalidation() throws Exception {
+        cache.get("ds", MetadataCache.Scope.TABLE, "users", () -> "users");
+        cache.get("ds", MetadataCache.Scope.TABLE, "orders", () -> "orders");
+
+        cache.invalidateTable("ds", "orders");
+
+        assertEquals("users", cache.get("ds", MetadataCache.Scope.TABLE, "users", () -> "reloaded users"));
+        assertEquals("reloaded orders", cache.get("ds", MetadataCache.Scope.TABLE, "orders", () -> "reloaded orders"));
+    }
+
+    private void set(String name, Object value) {
+        Field field = ReflectionUtils.findField(MetadataCache.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, cache, value);
+    }
+}
@@ -0,0 +1,195 @@
+package com.dbdev.core.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 行读取对比：原先的 getObject + LinkedHashMap + Jackson 序列化，与 {@link RowReader} 按类型直接写出 JSON
+ * <p>
+ * 数据来自 H2 内存库，两条路径执行同一条查询，差异来自行对象、逐行读取列名与 Jackson 反射序列化。
+ * 不参与单元测试，运行方式：
+ * <pre>
+ * mvn -pl db-dev-core test-compile dependency:build-classpath -Dmdep.outputFile=target/test.cp -Dmdep.includeScope=test
+ * java -cp "$(cat db-dev-core/target/test.cp):db-dev-core/target/classes:db-dev-core/target/test-classes" \
+ *     com.dbdev.core.service.RowReaderBenchmark -prof gc
+ * </pre>
+ * 参数原样传给 JMH，-prof gc 同时输出分配量（gc.alloc.rate.norm）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowReaderBenchmark {
+
+    @Param("1000")
+    private int rows;
+
+    /**
+     * 查询的列，可用 -p columns=created_at 单独测量某一类列
+     */
+    @Param("id, amount, created_at, name, active, checksum")
+    private String columns;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Connection connection;
+
+    private PreparedStatement query;
+
+    @Setup
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:row_reader_benchmark");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, amount DECIMAL(12, 2),"
+                    + " created_at TIMESTAMP, name VARCHAR(64), active BOOLEAN, checksum VARBINARY(16))");
+            statement.execute("INSERT INTO orders SELECT x, x + 0.25, DATEADD(SECOND, x, TIMESTAMP '2024-01-01 00:00:00'),"
+                    + " 'customer-' || x, MOD(x, 2) = 0, CAST(x AS VARBINARY(8)) FROM SYSTEM_RANGE(1, " + rows + ")");
+        }
+        query = connection.prepareStatement("SELECT " + columns + " FROM orders");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        connection.close();
+    }
+
+    /**
+     * 原实现：每行一个 LinkedHashMap，每个单元格重新读取列名并调用 getObject，再由 Jackson 序列化
+     */
+    @Benchmark
+    public void objectMaps() throws Exception {
+        try (ResultSet resultSet = query.executeQuery()) {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            List<Map<String, Object>> result = new ArrayList<>();
+            while (resultSet.next()) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (int i = 1; i <= columnCount; i++) {
+                    row.put(metaData.getColumnLabel(i), resultSet.getObject(i));
+                }
+                result.add(row);
+            }
+            objectMapper.writeValue(OutputStream.nullOutputStream(), result);
+        }
+    }
+
+    /**
+     * 按类型读取并直接写出 JSON，不物化行对象
+     */
+    @Benchmark
+    public void typedWriter() throws Exception {
+        try (ResultSet resultSet = query.executeQuery();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            RowReader reader = RowReader.of(resultSet);
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            String[] labels = new String[reader.getColumnCount()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = metaData.getColumnLabel(i + 1);
+            }
+            GeneratorWriter writer = new GeneratorWriter(generator);
+            generator.writeStartArray();
+            while (resultSet.next()) {
+                generator.writeStartObject();
+                for (int i = 0; i < labels.length; i++) {
+                    generator.writeFieldName(labels[i]);
+                    reader.writeValue(i, writer);
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(RowReaderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * 写入 Jackson 生成器，与控制台流式接口的写法一致
+     */
+    private record GeneratorWriter(JsonGenerator generator) implements RowReader.ValueWriter {
+        @Override
+        public void writeNull() throws IOException {
+            generator.writeNull();
+        }
+
+        @Override
+        public void writeString(String value) throws IOException {
+            generator.writeString(value);
+        }
+
+        @Override
+        public void writeString(char[] text, int offset, int length) throws IOException {
+            generator.writeString(text, offset, length);
+        }
+
+        @Override
+        public void writeNumber(int value) throws IOException {
+            generator.writeNumber(value);
+        }
+
+        @Override
+        public void writeNumber(long value) throws IOException {
+            generator.writeNumber(value);
+        }
+
+        @Override
+        public void writeNumber(double value) throws IOException {
+            generator.writeNumber(value);
+        }
+
+        @Override
+        public void writeDecimal(String value) throws IOException {
+            generator.writeNumber(value);
+        }
+
+        @Override
+        public void writeBoolean(boolean value) throws IOException {
+            generator.writeBoolean(value);
+        }
+
+        @Override
+        public void writeBinary(byte[] value) throws IOException {
+            generator.writeBinary(value);
+        }
+
+        @Override
+        public void writeLob(LobStore.LobValue value) throws IOException {
+            generator.writeString(value.getPreview());
+        }
+    }
+}
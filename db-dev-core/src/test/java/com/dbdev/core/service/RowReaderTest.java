@@ -0,0 +1,98 @@
+package com.dbdev.core.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RowReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void decimalsAreSerializedWithoutExponent() throws Exception {
+        assertEquals("1000", json(new BigDecimal("1E+3")));
+        assertEquals("0.0000001", json(new BigDecimal("1E-7")));
+        assertEquals("0.000000123400", json(new BigDecimal("0.000000123400")));
+        assertEquals("-12345678901234567890.5", json(new BigDecimal("-12345678901234567890.5")));
+    }
+
+    @Test
+    void decimalsKeepTheirValue() throws Exception {
+        Object value = reader(new BigDecimal("1E-7")).getValue(0);
+        assertInstanceOf(BigDecimal.class, value);
+        assertEquals(0, new BigDecimal("0.0000001").compareTo((BigDecimal) value));
+    }
+
+    @Test
+    void nullDecimalStaysNull() throws Exception {
+        assertNull(reader(null).getValue(0));
+    }
+
+    @Test
+    void temporalValuesMatchIsoToString() throws Exception {
+        for (String text : new String[]{"2024-01-02T03:04", "2024-01-02T03:04:05", "2024-01-02T03:04:05.120",
+                "2024-01-02T03:04:05.000123", "2024-01-02T03:04:05.000000001", "0001-12-31T23:59:59.999"}) {
+            LocalDateTime value = LocalDateTime.parse(text);
+            assertEquals(value.toString(), reader(Types.TIMESTAMP, value).getValue(0));
+            assertEquals(value.toLocalDate().toString(), reader(Types.DATE, value.toLocalDate()).getValue(0));
+            assertEquals(value.toLocalTime().toString(), reader(Types.TIME, value.toLocalTime()).getValue(0));
+        }
+    }
+
+    @Test
+    void yearsOutsideFourDigitsFallBackToToString() throws Exception {
+        LocalDateTime value = LocalDateTime.of(LocalDate.of(12345, 6, 7), LocalTime.NOON);
+        assertEquals("+12345-06-07T12:00", reader(Types.TIMESTAMP, value).getValue(0));
+        assertEquals("-0001-01-01", reader(Types.DATE, LocalDate.of(-1, 1, 1)).getValue(0));
+    }
+
+    @Test
+    void nullTimestampStaysNull() throws Exception {
+        assertNull(reader(Types.TIMESTAMP, null).getValue(0));
+    }
+
+    private String json(BigDecimal decimal) throws Exception {
+        return objectMapper.writeValueAsString(reader(decimal).getValue(0));
+    }
+
+    /**
+     * 单列 DECIMAL 结果集，当前行的值为 value
+     */
+    private static RowReader reader(BigDecimal value) throws Exception {
+        return reader(Types.DECIMAL, value);
+    }
+
+    /**
+     * 单列结果集，列类型为 type，当前行的值为 value
+     */
+    private static RowReader reader(int type, Object value) throws Exception {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+                RowReaderTest.class.getClassLoader(), new Class<?>[]{ResultSetMetaData.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getColumnCount" -> 1;
+                    case "getColumnType" -> type;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(
+                RowReaderTest.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getMetaData" -> metaData;
+                    case "getBigDecimal", "getObject" -> value;
+                    case "wasNull" -> value == null;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return RowReader.of(resultSet);
+    }
+}
@@ -0,0 +1,21 @@
+package com.dbdev.core.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class SingleFlightQueryCacheTest {
+
+    @Test
+    void coalescingKeyKeepsLineCommentNewlines() {
+        assertNotEquals(SingleFlightQueryCache.normalizeSql("SELECT 1 -- x ; DELETE FROM t"),
+                SingleFlightQueryCache.normalizeSql("SELECT 1 -- x\n; DELETE FROM t"));
+    }
+
+    @Test
+    void coalescingKeyIgnoresSurroundingWhitespace() {
+        assertEquals("SELECT 1", SingleFlightQueryCache.normalizeSql("  SELECT 1\n"));
+        assertEquals("", SingleFlightQueryCache.normalizeSql(null));
+    }
+}
@@ -0,0 +1,120 @@
+package com.dbdev.core.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlValidatorTest {
+
+    private final SqlValidator validator = validator(true, Map.of());
+
+    @Test
+    void identifiersContainingKeywordsAreAccepted() {
+        assertValid("SELECT created_at, updated_by, deleted FROM orders WHERE insert_time > 0", "mysql");
+        assertValid("SELECT drop_reason FROM t", "postgresql");
+    }
+
+    @Test
+    void readOnlyRejectsDmlAndDdl() {
+        assertInvalid("DELETE FROM t", "mysql");
+        assertInvalid("UPDATE t SET a = 1", "mysql");
+        assertInvalid("INSERT INTO t VALUES (1)", "mysql");
+        assertInvalid("DROP TABLE t", "mysql");
+        assertInvalid("CREATE TABLE t (id INT)", "postgresql");
+    }
+
+    @Test
+    void readOnlyRejectsSelectInto() {
+        assertInvalid("SELECT * INTO backup FROM t", "postgresql");
+        assertInvalid("SELECT id INTO @v FROM t", "mysql");
+    }
+
+    @Test
+    void readOnlyRejectsLockingReads() {
+        assertInvalid("SELECT * FROM t FOR UPDATE", "mysql");
+        assertInvalid("SELECT * FROM t FOR SHARE", "postgresql");
+        assertInvalid("SELECT * FROM t LOCK IN SHARE MODE", "mysql");
+        assertInvalid("SELECT * FROM t WHERE id IN (SELECT id FROM u LOCK IN SHARE MODE)", "mysql");
+    }
+
+    @Test
+    void readOnlyRejectsDataModifyingCtes() {
+        assertInvalid("WITH d AS (DELETE FROM t RETURNING *) SELECT * FROM d", "postgresql");
+        assertInvalid("WITH d AS (UPDATE t SET a = 1 RETURNING *) SELECT * FROM d", "postgresql");
+        assertInvalid("WITH d AS (INSERT INTO t VALUES (1) RETURNING *) SELECT * FROM d", "postgresql");
+        assertValid("WITH d AS (SELECT 1 AS a) SELECT * FROM d", "postgresql");
+    }
+
+    @Test
+    void dataModifyingCtesNeedTheirOwnKeyword() {
+        SqlValidator writable = validator(false, Map.of("db.dev.sql.allowed-keywords", "SELECT"));
+        assertFalse(writable.validate("WITH d AS (DELETE FROM t RETURNING *) SELECT * FROM d", "postgresql").isValid());
+
+        writable = validator(false, Map.of("db.dev.sql.allowed-keywords", "SELECT,DELETE"));
+        SqlValidator.Verdict verdict = writable.validate("WITH d AS (DELETE FROM t RETURNING *) SELECT * FROM d",
+                "postgresql");
+        assertTrue(verdict.isValid());
+        assertFalse(verdict.isLimitable());
+    }
+
+    @Test
+    void allowedKeywordsAreEnforced() {
+        SqlValidator restricted = validator(false, Map.of(
+                "db.dev.sql.allowed-keywords[0]", "SELECT",
+                "db.dev.sql.allowed-keywords[1]", "UPDATE"));
+        assertTrue(restricted.validate("UPDATE t SET a = 1", "mysql").isValid());
+        assertFalse(restricted.validate("DELETE FROM t", "mysql").isValid());
+        assertFalse(restricted.validate("SHOW TABLES", "mysql").isValid());
+
+        SqlValidator defaults = validator(false, Map.of());
+        assertTrue(defaults.validate("DESC t", "mysql").isValid());
+        assertFalse(defaults.validate("UPDATE t SET a = 1", "mysql").isValid());
+    }
+
+    @Test
+    void onlySingleStatementsAreAccepted() {
+        assertInvalid("SELECT 1; DELETE FROM t", "mysql");
+    }
+
+    @Test
+    void limitableOnlyWithoutTopLevelLimit() {
+        assertTrue(validator.validate("SELECT * FROM t", "mysql").isLimitable());
+        assertFalse(validator.validate("SELECT * FROM t LIMIT 10", "mysql").isLimitable());
+        assertEquals("SELECT", validator.validate("SELECT * FROM t LIMIT 10", "mysql").getStatementType());
+    }
+
+    @Test
+    void commentBoundaryIsNotSharedThroughTheVerdictCache() {
+        assertValid("SELECT 1 -- x ; DELETE FROM t", "mysql");
+        assertInvalid("SELECT 1 -- x\n; DELETE FROM t", "mysql");
+    }
+
+    @Test
+    void commentBoundaryIsNotSharedInReverseOrder() {
+        assertInvalid("SELECT 1 -- x\n; DELETE FROM t", "mysql");
+        assertValid("SELECT 1 -- x ; DELETE FROM t", "mysql");
+    }
+
+    private void assertValid(String sql, String databaseType) {
+        SqlValidator.Verdict verdict = validator.validate(sql, databaseType);
+        assertTrue(verdict.isValid(), () -> sql + ": " + verdict.getErrorMessage());
+    }
+
+    private void assertInvalid(String sql, String databaseType) {
+        assertFalse(validator.validate(sql, databaseType).isValid(), sql);
+    }
+
+    private static SqlValidator validator(boolean readOnly, Map<String, Object> properties) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+        SqlValidator validator = new SqlValidator(environment, readOnly, 1000);
+        validator.afterPropertiesSet();
+        return validator;
+    }
+}
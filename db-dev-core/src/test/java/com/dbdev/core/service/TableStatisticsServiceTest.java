@@ -0,0 +1,58 @@
+package com.dbdev.core.service;
+
+import com.dbdev.core.model.TableMetadata;
+import com.dbdev.core.model.TableStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TableStatisticsServiceTest {
+
+    private TableStatistics orders;
+
+    private TableStatisticsService service;
+
+    @BeforeEach
+    void setUp() {
+        orders = TableStatistics.builder().rowCount(42L).collectedAt(1L).build();
+        service = new TableStatisticsService(null) {
+            @Override
+            public Map<String, TableStatistics> collect(String dataSourceName) {
+                return Map.of("orders", orders);
+            }
+        };
+        Field field = ReflectionUtils.findField(TableStatisticsService.class, "enabled");
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, service, true);
+    }
+
+    @Test
+    void attachLeavesSharedTablesUntouched() {
+        TableMetadata cached = TableMetadata.builder().tableName("orders").build();
+
+        TableMetadata attached = service.attach("ds", List.of(cached)).get(0);
+
+        assertNotSame(cached, attached);
+        assertEquals("orders", attached.getTableName());
+        assertEquals(orders, attached.getStatistics());
+        assertNull(cached.getStatistics());
+    }
+
+    @Test
+    void versionChangesWhenStatisticsAreRefreshed() {
+        long collected = service.getVersion("ds");
+        assertEquals(collected, service.getVersion("ds"));
+
+        service.refresh();
+
+        assertEquals(collected + 1, service.getVersion("ds"));
+    }
+}
@@ -0,0 +1,49 @@
+import request from './request'
+
+/**
+ * 比较两份表结构
+ * @param {Object} params - source/sourceBaseline 二选一，target/targetBaseline 二选一
+ * @param {string} [params.dialect] - 迁移 DDL 的方言: mysql, postgresql, h2, oracle, sqlserver，不传时为目标端数据库的方言
+ * @param {boolean} [params.includeDrops] - 是否为目标端多出的表、字段与索引生成删除语句
+ */
+export const compareSchema = (params) => {
+  return request({
+    url: '/diff',
+    method: 'get',
+    params
+  })
+}
+
+/**
+ * 获取已保存的结构基线
+ */
+export const getBaselines = () => {
+  return request({
+    url: '/diff/baselines',
+    method: 'get'
+  })
+}
+
+/**
+ * 将数据源当前的表结构保存为结构基线
+ * @param {string} dataSourceName - 数据源名称
+ * @param {string} name - 基线名称，只能包含字母、数字、点、下划线与连字符
+ */
+export const saveBaseline = (dataSourceName, name) => {
+  return request({
+    url: '/diff/baselines',
+    method: 'post',
+    params: { dataSourceName, name }
+  })
+}
+
+/**
+ * 删除结构基线
+ * @param {string} name - 基线名称
+ */
+export const deleteBaseline = (name) => {
+  return request({
+    url: `/diff/baselines/${name}`,
+    method: 'delete'
+  })
+}
@@ -3,15 +3,65 @@ import request from './request'
 /**
  * 导出表结构文档
  * @param {string} dataSourceName - 数据源名称
- * @param {string} format - 导出格式: markdown, html
+ * @param {string} format - 导出格式: markdown, html, sql, pdf
+ * @param {string} [compression] - 压缩方式: gzip, zip（pdf 不支持），不传时不压缩
+ * @param {string} [dialect] - sql 格式的目标方言: mysql, postgresql, h2, oracle, sqlserver，不传时为数据源自身的方言
  * @returns {Promise} 返回包含 data 和 headers 的对象
  */
-export const exportSchema = (dataSourceName, format) => {
+export const exportSchema = (dataSourceName, format, compression, dialect) => {
   // 直接使用 axios，不经过 request 拦截器
   return request({
     url: `/export/${format}`,
     method: 'get',
-    params: { dataSourceName },
+    params: { dataSourceName, compression, dialect },
     responseType: 'blob'
   })
-}
\ No newline at end of file
+}
+/**
+ * 提交异步导出任务
+ * @param {string} dataSourceName - 数据源名称
+ * @param {string} format - 导出格式: markdown, html, sql, pdf
+ * @param {string} [compression] - 压缩方式: gzip, zip（pdf 不支持），不传时不压缩
+ * @param {string} [dialect] - sql 格式的目标方言，不传时为数据源自身的方言
+ */
+export const submitExportJob = (dataSourceName, format, compression, dialect) => {
+  return request({
+    url: '/export/jobs',
+    method: 'post',
+    params: { dataSourceName, format, compression, dialect }
+  })
+}
+
+/**
+ * 查询异步导出任务的状态与进度
+ * @param {string} jobId - 任务ID
+ */
+export const getExportJob = (jobId) => {
+  return request({
+    url: `/export/jobs/${jobId}`,
+    method: 'get'
+  })
+}
+
+/**
+ * 下载异步导出任务的结果
+ * @param {string} jobId - 任务ID
+ */
+export const downloadExportJob = (jobId) => {
+  return request({
+    url: `/export/jobs/${jobId}/download`,
+    method: 'get',
+    responseType: 'blob'
+  })
+}
+
+/**
+ * 取消异步导出任务
+ * @param {string} jobId - 任务ID
+ */
+export const cancelExportJob = (jobId) => {
+  return request({
+    url: `/export/jobs/${jobId}`,
+    method: 'delete'
+  })
+}
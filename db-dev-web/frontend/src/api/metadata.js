@@ -8,6 +8,14 @@ export const getTableList = (dataSourceName) => {
   })
 }
 
+export const getTablePage = (dataSourceName, params) => {
+  return request({
+    url: '/metadata/tables/page',
+    method: 'get',
+    params: { dataSourceName, ...params }
+  })
+}
+
 export const getTableDetail = (tableName, dataSourceName) => {
   return request({
     url: `/metadata/table/${tableName}`,
@@ -1,19 +1,33 @@
 package com.dbdev.web.controller;
 
+import com.dbdev.core.response.Result;
+import com.dbdev.core.service.DdlDialect;
+import com.dbdev.core.service.MetadataCrawler;
+import com.dbdev.core.service.SchemaExportJobService;
 import com.dbdev.core.service.SchemaExportService;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 数据库表结构导出 Controller
@@ -24,66 +38,252 @@ import java.sql.SQLException;
 @RequiredArgsConstructor
 public class ExportController {
 
+    private static final String SUPPORTED_FORMATS = "Supported formats: markdown, html, sql, pdf";
+
+    private static final String SUPPORTED_COMPRESSIONS = "Supported compressions: none, gzip, zip";
+
+    private static final String SUPPORTED_DIALECTS = "Supported dialects: mysql, postgresql, h2, oracle, sqlserver";
+
     private final SchemaExportService schemaExportService;
+    private final SchemaExportJobService schemaExportJobService;
 
     /**
      * 导出表结构文档
      *
      * @param dataSourceName 数据源名称
-     * @param format         导出格式: markdown, html, pdf, sql
+     * @param format         导出格式: markdown, html, sql, pdf
+     * @param compression    压缩方式: none, gzip（单个 .gz 文件）, zip（每张表一个文件另加索引，pdf 不支持）
+     * @param dialect        sql 格式的目标方言: mysql, postgresql, h2, oracle, sqlserver，默认为数据源自身的方言
      */
     @GetMapping("/{format}")
     public void exportSchema(
             @RequestParam String dataSourceName,
             @PathVariable String format,
+            @RequestParam(required = false) String compression,
+            @RequestParam(required = false) String dialect,
             HttpServletResponse response) throws IOException {
 
-        try {
-            String content;
-            String fileName;
-            MediaType mediaType;
-
-            switch (format.toLowerCase()) {
-                case "markdown":
-                case "md":
-                    content = schemaExportService.exportToMarkdown(dataSourceName);
-                    fileName = dataSourceName + "_schema_" + System.currentTimeMillis() + ".md";
-                    mediaType = MediaType.TEXT_MARKDOWN;
-                    break;
-                case "html":
-                    content = schemaExportService.exportToHtml(dataSourceName);
-                    fileName = dataSourceName + "_schema_" + System.currentTimeMillis() + ".html";
-                    mediaType = MediaType.TEXT_HTML;
-                    break;
-                case "sql":
-                    content = schemaExportService.exportToSql(dataSourceName);
-                    fileName = dataSourceName + "_schema_" + System.currentTimeMillis() + ".sql";
-                    mediaType = MediaType.parseMediaType("text/sql; charset=UTF-8");
-                    break;
-                default:
-                    response.setStatus(400);
-                    response.getWriter()
-                            .write("Unsupported format: " + format + ". Supported formats: markdown, html, sql");
-                    return;
-            }
+        SchemaExportService.Format exportFormat = SchemaExportService.Format.of(format);
+        if (exportFormat == null) {
+            response.setStatus(400);
+            response.getWriter().write("Unsupported format: " + format + ". " + SUPPORTED_FORMATS);
+            return;
+        }
+        SchemaExportService.Compression exportCompression = SchemaExportService.Compression.of(compression);
+        if (exportCompression == null) {
+            response.setStatus(400);
+            response.getWriter().write("Unsupported compression: " + compression + ". " + SUPPORTED_COMPRESSIONS);
+            return;
+        }
+        if (!exportCompression.supports(exportFormat)) {
+            response.setStatus(400);
+            response.getWriter().write("Compression " + compression + " is not supported for format " + format);
+            return;
+        }
+        DdlDialect ddlDialect = DdlDialect.of(dialect);
+        if (dialect != null && !dialect.isBlank() && ddlDialect == null) {
+            response.setStatus(400);
+            response.getWriter().write("Unsupported dialect: " + dialect + ". " + SUPPORTED_DIALECTS);
+            return;
+        }
 
-            // 设置响应头
-            response.setContentType(mediaType.toString());
-            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
-            response.setCharacterEncoding("UTF-8");
+        // 设置响应头
+        setDownloadHeaders(response, dataSourceName, exportFormat, exportCompression);
 
-            // 写入内容
-            response.getWriter().write(content);
-            response.getWriter().flush();
+        try {
+            // 边生成边写入响应，超出响应缓冲区的部分随即发送给客户端
+            OutputStream out = response.getOutputStream();
+            schemaExportService.export(dataSourceName, exportFormat, exportCompression, ddlDialect, out,
+                    MetadataCrawler.Progress.NONE);
+            out.flush();
 
             log.info("导出表结构文档成功: dataSource={}, format={}", dataSourceName, format);
 
-        } catch (SQLException e) {
+        } catch (SQLException | IOException e) {
             log.error("导出表结构失败: dataSource={}, format={}", dataSourceName, format, e);
+            if (response.isCommitted()) {
+                // 已有内容发送给客户端，无法再改写状态码，只能中断响应
+                throw e instanceof IOException ioException ? ioException : new IOException(e);
+            }
+            response.reset();
             response.setStatus(500);
             response.setContentType(MediaType.TEXT_PLAIN_VALUE);
             response.setCharacterEncoding("UTF-8");
-            response.getWriter().write("导出失败: " + e.getMessage());
+            response.getOutputStream().write(("导出失败: " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * 提交异步导出任务，结构未变化时直接返回已缓存的导出结果
+     *
+     * @param dataSourceName 数据源名称
+     * @param format         导出格式: markdown, html, sql, pdf
+     * @param compression    压缩方式: none, gzip, zip（pdf 不支持）
+     * @param dialect        sql 格式的目标方言，默认为数据源自身的方言
+     */
+    @PostMapping("/jobs")
+    public Result<ExportJobResponse> submitJob(@RequestParam String dataSourceName, @RequestParam String format,
+                                               @RequestParam(required = false) String compression,
+                                               @RequestParam(required = false) String dialect) {
+        SchemaExportService.Format exportFormat = SchemaExportService.Format.of(format);
+        if (exportFormat == null) {
+            return Result.error("不支持的导出格式: " + format);
+        }
+        SchemaExportService.Compression exportCompression = SchemaExportService.Compression.of(compression);
+        if (exportCompression == null) {
+            return Result.error("不支持的压缩方式: " + compression);
+        }
+        if (!exportCompression.supports(exportFormat)) {
+            return Result.error(format + " 不支持压缩方式: " + compression);
+        }
+        DdlDialect ddlDialect = DdlDialect.of(dialect);
+        if (dialect != null && !dialect.isBlank() && ddlDialect == null) {
+            return Result.error("不支持的 SQL 方言: " + dialect);
+        }
+        try {
+            return Result.success(toJobResponse(
+                    schemaExportJobService.submit(dataSourceName, exportFormat, exportCompression, ddlDialect)));
+        } catch (RejectedExecutionException e) {
+            Result<ExportJobResponse> result = new Result<>();
+            result.setCode(429);
+            result.setMessage(e.getMessage());
+            return result;
+        }
+    }
+
+    /**
+     * 查询导出任务状态与进度
+     *
+     * @param jobId 任务ID
+     */
+    @GetMapping("/jobs/{jobId}")
+    public Result<ExportJobResponse> getJob(@PathVariable String jobId) {
+        SchemaExportJobService.ExportJob job = schemaExportJobService.get(jobId);
+        if (job == null) {
+            return Result.error("任务不存在或已过期: " + jobId);
+        }
+        return Result.success(toJobResponse(job));
+    }
+
+    /**
+     * 等待导出任务结束（长轮询），不占用 Servlet 线程
+     *
+     * @param jobId 任务ID
+     * @param timeout 最长等待时间（毫秒），不超过 db.dev.export.max-wait-timeout，超时返回当前状态
+     */
+    @GetMapping("/jobs/{jobId}/wait")
+    public DeferredResult<Result<ExportJobResponse>> waitJob(@PathVariable String jobId,
+                                                             @RequestParam(defaultValue = "30000") long timeout) {
+        SchemaExportJobService.ExportJob job = schemaExportJobService.get(jobId);
+        if (job == null) {
+            DeferredResult<Result<ExportJobResponse>> deferred = new DeferredResult<>();
+            deferred.setResult(Result.error("任务不存在或已过期: " + jobId));
+            return deferred;
+        }
+
+        DeferredResult<Result<ExportJobResponse>> deferred = new DeferredResult<>(
+                schemaExportJobService.resolveWaitTimeout(timeout), () -> Result.success(toJobResponse(job)));
+        job.getCompletion().thenAccept(finished -> deferred.setResult(Result.success(toJobResponse(finished))));
+        return deferred;
+    }
+
+    /**
+     * 下载导出任务的结果文件
+     *
+     * @param jobId 任务ID
+     */
+    @GetMapping("/jobs/{jobId}/download")
+    public void downloadJob(@PathVariable String jobId, HttpServletResponse response) throws IOException {
+        SchemaExportJobService.ExportJob job = schemaExportJobService.get(jobId);
+        Path file = job != null ? job.getFile() : null;
+        if (file == null || !Files.isRegularFile(file)) {
+            response.setStatus(404);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write("导出结果不存在或任务未完成: " + jobId);
+            return;
         }
+
+        setDownloadHeaders(response, job.getDataSourceName(), job.getFormat(), job.getCompression());
+        response.setContentLengthLong(Files.size(file));
+        Files.copy(file, response.getOutputStream());
+    }
+
+    /**
+     * 取消导出任务
+     *
+     * @param jobId 任务ID
+     */
+    @DeleteMapping("/jobs/{jobId}")
+    public Result<Void> cancelJob(@PathVariable String jobId) {
+        if (!schemaExportJobService.cancel(jobId)) {
+            return Result.error("任务不存在或已过期: " + jobId);
+        }
+        return Result.success(null);
+    }
+
+    private void setDownloadHeaders(HttpServletResponse response, String dataSourceName,
+                                    SchemaExportService.Format format,
+                                    SchemaExportService.Compression compression) {
+        MediaType mediaType = switch (compression) {
+            case GZIP -> MediaType.parseMediaType("application/gzip");
+            case ZIP -> MediaType.parseMediaType("application/zip");
+            case NONE -> switch (format) {
+                case MARKDOWN -> MediaType.TEXT_MARKDOWN;
+                case HTML -> MediaType.TEXT_HTML;
+                case SQL -> MediaType.parseMediaType("text/sql; charset=UTF-8");
+                case PDF -> MediaType.APPLICATION_PDF;
+            };
+        };
+        String fileName = dataSourceName + "_schema_" + System.currentTimeMillis()
+                + "." + format.getExtension() + compression.getSuffix();
+        response.setContentType(mediaType.toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        if (compression == SchemaExportService.Compression.NONE && format != SchemaExportService.Format.PDF) {
+            response.setCharacterEncoding("UTF-8");
+        }
+    }
+
+    private ExportJobResponse toJobResponse(SchemaExportJobService.ExportJob job) {
+        ExportJobResponse response = new ExportJobResponse();
+        response.setJobId(job.getId());
+        response.setStatus(job.getStatus().name());
+        response.setDataSourceName(job.getDataSourceName());
+        response.setFormat(job.getFormat().name().toLowerCase());
+        response.setCompression(job.getCompression().name().toLowerCase());
+        response.setDialect(job.getDialect() != null ? job.getDialect().getName() : null);
+        response.setPhase(job.getPhase() != null ? job.getPhase().name() : null);
+        response.setCompletedTables(job.getCompletedTables());
+        response.setTotalTables(job.getTotalTables());
+        response.setCurrentTable(job.getCurrentTable());
+        response.setCached(job.isCached());
+        response.setSubmitTime(job.getSubmitTime());
+        response.setStartTime(job.getStartTime());
+        response.setEndTime(job.getEndTime());
+        response.setMessage(job.getMessage());
+        return response;
+    }
+
+    /**
+     * 导出任务响应
+     */
+    @Data
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ExportJobResponse {
+        private String jobId;
+        private String status;
+        private String dataSourceName;
+        private String format;
+        private String compression;
+        private String dialect;
+        private String phase;
+        private int completedTables;
+        private int totalTables;
+        private String currentTable;
+        private boolean cached;
+        private long submitTime;
+        private Long startTime;
+        private Long endTime;
+        private String message;
     }
-}
\ No newline at end of file
+}
@@ -2,14 +2,19 @@ package com.dbdev.web.controller;
 
 import com.dbdev.core.model.ColumnMetadata;
 import com.dbdev.core.model.DatabaseMetadata;
+import com.dbdev.core.model.ForeignKeyMetadata;
+import com.dbdev.core.model.MetadataSearchHit;
 import com.dbdev.core.model.TableMetadata;
+import com.dbdev.core.model.TablePage;
+import com.dbdev.core.model.TableQuery;
+import com.dbdev.core.model.TableRelations;
 import com.dbdev.core.response.Result;
-import com.dbdev.core.service.DataSourceService;
+import com.dbdev.core.service.MetadataSearchService;
 import com.dbdev.core.service.MetadataService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import javax.sql.DataSource;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -24,17 +29,19 @@ import java.util.List;
 public class MetadataController {
 
     private final MetadataService metadataService;
-    private final DataSourceService dataSourceService;
+    private final MetadataSearchService metadataSearchService;
 
     /**
      * 获取数据库元数据
      */
     @GetMapping("/database")
     public Result<DatabaseMetadata> getDatabaseMetadata(
-            @RequestParam String dataSourceName) {
+            @RequestParam String dataSourceName, WebRequest webRequest) {
+        if (notModified(dataSourceName, webRequest)) {
+            return null;
+        }
         try {
-            DataSource dataSource = dataSourceService.getDataSource(dataSourceName);
-            DatabaseMetadata metadata = metadataService.getDatabaseMetadata(dataSource);
+            DatabaseMetadata metadata = metadataService.getDatabaseMetadata(dataSourceName);
             return Result.success(metadata);
         } catch (SQLException e) {
             return Result.error("Failed to get database metadata: " + e.getMessage());
@@ -46,32 +53,161 @@ public class MetadataController {
      */
     @GetMapping("/tables")
     public Result<List<TableMetadata>> getTables(
-            @RequestParam(defaultValue = "dataSource") String dataSourceName) {
+            @RequestParam(defaultValue = "dataSource") String dataSourceName, WebRequest webRequest) {
+        if (notModified(dataSourceName, webRequest)) {
+            return null;
+        }
         try {
-            DataSource dataSource = dataSourceService.getDataSource(dataSourceName);
-            List<TableMetadata> tables = metadataService.getTables(dataSource);
+            List<TableMetadata> tables = metadataService.getTables(dataSourceName);
             return Result.success(tables);
         } catch (SQLException e) {
             return Result.error("Failed to get tables: " + e.getMessage());
         }
     }
 
+    /**
+     * 分页获取表列表
+     *
+     * @param name 表名前缀，含 * 或 ? 时按通配符匹配，不区分大小写
+     * @param types 表类型，默认只返回表和视图
+     * @param sortBy 排序字段：name 或 type
+     */
+    @GetMapping("/tables/page")
+    public Result<TablePage> getTablePage(
+            @RequestParam(defaultValue = "dataSource") String dataSourceName,
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "TABLE,VIEW") List<String> types,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "false") boolean descending,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "50") int pageSize,
+            WebRequest webRequest) {
+        if (notModified(dataSourceName, webRequest)) {
+            return null;
+        }
+        try {
+            TableQuery query = TableQuery.builder()
+                    .name(name)
+                    .types(types)
+                    .sortBy(sortBy)
+                    .descending(descending)
+                    .page(page)
+                    .pageSize(pageSize)
+                    .build();
+            return Result.success(metadataService.getTablePage(dataSourceName, query));
+        } catch (SQLException e) {
+            return Result.error("Failed to get tables: " + e.getMessage());
+        }
+    }
+
     /**
      * 获取表详细信息
      */
     @GetMapping("/table/{tableName}")
     public Result<TableMetadata> getTableDetail(
             @PathVariable String tableName,
-            @RequestParam(defaultValue = "dataSource") String dataSourceName) {
+            @RequestParam(defaultValue = "dataSource") String dataSourceName, WebRequest webRequest) {
+        if (notModified(dataSourceName, webRequest)) {
+            return null;
+        }
         try {
-            DataSource dataSource = dataSourceService.getDataSource(dataSourceName);
-            TableMetadata table = metadataService.getTableDetail(dataSource, tableName);
+            TableMetadata table = metadataService.getTableDetail(dataSourceName, tableName);
             return Result.success(table);
         } catch (SQLException e) {
             return Result.error("Failed to get table detail: " + e.getMessage());
         }
     }
 
+    /**
+     * 按关键字搜索表名、字段名与注释
+     */
+    @GetMapping("/search")
+    public Result<List<MetadataSearchHit>> search(
+            @RequestParam(defaultValue = "dataSource") String dataSourceName,
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return Result.success(metadataSearchService.search(dataSourceName, keyword, limit));
+        } catch (SQLException e) {
+            return Result.error("Failed to search metadata: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取全部外键（用于绘制 ER 图）
+     */
+    @GetMapping("/foreign-keys")
+    public Result<List<ForeignKeyMetadata>> getForeignKeys(
+            @RequestParam(defaultValue = "dataSource") String dataSourceName, WebRequest webRequest) {
+        if (notModified(dataSourceName, webRequest)) {
+            return null;
+        }
+        try {
+            return Result.success(metadataService.getForeignKeyGraph(dataSourceName).getForeignKeys());
+        } catch (SQLException e) {
+            return Result.error("Failed to get foreign keys: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取表的直接关系：引用的表与被哪些表引用
+     */
+    @GetMapping("/foreign-keys/table/{tableName}")
+    public Result<TableRelations> getTableRelations(
+            @PathVariable String tableName,
+            @RequestParam(defaultValue = "dataSource") String dataSourceName) {
+        try {
+            return Result.success(metadataService.getForeignKeyGraph(dataSourceName).getRelations(tableName));
+        } catch (SQLException e) {
+            return Result.error("Failed to get table relations: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取建表依赖顺序（被引用的表在前）
+     */
+    @GetMapping("/foreign-keys/order")
+    public Result<List<String>> getDependencyOrder(
+            @RequestParam(defaultValue = "dataSource") String dataSourceName) {
+        try {
+            return Result.success(metadataService.getForeignKeyGraph(dataSourceName).dependencyOrder());
+        } catch (SQLException e) {
+            return Result.error("Failed to get dependency order: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取外键循环
+     */
+    @GetMapping("/foreign-keys/cycles")
+    public Result<List<List<String>>> getCycles(
+            @RequestParam(defaultValue = "dataSource") String dataSourceName) {
+        try {
+            return Result.success(metadataService.getForeignKeyGraph(dataSourceName).cycles());
+        } catch (SQLException e) {
+            return Result.error("Failed to get foreign key cycles: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取两表之间的关联路径（经过外键最少）
+     */
+    @GetMapping("/foreign-keys/path")
+    public Result<List<ForeignKeyMetadata>> getJoinPath(
+            @RequestParam(defaultValue = "dataSource") String dataSourceName,
+            @RequestParam String from,
+            @RequestParam String to) {
+        try {
+            List<ForeignKeyMetadata> path = metadataService.getForeignKeyGraph(dataSourceName).joinPath(from, to);
+            if (path == null) {
+                return Result.error("表 " + from + " 与 " + to + " 之间没有外键关联");
+            }
+            return Result.success(path);
+        } catch (SQLException e) {
+            return Result.error("Failed to get join path: " + e.getMessage());
+        }
+    }
+
     /**
      * 创建表
      */
@@ -88,15 +224,35 @@ public class MetadataController {
         }
 
         try {
-            DataSource dataSource = dataSourceService.getDataSource(dataSourceName);
             TableMetadata tableMetadata = buildTableMetadata(request);
-            metadataService.createTable(dataSource, tableMetadata);
+            metadataService.createTable(dataSourceName, tableMetadata);
             return Result.success(null);
         } catch (SQLException e) {
             return Result.error("创建表失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 清除元数据缓存
+     *
+     * @param dataSourceName 数据源名称，不传时清除全部
+     * @param tableName 表名，不传时清除整个数据源
+     */
+    @DeleteMapping("/cache")
+    public Result<Void> invalidateCache(@RequestParam(required = false) String dataSourceName,
+                                        @RequestParam(required = false) String tableName) {
+        metadataService.invalidateCache(dataSourceName, tableName);
+        return Result.success(null);
+    }
+
+    /**
+     * 以结构指纹与缓存版本号作为 ETag，结构与缓存均未变化时返回 304
+     */
+    private boolean notModified(String dataSourceName, WebRequest webRequest) {
+        String etag = metadataService.getMetadataETag(dataSourceName);
+        return etag != null && webRequest.checkNotModified("\"" + etag + "\"");
+    }
+
     private TableMetadata buildTableMetadata(CreateTableRequest request) {
         List<ColumnMetadata> columns = new ArrayList<>();
         List<String> primaryKeys = new ArrayList<>();
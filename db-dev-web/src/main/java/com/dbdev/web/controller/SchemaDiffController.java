@@ -0,0 +1,131 @@
+package com.dbdev.web.controller;
+
+import com.dbdev.core.model.SchemaBaseline;
+import com.dbdev.core.model.SchemaDiff;
+import com.dbdev.core.response.Result;
+import com.dbdev.core.service.DdlDialect;
+import com.dbdev.core.service.SchemaDiffService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 表结构对比 Controller
+ * 实际路径：{uiPath}/api/diff
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/diff")
+@RequiredArgsConstructor
+public class SchemaDiffController {
+
+    private static final String BASELINE_NAME_PATTERN = "[A-Za-z0-9._-]+";
+
+    private final SchemaDiffService schemaDiffService;
+
+    /**
+     * 比较两份表结构，生成使目标端与源端一致的迁移 DDL，索引差异排在最前
+     *
+     * @param source         源端数据源（期望的结构），与 sourceBaseline 二选一
+     * @param sourceBaseline 源端结构基线名称
+     * @param target         目标端数据源（待迁移的结构），与 targetBaseline 二选一
+     * @param targetBaseline 目标端结构基线名称
+     * @param dialect        迁移 DDL 的方言: mysql, postgresql, h2, oracle, sqlserver，默认为目标端数据库的方言
+     * @param includeDrops   是否为目标端多出的表、字段与索引生成删除语句
+     */
+    @GetMapping
+    public Result<SchemaDiff> compare(@RequestParam(required = false) String source,
+                                      @RequestParam(required = false) String sourceBaseline,
+                                      @RequestParam(required = false) String target,
+                                      @RequestParam(required = false) String targetBaseline,
+                                      @RequestParam(required = false) String dialect,
+                                      @RequestParam(defaultValue = "false") boolean includeDrops) {
+        SchemaDiffService.Side sourceSide = side(source, sourceBaseline);
+        if (sourceSide == null) {
+            return Result.error("source 与 sourceBaseline 需且只能指定一个");
+        }
+        SchemaDiffService.Side targetSide = side(target, targetBaseline);
+        if (targetSide == null) {
+            return Result.error("target 与 targetBaseline 需且只能指定一个");
+        }
+        DdlDialect ddlDialect = DdlDialect.of(dialect);
+        if (dialect != null && !dialect.isBlank() && ddlDialect == null) {
+            return Result.error("不支持的 SQL 方言: " + dialect);
+        }
+        try {
+            return Result.success(schemaDiffService.compare(sourceSide, targetSide, ddlDialect, includeDrops));
+        } catch (SQLException | IOException e) {
+            log.error("表结构对比失败: source={}, target={}", sourceSide, targetSide, e);
+            return Result.error("表结构对比失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取已保存的结构基线
+     */
+    @GetMapping("/baselines")
+    public Result<List<SchemaBaseline>> listBaselines() {
+        return Result.success(schemaDiffService.listBaselines());
+    }
+
+    /**
+     * 把数据源当前的表结构保存为结构基线，同名基线被覆盖
+     *
+     * @param dataSourceName 数据源名称
+     * @param name           基线名称，只能包含字母、数字、点、下划线与连字符
+     */
+    @PostMapping("/baselines")
+    public Result<SchemaBaseline> saveBaseline(@RequestParam String dataSourceName, @RequestParam String name) {
+        if (!name.matches(BASELINE_NAME_PATTERN)) {
+            return Result.error("基线名称只能包含字母、数字、点、下划线与连字符");
+        }
+        try {
+            return Result.success(schemaDiffService.saveBaseline(dataSourceName, name));
+        } catch (SQLException | IOException e) {
+            log.error("保存结构基线失败: dataSource={}, name={}", dataSourceName, name, e);
+            return Result.error("保存结构基线失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 删除结构基线
+     *
+     * @param name 基线名称
+     */
+    @DeleteMapping("/baselines/{name}")
+    public Result<Void> deleteBaseline(@PathVariable String name) {
+        if (!name.matches(BASELINE_NAME_PATTERN)) {
+            return Result.error("基线不存在: " + name);
+        }
+        try {
+            if (!schemaDiffService.deleteBaseline(name)) {
+                return Result.error("基线不存在: " + name);
+            }
+            return Result.success(null);
+        } catch (IOException e) {
+            return Result.error("删除结构基线失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 数据源与基线名称恰好指定一个时返回对应的一端，否则返回 null
+     */
+    private static SchemaDiffService.Side side(String dataSourceName, String baseline) {
+        boolean hasDataSource = dataSourceName != null && !dataSourceName.isBlank();
+        boolean hasBaseline = baseline != null && !baseline.isBlank();
+        if (hasDataSource == hasBaseline) {
+            return null;
+        }
+        return hasDataSource ? SchemaDiffService.Side.dataSource(dataSourceName) : SchemaDiffService.Side.baseline(baseline);
+    }
+}
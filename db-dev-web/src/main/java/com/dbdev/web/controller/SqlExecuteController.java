@@ -1,28 +1,56 @@
 package com.dbdev.web.controller;
 
 import com.dbdev.core.response.Result;
+import com.dbdev.core.service.LobStore;
+import com.dbdev.core.service.QueryJobService;
+import com.dbdev.core.service.RowReader;
 import com.dbdev.core.service.SqlAnalysisService;
 import com.dbdev.core.service.SqlExecuteService;
+import com.dbdev.web.service.TokenService;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * SQL执行 Controller
  * 实际路径：{uiPath}/api/sql
  */
+@Slf4j
 @RestController
 @RequestMapping("/api/sql")
 @RequiredArgsConstructor
 public class SqlExecuteController {
 
+    private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
     private final SqlExecuteService sqlExecuteService;
     private final SqlAnalysisService sqlAnalysisService;
+    private final QueryJobService queryJobService;
+    private final ObjectMapper objectMapper;
+    private final TokenService tokenService;
 
     /**
      * 执行SQL查询
@@ -31,7 +59,8 @@ public class SqlExecuteController {
      * @return 查询结果
      */
     @PostMapping("/execute")
-    public Result<SqlQueryResponse> executeQuery(@RequestBody SqlQueryRequest request) {
+    public Result<SqlQueryResponse> executeQuery(@RequestBody SqlQueryRequest request,
+                                                 HttpServletRequest httpRequest) {
         if (request.getDataSourceName() == null || request.getDataSourceName().trim().isEmpty()) {
             return Result.error("数据源名称不能为空");
         }
@@ -41,22 +70,423 @@ public class SqlExecuteController {
         }
 
         SqlExecuteService.SqlQueryResult result = sqlExecuteService.executeQuery(
+                resolveOwner(httpRequest),
                 request.getDataSourceName(),
                 request.getSql(),
-                request.getParams());
+                request.getParams(),
+                SqlExecuteService.ResultFormat.of(request.getFormat()));
+
+        return toQueryResponse(result);
+    }
+
+    /**
+     * 打开查询游标，返回第一页及 cursorId
+     *
+     * @param request SQL查询请求（pageSize 指定每页行数）
+     * @return 第一页结果
+     */
+    @PostMapping("/cursor")
+    public Result<SqlQueryResponse> openCursor(@RequestBody SqlQueryRequest request,
+                                               HttpServletRequest httpRequest) {
+        if (request.getDataSourceName() == null || request.getDataSourceName().trim().isEmpty()) {
+            return Result.error("数据源名称不能为空");
+        }
+
+        if (request.getSql() == null || request.getSql().trim().isEmpty()) {
+            return Result.error("SQL语句不能为空");
+        }
+
+        SqlExecuteService.SqlQueryResult result = sqlExecuteService.openCursor(
+                resolveOwner(httpRequest),
+                resolveClient(httpRequest),
+                request.getDataSourceName(),
+                request.getSql(),
+                request.getParams(),
+                request.getPageSize() != null ? request.getPageSize() : 0,
+                SqlExecuteService.ResultFormat.of(request.getFormat()));
+
+        return toQueryResponse(result);
+    }
+
+    /**
+     * 读取游标的下一页
+     *
+     * @param cursorId 游标ID
+     * @param pageSize 每页行数
+     * @return 下一页结果
+     */
+    @PostMapping("/cursor/{cursorId}/next")
+    public Result<SqlQueryResponse> fetchCursor(@PathVariable String cursorId,
+                                                @RequestParam(defaultValue = "0") int pageSize,
+                                                HttpServletRequest httpRequest) {
+        SqlExecuteService.SqlQueryResult result = sqlExecuteService.fetchCursor(
+                resolveOwner(httpRequest), cursorId, pageSize);
+        return toQueryResponse(result);
+    }
+
+    /**
+     * 关闭游标
+     *
+     * @param cursorId 游标ID
+     */
+    @DeleteMapping("/cursor/{cursorId}")
+    public Result<Void> closeCursor(@PathVariable String cursorId, HttpServletRequest httpRequest) {
+        if (!sqlExecuteService.closeCursor(resolveOwner(httpRequest), cursorId)) {
+            return Result.error("游标不存在或已过期: " + cursorId);
+        }
+        return Result.success(null);
+    }
+
+    /**
+     * 提交异步查询任务
+     *
+     * @param request SQL查询请求
+     * @return 任务信息（含 jobId）
+     */
+    @PostMapping("/jobs")
+    public Result<QueryJobResponse> submitJob(@RequestBody SqlQueryRequest request,
+                                              HttpServletRequest httpRequest) {
+        if (request.getDataSourceName() == null || request.getDataSourceName().trim().isEmpty()) {
+            return Result.error("数据源名称不能为空");
+        }
+
+        if (request.getSql() == null || request.getSql().trim().isEmpty()) {
+            return Result.error("SQL语句不能为空");
+        }
+
+        try {
+            QueryJobService.QueryJob job = queryJobService.submit(
+                    resolveOwner(httpRequest),
+                    request.getDataSourceName(),
+                    request.getSql(),
+                    request.getParams(),
+                    SqlExecuteService.ResultFormat.of(request.getFormat()));
+            return Result.success(toJobResponse(job));
+        } catch (RejectedExecutionException e) {
+            Result<QueryJobResponse> result = new Result<>();
+            result.setCode(429);
+            result.setMessage(e.getMessage());
+            return result;
+        }
+    }
+
+    /**
+     * 查询异步任务状态，任务结束后包含查询结果
+     *
+     * @param jobId 任务ID
+     */
+    @GetMapping("/jobs/{jobId}")
+    public Result<QueryJobResponse> getJob(@PathVariable String jobId, HttpServletRequest httpRequest) {
+        QueryJobService.QueryJob job = queryJobService.get(resolveOwner(httpRequest), jobId);
+        if (job == null) {
+            return Result.error("任务不存在或已过期: " + jobId);
+        }
+        return Result.success(toJobResponse(job));
+    }
+
+    /**
+     * 等待异步任务结束（长轮询），不占用 Servlet 线程
+     *
+     * @param jobId 任务ID
+     * @param timeout 最长等待时间（毫秒），不超过 db.dev.sql.async.max-wait-timeout，超时返回当前状态
+     */
+    @GetMapping("/jobs/{jobId}/wait")
+    public DeferredResult<Result<QueryJobResponse>> waitJob(@PathVariable String jobId,
+                                                            @RequestParam(defaultValue = "30000") long timeout,
+                                                            HttpServletRequest httpRequest) {
+        QueryJobService.QueryJob job = queryJobService.get(resolveOwner(httpRequest), jobId);
+        if (job == null) {
+            DeferredResult<Result<QueryJobResponse>> deferred = new DeferredResult<>();
+            deferred.setResult(Result.error("任务不存在或已过期: " + jobId));
+            return deferred;
+        }
+
+        DeferredResult<Result<QueryJobResponse>> deferred = new DeferredResult<>(
+                queryJobService.resolveWaitTimeout(timeout), () -> Result.success(toJobResponse(job)));
+        job.getCompletion().thenAccept(finished -> deferred.setResult(Result.success(toJobResponse(finished))));
+        return deferred;
+    }
+
+    /**
+     * 取消异步任务
+     *
+     * @param jobId 任务ID
+     */
+    @DeleteMapping("/jobs/{jobId}")
+    public Result<Void> cancelJob(@PathVariable String jobId, HttpServletRequest httpRequest) {
+        if (!queryJobService.cancel(resolveOwner(httpRequest), jobId)) {
+            return Result.error("任务不存在或已过期: " + jobId);
+        }
+        return Result.success(null);
+    }
+
+    private QueryJobResponse toJobResponse(QueryJobService.QueryJob job) {
+        QueryJobResponse response = new QueryJobResponse();
+        response.setJobId(job.getId());
+        response.setStatus(job.getStatus().name());
+        response.setDataSourceName(job.getDataSourceName());
+        response.setSubmitTime(job.getSubmitTime());
+        response.setStartTime(job.getStartTime());
+        response.setEndTime(job.getEndTime());
+
+        SqlExecuteService.SqlQueryResult result = job.getResult();
+        if (result != null) {
+            if (result.isSuccess()) {
+                response.setResult(toQueryResponse(result).getData());
+            } else {
+                response.setMessage(result.getMessage());
+            }
+        }
+        return response;
+    }
+
+    /**
+     * 获取截断大字段的暂存内容，只有获得该查询结果的用户可以读取
+     * 文本以 text/plain（UTF-8）返回，二进制以 application/octet-stream 返回；
+     * 内容超过 max-size 时只返回前 max-size 部分，响应头 X-Lob-Complete 为 false
+     *
+     * @param handle 查询结果中截断单元格的 handle
+     * @param response HTTP响应
+     */
+    @GetMapping("/lob/{handle}")
+    public void fetchLob(@PathVariable String handle, HttpServletRequest httpRequest,
+                         HttpServletResponse response) throws IOException {
+        LobStore.LobEntry entry = sqlExecuteService.getLob(handle, resolveOwner(httpRequest));
+        if (entry == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            objectMapper.writeValue(response.getOutputStream(), Result.error("大字段不存在或已过期: " + handle));
+            return;
+        }
+
+        response.setHeader("X-Lob-Complete", String.valueOf(entry.isComplete()));
+        if (entry.isBinary()) {
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setContentLengthLong(entry.getLength());
+        } else {
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            response.setContentLengthLong(Files.size(entry.getPath()));
+        }
+        Files.copy(entry.getPath(), response.getOutputStream());
+    }
 
+    /**
+     * 清除查询结果缓存
+     *
+     * @param dataSourceName 数据源名称，不传时清除全部
+     */
+    @DeleteMapping("/cache")
+    public Result<Void> invalidateResultCache(@RequestParam(required = false) String dataSourceName) {
+        sqlExecuteService.invalidateResultCache(dataSourceName);
+        return Result.success(null);
+    }
+
+    private Result<SqlQueryResponse> toQueryResponse(SqlExecuteService.SqlQueryResult result) {
         if (result.isSuccess()) {
             SqlQueryResponse response = new SqlQueryResponse();
+            response.setFormat(result.getFormat().name().toLowerCase(Locale.ROOT));
             response.setColumns(result.getColumns());
             response.setData(result.getData());
+            response.setRows(result.getRows());
+            response.setColumnData(result.getColumnData());
             response.setRowCount(result.getRowCount());
             response.setHasMore(result.isHasMore());
+            response.setCursorId(result.getCursorId());
             return Result.success(response);
         } else {
             return Result.error(result.getMessage());
         }
     }
 
+    /**
+     * 识别当前用户：已登录时取 Token 对应用户名，否则按 HTTP 会话区分
+     * <p>
+     * 不使用客户端地址，代理或 NAT 之后的多个客户端地址相同，会互相访问对方的游标与任务。
+     */
+    private String resolveOwner(HttpServletRequest httpRequest) {
+        String authHeader = httpRequest.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String username = tokenService.getUsername(authHeader.substring(7));
+            if (username != null) {
+                return username;
+            }
+        }
+        return "session:" + httpRequest.getSession().getId();
+    }
+
+    /**
+     * 识别客户端，用于限制每个客户端的游标数量：已登录时取用户名，否则取客户端地址
+     * <p>
+     * 不带 Cookie 的客户端每次请求都会得到新的会话，按会话计数无法限制，这里改用客户端无法随意更换的地址。
+     */
+    private String resolveClient(HttpServletRequest httpRequest) {
+        String authHeader = httpRequest.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String username = tokenService.getUsername(authHeader.substring(7));
+            if (username != null) {
+                return username;
+            }
+        }
+        return "addr:" + httpRequest.getRemoteAddr();
+    }
+
+    /**
+     * 流式执行SQL查询（NDJSON）
+     * <p>
+     * 每行一个 JSON 对象：首行为列信息 {"type":"columns"}，随后每行数据 {"type":"row"}，
+     * 最后为 {"type":"end"}（或出错时的 {"type":"error"}）。
+     *
+     * @param request SQL查询请求
+     * @param response HTTP响应
+     */
+    @PostMapping("/execute/stream")
+    public void executeQueryStream(@RequestBody SqlQueryRequest request,
+                                   HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON_CONTENT_TYPE);
+        response.setCharacterEncoding("UTF-8");
+
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream(), JsonEncoding.UTF8)) {
+            if (request.getDataSourceName() == null || request.getDataSourceName().trim().isEmpty()) {
+                writeStreamError(generator, "数据源名称不能为空");
+                return;
+            }
+            if (request.getSql() == null || request.getSql().trim().isEmpty()) {
+                writeStreamError(generator, "SQL语句不能为空");
+                return;
+            }
+
+            SqlExecuteService.SqlQueryResult result = sqlExecuteService.executeQueryStream(
+                    request.getDataSourceName(),
+                    request.getSql(),
+                    request.getParams(),
+                    new NdjsonRowHandler(generator));
+
+            if (result.isSuccess()) {
+                generator.writeStartObject();
+                generator.writeStringField("type", "end");
+                generator.writeNumberField("rowCount", result.getRowCount());
+                generator.writeBooleanField("hasMore", result.isHasMore());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } else {
+                writeStreamError(generator, result.getMessage());
+            }
+        }
+    }
+
+    private void writeStreamError(JsonGenerator generator, String message) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "error");
+        generator.writeStringField("message", message);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * 将查询行直接写出为 NDJSON 的行处理器
+     */
+    private static class NdjsonRowHandler implements SqlExecuteService.RowHandler {
+        private final JsonGenerator generator;
+        private final JsonValueWriter valueWriter;
+        private String[] columnNames;
+
+        NdjsonRowHandler(JsonGenerator generator) {
+            this.generator = generator;
+            this.valueWriter = new JsonValueWriter(generator);
+        }
+
+        @Override
+        public void onColumns(List<SqlExecuteService.ColumnInfo> columns) throws IOException {
+            columnNames = new String[columns.size()];
+            for (int i = 0; i < columnNames.length; i++) {
+                columnNames[i] = columns.get(i).getName();
+            }
+            generator.writeStartObject();
+            generator.writeStringField("type", "columns");
+            generator.writeObjectField("columns", columns);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            generator.flush();
+        }
+
+        @Override
+        public void onRow(RowReader row) throws IOException, SQLException {
+            generator.writeStartObject();
+            generator.writeStringField("type", "row");
+            generator.writeObjectFieldStart("data");
+            for (int i = 0; i < columnNames.length; i++) {
+                generator.writeFieldName(columnNames[i]);
+                row.writeValue(i, valueWriter);
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    }
+
+    /**
+     * 将单元格值按类型直接写入 JSON 生成器
+     */
+    private static class JsonValueWriter implements RowReader.ValueWriter {
+        private final JsonGenerator generator;
+
+        JsonValueWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void writeNull() throws IOException {
+            generator.writeNull();
+        }
+
+        @Override
+        public void writeString(String value) throws IOException {
+            generator.writeString(value);
+        }
+
+        @Override
+        public void writeString(char[] text, int offset, int length) throws IOException {
+            generator.writeString(text, offset, length);
+        }
+
+        @Override
+        public void writeNumber(int value) throws IOException {
+            generator.writeNumber(value);
+        }
+
+        @Override
+        public void writeNumber(long value) throws IOException {
+            generator.writeNumber(value);
+        }
+
+        @Override
+        public void writeNumber(double value) throws IOException {
+            generator.writeNumber(value);
+        }
+
+        @Override
+        public void writeDecimal(String value) throws IOException {
+            generator.writeNumber(value);
+        }
+
+        @Override
+        public void writeBoolean(boolean value) throws IOException {
+            generator.writeBoolean(value);
+        }
+
+        @Override
+        public void writeBinary(byte[] value) throws IOException {
+            generator.writeBinary(value);
+        }
+
+        @Override
+        public void writeLob(LobStore.LobValue value) throws IOException {
+            generator.writeObject(value);
+        }
+    }
+
     /**
      * SQL分析（EXPLAIN）
      *
@@ -95,6 +525,14 @@ public class SqlExecuteController {
         private String dataSourceName;
         private String sql;
         private List<Object> params;
+        /**
+         * 结果结构: map（默认）、array、columnar
+         */
+        private String format;
+        /**
+         * 游标分页每页行数
+         */
+        private Integer pageSize;
 
         public String getDataSourceName() {
             return dataSourceName;
@@ -119,16 +557,46 @@ public class SqlExecuteController {
         public void setParams(List<Object> params) {
             this.params = params;
         }
+
+        public String getFormat() {
+            return format;
+        }
+
+        public void setFormat(String format) {
+            this.format = format;
+        }
+
+        public Integer getPageSize() {
+            return pageSize;
+        }
+
+        public void setPageSize(Integer pageSize) {
+            this.pageSize = pageSize;
+        }
     }
 
     /**
      * SQL查询响应
+     * 根据 format 只填充 data（map）、rows（array）或 columnData（columnar）之一
      */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class SqlQueryResponse {
+        private String format;
         private List<SqlExecuteService.ColumnInfo> columns;
         private List<Map<String, Object>> data;
+        private List<Object[]> rows;
+        private List<List<Object>> columnData;
         private int rowCount;
         private boolean hasMore;
+        private String cursorId;
+
+        public String getFormat() {
+            return format;
+        }
+
+        public void setFormat(String format) {
+            this.format = format;
+        }
 
         public List<SqlExecuteService.ColumnInfo> getColumns() {
             return columns;
@@ -146,6 +614,22 @@ public class SqlExecuteController {
             this.data = data;
         }
 
+        public List<Object[]> getRows() {
+            return rows;
+        }
+
+        public void setRows(List<Object[]> rows) {
+            this.rows = rows;
+        }
+
+        public List<List<Object>> getColumnData() {
+            return columnData;
+        }
+
+        public void setColumnData(List<List<Object>> columnData) {
+            this.columnData = columnData;
+        }
+
         public int getRowCount() {
             return rowCount;
         }
@@ -161,6 +645,93 @@ public class SqlExecuteController {
         public void setHasMore(boolean hasMore) {
             this.hasMore = hasMore;
         }
+
+        public String getCursorId() {
+            return cursorId;
+        }
+
+        public void setCursorId(String cursorId) {
+            this.cursorId = cursorId;
+        }
+    }
+
+    /**
+     * 异步查询任务响应
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class QueryJobResponse {
+        private String jobId;
+        private String status;
+        private String dataSourceName;
+        private long submitTime;
+        private Long startTime;
+        private Long endTime;
+        private String message;
+        private SqlQueryResponse result;
+
+        public String getJobId() {
+            return jobId;
+        }
+
+        public void setJobId(String jobId) {
+            this.jobId = jobId;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getDataSourceName() {
+            return dataSourceName;
+        }
+
+        public void setDataSourceName(String dataSourceName) {
+            this.dataSourceName = dataSourceName;
+        }
+
+        public long getSubmitTime() {
+            return submitTime;
+        }
+
+        public void setSubmitTime(long submitTime) {
+            this.submitTime = submitTime;
+        }
+
+        public Long getStartTime() {
+            return startTime;
+        }
+
+        public void setStartTime(Long startTime) {
+            this.startTime = startTime;
+        }
+
+        public Long getEndTime() {
+            return endTime;
+        }
+
+        public void setEndTime(Long endTime) {
+            this.endTime = endTime;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        public SqlQueryResponse getResult() {
+            return result;
+        }
+
+        public void setResult(SqlQueryResponse result) {
+            this.result = result;
+        }
     }
 
     /**